@@ -43,7 +43,9 @@
 
 #include "agent/master_info.h"
 #include "common/status.h"
+#include "exec/pipeline/query_context.h"
 #include "gen_cpp/HeartbeatService.h"
+#include "runtime/exec_env.h"
 #include "runtime/heartbeat_flags.h"
 #include "service/backend_options.h"
 #include "storage/storage_engine.h"
@@ -143,6 +145,12 @@ void HeartbeatServer::heartbeat(THeartbeatResult& heartbeat_result, const TMaste
         heartbeat_result.backend_info.__set_version(get_short_version());
         heartbeat_result.backend_info.__set_num_hardware_cores(num_hardware_cores);
         heartbeat_result.backend_info.__set_mem_limit_bytes(GlobalEnv::GetInstance()->process_mem_tracker()->limit());
+        heartbeat_result.backend_info.__set_mem_used_bytes(
+                GlobalEnv::GetInstance()->process_mem_tracker()->consumption());
+        // the heartbeat server is started before the exec env is fully initialized
+        if (auto* query_context_mgr = ExecEnv::GetInstance()->query_context_mgr(); query_context_mgr != nullptr) {
+            heartbeat_result.backend_info.__set_num_running_queries(static_cast<int32_t>(query_context_mgr->size()));
+        }
         if (reboot_time == 0) {
             std::time_t currTime = std::time(nullptr);
             reboot_time = static_cast<int64_t>(currTime);
@@ -785,6 +785,9 @@ CONF_Int64(pipeline_sink_brpc_dop, "64");
 // exceeds it*pipeline_exec_thread_pool_thread_num.
 CONF_Int64(pipeline_max_num_drivers_per_exec_thread, "10240");
 CONF_mBool(pipeline_print_profile, "false");
+// The capacity in bytes of the cache of the fragment templates, i.e. the deserialized plan fragments and
+// descriptor tables reused by the repeated queries of the same plan. 0 means no fragment template is cached.
+CONF_Int64(fragment_template_cache_capacity, "268435456");
 
 // The arguments of multilevel feedback pipeline_driver_queue. It prioritizes small queries over larger ones,
 // when the value of level_time_slice_base_ns is smaller and queue_ratio_of_adjacent_queue is larger.
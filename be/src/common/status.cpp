@@ -265,6 +265,8 @@ std::string Status::code_as_string() const {
         return "Big query cpu second limit exceeded";
     case TStatusCode::BIG_QUERY_SCAN_ROWS_LIMIT_EXCEEDED:
         return "Big query scan rows limit exceeded";
+    case TStatusCode::FRAGMENT_TEMPLATE_NOT_FOUND:
+        return "Fragment template not found";
     }
     return {};
 }
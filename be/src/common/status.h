@@ -160,6 +160,10 @@ public:
         return Status(TStatusCode::BIG_QUERY_SCAN_ROWS_LIMIT_EXCEEDED, msg);
     }
 
+    static Status FragmentTemplateNotFound(std::string_view msg) {
+        return Status(TStatusCode::FRAGMENT_TEMPLATE_NOT_FOUND, msg);
+    }
+
     bool ok() const { return _state == nullptr; }
 
     bool is_cancelled() const { return code() == TStatusCode::CANCELLED; }
@@ -277,7 +277,8 @@ Status DataSink::decompose_data_sink_to_pipeline(pipeline::PipelineBuilderContex
         } else {
             op = std::make_shared<ResultSinkOperatorFactory>(
                     context->next_operator_id(), result_sink->get_sink_type(), result_sink->isBinaryFormat(),
-                    result_sink->get_format_type(), result_sink->get_output_exprs(), fragment_ctx);
+                    result_sink->get_format_type(), result_sink->get_output_exprs(),
+                    result_sink->get_output_column_names(), fragment_ctx);
         }
         // Add result sink operator to last pipeline
         prev_operators.emplace_back(op);
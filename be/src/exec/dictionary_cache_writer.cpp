@@ -172,6 +172,9 @@ Status DictionaryCacheWriter::_send_request(ChunkPB* pchunk, POlapTableSchemaPar
         request.set_memory_limit(_t_dictionary_cache_sink.memory_limit);
         request.set_key_size(_t_dictionary_cache_sink.key_size);
         request.set_type(PProcessDictionaryCacheRequestType::REFRESH);
+        if (_t_dictionary_cache_sink.__isset.partition_id) {
+            request.set_partition_id(_t_dictionary_cache_sink.partition_id);
+        }
 
         auto& closure = closures[i];
         closure->ref();
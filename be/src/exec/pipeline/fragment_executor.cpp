@@ -80,7 +80,7 @@ const TDataSink& UnifiedExecPlanFragmentParams::output_sink() const {
     if (_unique_request.fragment.__isset.output_sink) {
         return _unique_request.fragment.output_sink;
     }
-    return _common_request.fragment.output_sink;
+    return fragment().output_sink;
 }
 
 /// FragmentExecutor.
@@ -211,7 +211,7 @@ Status FragmentExecutor::_prepare_runtime_state(ExecEnv* exec_env, const Unified
     const auto& fragment_instance_id = request.fragment_instance_id();
     const auto& query_globals = request.common().query_globals;
     const auto& query_options = request.common().query_options;
-    const auto& t_desc_tbl = request.common().desc_tbl;
+    const auto& t_desc_tbl = request.desc_tbl();
     auto& wg = _wg;
 
     _fragment_ctx->set_runtime_state(
@@ -374,18 +374,17 @@ Status FragmentExecutor::_prepare_exec_plan(ExecEnv* exec_env, const UnifiedExec
     auto* obj_pool = runtime_state->obj_pool();
     const DescriptorTbl& desc_tbl = runtime_state->desc_tbl();
     const auto& params = request.common().params;
-    const auto& fragment = request.common().fragment;
+    const auto& fragment = request.fragment();
     const auto pipeline_dop = _calc_dop(exec_env, request);
     const int32_t group_execution_scan_dop = request.group_execution_scan_dop();
     const auto& query_options = request.common().query_options;
     const int chunk_size = runtime_state->chunk_size();
 
     // check group execution params
-    if (request.common().fragment.__isset.group_execution_param &&
-        request.common().fragment.group_execution_param.enable_group_execution) {
+    if (fragment.__isset.group_execution_param && fragment.group_execution_param.enable_group_execution) {
         _fragment_ctx->set_enable_group_execution(true);
-        _colocate_exec_groups = ExecutionGroupBuilder::create_colocate_exec_groups(
-                request.common().fragment.group_execution_param, pipeline_dop);
+        _colocate_exec_groups =
+                ExecutionGroupBuilder::create_colocate_exec_groups(fragment.group_execution_param, pipeline_dop);
     }
 
     bool enable_shared_scan = request.common().__isset.enable_shared_scan && request.common().enable_shared_scan;
@@ -396,7 +395,13 @@ Status FragmentExecutor::_prepare_exec_plan(ExecEnv* exec_env, const UnifiedExec
                                                                 : TTabletInternalParallelMode::type::AUTO;
 
     // Set up plan
-    _fragment_ctx->move_tplan(*const_cast<TPlan*>(&fragment.plan));
+    if (request.is_fragment_from_template()) {
+        // the plan of a fragment template is shared by the fragment instances, so copy it rather than move it
+        TPlan tplan = fragment.plan;
+        _fragment_ctx->move_tplan(tplan);
+    } else {
+        _fragment_ctx->move_tplan(*const_cast<TPlan*>(&fragment.plan));
+    }
     RETURN_IF_ERROR(
             ExecNode::create_tree(runtime_state, obj_pool, _fragment_ctx->tplan(), desc_tbl, &_fragment_ctx->plan()));
     ExecNode* plan = _fragment_ctx->plan();
@@ -627,7 +632,7 @@ static void create_adaptive_group_initialize_events(RuntimeState* state, WorkGro
 
 Status FragmentExecutor::_prepare_pipeline_driver(ExecEnv* exec_env, const UnifiedExecPlanFragmentParams& request) {
     const auto degree_of_parallelism = _calc_dop(exec_env, request);
-    const auto& fragment = request.common().fragment;
+    const auto& fragment = request.fragment();
     const auto& params = request.common().params;
 
     auto is_stream_pipeline = request.is_stream_pipeline();
@@ -698,7 +703,7 @@ Status FragmentExecutor::_prepare_pipeline_driver(ExecEnv* exec_env, const Unifi
 }
 
 Status FragmentExecutor::_prepare_global_dict(const UnifiedExecPlanFragmentParams& request) {
-    const auto& fragment = request.common().fragment;
+    const auto& fragment = request.fragment();
     // Set up global dict
     auto* runtime_state = _fragment_ctx->runtime_state();
     if (fragment.__isset.query_global_dicts) {
@@ -716,11 +721,12 @@ Status FragmentExecutor::_prepare_global_dict(const UnifiedExecPlanFragmentParam
 }
 
 Status FragmentExecutor::prepare(ExecEnv* exec_env, const TExecPlanFragmentParams& common_request,
-                                 const TExecPlanFragmentParams& unique_request) {
-    DCHECK(common_request.__isset.desc_tbl);
-    DCHECK(common_request.__isset.fragment);
+                                 const TExecPlanFragmentParams& unique_request,
+                                 const TExecPlanFragmentParams* fragment_template) {
+    DCHECK((fragment_template != nullptr ? *fragment_template : common_request).__isset.desc_tbl);
+    DCHECK((fragment_template != nullptr ? *fragment_template : common_request).__isset.fragment);
 
-    UnifiedExecPlanFragmentParams request(common_request, unique_request);
+    UnifiedExecPlanFragmentParams request(common_request, unique_request, fragment_template);
 
     bool prepare_success = false;
     struct {
@@ -774,7 +780,7 @@ Status FragmentExecutor::prepare(ExecEnv* exec_env, const TExecPlanFragmentParam
                          << " fragment_instance_id=" << print_id(request.fragment_instance_id())
                          << " is_stream_pipeline=" << request.is_stream_pipeline()
                          << " backend_num=" << request.backend_num();
-            VLOG_QUERY << "Prepare fragment failed fragment=" << request.common().fragment;
+            VLOG_QUERY << "Prepare fragment failed fragment=" << request.fragment();
         }
     });
 
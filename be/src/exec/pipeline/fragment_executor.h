@@ -44,13 +44,18 @@ class QueryContext;
 //    - params.per_node_scan_ranges
 //    - fragment.output_sink (only for MultiCastDataStreamSink and ExportSink)
 // For the exec_plan_fragments request, common_request and unique_request are identical.
+// If the request uses a fragment template, the fragment and desc_tbl are taken from the template instead of the
+// common_request, see FragmentTemplateCache.
 
 using PerDriverScanRangesMap = std::map<int32_t, std::vector<TScanRangeParams>>;
 class UnifiedExecPlanFragmentParams {
 public:
     UnifiedExecPlanFragmentParams(const TExecPlanFragmentParams& common_request,
-                                  const TExecPlanFragmentParams& unique_request)
-            : _common_request(common_request), _unique_request(unique_request) {
+                                  const TExecPlanFragmentParams& unique_request,
+                                  const TExecPlanFragmentParams* fragment_template = nullptr)
+            : _common_request(common_request),
+              _unique_request(unique_request),
+              _fragment_template(fragment_template != nullptr ? fragment_template : &common_request) {
         DCHECK(unique_request.__isset.backend_num);
         DCHECK(unique_request.__isset.pipeline_dop);
         DCHECK(unique_request.__isset.params);
@@ -63,6 +68,12 @@ public:
     const TExecPlanFragmentParams& common() const { return _common_request; }
     const TExecPlanFragmentParams& unique() const { return _unique_request; }
 
+    // Access the fragment and desc_tbl by the following methods, they may be from a fragment template.
+    const TPlanFragment& fragment() const { return _fragment_template->fragment; }
+    const TDescriptorTable& desc_tbl() const { return _fragment_template->desc_tbl; }
+    // The fragment of a template is shared by the fragment instances, so it must not be modified.
+    bool is_fragment_from_template() const { return _fragment_template != &_common_request; }
+
     // Access the unique fields by the following methods.
     int32_t backend_num() const { return _unique_request.backend_num; }
     int32_t pipeline_dop() const { return _unique_request.__isset.pipeline_dop ? _unique_request.pipeline_dop : 0; }
@@ -84,7 +95,7 @@ public:
     const PerDriverScanRangesMap& per_driver_seq_scan_ranges_of_node(TPlanNodeId node_id) const;
 
     bool isset_output_sink() const {
-        return _common_request.fragment.__isset.output_sink || _unique_request.fragment.__isset.output_sink;
+        return fragment().__isset.output_sink || _unique_request.fragment.__isset.output_sink;
     }
     const TDataSink& output_sink() const;
 
@@ -95,6 +106,7 @@ private:
     static const PerDriverScanRangesMap _no_scan_ranges_per_driver_seq;
     const TExecPlanFragmentParams& _common_request;
     const TExecPlanFragmentParams& _unique_request;
+    const TExecPlanFragmentParams* _fragment_template;
 };
 
 class FragmentExecutor {
@@ -102,7 +114,8 @@ public:
     FragmentExecutor();
 
     Status prepare(ExecEnv* exec_env, const TExecPlanFragmentParams& common_request,
-                   const TExecPlanFragmentParams& unique_request);
+                   const TExecPlanFragmentParams& unique_request,
+                   const TExecPlanFragmentParams* fragment_template = nullptr);
     Status execute(ExecEnv* exec_env);
 
     static Status append_incremental_scan_ranges(ExecEnv* exec_env, const TExecPlanFragmentParams& request);
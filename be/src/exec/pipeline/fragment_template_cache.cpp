@@ -0,0 +1,52 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+#include "exec/pipeline/fragment_template_cache.h"
+
+#include "util/lru_cache.h"
+
+namespace starrocks::pipeline {
+
+static void fragment_template_deleter(const CacheKey& key, void* value) {
+    delete static_cast<FragmentTemplateCache::FragmentTemplatePtr*>(value);
+}
+
+FragmentTemplateCache::FragmentTemplateCache(size_t capacity)
+        : _capacity(capacity), _cache(new_lru_cache(std::max<size_t>(1, capacity))) {}
+
+FragmentTemplateCache::~FragmentTemplateCache() {
+    delete _cache;
+}
+
+bool FragmentTemplateCache::insert(const std::string& key, FragmentTemplatePtr fragment_template, size_t charge) {
+    if (_capacity == 0 || charge > _capacity) {
+        return false;
+    }
+    auto* value = new FragmentTemplatePtr(std::move(fragment_template));
+    Cache::Handle* handle = _cache->insert(CacheKey(key.data(), key.size()), value, charge, fragment_template_deleter);
+    _cache->release(handle);
+    return true;
+}
+
+FragmentTemplateCache::FragmentTemplatePtr FragmentTemplateCache::lookup(const std::string& key) {
+    Cache::Handle* handle = _cache->lookup(CacheKey(key.data(), key.size()));
+    if (handle == nullptr) {
+        return nullptr;
+    }
+    FragmentTemplatePtr fragment_template = *static_cast<FragmentTemplatePtr*>(_cache->value(handle));
+    _cache->release(handle);
+    return fragment_template;
+}
+
+} // namespace starrocks::pipeline
@@ -0,0 +1,63 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+#pragma once
+
+#include <algorithm>
+#include <memory>
+#include <string>
+
+#include "common/config.h"
+#include "gen_cpp/InternalService_types.h"
+#include "gutil/macros.h"
+
+namespace starrocks {
+
+class Cache;
+
+namespace pipeline {
+
+// A fragment template is the deserialized fragment and desc_tbl of a TExecPlanFragmentParams, keyed by the
+// content hash computed by FE, i.e. fragment_template_key.
+// FE sends the whole request with the key for the first time, and only the other fields of the request for the
+// following queries of the same plan, so that the plan is neither transferred nor deserialized again.
+// A template is immutable once cached, and it is shared by the fragment instances using it.
+class FragmentTemplateCache {
+public:
+    using FragmentTemplatePtr = std::shared_ptr<const TExecPlanFragmentParams>;
+
+    static FragmentTemplateCache* instance() {
+        static FragmentTemplateCache cache(std::max<int64_t>(0, config::fragment_template_cache_capacity));
+        return &cache;
+    }
+
+    ~FragmentTemplateCache();
+
+    DISALLOW_COPY(FragmentTemplateCache);
+
+    // Returns false if the template is not cached, e.g. the capacity is 0.
+    bool insert(const std::string& key, FragmentTemplatePtr fragment_template, size_t charge);
+
+    // Returns nullptr if there is no such template.
+    FragmentTemplatePtr lookup(const std::string& key);
+
+private:
+    explicit FragmentTemplateCache(size_t capacity);
+
+    const size_t _capacity;
+    Cache* _cache;
+};
+
+} // namespace pipeline
+} // namespace starrocks
@@ -47,7 +47,8 @@ Status ResultSinkOperator::prepare(RuntimeState* state) {
         _writer = std::make_shared<VariableResultWriter>(_sender.get(), _output_expr_ctxs, _profile.get());
         break;
     case TResultSinkType::HTTP_PROTOCAL:
-        _writer = std::make_shared<HttpResultWriter>(_sender.get(), _output_expr_ctxs, _profile.get(), _format_type);
+        _writer = std::make_shared<HttpResultWriter>(_sender.get(), _output_expr_ctxs, _profile.get(), _format_type,
+                                                     _output_column_names);
         break;
     case TResultSinkType::METADATA_ICEBERG:
         _writer = std::make_shared<MetadataResultWriter>(_sender.get(), _output_expr_ctxs, _profile.get(), _sink_type);
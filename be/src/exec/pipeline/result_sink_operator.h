@@ -31,7 +31,8 @@ class ResultSinkOperator final : public Operator {
 public:
     ResultSinkOperator(OperatorFactory* factory, int32_t id, int32_t plan_node_id, int32_t driver_sequence,
                        TResultSinkType::type sink_type, bool is_binary_format, TResultSinkFormatType::type format_type,
-                       std::vector<ExprContext*> output_expr_ctxs, const std::shared_ptr<BufferControlBlock>& sender,
+                       std::vector<ExprContext*> output_expr_ctxs, const std::vector<std::string>& output_column_names,
+                       const std::shared_ptr<BufferControlBlock>& sender,
                        std::atomic<int32_t>& num_sinks, std::atomic<int64_t>& num_written_rows,
                        FragmentContext* const fragment_ctx)
             : Operator(factory, id, "result_sink", plan_node_id, false, driver_sequence),
@@ -39,6 +40,7 @@ public:
               _is_binary_format(is_binary_format),
               _format_type(format_type),
               _output_expr_ctxs(std::move(output_expr_ctxs)),
+              _output_column_names(output_column_names),
               _sender(sender),
               _num_sinkers(num_sinks),
               _num_written_rows(num_written_rows),
@@ -74,6 +76,7 @@ private:
     bool _is_binary_format;
     TResultSinkFormatType::type _format_type;
     std::vector<ExprContext*> _output_expr_ctxs;
+    std::vector<std::string> _output_column_names;
 
     /// The following three fields are shared by all the ResultSinkOperators
     /// created by the same ResultSinkOperatorFactory.
@@ -96,12 +99,13 @@ class ResultSinkOperatorFactory final : public OperatorFactory {
 public:
     ResultSinkOperatorFactory(int32_t id, TResultSinkType::type sink_type, bool is_binary_format,
                               TResultSinkFormatType::type format_type, std::vector<TExpr> t_output_expr,
-                              FragmentContext* const fragment_ctx)
+                              std::vector<std::string> output_column_names, FragmentContext* const fragment_ctx)
             : OperatorFactory(id, "result_sink", Operator::s_pseudo_plan_node_id_for_final_sink),
               _sink_type(sink_type),
               _is_binary_format(is_binary_format),
               _format_type(format_type),
               _t_output_expr(std::move(t_output_expr)),
+              _output_column_names(std::move(output_column_names)),
               _fragment_ctx(fragment_ctx) {}
 
     ~ResultSinkOperatorFactory() override = default;
@@ -113,8 +117,9 @@ public:
         // so it doesn't need memory barrier here.
         _increment_num_sinkers_no_barrier();
         return std::make_shared<ResultSinkOperator>(this, _id, _plan_node_id, driver_sequence, _sink_type,
-                                                    _is_binary_format, _format_type, _output_expr_ctxs, _sender,
-                                                    _num_sinkers, _num_written_rows, _fragment_ctx);
+                                                    _is_binary_format, _format_type, _output_expr_ctxs,
+                                                    _output_column_names, _sender, _num_sinkers, _num_written_rows,
+                                                    _fragment_ctx);
     }
 
     Status prepare(RuntimeState* state) override;
@@ -128,6 +133,7 @@ private:
     bool _is_binary_format;
     TResultSinkFormatType::type _format_type;
     std::vector<TExpr> _t_output_expr;
+    std::vector<std::string> _output_column_names;
     std::vector<ExprContext*> _output_expr_ctxs;
 
     /// The followings are shared by all the ResultSinkOperators created by this ResultSinkOperatorFactory.
@@ -14,6 +14,11 @@
 
 #include "runtime/http_result_writer.h"
 
+#include <arrow/buffer.h>
+#include <arrow/ipc/writer.h>
+#include <arrow/memory_pool.h>
+#include <arrow/record_batch.h>
+#include <arrow/type.h>
 #include <column/column_helper.h>
 
 #include "column/chunk.h"
@@ -25,25 +30,54 @@
 #include "runtime/buffer_control_block.h"
 #include "runtime/current_thread.h"
 #include "types/logical_type.h"
+#include "util/arrow/row_batch.h"
+#include "util/arrow/starrocks_column_to_arrow.h"
 
 namespace starrocks {
 
 HttpResultWriter::HttpResultWriter(BufferControlBlock* sinker, const std::vector<ExprContext*>& output_expr_ctxs,
-                                   RuntimeProfile* parent_profile, TResultSinkFormatType::type format_type)
+                                   RuntimeProfile* parent_profile, TResultSinkFormatType::type format_type,
+                                   const std::vector<std::string>& output_column_names)
         : _sinker(sinker),
           _output_expr_ctxs(output_expr_ctxs),
           _parent_profile(parent_profile),
-          _format_type(format_type) {}
+          _format_type(format_type),
+          _output_column_names(output_column_names) {}
 
 Status HttpResultWriter::init(RuntimeState* state) {
     _init_profile();
     if (nullptr == _sinker) {
         return Status::InternalError("sinker is NULL pointer.");
     }
+    if (_format_type == TResultSinkFormatType::ARROW) {
+        RETURN_IF_ERROR(_init_arrow_schema());
+    }
 
     return Status::OK();
 }
 
+Status HttpResultWriter::_init_arrow_schema() {
+    std::vector<std::shared_ptr<arrow::Field>> fields;
+    fields.reserve(_output_expr_ctxs.size());
+    _arrow_type_descs.reserve(_output_expr_ctxs.size());
+    for (size_t i = 0; i < _output_expr_ctxs.size(); ++i) {
+        Expr* expr = _output_expr_ctxs[i]->root();
+        std::string name = i < _output_column_names.size() ? _output_column_names[i] : "c" + std::to_string(i);
+        std::shared_ptr<arrow::Field> field;
+        RETURN_IF_ERROR(convert_to_arrow_field(expr->type(), name, expr->is_nullable(), &field));
+        fields.emplace_back(std::move(field));
+        _arrow_type_descs.emplace_back(expr->type());
+    }
+    _arrow_schema = arrow::schema(std::move(fields));
+
+    auto buffer = arrow::ipc::SerializeSchema(*_arrow_schema);
+    if (!buffer.ok()) {
+        return Status::InternalError("serialize arrow schema failure, reason: " + buffer.status().ToString());
+    }
+    _arrow_schema_message = (*buffer)->ToString();
+    return Status::OK();
+}
+
 void HttpResultWriter::_init_profile() {
     _append_chunk_timer = ADD_TIMER(_parent_profile, "AppendChunkTime");
     _convert_tuple_timer = ADD_CHILD_TIMER(_parent_profile, "TupleConvertTime", "AppendChunkTime");
@@ -74,6 +108,12 @@ Status HttpResultWriter::append_chunk(Chunk* chunk) {
 
 Status HttpResultWriter::close() {
     COUNTER_SET(_sent_rows_counter, _written_rows);
+    if (_format_type == TResultSinkFormatType::ARROW && _written_rows == 0 && !_arrow_schema_message.empty()) {
+        // send the schema even if there is no row, otherwise the client can not open an empty stream
+        auto result = std::make_unique<TFetchDataResult>();
+        result->result_batch.rows.emplace_back(_arrow_schema_message);
+        RETURN_IF_ERROR(_sinker->add_batch(result));
+    }
     return Status::OK();
 }
 
@@ -95,6 +135,10 @@ StatusOr<TFetchDataResultPtrs> HttpResultWriter::process_chunk(Chunk* chunk) {
         result_columns.emplace_back(std::move(column));
     }
 
+    if (_format_type == TResultSinkFormatType::ARROW) {
+        return _process_chunk_to_arrow(result_columns, num_rows);
+    }
+
     // Step 2: convert chunk to http json row format row by row
     {
         TRY_CATCH_ALLOC_SCOPE_START()
@@ -112,6 +156,7 @@ StatusOr<TFetchDataResultPtrs> HttpResultWriter::process_chunk(Chunk* chunk) {
                 RETURN_IF_ERROR(_transform_row_to_json(result_columns, i));
                 break;
             case TResultSinkFormatType::type::OTHERS:
+            case TResultSinkFormatType::type::ARROW:
                 return Status::NotSupported("HttpResultWriter only support json format right now");
             }
             size_t len = _row_str.size();
@@ -146,11 +191,48 @@ StatusOr<TFetchDataResultPtrs> HttpResultWriter::process_chunk(Chunk* chunk) {
     return results;
 }
 
+StatusOr<TFetchDataResultPtrs> HttpResultWriter::_process_chunk_to_arrow(const Columns& result_columns,
+                                                                         size_t num_rows) {
+    SCOPED_TIMER(_convert_tuple_timer);
+    TFetchDataResultPtrs results;
+    if (num_rows == 0) {
+        return results;
+    }
+    Columns columns;
+    columns.reserve(result_columns.size());
+    for (size_t i = 0; i < result_columns.size(); ++i) {
+        // arrow converter doesn't accept const column
+        columns.emplace_back(ColumnHelper::unfold_const_column(_arrow_type_descs[i], num_rows, result_columns[i]));
+    }
+
+    std::shared_ptr<arrow::RecordBatch> batch;
+    RETURN_IF_ERROR(convert_columns_to_arrow_batch(num_rows, columns, arrow::default_memory_pool(),
+                                                   _arrow_type_descs.data(), _arrow_schema, &batch));
+    auto buffer = arrow::ipc::SerializeRecordBatch(*batch, arrow::ipc::IpcWriteOptions::Defaults());
+    if (!buffer.ok()) {
+        return Status::InternalError("serialize arrow record batch failure, reason: " + buffer.status().ToString());
+    }
+
+    auto result = std::make_unique<TFetchDataResult>();
+    auto& result_rows = result->result_batch.rows;
+    result_rows.reserve(2);
+    result_rows.emplace_back(_arrow_schema_message);
+    result_rows.emplace_back((*buffer)->ToString());
+    results.emplace_back(std::move(result));
+    _pending_arrow_rows = num_rows;
+    return results;
+}
+
 StatusOr<bool> HttpResultWriter::try_add_batch(TFetchDataResultPtrs& results) {
     SCOPED_TIMER(_result_send_timer);
     size_t num_rows = 0;
-    for (auto& result : results) {
-        num_rows += result->result_batch.rows.size();
+    if (_format_type == TResultSinkFormatType::ARROW) {
+        // the rows of an arrow result are the messages of the ipc stream, count the rows of the record batch
+        num_rows = _pending_arrow_rows;
+    } else {
+        for (auto& result : results) {
+            num_rows += result->result_batch.rows.size();
+        }
     }
 
     auto status = _sinker->try_add_batch(results);
@@ -158,9 +240,11 @@ StatusOr<bool> HttpResultWriter::try_add_batch(TFetchDataResultPtrs& results) {
         // success in add result to ResultQueue of _sinker
         if (status.value()) {
             _written_rows += num_rows;
+            _pending_arrow_rows = 0;
             results.clear();
         }
     } else {
+        _pending_arrow_rows = 0;
         results.clear();
         LOG(WARNING) << "Append result batch to sink failed: status=" << status.status().to_string();
     }
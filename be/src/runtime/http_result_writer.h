@@ -34,6 +34,8 @@
 
 #pragma once
 
+#include <arrow/type_fwd.h>
+
 #include "common/statusor.h"
 #include "runtime/result_writer.h"
 #include "runtime/runtime_state.h"
@@ -50,7 +52,8 @@ using TFetchDataResultPtrs = std::vector<TFetchDataResultPtr>;
 class HttpResultWriter final : public ResultWriter {
 public:
     HttpResultWriter(BufferControlBlock* sinker, const std::vector<ExprContext*>& output_expr_ctxs,
-                     RuntimeProfile* parent_profile, TResultSinkFormatType::type format_type);
+                     RuntimeProfile* parent_profile, TResultSinkFormatType::type format_type,
+                     const std::vector<std::string>& output_column_names = {});
 
     Status init(RuntimeState* state) override;
 
@@ -67,6 +70,10 @@ private:
 
     Status _transform_row_to_json(const Columns& column, int idx);
 
+    Status _init_arrow_schema();
+
+    StatusOr<TFetchDataResultPtrs> _process_chunk_to_arrow(const Columns& result_columns, size_t num_rows);
+
     BufferControlBlock* _sinker;
     const std::vector<ExprContext*>& _output_expr_ctxs;
 
@@ -83,8 +90,17 @@ private:
 
     const size_t _max_row_buffer_size = 1024 * 1024 * 1024;
 
-    // result's format, right now just support json format
+    // result's format, json or arrow
     TResultSinkFormatType::type _format_type;
+
+    // for arrow format, every result batch is [schema message, record batch message], so that FE
+    // can forward them as an arrow ipc stream without knowing which BE sends the first batch.
+    std::vector<std::string> _output_column_names;
+    std::shared_ptr<arrow::Schema> _arrow_schema;
+    std::vector<TypeDescriptor> _arrow_type_descs;
+    std::string _arrow_schema_message;
+    // the rows of the record batch processed but not added to the sinker yet
+    size_t _pending_arrow_rows = 0;
 };
 
 } // namespace starrocks
\ No newline at end of file
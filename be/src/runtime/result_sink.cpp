@@ -63,6 +63,9 @@ ResultSink::ResultSink(const RowDescriptor& row_desc, const std::vector<TExpr>&
 
     if (_sink_type == TResultSinkType::HTTP_PROTOCAL) {
         _format_type = sink.format;
+        if (sink.__isset.output_column_names) {
+            _output_column_names = sink.output_column_names;
+        }
     }
 
     if (_sink_type == TResultSinkType::FILE) {
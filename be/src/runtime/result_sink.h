@@ -77,6 +77,8 @@ public:
 
     const std::vector<TExpr>& get_output_exprs() const { return _t_output_expr; }
 
+    const std::vector<std::string>& get_output_column_names() const { return _output_column_names; }
+
     std::shared_ptr<ResultFileOptions> get_file_opts() const { return _file_opts; }
 
     bool isBinaryFormat() const { return _is_binary_format; }
@@ -87,6 +89,8 @@ private:
     bool _is_binary_format;
     // set format_type when sink type is HTTP
     TResultSinkFormatType::type _format_type;
+    // set output column names when sink type is HTTP
+    std::vector<std::string> _output_column_names;
     // set file options when sink type is FILE
     std::shared_ptr<ResultFileOptions> _file_opts;
 
@@ -33,6 +33,7 @@ const int STATISTIC_EXTERNAL_VERSION = 5;
 const int STATISTIC_EXTERNAL_QUERY_VERSION = 6;
 const int STATISTIC_EXTERNAL_HISTOGRAM_VERSION = 7;
 const int STATISTIC_EXTERNAL_QUERY_VERSION_V2 = 8;
+const int STATISTIC_PARTITION_HISTOGRAM_VERSION = 9;
 
 StatisticResultWriter::StatisticResultWriter(BufferControlBlock* sinker,
                                              const std::vector<ExprContext*>& output_expr_ctxs,
@@ -164,6 +165,9 @@ StatusOr<TFetchDataResultPtr> StatisticResultWriter::_process_chunk(Chunk* chunk
     } else if (version == STATISTIC_EXTERNAL_QUERY_VERSION_V2) {
         RETURN_IF_ERROR_WITH_WARN(_fill_full_statistic_query_external_v2(version, result_columns, chunk, result.get()),
                                   "Fill table statistic data failed");
+    } else if (version == STATISTIC_PARTITION_HISTOGRAM_VERSION) {
+        RETURN_IF_ERROR_WITH_WARN(_fill_partition_statistic_histogram(version, result_columns, chunk, result.get()),
+                                  "Fill partition histogram statistic data failed");
     }
     return result;
 }
@@ -275,6 +279,37 @@ Status StatisticResultWriter::_fill_statistic_histogram(int version, const Colum
     return Status::OK();
 }
 
+Status StatisticResultWriter::_fill_partition_statistic_histogram(int version, const Columns& columns,
+                                                                  const Chunk* chunk, TFetchDataResult* result) {
+    SCOPED_TIMER(_serialize_timer);
+    DCHECK(columns.size() == 5);
+
+    auto* partitionIds = down_cast<Int64Column*>(ColumnHelper::get_data_column(columns[1].get()));
+    auto* tableIds = down_cast<Int64Column*>(ColumnHelper::get_data_column(columns[2].get()));
+    auto* nameColumn = down_cast<BinaryColumn*>(ColumnHelper::get_data_column(columns[3].get()));
+    auto* histogramColumn = down_cast<BinaryColumn*>(ColumnHelper::get_data_column(columns[4].get()));
+
+    std::vector<TStatisticData> data_list;
+    int num_rows = chunk->num_rows();
+
+    data_list.resize(num_rows);
+    for (int i = 0; i < num_rows; ++i) {
+        data_list[i].__set_partitionId(partitionIds->get(i).get_int64());
+        data_list[i].__set_tableId(tableIds->get(i).get_int64());
+        data_list[i].__set_columnName(nameColumn->get_slice(i).to_string());
+        data_list[i].__set_histogram(histogramColumn->get_slice(i).to_string());
+    }
+
+    result->result_batch.rows.resize(num_rows);
+    result->result_batch.__set_statistic_version(version);
+
+    ThriftSerializer serializer(true, chunk->memory_usage());
+    for (int i = 0; i < num_rows; ++i) {
+        RETURN_IF_ERROR(serializer.serialize(&data_list[i], &result->result_batch.rows[i]));
+    }
+    return Status::OK();
+}
+
 Status StatisticResultWriter::_fill_statistic_histogram_external(int version, const Columns& columns,
                                                                  const Chunk* chunk, TFetchDataResult* result) {
     SCOPED_TIMER(_serialize_timer);
@@ -53,6 +53,7 @@
 #include "exec/file_scanner.h"
 #include "exec/pipeline/fragment_context.h"
 #include "exec/pipeline/fragment_executor.h"
+#include "exec/pipeline/fragment_template_cache.h"
 #include "exec/pipeline/pipeline_driver_executor.h"
 #include "exec/pipeline/query_context.h"
 #include "exec/pipeline/stream_epoch_manager.h"
@@ -303,7 +304,7 @@ void PInternalServiceImplBase<T>::_exec_plan_fragment(google::protobuf::RpcContr
         return;
     }
 
-    auto st = _exec_plan_fragment(cntl, request);
+    auto st = _exec_plan_fragment(cntl, request, response);
     if (!st.ok()) {
         LOG(WARNING) << "exec plan fragment failed, errmsg=" << st.message();
     }
@@ -415,7 +416,8 @@ void PInternalServiceImplBase<T>::tablet_writer_cancel(google::protobuf::RpcCont
 
 template <typename T>
 Status PInternalServiceImplBase<T>::_exec_plan_fragment(brpc::Controller* cntl,
-                                                        const PExecPlanFragmentRequest* request) {
+                                                        const PExecPlanFragmentRequest* request,
+                                                        PExecPlanFragmentResult* response) {
     auto ser_request = cntl->request_attachment().to_string();
     TExecPlanFragmentParams t_request;
     {
@@ -423,8 +425,12 @@ Status PInternalServiceImplBase<T>::_exec_plan_fragment(brpc::Controller* cntl,
         uint32_t len = ser_request.size();
         RETURN_IF_ERROR(deserialize_thrift_msg(buf, &len, request->attachment_protocol(), &t_request));
     }
+    std::shared_ptr<const TExecPlanFragmentParams> fragment_template;
+    if (t_request.__isset.fragment_template_key) {
+        RETURN_IF_ERROR(_get_fragment_template(&t_request, ser_request.size(), response, &fragment_template));
+    }
     // incremental scan ranges deployment.
-    if (!t_request.__isset.fragment) {
+    if (!t_request.__isset.fragment && fragment_template == nullptr) {
         return pipeline::FragmentExecutor::append_incremental_scan_ranges(_exec_env, t_request);
     }
 
@@ -443,7 +449,9 @@ Status PInternalServiceImplBase<T>::_exec_plan_fragment(brpc::Controller* cntl,
               << ", coord=" << t_request.coord << ", backend=" << t_request.backend_num
               << ", is_pipeline=" << is_pipeline << ", chunk_size=" << t_request.query_options.batch_size;
     if (is_pipeline) {
-        return _exec_plan_fragment_by_pipeline(t_request, t_request);
+        return _exec_plan_fragment_by_pipeline(t_request, t_request, fragment_template.get());
+    } else if (fragment_template != nullptr) {
+        return Status::NotSupported("fragment template is only supported by the pipeline engine");
     } else {
         bool has_schema_table_sink = t_request.__isset.fragment && t_request.fragment.__isset.output_sink &&
                                      t_request.fragment.output_sink.type == TDataSinkType::SCHEMA_TABLE_SINK;
@@ -458,10 +466,11 @@ Status PInternalServiceImplBase<T>::_exec_plan_fragment(brpc::Controller* cntl,
 }
 
 template <typename T>
-Status PInternalServiceImplBase<T>::_exec_plan_fragment_by_pipeline(const TExecPlanFragmentParams& t_common_param,
-                                                                    const TExecPlanFragmentParams& t_unique_request) {
+Status PInternalServiceImplBase<T>::_exec_plan_fragment_by_pipeline(
+        const TExecPlanFragmentParams& t_common_param, const TExecPlanFragmentParams& t_unique_request,
+        const TExecPlanFragmentParams* fragment_template) {
     pipeline::FragmentExecutor fragment_executor;
-    auto status = fragment_executor.prepare(_exec_env, t_common_param, t_unique_request);
+    auto status = fragment_executor.prepare(_exec_env, t_common_param, t_unique_request, fragment_template);
     if (status.ok()) {
         return fragment_executor.execute(_exec_env);
     } else {
@@ -469,6 +478,36 @@ Status PInternalServiceImplBase<T>::_exec_plan_fragment_by_pipeline(const TExecP
     }
 }
 
+// A request with fragment_template_key either carries the fragment and desc_tbl, which are moved into a new
+// template and cached, or leaves them out to use the cached template.
+template <typename T>
+Status PInternalServiceImplBase<T>::_get_fragment_template(
+        TExecPlanFragmentParams* t_request, size_t request_size, PExecPlanFragmentResult* response,
+        std::shared_ptr<const TExecPlanFragmentParams>* fragment_template) {
+    auto* cache = pipeline::FragmentTemplateCache::instance();
+    const auto& key = t_request->fragment_template_key;
+    if (!t_request->__isset.fragment) {
+        *fragment_template = cache->lookup(key);
+        if (*fragment_template == nullptr) {
+            return Status::FragmentTemplateNotFound(fmt::format("fragment template {} not found", key));
+        }
+        return Status::OK();
+    }
+
+    auto new_template = std::make_shared<TExecPlanFragmentParams>();
+    new_template->__set_fragment(std::move(t_request->fragment));
+    new_template->__set_desc_tbl(std::move(t_request->desc_tbl));
+    // reset the moved fields, whose __isset are not reset by the move
+    t_request->fragment = TPlanFragment();
+    t_request->desc_tbl = TDescriptorTable();
+    t_request->__isset.fragment = false;
+    t_request->__isset.desc_tbl = false;
+    // the serialized size of the whole request is a good enough estimation of the template
+    response->set_fragment_template_cached(cache->insert(key, new_template, request_size));
+    *fragment_template = std::move(new_template);
+    return Status::OK();
+}
+
 template <typename T>
 Status PInternalServiceImplBase<T>::_exec_plan_fragment_by_non_pipeline(const TExecPlanFragmentParams& t_request) {
     return _exec_env->fragment_mgr()->exec_plan_fragment(t_request);
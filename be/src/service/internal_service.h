@@ -212,9 +212,14 @@ private:
     void _get_file_schema(google::protobuf::RpcController* controller, const PGetFileSchemaRequest* request,
                           PGetFileSchemaResult* response, google::protobuf::Closure* done);
 
-    Status _exec_plan_fragment(brpc::Controller* cntl, const PExecPlanFragmentRequest* request);
+    Status _exec_plan_fragment(brpc::Controller* cntl, const PExecPlanFragmentRequest* request,
+                               PExecPlanFragmentResult* response);
     Status _exec_plan_fragment_by_pipeline(const TExecPlanFragmentParams& t_common_request,
-                                           const TExecPlanFragmentParams& t_unique_request);
+                                           const TExecPlanFragmentParams& t_unique_request,
+                                           const TExecPlanFragmentParams* fragment_template = nullptr);
+    Status _get_fragment_template(TExecPlanFragmentParams* t_request, size_t request_size,
+                                  PExecPlanFragmentResult* response,
+                                  std::shared_ptr<const TExecPlanFragmentParams>* fragment_template);
     Status _exec_plan_fragment_by_non_pipeline(const TExecPlanFragmentParams& t_request);
 
     // MV Maintenance task
@@ -21,13 +21,24 @@ namespace starrocks {
 Status DictionaryCacheManager::begin(const PProcessDictionaryCacheRequest* request) {
     auto dict_id = request->dict_id();
     auto txn_id = request->txn_id();
+
+    DictionaryCachePtr mutable_cache = nullptr;
+    if (request->has_base_txn_id()) {
+        ASSIGN_OR_RETURN(auto base, get_dictionary_by_version(dict_id, request->base_txn_id()));
+        // the committed cache is immutable, copy it without holding any lock
+        mutable_cache = base->clone_empty();
+        std::set<int64_t> dropped_partitions(request->dropped_partition_ids().begin(),
+                                             request->dropped_partition_ids().end());
+        RETURN_IF_ERROR(mutable_cache->copy_from(base.get(), dropped_partitions, request->memory_limit()));
+    }
+
     std::unique_lock wlock(_refresh_lock);
     if (LIKELY(_mutable_dict_caches.find(dict_id) == _mutable_dict_caches.end())) {
         _mutable_dict_caches[dict_id] = std::make_shared<OrderedMutableDictionaryCache>();
     } // It is ok, if dictionary id is duplicated
 
     if (LIKELY(_mutable_dict_caches[dict_id]->find(txn_id) == _mutable_dict_caches[dict_id]->end())) {
-        (*_mutable_dict_caches[dict_id])[txn_id] = nullptr;
+        (*_mutable_dict_caches[dict_id])[txn_id] = mutable_cache;
     } else {
         return Status::InternalError(
                 fmt::format("duplicated dictionary cache refresh task, duplicated txn id: {}", txn_id));
@@ -42,6 +53,7 @@ Status DictionaryCacheManager::refresh(const PProcessDictionaryCacheRequest* req
     const auto& pchunk = request->chunk();
     const auto& pschema = request->schema();
     const auto& memory_limit = request->memory_limit();
+    const int64_t partition_id = request->has_partition_id() ? request->partition_id() : NO_PARTITION_ID;
 
     // 1. uncompress and deserialize chunk
     faststring uncompressed_buffer;
@@ -142,15 +154,15 @@ Status DictionaryCacheManager::refresh(const PProcessDictionaryCacheRequest* req
     return _refresh_encoded_chunk(dict_id, txn_id, encoded_key_column.get(), encoded_value_column.get(),
                                   dictionary_schema, DictionaryCacheUtil::get_encoded_type(*key_schema.get()),
                                   DictionaryCacheUtil::get_encoded_type(*value_schema.get()), memory_limit,
-                                  value_encode_flags);
+                                  value_encode_flags, partition_id);
 }
 
 Status DictionaryCacheManager::_refresh_encoded_chunk(DictionaryId dict_id, DictionaryCacheTxnId txn_id,
                                                       const Column* encoded_key_column,
                                                       const Column* encoded_value_column, const SchemaPtr& schema,
                                                       LogicalType key_encoded_type, LogicalType value_encoded_type,
-                                                      long memory_limit,
-                                                      const std::vector<uint8_t>& value_encode_flags) {
+                                                      long memory_limit, const std::vector<uint8_t>& value_encode_flags,
+                                                      int64_t partition_id) {
     DCHECK(key_encoded_type != TYPE_NONE);
     DCHECK(value_encoded_type != TYPE_NONE);
 
@@ -200,7 +212,7 @@ Status DictionaryCacheManager::_refresh_encoded_chunk(DictionaryId dict_id, Dict
     for (size_t i = 0; i < encoded_key_column->size(); ++i) {
         auto key = encoded_key_column->get(i);
         auto value = encoded_value_column->get(i);
-        RETURN_IF_ERROR(mutable_cache->insert(key, value, value_encode_flags[i]));
+        RETURN_IF_ERROR(mutable_cache->insert(key, value, value_encode_flags[i], partition_id));
     }
 
     if (mutable_cache->memory_usage() > memory_limit) {
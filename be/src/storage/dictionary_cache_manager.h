@@ -16,6 +16,7 @@
 
 #include <map>
 #include <memory>
+#include <set>
 #include <unordered_map>
 
 #include "column/chunk.h"
@@ -42,6 +43,8 @@ namespace starrocks {
 #endif // __GNUC__
 
 #define SKIP_DECODE_FLAG 2
+// the partition id of the rows which are not refreshed by partition
+#define NO_PARTITION_ID -1
 
 enum DictionaryCacheEncoderType {
     PK_ENCODE = 0,
@@ -69,7 +72,17 @@ public:
     DictionaryCache(DictionaryCacheEncoderType type) : _type(type) {}
     virtual ~DictionaryCache() = default;
 
-    virtual inline Status insert(const Datum& k, const Datum& v, const uint8_t& flag) = 0;
+    // partition_id is the partition of the source table which the row comes from, the keys of a partition
+    // are tracked so that they can be removed by an incremental refresh, NO_PARTITION_ID means not tracked.
+    virtual inline Status insert(const Datum& k, const Datum& v, const uint8_t& flag, int64_t partition_id) = 0;
+
+    // create an empty dictionary cache with the same key and value types
+    virtual std::shared_ptr<DictionaryCache> clone_empty() = 0;
+
+    // copy all the rows of base except the rows of dropped_partitions, used as the start point
+    // of an incremental refresh. base must be created by clone_empty of the same type.
+    virtual Status copy_from(DictionaryCache* base, const std::set<int64_t>& dropped_partitions,
+                             long memory_limit) = 0;
 
     virtual inline Status lookup(Column* src, Column* dest, std::vector<uint8_t>& value_encode_flags,
                                  Column* null_column) = 0;
@@ -96,63 +109,45 @@ public:
 
     using ValueColumnType = typename DictionaryCacheTypeTraits<ValueLogicalType>::ColumnType;
 
-    virtual inline Status insert(const Datum& k, const Datum& v, const uint8_t& flag) override {
+    virtual inline Status insert(const Datum& k, const Datum& v, const uint8_t& flag, int64_t partition_id) override {
         switch (_type) {
-        case DictionaryCacheEncoderType::PK_ENCODE: {
-            KeyCppType key;
-            ValueCppType value;
-
-            // Memory structure for string type value:
-            //  Slice 1 -> |  buffer  |
-            //             |buffer size|
-            //  Slice 2 -> |  buffer  |
-            //             |buffer size|
-            //  Slice 3 -> |  buffer  |
-            //             |buffer size|
-            if constexpr (std::is_same_v<KeyCppType, Slice>) {
-                const Slice& input = k.get<KeyCppType>();
-                auto* buffer = reinterpret_cast<char*>(_pool.allocate(input.size));
-                RETURN_IF_UNLIKELY_NULL(buffer, Status::MemoryAllocFailed("alloc mem for dictionary failed"));
-                memcpy(buffer, input.data, input.size);
-                key.data = buffer;
-                key.size = input.size;
-            } else {
-                key = k.get<KeyCppType>();
-            }
+        case DictionaryCacheEncoderType::PK_ENCODE:
+            return _insert(k.get<KeyCppType>(), v.get<ValueCppType>(), flag, partition_id);
+        default:
+            return Status::InternalError("Unknow encoder for dictionary cache");
+        }
+        return Status::OK();
+    }
 
-            // Memory structure for string type value:
-            //             | fast decode flag |
-            //  Slice 1 -> |  buffer  |
-            //             |buffer size|
-            //             | fast decode flag |
-            //  Slice 2 -> |  buffer  |
-            //             |buffer size|
-            //             | fast decode flag |
-            //  Slice 3 -> |  buffer  |
-            //             |buffer size|
-            if constexpr (std::is_same_v<ValueCppType, Slice>) {
-                const Slice& input = v.get<ValueCppType>();
-                size_t allocate_size = input.size + sizeof(uint8_t);
-                auto* buffer = reinterpret_cast<char*>(_pool.allocate(allocate_size));
-                RETURN_IF_UNLIKELY_NULL(buffer, Status::MemoryAllocFailed("alloc mem for dictionary failed"));
-                memcpy(buffer, &flag, sizeof(uint8_t));
-                buffer += sizeof(uint8_t);
-                memcpy(buffer, input.data, input.size);
-                value.data = buffer;
-                value.size = input.size;
-            } else {
-                value = v.get<ValueCppType>();
-            }
+    std::shared_ptr<DictionaryCache> clone_empty() override {
+        return std::make_shared<DictionaryCacheImpl<KeyLogicalType, ValueLogicalType>>(_type);
+    }
 
-            auto r = _dictionary.insert({key, value});
-            if (!r.second) {
-                return Status::InternalError("duplicate key found when refreshing dictionary");
-            }
-            _estimated_memory_useage.fetch_add(_get_element_memory_usage<KeyCppType, ValueCppType>(key, value));
-            return Status::OK();
+    Status copy_from(DictionaryCache* base, const std::set<int64_t>& dropped_partitions, long memory_limit) override {
+        auto* other = dynamic_cast<DictionaryCacheImpl<KeyLogicalType, ValueLogicalType>*>(base);
+        if (other == nullptr) {
+            return Status::InternalError("the base dictionary cache has different key or value types");
         }
-        default:
-            return Status::InternalError("Unknow encoder for dictionary cache");
+        if (other->_untracked_rows > 0) {
+            return Status::InternalError("the base dictionary cache is not refreshed by partition");
+        }
+        for (const auto& [partition_id, keys] : other->_partition_keys) {
+            if (dropped_partitions.count(partition_id) > 0) {
+                continue;
+            }
+            for (const auto& key : keys) {
+                auto iter = other->_dictionary.find(key);
+                DCHECK(iter != other->_dictionary.end());
+                uint8_t flag = 1;
+                if constexpr (std::is_same_v<ValueCppType, Slice>) {
+                    flag = *(reinterpret_cast<const uint8_t*>(iter->second.data) - 1);
+                }
+                RETURN_IF_ERROR(_insert(key, iter->second, flag, partition_id));
+            }
+            if (memory_usage() > memory_limit) {
+                return Status::InternalError(
+                        fmt::format("Reach the memory limit: {} bytes for dictionary", memory_limit));
+            }
         }
         return Status::OK();
     }
@@ -312,6 +307,65 @@ public:
     virtual std::mutex& lock() override { return _lock; }
 
 private:
+    inline Status _insert(const KeyCppType& k, const ValueCppType& v, const uint8_t& flag, int64_t partition_id) {
+        KeyCppType key;
+        ValueCppType value;
+
+        // Memory structure for string type value:
+        //  Slice 1 -> |  buffer  |
+        //             |buffer size|
+        //  Slice 2 -> |  buffer  |
+        //             |buffer size|
+        //  Slice 3 -> |  buffer  |
+        //             |buffer size|
+        if constexpr (std::is_same_v<KeyCppType, Slice>) {
+            auto* buffer = reinterpret_cast<char*>(_pool.allocate(k.size));
+            RETURN_IF_UNLIKELY_NULL(buffer, Status::MemoryAllocFailed("alloc mem for dictionary failed"));
+            memcpy(buffer, k.data, k.size);
+            key.data = buffer;
+            key.size = k.size;
+        } else {
+            key = k;
+        }
+
+        // Memory structure for string type value:
+        //             | fast decode flag |
+        //  Slice 1 -> |  buffer  |
+        //             |buffer size|
+        //             | fast decode flag |
+        //  Slice 2 -> |  buffer  |
+        //             |buffer size|
+        //             | fast decode flag |
+        //  Slice 3 -> |  buffer  |
+        //             |buffer size|
+        if constexpr (std::is_same_v<ValueCppType, Slice>) {
+            size_t allocate_size = v.size + sizeof(uint8_t);
+            auto* buffer = reinterpret_cast<char*>(_pool.allocate(allocate_size));
+            RETURN_IF_UNLIKELY_NULL(buffer, Status::MemoryAllocFailed("alloc mem for dictionary failed"));
+            memcpy(buffer, &flag, sizeof(uint8_t));
+            buffer += sizeof(uint8_t);
+            memcpy(buffer, v.data, v.size);
+            value.data = buffer;
+            value.size = v.size;
+        } else {
+            value = v;
+        }
+
+        auto r = _dictionary.insert({key, value});
+        if (!r.second) {
+            return Status::InternalError("duplicate key found when refreshing dictionary");
+        }
+        size_t usage = _get_element_memory_usage<KeyCppType, ValueCppType>(key, value);
+        if (partition_id == NO_PARTITION_ID) {
+            _untracked_rows++;
+        } else {
+            _partition_keys[partition_id].push_back(key);
+            usage += sizeof(KeyCppType);
+        }
+        _estimated_memory_useage.fetch_add(usage);
+        return Status::OK();
+    }
+
     // Avoid creating Datum
     inline void _append_value(Column* dest, const ValueCppType& v) { down_cast<ValueColumnType*>(dest)->append(v); }
 
@@ -349,6 +403,10 @@ private:
                                   phmap::priv::Allocator<phmap::priv::Pair<const KeyCppType, ValueCppType>>, 4,
                                   phmap::NullMutex, true>
             _dictionary;
+    // partition id -> keys of the partition, the key memory is owned by _pool
+    phmap::flat_hash_map<int64_t, std::vector<KeyCppType>> _partition_keys;
+    // number of rows inserted with NO_PARTITION_ID
+    size_t _untracked_rows = 0;
     std::atomic<size_t> _estimated_memory_useage;
     std::mutex _lock;
     MemPool _pool;
@@ -581,6 +639,9 @@ public:
     DictionaryCacheManager(const DictionaryCacheManager&) = delete;
     const DictionaryCacheManager& operator=(const DictionaryCacheManager&) = delete;
 
+    // If base_txn_id is set, the refresh is incremental: the rows of the committed cache of base_txn_id
+    // are copied except the rows of dropped_partition_ids, then only the rows of the changed partitions
+    // are refreshed on it.
     Status begin(const PProcessDictionaryCacheRequest* request);
 
     Status refresh(const PProcessDictionaryCacheRequest* request);
@@ -621,7 +682,7 @@ private:
     Status _refresh_encoded_chunk(DictionaryId dict_id, DictionaryCacheTxnId txn_id, const Column* encoded_key_column,
                                   const Column* encoded_value_column, const SchemaPtr& schema,
                                   LogicalType key_encoded_type, LogicalType value_encoded_type, long memory_limit,
-                                  const std::vector<uint8_t>& value_encode_flags);
+                                  const std::vector<uint8_t>& value_encode_flags, int64_t partition_id);
 
     // dictionary id -> DictionaryCache
     std::unordered_map<DictionaryId, DictionaryCachePtr> _dict_cache;
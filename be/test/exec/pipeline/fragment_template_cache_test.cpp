@@ -0,0 +1,41 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+#include "exec/pipeline/fragment_template_cache.h"
+
+#include "gtest/gtest.h"
+
+namespace starrocks::pipeline {
+
+TEST(FragmentTemplateCacheTest, test_insert_and_lookup) {
+    auto* cache = FragmentTemplateCache::instance();
+    ASSERT_EQ(nullptr, cache->lookup("fragment_template_cache_test_key"));
+
+    auto fragment_template = std::make_shared<TExecPlanFragmentParams>();
+    fragment_template->fragment.plan.nodes.resize(2);
+    fragment_template->__isset.fragment = true;
+    ASSERT_TRUE(cache->insert("fragment_template_cache_test_key", fragment_template, 1024));
+
+    auto cached = cache->lookup("fragment_template_cache_test_key");
+    ASSERT_EQ(fragment_template.get(), cached.get());
+    ASSERT_EQ(2, cached->fragment.plan.nodes.size());
+    ASSERT_EQ(nullptr, cache->lookup("fragment_template_cache_test_other_key"));
+
+    // a template larger than the whole cache is not cached
+    ASSERT_FALSE(cache->insert("fragment_template_cache_test_large_key", fragment_template,
+                               config::fragment_template_cache_capacity + 1));
+    ASSERT_EQ(nullptr, cache->lookup("fragment_template_cache_test_large_key"));
+}
+
+} // namespace starrocks::pipeline
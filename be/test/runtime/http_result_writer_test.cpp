@@ -0,0 +1,152 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+#include "runtime/http_result_writer.h"
+
+#include <arrow/array.h>
+#include <arrow/buffer.h>
+#include <arrow/io/memory.h>
+#include <arrow/ipc/reader.h>
+#include <arrow/record_batch.h>
+#include <gtest/gtest.h>
+
+#include "column/chunk.h"
+#include "column/column_helper.h"
+#include "exprs/column_ref.h"
+#include "exprs/expr_context.h"
+#include "gen_cpp/InternalService_types.h"
+#include "runtime/buffer_control_block.h"
+#include "runtime/runtime_state.h"
+#include "testutil/assert.h"
+
+namespace starrocks {
+
+class HttpResultWriterTest : public testing::Test {
+protected:
+    void SetUp() override {
+        TUniqueId fragment_id;
+        TQueryOptions query_options;
+        query_options.batch_size = config::vector_chunk_size;
+        TQueryGlobals query_globals;
+        _runtime_state = std::make_shared<RuntimeState>(fragment_id, query_options, query_globals, nullptr);
+        _runtime_state->init_instance_mem_tracker();
+
+        _exprs.emplace_back(std::make_unique<ColumnRef>(TypeDescriptor(TYPE_INT), 0));
+        _exprs.emplace_back(std::make_unique<ColumnRef>(TypeDescriptor::create_varchar_type(16), 1));
+        for (auto& expr : _exprs) {
+            _expr_ctxs.push_back(new ExprContext(expr.get()));
+        }
+        ASSERT_OK(Expr::prepare(_expr_ctxs, _runtime_state.get()));
+        ASSERT_OK(Expr::open(_expr_ctxs, _runtime_state.get()));
+    }
+
+    void TearDown() override {
+        for (ExprContext* ctx : _expr_ctxs) {
+            delete ctx;
+        }
+        _expr_ctxs.clear();
+    }
+
+    static ChunkPtr create_chunk(int start, int num_rows) {
+        auto ints = ColumnHelper::create_column(TypeDescriptor(TYPE_INT), true);
+        auto strs = ColumnHelper::create_column(TypeDescriptor::create_varchar_type(16), true);
+        for (int i = start; i < start + num_rows; i++) {
+            ints->append_datum(Datum(i));
+            std::string str = "row" + std::to_string(i);
+            strs->append_datum(Datum(Slice(str)));
+        }
+        Chunk::SlotHashMap slot_map;
+        slot_map[0] = 0;
+        slot_map[1] = 1;
+        return std::make_shared<Chunk>(Columns{ints, strs}, slot_map);
+    }
+
+    // reads the messages of a result as an arrow ipc stream
+    static std::shared_ptr<arrow::RecordBatch> read_batch(const TFetchDataResult& result) {
+        std::string stream;
+        for (const auto& message : result.result_batch.rows) {
+            stream.append(message);
+        }
+        auto input = std::make_shared<arrow::io::BufferReader>(arrow::Buffer::FromString(std::move(stream)));
+        auto reader = arrow::ipc::RecordBatchStreamReader::Open(input);
+        EXPECT_TRUE(reader.ok()) << reader.status().ToString();
+        EXPECT_EQ(2, (*reader)->schema()->num_fields());
+        EXPECT_EQ("id", (*reader)->schema()->field(0)->name());
+        EXPECT_EQ("name", (*reader)->schema()->field(1)->name());
+        std::shared_ptr<arrow::RecordBatch> batch;
+        EXPECT_TRUE((*reader)->ReadNext(&batch).ok());
+        return batch;
+    }
+
+    std::shared_ptr<RuntimeState> _runtime_state;
+    std::vector<std::unique_ptr<ColumnRef>> _exprs;
+    std::vector<ExprContext*> _expr_ctxs;
+};
+
+TEST_F(HttpResultWriterTest, convert_chunks_to_arrow) {
+    BufferControlBlock sinker(TUniqueId(), 1024);
+    ASSERT_OK(sinker.init());
+    RuntimeProfile profile("result sink");
+    HttpResultWriter writer(&sinker, _expr_ctxs, &profile, TResultSinkFormatType::ARROW, {"id", "name"});
+    ASSERT_OK(writer.init(_runtime_state.get()));
+
+    int num_rows = 0;
+    for (int chunk_rows : {100, 0, 37}) {
+        ChunkPtr chunk = create_chunk(num_rows, chunk_rows);
+        ASSIGN_OR_ABORT(auto results, writer.process_chunk(chunk.get()));
+        if (chunk_rows == 0) {
+            ASSERT_TRUE(results.empty());
+            continue;
+        }
+        // every result is [schema message, record batch message]
+        ASSERT_EQ(1, results.size());
+        ASSERT_EQ(2, results[0]->result_batch.rows.size());
+        auto batch = read_batch(*results[0]);
+        ASSERT_NE(nullptr, batch);
+        ASSERT_EQ(chunk_rows, batch->num_rows());
+        auto ids = std::static_pointer_cast<arrow::Int32Array>(batch->column(0));
+        auto names = std::static_pointer_cast<arrow::StringArray>(batch->column(1));
+        for (int i = 0; i < chunk_rows; i++) {
+            ASSERT_EQ(num_rows + i, ids->Value(i));
+            ASSERT_EQ("row" + std::to_string(num_rows + i), names->GetString(i));
+        }
+
+        ASSIGN_OR_ABORT(bool added, writer.try_add_batch(results));
+        ASSERT_TRUE(added);
+        num_rows += chunk_rows;
+    }
+    ASSERT_OK(writer.close());
+
+    // the written rows are the rows of the record batches, not the ipc messages
+    ASSERT_EQ(num_rows, writer.get_written_rows());
+    ASSERT_EQ(num_rows, profile.get_counter("NumSentRows")->value());
+}
+
+TEST_F(HttpResultWriterTest, send_schema_of_empty_result) {
+    BufferControlBlock sinker(TUniqueId(), 1024);
+    ASSERT_OK(sinker.init());
+    RuntimeProfile profile("result sink");
+    HttpResultWriter writer(&sinker, _expr_ctxs, &profile, TResultSinkFormatType::ARROW, {"id", "name"});
+    ASSERT_OK(writer.init(_runtime_state.get()));
+    ASSERT_OK(writer.close());
+    ASSERT_EQ(0, writer.get_written_rows());
+
+    TFetchDataResult result;
+    ASSERT_OK(sinker.get_batch(&result));
+    ASSERT_EQ(1, result.result_batch.rows.size());
+    auto batch = read_batch(result);
+    ASSERT_EQ(nullptr, batch);
+}
+
+} // namespace starrocks
@@ -90,6 +90,14 @@ public:
     static void create_new_dictionary_cache(starrocks::DictionaryCacheManager* dictionary_cache_manager, int64_t dict,
                                             int64_t txn_id, TabletSharedPtr tablet,
                                             const std::vector<TColumn>* tcolumns = nullptr) {
+        refresh_dictionary_cache(dictionary_cache_manager, dict, txn_id, tablet, tcolumns, NO_PARTITION_ID, -1, {});
+    }
+
+    // refresh the dictionary by one row of the given partition, incrementally on base_txn_id if it is not -1
+    static void refresh_dictionary_cache(starrocks::DictionaryCacheManager* dictionary_cache_manager, int64_t dict,
+                                         int64_t txn_id, TabletSharedPtr tablet, const std::vector<TColumn>* tcolumns,
+                                         int64_t partition_id, int64_t base_txn_id,
+                                         const std::vector<int64_t>& dropped_partition_ids) {
         auto schema = ChunkHelper::convert_schema(tablet->thread_safe_get_tablet_schema());
         auto chunk = ChunkHelper::new_chunk(schema, 0);
         chunk->reset_slot_id_to_index();
@@ -174,6 +182,15 @@ public:
         request.set_memory_limit(memory_limit);
         request.set_key_size(1);
         request.set_type(PProcessDictionaryCacheRequestType::REFRESH);
+        if (partition_id != NO_PARTITION_ID) {
+            request.set_partition_id(partition_id);
+        }
+        if (base_txn_id != -1) {
+            request.set_base_txn_id(base_txn_id);
+            for (int64_t dropped : dropped_partition_ids) {
+                request.add_dropped_partition_ids(dropped);
+            }
+        }
 
         ASSERT_TRUE(dictionary_cache_manager->begin(&request).ok());
         ASSERT_TRUE(dictionary_cache_manager->refresh(&request).ok());
@@ -288,6 +305,57 @@ TEST_F(DictionaryCacheManagerTest, large_column_refresh_and_read) {
     read_dictionary(dictionary_cache_manager, test_tablet, 300, 301);
 }
 
+// NOLINTNEXTLINE
+TEST_F(DictionaryCacheManagerTest, incremental_refresh) {
+    auto test_tablet = create_tablet(9146, 6546);
+    auto memory_usage = [this](int64_t dict_id) {
+        PProcessDictionaryCacheResult result;
+        dictionary_cache_manager->get_info(dict_id, result);
+        return result.dictionary_memory_usage();
+    };
+
+    // full refresh, the row comes from partition 10
+    refresh_dictionary_cache(dictionary_cache_manager, 500, 1, test_tablet, nullptr, 10, -1, {});
+    read_dictionary(dictionary_cache_manager, test_tablet, 500, 1);
+    long full_usage = memory_usage(500);
+    ASSERT_GT(full_usage, 0);
+
+    // partition 10 is changed, its rows are removed from the base and refreshed again
+    refresh_dictionary_cache(dictionary_cache_manager, 500, 2, test_tablet, nullptr, 10, 1, {10});
+    read_dictionary(dictionary_cache_manager, test_tablet, 500, 2);
+    ASSERT_EQ(full_usage, memory_usage(500));
+
+    // nothing is changed, the row of the unchanged partition is kept
+    PProcessDictionaryCacheRequest request;
+    request.set_dict_id(500);
+    request.set_txn_id(3);
+    request.set_base_txn_id(2);
+    request.set_memory_limit(1024L * 1024 * 1024);
+    ASSERT_TRUE(dictionary_cache_manager->begin(&request).ok());
+    ASSERT_TRUE(dictionary_cache_manager->commit(&request).ok());
+    read_dictionary(dictionary_cache_manager, test_tablet, 500, 3);
+
+    // partition 10 is dropped
+    request.set_txn_id(4);
+    request.set_base_txn_id(3);
+    request.add_dropped_partition_ids(10);
+    ASSERT_TRUE(dictionary_cache_manager->begin(&request).ok());
+    ASSERT_TRUE(dictionary_cache_manager->commit(&request).ok());
+    ASSERT_EQ(0, memory_usage(500));
+
+    // the base version is not the committed one
+    request.set_txn_id(5);
+    request.set_base_txn_id(3);
+    ASSERT_FALSE(dictionary_cache_manager->begin(&request).ok());
+
+    // the base is not refreshed by partition
+    create_new_dictionary_cache(dictionary_cache_manager, 501, 1, test_tablet);
+    request.set_dict_id(501);
+    request.set_txn_id(2);
+    request.set_base_txn_id(1);
+    ASSERT_FALSE(dictionary_cache_manager->begin(&request).ok());
+}
+
 // NOLINTNEXTLINE
 TEST_F(DictionaryCacheManagerTest, dictionary_get_expr_test) {
     auto test_tablet = create_tablet(9145, 6545);
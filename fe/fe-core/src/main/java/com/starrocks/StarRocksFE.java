@@ -56,6 +56,7 @@ import com.starrocks.server.RunMode;
 import com.starrocks.service.ExecuteEnv;
 import com.starrocks.service.FrontendOptions;
 import com.starrocks.service.FrontendThriftServer;
+import com.starrocks.service.arrow.flight.sql.ArrowFlightSqlService;
 import com.starrocks.staros.StarMgrServer;
 import org.apache.commons.cli.BasicParser;
 import org.apache.commons.cli.CommandLine;
@@ -161,15 +162,18 @@ public class StarRocksFE {
             // 1. QeService for MySQL Server
             // 2. FrontendThriftServer for Thrift Server
             // 3. HttpServer for HTTP Server
+            // 4. ArrowFlightSqlService for Arrow Flight SQL Server
             QeService qeService = new QeService(Config.query_port, Config.mysql_service_nio_enabled,
                     ExecuteEnv.getInstance().getScheduler());
             FrontendThriftServer frontendThriftServer = new FrontendThriftServer(Config.rpc_port);
             HttpServer httpServer = new HttpServer(Config.http_port);
             httpServer.setup();
+            ArrowFlightSqlService arrowFlightSqlService = new ArrowFlightSqlService(Config.arrow_flight_port);
 
             frontendThriftServer.start();
             httpServer.start();
             qeService.start();
+            arrowFlightSqlService.start();
 
             ThreadPoolManager.registerAllThreadPoolMetric();
 
@@ -185,6 +185,13 @@ public abstract class AbstractJob implements Writable {
 
     public abstract boolean isCancelled();
 
+    /**
+     * @return the scheduler of the snapshot file transfer, null if the job is not transferring files
+     */
+    public TransferScheduler getTransferScheduler() {
+        return null;
+    }
+
     public static AbstractJob read(DataInput in) throws IOException {
         AbstractJob job = null;
         JobType type = JobType.valueOf(Text.readString(in));
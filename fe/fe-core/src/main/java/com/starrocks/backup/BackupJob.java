@@ -42,6 +42,7 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.gson.annotations.SerializedName;
 import com.starrocks.analysis.BrokerDesc;
 import com.starrocks.analysis.TableRef;
@@ -59,6 +60,7 @@ import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Tablet;
 import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
 import com.starrocks.common.UserException;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.util.TimeUtils;
@@ -96,6 +98,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -151,6 +154,16 @@ public class BackupJob extends AbstractJob {
 
     private AgentBatchTask batchTask;
 
+    // tablets whose snapshot is uploaded, persisted by the checkpoint of UPLOADING, so that the job taken over by
+    // a new leader does not upload them again
+    @SerializedName(value = "uploadedTabletIds")
+    protected Set<Long> uploadedTabletIds = Sets.newHashSet();
+    private TransferScheduler uploadScheduler;
+    // be id -> brokers and hdfs properties to create the upload tasks of the backend
+    private final Map<Long, Pair<List<FsBroker>, THdfsProperties>> beToUploadProperties = Maps.newHashMap();
+    private long lastCheckpointTimeMs = -1;
+    private int checkpointedTabletNum = 0;
+
     private boolean testPrimaryKey = false;
 
     public BackupJob() {
@@ -238,6 +251,9 @@ public class BackupJob extends AbstractJob {
 
         if (request.getTask_status().getStatus_code() != TStatusCode.OK) {
             taskErrMsg.put(task.getSignature(), Joiner.on(",").join(request.getTask_status().getError_msgs()));
+            if (uploadScheduler != null) {
+                uploadScheduler.onUnitFailed(task.getSignature());
+            }
             return false;
         }
 
@@ -284,6 +300,14 @@ public class BackupJob extends AbstractJob {
         taskProgress.remove(task.getSignature());
         Long oldValue = unfinishedTaskIds.remove(task.getSignature());
         taskErrMsg.remove(task.getTabletId());
+        if (oldValue != null && uploadScheduler != null) {
+            TransferScheduler.Unit unit = uploadScheduler.finishUnit(task.getSignature());
+            if (unit != null) {
+                uploadedTabletIds.addAll(unit.getTabletIds());
+                // the backend has a free slot now
+                sendUploadUnits(unit.getBeId());
+            }
+        }
         LOG.debug("get finished upload snapshot task, unfinished tasks num: {}, remove result: {}. {}",
                 unfinishedTaskIds.size(), (oldValue != null), this);
         return oldValue != null;
@@ -348,7 +372,12 @@ public class BackupJob extends AbstractJob {
                 uploadSnapshot();
                 break;
             case UPLOADING:
-                waitingAllUploadingFinished();
+                if (uploadScheduler == null && !uploadedTabletIds.isEmpty()) {
+                    // taken over from the checkpoint of another leader, upload the rest of the tablets
+                    uploadSnapshot();
+                } else {
+                    waitingAllUploadingFinished();
+                }
                 break;
             case SAVE_META:
                 saveMetaInfo();
@@ -556,28 +585,37 @@ public class BackupJob extends AbstractJob {
     }
 
     protected void sendUploadTasks() {
-        sendTasks();
+        for (long beId : uploadScheduler.getBackendIds()) {
+            sendUploadUnits(beId);
+        }
     }
 
     protected void prepareUploadTasks(List<SnapshotInfo> infos, List<FsBroker> brokers,
                                       THdfsProperties hdfsProperties, Long beId) {
-        int index = 0;
-        int totalNum = infos.size();
-        int batchNum = totalNum;
-        if (Config.max_upload_task_per_be > 0) {
-            batchNum = Math.min(totalNum, Config.max_upload_task_per_be);
-        }
-        // each task contains several upload subtasks
-        int taskNumPerBatch = Math.max(totalNum / batchNum, 1);
-        LOG.info("backend {} has {} batch, total {} tasks, {}", beId, batchNum, totalNum, this);
-        for (int batch = 0; batch < batchNum; batch++) {
+        // the data size of the replica which the snapshot is made from
+        Map<Long, Long> tabletBytes = Maps.newHashMap();
+        for (SnapshotInfo info : infos) {
+            Replica replica = globalStateMgr.getTabletInvertedIndex().getReplica(info.getTabletId(), beId);
+            tabletBytes.put(info.getTabletId(), replica == null ? 0L : replica.getDataSize());
+        }
+        uploadScheduler.addTablets(beId, tabletBytes);
+        beToUploadProperties.put(beId, Pair.create(brokers, hdfsProperties));
+        LOG.info("backend {} has {} tablets to upload, {}", beId, infos.size(), this);
+    }
+
+    private synchronized void sendUploadUnits(long beId) {
+        List<TransferScheduler.Unit> units = uploadScheduler.pollUnitsToSend(beId);
+        if (units.isEmpty()) {
+            return;
+        }
+        List<FsBroker> brokers = beToUploadProperties.get(beId).first;
+        THdfsProperties hdfsProperties = beToUploadProperties.get(beId).second;
+        AgentBatchTask unitBatchTask = new AgentBatchTask();
+        for (TransferScheduler.Unit unit : units) {
             Map<String, String> srcToDest = Maps.newHashMap();
-            int currentBatchTaskNum = (batch == batchNum - 1) ? totalNum - index : taskNumPerBatch;
-            for (int j = 0; j < currentBatchTaskNum; j++) {
-                SnapshotInfo info = infos.get(index++);
-                String src = info.getTabletPath();
-                String dest = repo.getRepoTabletPathBySnapshotInfo(label, info);
-                srcToDest.put(src, dest);
+            for (long tabletId : unit.getTabletIds()) {
+                SnapshotInfo info = snapshotInfos.get(tabletId);
+                srcToDest.put(info.getTabletPath(), repo.getRepoTabletPathBySnapshotInfo(label, info));
             }
             long signature = globalStateMgr.getNextId();
             UploadTask task;
@@ -588,9 +626,31 @@ public class BackupJob extends AbstractJob {
                 task = new UploadTask(null, beId, signature, jobId, dbId, srcToDest,
                         null, repo.getStorage().getProperties(), hdfsProperties);
             }
-            batchTask.addTask(task);
+            unitBatchTask.addTask(task);
             unfinishedTaskIds.put(signature, beId);
+            uploadScheduler.onUnitSent(unit, signature);
+            AgentTaskQueue.addTask(task);
+        }
+        AgentTaskExecutor.submit(unitBatchTask);
+    }
+
+    // persist the uploaded tablets from time to time, the job is logged only if more tablets are uploaded
+    private synchronized void checkpointUploading() {
+        long now = System.currentTimeMillis();
+        if (uploadScheduler == null || Config.backup_restore_transfer_checkpoint_interval_second <= 0
+                || uploadedTabletIds.size() == checkpointedTabletNum
+                || now - lastCheckpointTimeMs < Config.backup_restore_transfer_checkpoint_interval_second * 1000L) {
+            return;
         }
+        globalStateMgr.getEditLog().logBackupJob(this);
+        lastCheckpointTimeMs = now;
+        checkpointedTabletNum = uploadedTabletIds.size();
+        LOG.info("checkpoint uploading, {}. {}", uploadScheduler.getProgress(now), this);
+    }
+
+    @Override
+    public TransferScheduler getTransferScheduler() {
+        return state == BackupJobState.UPLOADING ? uploadScheduler : null;
     }
 
     private void uploadSnapshot() {
@@ -599,12 +659,20 @@ public class BackupJob extends AbstractJob {
         taskProgress.clear();
         taskErrMsg.clear();
 
-        // We classify the snapshot info by backend
+        // We classify the snapshot info by backend, the uploaded tablets before the job is taken over are skipped
         ArrayListMultimap<Long, SnapshotInfo> beToSnapshots = ArrayListMultimap.create();
         for (SnapshotInfo info : snapshotInfos.values()) {
-            beToSnapshots.put(info.getBeId(), info);
+            if (!uploadedTabletIds.contains(info.getTabletId())) {
+                beToSnapshots.put(info.getBeId(), info);
+            }
         }
 
+        long now = System.currentTimeMillis();
+        uploadScheduler = new TransferScheduler(Config.backup_restore_transfer_unit_bytes,
+                Config.backup_restore_transfer_unit_max_tablets, Config.max_upload_task_per_be, now);
+        beToUploadProperties.clear();
+        lastCheckpointTimeMs = now;
+        checkpointedTabletNum = uploadedTabletIds.size();
         batchTask = new AgentBatchTask();
         for (Long beId : beToSnapshots.keySet()) {
             List<SnapshotInfo> infos = beToSnapshots.get(beId);
@@ -641,9 +709,10 @@ public class BackupJob extends AbstractJob {
     }
 
     protected void waitingAllUploadingFinished() {
-        if (unfinishedTaskIds.isEmpty()) {
+        if (unfinishedTaskIds.isEmpty() && (uploadScheduler == null || uploadScheduler.isDone())) {
             snapshotUploadFinishedTime = System.currentTimeMillis();
             state = BackupJobState.SAVE_META;
+            uploadedTabletIds.clear();
 
             // log
             globalStateMgr.getEditLog().logBackupJob(this);
@@ -651,6 +720,7 @@ public class BackupJob extends AbstractJob {
             return;
         }
 
+        checkpointUploading();
         LOG.debug("waiting {} tablets to upload snapshot. {}", unfinishedTaskIds.size(), this);
     }
 
@@ -863,9 +933,14 @@ public class BackupJob extends AbstractJob {
         info.add(TimeUtils.longToTimeString(finishedTime));
         try {
             info.add(Joiner.on(", ").join(unfinishedTaskIds.entrySet()));
-            info.add(Joiner.on(", ").join(taskProgress.entrySet().stream().map(
+            List<String> progress = taskProgress.entrySet().stream().map(
                     e -> "[" + e.getKey() + ": " + e.getValue().first + "/" + e.getValue().second + "]").collect(
-                    Collectors.toList())));
+                    Collectors.toList());
+            TransferScheduler scheduler = getTransferScheduler();
+            if (scheduler != null && scheduler.getTotalUnits() > 0) {
+                progress.add(0, "[" + scheduler.getProgress(System.currentTimeMillis()) + "]");
+            }
+            info.add(Joiner.on(", ").join(progress));
             info.add(Joiner.on(", ").join(taskErrMsg.entrySet().stream().map(n -> "[" + n.getKey() + ": " + n.getValue()
                     + "]").collect(Collectors.toList())));
         } catch (Exception e) {
@@ -196,6 +196,18 @@ public class RestoreJob extends AbstractJob {
 
     private AgentBatchTask batchTask;
 
+    // be id -> tablets whose snapshot is downloaded, persisted by the checkpoint of DOWNLOADING, so that the job
+    // taken over by a new leader does not download them again
+    @SerializedName(value = "downloadedTablets")
+    protected Map<Long, Set<Long>> downloadedTablets = Maps.newHashMap();
+    private TransferScheduler downloadScheduler;
+    // be id -> tablet id -> (src, dest) to download
+    private final Map<Long, Map<Long, Pair<String, String>>> beToDownloadPaths = Maps.newHashMap();
+    // be id -> brokers and hdfs properties to create the download tasks of the backend
+    private final Map<Long, Pair<List<FsBroker>, THdfsProperties>> beToDownloadProperties = Maps.newHashMap();
+    private long lastCheckpointTimeMs = -1;
+    private int checkpointedTabletNum = 0;
+
     boolean enableColocateRestore = Config.enable_colocate_restore;
 
     public RestoreJob() {
@@ -263,6 +275,9 @@ public class RestoreJob extends AbstractJob {
 
     public synchronized boolean finishTabletDownloadTask(DownloadTask task, TFinishTaskRequest request) {
         if (checkTaskStatus(task, task.getJobId(), request)) {
+            if (downloadScheduler != null) {
+                downloadScheduler.onUnitFailed(task.getSignature());
+            }
             return false;
         }
 
@@ -285,6 +300,14 @@ public class RestoreJob extends AbstractJob {
         }
 
         taskErrMsg.remove(task.getSignature());
+        if (downloadScheduler != null) {
+            TransferScheduler.Unit unit = downloadScheduler.finishUnit(task.getSignature());
+            if (unit != null) {
+                downloadedTablets.computeIfAbsent(beId, k -> Sets.newHashSet()).addAll(unit.getTabletIds());
+                // the backend has a free slot now
+                sendDownloadUnits(beId);
+            }
+        }
         return true;
     }
 
@@ -387,7 +410,12 @@ public class RestoreJob extends AbstractJob {
                     downloadSnapshots();
                     break;
                 case DOWNLOADING:
-                    waitingAllDownloadFinished();
+                    if (downloadScheduler == null && !downloadedTablets.isEmpty()) {
+                        // taken over from the checkpoint of another leader, download the rest of the tablets
+                        downloadSnapshots();
+                    } else {
+                        waitingAllDownloadFinished();
+                    }
                     break;
                 case COMMIT:
                     commit();
@@ -1193,6 +1221,13 @@ public class RestoreJob extends AbstractJob {
         taskProgress.clear();
         taskErrMsg.clear();
         skipRestoreRemoteTableIds.clear();
+        long now = System.currentTimeMillis();
+        downloadScheduler = new TransferScheduler(Config.backup_restore_transfer_unit_bytes,
+                Config.backup_restore_transfer_unit_max_tablets, Config.max_download_task_per_be, now);
+        beToDownloadPaths.clear();
+        beToDownloadProperties.clear();
+        lastCheckpointTimeMs = now;
+        checkpointedTabletNum = getDownloadedTabletNum();
         batchTask = new AgentBatchTask();
         for (long dbId : dbToSnapshotInfos.keySet()) {
             List<SnapshotInfo> infos = dbToSnapshotInfos.get(dbId);
@@ -1203,10 +1238,13 @@ public class RestoreJob extends AbstractJob {
                 return;
             }
 
-            // We classify the snapshot info by backend
+            // We classify the snapshot info by backend, the downloaded tablets before the job is taken over are skipped
             ArrayListMultimap<Long, SnapshotInfo> beToSnapshots = ArrayListMultimap.create();
             for (SnapshotInfo info : infos) {
-                beToSnapshots.put(info.getBeId(), info);
+                Set<Long> downloaded = downloadedTablets.get(info.getBeId());
+                if (downloaded == null || !downloaded.contains(info.getTabletId())) {
+                    beToSnapshots.put(info.getBeId(), info);
+                }
             }
 
             Locker locker = new Locker();
@@ -1254,102 +1292,157 @@ public class RestoreJob extends AbstractJob {
     }
 
     protected void waitingAllDownloadFinished() {
-        if (unfinishedSignatureToId.isEmpty()) {
+        if (unfinishedSignatureToId.isEmpty() && (downloadScheduler == null || downloadScheduler.isDone())) {
             downloadFinishedTime = System.currentTimeMillis();
             state = RestoreJobState.COMMIT;
 
             // backupMeta is useless now
             backupMeta = null;
+            downloadedTablets.clear();
 
             globalStateMgr.getEditLog().logRestoreJob(this);
             LOG.info("finished to download. {}", this);
         }
 
+        checkpointDownloading();
         LOG.info("waiting {} tasks to finish downloading from repo. {}", unfinishedSignatureToId.size(), this);
     }
 
+    // persist the downloaded tablets from time to time, the job is logged only if more tablets are downloaded
+    private synchronized void checkpointDownloading() {
+        long now = System.currentTimeMillis();
+        if (downloadScheduler == null || state != RestoreJobState.DOWNLOADING
+                || Config.backup_restore_transfer_checkpoint_interval_second <= 0
+                || getDownloadedTabletNum() == checkpointedTabletNum
+                || now - lastCheckpointTimeMs < Config.backup_restore_transfer_checkpoint_interval_second * 1000L) {
+            return;
+        }
+        globalStateMgr.getEditLog().logRestoreJob(this);
+        lastCheckpointTimeMs = now;
+        checkpointedTabletNum = getDownloadedTabletNum();
+        LOG.info("checkpoint downloading, {}. {}", downloadScheduler.getProgress(now), this);
+    }
+
+    private int getDownloadedTabletNum() {
+        return downloadedTablets.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public TransferScheduler getTransferScheduler() {
+        return state == RestoreJobState.DOWNLOADING ? downloadScheduler : null;
+    }
+
     protected void prepareDownloadTasks(List<SnapshotInfo> beSnapshotInfos, Database db, long beId, List<FsBroker> brokerAddrs,
                                         THdfsProperties hdfsProperties) {
-        int totalNum = beSnapshotInfos.size();
-        int batchNum = totalNum;
-        if (Config.max_download_task_per_be > 0) {
-            batchNum = Math.min(totalNum, Config.max_download_task_per_be);
-        }
-        // each task contains several upload subtasks
-        int taskNumPerBatch = Math.max(totalNum / batchNum, 1);
-        LOG.debug("backend {} has {} batch, total {} tasks, {}",
-                beId, batchNum, totalNum, this);
-
-        int index = 0;
-        for (int batch = 0; batch < batchNum; batch++) {
-            Map<String, String> srcToDest = Maps.newHashMap();
-            int currentBatchTaskNum = (batch == batchNum - 1) ? totalNum - index : taskNumPerBatch;
-            for (int j = 0; j < currentBatchTaskNum; j++) {
-                SnapshotInfo info = beSnapshotInfos.get(index++);
-                Table tbl = globalStateMgr.getLocalMetastore().getTable(db.getId(), info.getTblId());
-                if (tbl == null) {
-                    status = new Status(ErrCode.NOT_FOUND, "restored table "
-                            + info.getTabletId() + " does not exist");
-                    return;
-                }
-                OlapTable olapTbl = (OlapTable) tbl;
+        Map<Long, Pair<String, String>> paths = beToDownloadPaths.computeIfAbsent(beId, k -> Maps.newHashMap());
+        Map<Long, Long> tabletBytes = Maps.newHashMap();
+        for (SnapshotInfo info : beSnapshotInfos) {
+            Table tbl = globalStateMgr.getLocalMetastore().getTable(db.getId(), info.getTblId());
+            if (tbl == null) {
+                status = new Status(ErrCode.NOT_FOUND, "restored table "
+                        + info.getTabletId() + " does not exist");
+                return;
+            }
+            OlapTable olapTbl = (OlapTable) tbl;
 
-                PhysicalPartition part = olapTbl.getPhysicalPartition(info.getPartitionId());
-                if (part == null) {
-                    status = new Status(ErrCode.NOT_FOUND, "partition "
-                            + info.getPartitionId() + " does not exist in restored table: "
-                            + tbl.getName());
-                    return;
-                }
+            PhysicalPartition part = olapTbl.getPhysicalPartition(info.getPartitionId());
+            if (part == null) {
+                status = new Status(ErrCode.NOT_FOUND, "partition "
+                        + info.getPartitionId() + " does not exist in restored table: "
+                        + tbl.getName());
+                return;
+            }
 
-                MaterializedIndex idx = part.getIndex(info.getIndexId());
-                if (idx == null) {
-                    status = new Status(ErrCode.NOT_FOUND,
-                            "index " + info.getIndexId() + " does not exist in partion " + part.getId()
-                                    + "of restored table " + tbl.getName());
-                    return;
-                }
+            MaterializedIndex idx = part.getIndex(info.getIndexId());
+            if (idx == null) {
+                status = new Status(ErrCode.NOT_FOUND,
+                        "index " + info.getIndexId() + " does not exist in partion " + part.getId()
+                                + "of restored table " + tbl.getName());
+                return;
+            }
 
-                LocalTablet tablet = (LocalTablet) idx.getTablet(info.getTabletId());
-                if (tablet == null) {
-                    status = new Status(ErrCode.NOT_FOUND,
-                            "tablet " + info.getTabletId() + " does not exist in restored table "
-                                    + tbl.getName());
-                    return;
-                }
+            LocalTablet tablet = (LocalTablet) idx.getTablet(info.getTabletId());
+            if (tablet == null) {
+                status = new Status(ErrCode.NOT_FOUND,
+                        "tablet " + info.getTabletId() + " does not exist in restored table "
+                                + tbl.getName());
+                return;
+            }
 
-                Replica replica = tablet.getReplicaByBackendId(info.getBeId());
-                if (replica == null) {
-                    status = new Status(ErrCode.NOT_FOUND,
-                            "replica in be " + info.getBeId() + " of tablet "
-                                    + tablet.getId() + " does not exist in restored table "
-                                    + tbl.getName());
-                    return;
-                }
+            Replica replica = tablet.getReplicaByBackendId(info.getBeId());
+            if (replica == null) {
+                status = new Status(ErrCode.NOT_FOUND,
+                        "replica in be " + info.getBeId() + " of tablet "
+                                + tablet.getId() + " does not exist in restored table "
+                                + tbl.getName());
+                return;
+            }
 
-                IdChain catalogIds = new IdChain(tbl.getId(), part.getId(), idx.getId(),
-                        info.getTabletId(), replica.getId());
-                IdChain repoIds = fileMapping.get(catalogIds);
-                if (repoIds == null) {
-                    status = new Status(ErrCode.NOT_FOUND,
-                            "failed to get id mapping of globalStateMgr ids: " + catalogIds.toString());
-                    LOG.info("current file mapping: {}", fileMapping);
-                    return;
-                }
+            IdChain catalogIds = new IdChain(tbl.getId(), part.getId(), idx.getId(),
+                    info.getTabletId(), replica.getId());
+            IdChain repoIds = fileMapping.get(catalogIds);
+            if (repoIds == null) {
+                status = new Status(ErrCode.NOT_FOUND,
+                        "failed to get id mapping of globalStateMgr ids: " + catalogIds.toString());
+                LOG.info("current file mapping: {}", fileMapping);
+                return;
+            }
+
+            String repoTabletPath = jobInfo.getFilePath(repoIds);
+
+            // eg:
+            // bos://location/__starrocks_repository_my_repo/_ss_my_ss/_ss_content/__db_10000/
+            // __tbl_10001/__part_10002/_idx_10001/__10003
+            String src = repo.getRepoPath(label, repoTabletPath);
+            SnapshotInfo snapshotInfo = snapshotInfos.get(info.getTabletId(), info.getBeId());
+            Preconditions.checkNotNull(snapshotInfo, info.getTabletId() + "-" + info.getBeId());
+            // download to previously existing snapshot dir
+            String dest = snapshotInfo.getTabletPath();
+            paths.put(info.getTabletId(), Pair.create(src, dest));
+            tabletBytes.put(info.getTabletId(), getRemoteTabletBytes(repoIds));
+            LOG.debug("catalog id: {}, repo id: {}, repoTabletPath: {}, src: {}, dest: {}",
+                    catalogIds, repoIds, repoTabletPath, src, dest);
+        }
+        downloadScheduler.addTablets(beId, tabletBytes);
+        beToDownloadProperties.put(beId, Pair.create(brokerAddrs, hdfsProperties));
+        LOG.debug("backend {} has {} tablets to download, {}", beId, beSnapshotInfos.size(), this);
+    }
+
+    // the data size of the tablet in the backup, 0 if unknown
+    private long getRemoteTabletBytes(IdChain repoIds) {
+        if (backupMeta == null) {
+            return 0;
+        }
+        Table remoteTbl = backupMeta.getTable(repoIds.getTblId());
+        if (!(remoteTbl instanceof OlapTable)) {
+            return 0;
+        }
+        PhysicalPartition remotePart = ((OlapTable) remoteTbl).getPhysicalPartition(repoIds.getPartId());
+        MaterializedIndex remoteIdx = remotePart == null ? null : remotePart.getIndex(repoIds.getIdxId());
+        Tablet remoteTablet = remoteIdx == null ? null : remoteIdx.getTablet(repoIds.getTabletId());
+        return remoteTablet == null ? 0 : remoteTablet.getDataSize(true);
+    }
 
-                String repoTabletPath = jobInfo.getFilePath(repoIds);
-
-                // eg:
-                // bos://location/__starrocks_repository_my_repo/_ss_my_ss/_ss_content/__db_10000/
-                // __tbl_10001/__part_10002/_idx_10001/__10003
-                String src = repo.getRepoPath(label, repoTabletPath);
-                SnapshotInfo snapshotInfo = snapshotInfos.get(info.getTabletId(), info.getBeId());
-                Preconditions.checkNotNull(snapshotInfo, info.getTabletId() + "-" + info.getBeId());
-                // download to previously existing snapshot dir
-                String dest = snapshotInfo.getTabletPath();
-                srcToDest.put(src, dest);
-                LOG.debug("catalog id: {}, repo id: {}, repoTabletPath: {}, src: {}, dest: {}",
-                        catalogIds, repoIds, repoTabletPath, src, dest);
+    protected void sendDownloadTasks() {
+        for (long beId : downloadScheduler.getBackendIds()) {
+            sendDownloadUnits(beId);
+        }
+    }
+
+    private synchronized void sendDownloadUnits(long beId) {
+        List<TransferScheduler.Unit> units = downloadScheduler.pollUnitsToSend(beId);
+        if (units.isEmpty()) {
+            return;
+        }
+        Map<Long, Pair<String, String>> paths = beToDownloadPaths.get(beId);
+        List<FsBroker> brokerAddrs = beToDownloadProperties.get(beId).first;
+        THdfsProperties hdfsProperties = beToDownloadProperties.get(beId).second;
+        AgentBatchTask unitBatchTask = new AgentBatchTask();
+        for (TransferScheduler.Unit unit : units) {
+            Map<String, String> srcToDest = Maps.newHashMap();
+            for (long tabletId : unit.getTabletIds()) {
+                Pair<String, String> path = paths.get(tabletId);
+                srcToDest.put(path.first, path.second);
             }
             long signature = globalStateMgr.getNextId();
             DownloadTask task;
@@ -1360,16 +1453,12 @@ public class RestoreJob extends AbstractJob {
                 task = new DownloadTask(null, beId, signature, jobId, dbId,
                         srcToDest, null, repo.getStorage().getProperties(), hdfsProperties);
             }
-            batchTask.addTask(task);
+            unitBatchTask.addTask(task);
             unfinishedSignatureToId.put(signature, beId);
-        }
-    }
-
-    protected void sendDownloadTasks() {
-        for (AgentTask task : batchTask.getAllTasks()) {
+            downloadScheduler.onUnitSent(unit, signature);
             AgentTaskQueue.addTask(task);
         }
-        AgentTaskExecutor.submit(batchTask);
+        AgentTaskExecutor.submit(unitBatchTask);
     }
 
     private void commit() {
@@ -1582,9 +1671,14 @@ public class RestoreJob extends AbstractJob {
         info.add(TimeUtils.longToTimeString(finishedTime));
         try {
             info.add(Joiner.on(", ").join(unfinishedSignatureToId.entrySet()));
-            info.add(Joiner.on(", ").join(taskProgress.entrySet().stream().map(
+            List<String> progress = taskProgress.entrySet().stream().map(
                     e -> "[" + e.getKey() + ": " + e.getValue().first + "/" + e.getValue().second + "]").collect(
-                    Collectors.toList())));
+                    Collectors.toList());
+            TransferScheduler scheduler = getTransferScheduler();
+            if (scheduler != null && scheduler.getTotalUnits() > 0) {
+                progress.add(0, "[" + scheduler.getProgress(System.currentTimeMillis()) + "]");
+            }
+            info.add(Joiner.on(", ").join(progress));
             info.add(Joiner.on(", ").join(taskErrMsg.entrySet().stream().map(n -> "[" + n.getKey() + ": " + n.getValue()
                     + "]").collect(Collectors.toList())));
         } catch (Exception e) {
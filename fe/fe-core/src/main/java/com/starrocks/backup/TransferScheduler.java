@@ -0,0 +1,234 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.backup;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schedules the snapshot file transfer of a backup or restore job, i.e. the upload of the snapshots to the
+ * repository or the download of them from the repository.
+ * The tablets of a backend are split into units of about {@code unitBytes} and at most {@code maxTabletsPerUnit}
+ * tablets, each unit is sent as one task, and a backend has at most {@code maxRunningUnitsPerBe} units running,
+ * the next unit is sent once one is finished.
+ * So that
+ * 1. a failed task only transfers the tablets of its unit again, not a large batch of the backend
+ * 2. the units are sent largest first, so that a backend does not end up with one large unit running alone
+ * 3. a faster backend is not held up by the slower ones, it just runs through its own units
+ * The tablets are pinned to the backend which has the snapshot, so a unit is never moved to another backend.
+ * <p>
+ * This class is not thread safe, it is guarded by the lock of the job.
+ */
+public class TransferScheduler {
+    /**
+     * Tablets of one backend transferred by one task.
+     */
+    public static class Unit {
+        private final long beId;
+        private final List<Long> tabletIds;
+        private final long bytes;
+
+        Unit(long beId, List<Long> tabletIds, long bytes) {
+            this.beId = beId;
+            this.tabletIds = tabletIds;
+            this.bytes = bytes;
+        }
+
+        public long getBeId() {
+            return beId;
+        }
+
+        public List<Long> getTabletIds() {
+            return tabletIds;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    private static class BackendStat {
+        private final Deque<Unit> pendingUnits = new ArrayDeque<>();
+        private int runningUnits = 0;
+    }
+
+    private final long unitBytes;
+    private final int maxTabletsPerUnit;
+    private final int maxRunningUnitsPerBe;
+    private final Map<Long, BackendStat> backendStats = Maps.newTreeMap();
+    // task signature -> unit
+    private final Map<Long, Unit> runningUnits = Maps.newHashMap();
+
+    private final long startTimeMs;
+    private int totalUnits = 0;
+    private int finishedUnits = 0;
+    private int totalTablets = 0;
+    private int finishedTablets = 0;
+    private long totalBytes = 0;
+    private long finishedBytes = 0;
+    private int retriedUnits = 0;
+
+    /**
+     * @param unitBytes            a unit is closed once it has more bytes than this
+     * @param maxTabletsPerUnit    a unit is closed once it has this many tablets, <= 0 means no limitation
+     * @param maxRunningUnitsPerBe <= 0 means no limitation
+     */
+    public TransferScheduler(long unitBytes, int maxTabletsPerUnit, int maxRunningUnitsPerBe, long startTimeMs) {
+        this.unitBytes = unitBytes;
+        this.maxTabletsPerUnit = maxTabletsPerUnit;
+        this.maxRunningUnitsPerBe = maxRunningUnitsPerBe;
+        this.startTimeMs = startTimeMs;
+    }
+
+    /**
+     * Splits the tablets of a backend into units.
+     * A tablet with unknown size, i.e. 0 bytes, fills the current unit like the small tablets, the tablet limit of a
+     * unit keeps the unknown tablets from being all packed into one unit.
+     *
+     * @param tabletBytes tablet id -> estimated bytes of the tablet
+     */
+    public void addTablets(long beId, Map<Long, Long> tabletBytes) {
+        List<Map.Entry<Long, Long>> tablets = Lists.newArrayList(tabletBytes.entrySet());
+        tablets.sort(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        List<Unit> units = Lists.newArrayList();
+        List<Long> unitTablets = Lists.newArrayList();
+        long bytes = 0;
+        for (Map.Entry<Long, Long> tablet : tablets) {
+            long tabletSize = Math.max(tablet.getValue(), 0);
+            boolean unitFull = maxTabletsPerUnit > 0 && unitTablets.size() >= maxTabletsPerUnit;
+            if (!unitTablets.isEmpty() && (unitFull || bytes + tabletSize > unitBytes)) {
+                units.add(new Unit(beId, unitTablets, bytes));
+                unitTablets = Lists.newArrayList();
+                bytes = 0;
+            }
+            unitTablets.add(tablet.getKey());
+            bytes += tabletSize;
+            totalBytes += tabletSize;
+        }
+        if (!unitTablets.isEmpty()) {
+            units.add(new Unit(beId, unitTablets, bytes));
+        }
+
+        // largest first
+        units.sort(Comparator.comparingLong(Unit::getBytes).reversed());
+        BackendStat stat = backendStats.computeIfAbsent(beId, k -> new BackendStat());
+        stat.pendingUnits.addAll(units);
+        totalUnits += units.size();
+        totalTablets += tabletBytes.size();
+    }
+
+    /**
+     * @return the units to send to the backend now, the caller must call {@link #onUnitSent} for each of them
+     */
+    public List<Unit> pollUnitsToSend(long beId) {
+        List<Unit> units = Lists.newArrayList();
+        BackendStat stat = backendStats.get(beId);
+        if (stat == null) {
+            return units;
+        }
+        while (!stat.pendingUnits.isEmpty()
+                && (maxRunningUnitsPerBe <= 0 || stat.runningUnits + units.size() < maxRunningUnitsPerBe)) {
+            units.add(stat.pendingUnits.pollFirst());
+        }
+        return units;
+    }
+
+    public List<Long> getBackendIds() {
+        return Lists.newArrayList(backendStats.keySet());
+    }
+
+    public void onUnitSent(Unit unit, long signature) {
+        runningUnits.put(signature, unit);
+        backendStats.get(unit.beId).runningUnits++;
+    }
+
+    /**
+     * @return the finished unit, null if the task is not a running unit of this scheduler
+     */
+    public Unit finishUnit(long signature) {
+        Unit unit = runningUnits.remove(signature);
+        if (unit == null) {
+            return null;
+        }
+        backendStats.get(unit.beId).runningUnits--;
+        finishedUnits++;
+        finishedTablets += unit.tabletIds.size();
+        finishedBytes += unit.bytes;
+        return unit;
+    }
+
+    /**
+     * The task of the unit failed and is sent again by the agent task queue, only counted here.
+     */
+    public void onUnitFailed(long signature) {
+        if (runningUnits.containsKey(signature)) {
+            retriedUnits++;
+        }
+    }
+
+    public boolean isDone() {
+        return runningUnits.isEmpty() && backendStats.values().stream().allMatch(s -> s.pendingUnits.isEmpty());
+    }
+
+    public int getTotalUnits() {
+        return totalUnits;
+    }
+
+    public int getFinishedUnits() {
+        return finishedUnits;
+    }
+
+    public int getRunningUnits() {
+        return runningUnits.size();
+    }
+
+    public int getTotalTablets() {
+        return totalTablets;
+    }
+
+    public int getFinishedTablets() {
+        return finishedTablets;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getFinishedBytes() {
+        return finishedBytes;
+    }
+
+    public int getRetriedUnits() {
+        return retriedUnits;
+    }
+
+    public long getBytesPerSecond(long nowMs) {
+        long elapsedMs = nowMs - startTimeMs;
+        return elapsedMs <= 0 ? 0 : finishedBytes * 1000 / elapsedMs;
+    }
+
+    public String getProgress(long nowMs) {
+        return "units: " + finishedUnits + "/" + totalUnits + ", tablets: " + finishedTablets + "/" + totalTablets
+                + ", bytes: " + finishedBytes + "/" + totalBytes + ", bytes per second: " + getBytesPerSecond(nowMs)
+                + ", retried units: " + retriedUnits;
+    }
+}
@@ -85,6 +85,9 @@ public class Dictionary implements Writable {
     private String runtimeErrMsg;
     @SerializedName(value = "lastSuccessVersion")
     private long lastSuccessVersion = 0;
+    // The source table snapshot which the cache of lastSuccessVersion is refreshed from, used to refresh
+    // incrementally. It is only kept by the leader, so the first refresh after a restart is a full refresh.
+    private DictionaryRefreshPlan.SourceSnapshot refreshedSnapshot = null;
     // =============== Runtime parameter ===========================
 
     public Dictionary(long dictionaryId, String dictionaryName, String queryableObject,
@@ -296,6 +299,13 @@ public class Dictionary implements Writable {
     }
 
     public String buildQuery() {
+        return buildQuery(null);
+    }
+
+    /**
+     * @param partitionName only read the partition of the queryable object if it is not null
+     */
+    public String buildQuery(String partitionName) {
         StringBuilder sb = new StringBuilder();
         sb.append("SELECT ");
 
@@ -310,7 +320,11 @@ public class Dictionary implements Writable {
                 sb.append(", ");
             }
         }
-        sb.append(" FROM " + queryableObject + ";");
+        sb.append(" FROM " + queryableObject);
+        if (partitionName != null) {
+            sb.append(" PARTITION (`" + partitionName + "`)");
+        }
+        sb.append(";");
         return sb.toString();
     }
 
@@ -321,6 +335,7 @@ public class Dictionary implements Writable {
         this.lastSuccessRefreshTime = 0;
         this.lastSuccessFinishedTime = 0;
         this.lastSuccessVersion = 0;
+        this.refreshedSnapshot = null;
         this.updateNextSchedulableTime(this.getRefreshInterval());
         this.setLastSuccessVersion(0);
     }
@@ -364,6 +379,14 @@ public class Dictionary implements Writable {
         return this.lastSuccessVersion;
     }
 
+    public synchronized void setRefreshedSnapshot(DictionaryRefreshPlan.SourceSnapshot refreshedSnapshot) {
+        this.refreshedSnapshot = refreshedSnapshot;
+    }
+
+    public synchronized DictionaryRefreshPlan.SourceSnapshot getRefreshedSnapshot() {
+        return refreshedSnapshot;
+    }
+
     public boolean isRefreshing() {
         return this.state == DictionaryState.REFRESHING ||
                     this.state == DictionaryState.COMMITTING;
@@ -16,6 +16,7 @@ package com.starrocks.catalog;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.gson.annotations.SerializedName;
 import com.starrocks.analysis.DescriptorTable;
@@ -100,6 +101,8 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
 
     private Set<Long> unfinishedRefreshTasks = Sets.newHashSet();
     private final Set<Long> runningRefreshTasks = Sets.newHashSet();
+    // dictionaries requested to refresh by REFRESH DICTIONARY, whose refresh is never skipped
+    private final Set<Long> manualRefreshTasks = Sets.newHashSet();
 
     private final Lock lock = new ReentrantLock();
 
@@ -148,7 +151,7 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
 
                     RefreshDictionaryCacheWorker task =
                             new RefreshDictionaryCacheWorker(dictionariesMapById.get(dictionaryId),
-                                    getAndIncrementTxnIdUnlocked());
+                                    getAndIncrementTxnIdUnlocked(), manualRefreshTasks.remove(dictionaryId));
                     try {
                         submit(task);
                     } catch (RejectedExecutionException e) {
@@ -162,14 +165,23 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
     }
 
     public static void fillBackendsOrComputeNodes(List<TNetworkAddress> nodes) {
+        fillBackendsOrComputeNodes(nodes, Maps.newHashMap());
+    }
+
+    /**
+     * @param nodeStartTimes filled with id -> last start time of the nodes, a restarted node has lost its caches
+     */
+    public static void fillBackendsOrComputeNodes(List<TNetworkAddress> nodes, Map<Long, Long> nodeStartTimes) {
         List<Backend> backends = GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getBackends();
         for (Backend backend : backends) {
             nodes.add(backend.getBrpcAddress());
+            nodeStartTimes.put(backend.getId(), backend.getLastStartTime());
         }
 
         List<ComputeNode> computeNodes = GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getComputeNodes();
         for (ComputeNode cn : computeNodes) {
             nodes.add(cn.getBrpcAddress());
+            nodeStartTimes.put(cn.getId(), cn.getLastStartTime());
         }
     }
 
@@ -244,6 +256,7 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
                 dictionariesMapById.remove(dictionary.getDictionaryId());
                 dictionariesIdMapByName.remove(dictionary.getDictionaryName());
                 unfinishedRefreshTasks.remove(dictionary.getDictionaryId());
+                manualRefreshTasks.remove(dictionary.getDictionaryId());
             }
         } finally {
             lock.unlock();
@@ -263,6 +276,7 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
                 throw new MetaNotFoundException("refreshed dictionary not found");
             }
             unfinishedRefreshTasks.add(dictionary.getDictionaryId());
+            manualRefreshTasks.add(dictionary.getDictionaryId());
             dictionary.setRefreshing();
             dictionary.updateNextSchedulableTime(dictionary.getRefreshInterval());
             List<Dictionary> syncDictionary = Lists.newArrayList();
@@ -352,6 +366,15 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
         return curTxnId;
     }
 
+    public long getAndIncrementTxnId() {
+        lock.lock();
+        try {
+            return getAndIncrementTxnIdUnlocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public void updateLastSuccessTxnId(long dictionaryId, long txnId) {
         lock.lock();
         try {
@@ -556,19 +579,23 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
         private Dictionary dictionary;
         private long txnId;
         private List<TNetworkAddress> beNodes = Lists.newArrayList();
+        private Map<Long, Long> beNodeStartTimes = Maps.newHashMap();
         private boolean error;
         private String errMsg;
+        private final boolean manual;
+        private DictionaryRefreshPlan refreshPlan;
 
-        public RefreshDictionaryCacheWorker(Dictionary dictionary, long txnId) {
+        public RefreshDictionaryCacheWorker(Dictionary dictionary, long txnId, boolean manual) {
             this.dictionary = dictionary;
             this.txnId = txnId;
             this.error = false;
             this.errMsg = "";
+            this.manual = manual;
             initializeBeNodesAddress();
         }
 
         private void initializeBeNodesAddress() {
-            fillBackendsOrComputeNodes(this.beNodes);
+            fillBackendsOrComputeNodes(this.beNodes, this.beNodeStartTimes);
         }
 
         private ConnectContext buildConnectContext() {
@@ -610,10 +637,10 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
             return parsedStmt;
         }
 
-        private ExecPlan plan(StatementBase stmt, ConnectContext context) throws Exception {
+        private ExecPlan plan(StatementBase stmt, ConnectContext context, long partitionId) throws Exception {
             ExecPlan execPlan = null;
             execPlan = StatementPlanner.plan(stmt, context);
-            DataSink dataSink = new DictionaryCacheSink(this.beNodes, dictionary, txnId);
+            DataSink dataSink = new DictionaryCacheSink(this.beNodes, dictionary, txnId, partitionId);
             PlanFragment sinkFragment = execPlan.getFragments().get(0);
             sinkFragment.setSink(dataSink);
 
@@ -648,19 +675,45 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
             LOG.info("execute dictionary cache sink success, dictionary id: {}", dictionary.getDictionaryId());
         }
 
+        private void prepare() {
+            DictionaryRefreshPlan.SourceSnapshot snapshot = null;
+            try {
+                snapshot = DictionaryRefreshPlan.SourceSnapshot.of(dictionary, beNodeStartTimes);
+            } catch (Exception e) {
+                LOG.warn("get source snapshot failed, refresh dictionary cache fully, dictionary id: {}",
+                         dictionary.getDictionaryId(), e);
+            }
+            refreshPlan = DictionaryRefreshPlan.create(snapshot, dictionary.getRefreshedSnapshot(),
+                                                       dictionary.getLastSuccessVersion(), manual);
+            LOG.info("refresh dictionary cache, dictionary id: {}, txn id: {}, mode: {}, refresh partitions: {}, " +
+                     "dropped partitions: {}", dictionary.getDictionaryId(), txnId, refreshPlan.getMode(),
+                     refreshPlan.getRefreshPartitionIds(), refreshPlan.getDroppedPartitionIds());
+        }
+
         private void refresh() throws Exception {
             if (error) {
                 return;
             }
 
+            if (refreshPlan.getMode() == DictionaryRefreshPlan.Mode.FULL) {
+                refresh(dictionary.buildQuery(), -1);
+                return;
+            }
+            // one query for each partition, so that the BEs know the partition of the rows
+            for (Long partitionId : refreshPlan.getRefreshPartitionIds()) {
+                refresh(dictionary.buildQuery(refreshPlan.getPartitionName(partitionId)), partitionId);
+            }
+        }
+
+        private void refresh(String sqlString, long partitionId) throws Exception {
             // 1. context for plan
             ConnectContext context = buildConnectContext();
 
             // 2. get statement througth sql string
-            QueryStatement stmt = getStatement(dictionary.buildQuery(), context);
+            QueryStatement stmt = getStatement(sqlString, context);
 
             // 3. get the exec plan with dictionary cache sink
-            ExecPlan execPlan = plan(stmt, context);
+            ExecPlan execPlan = plan(stmt, context, partitionId);
 
             // 4. exec the query plan
             try {
@@ -676,6 +729,11 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
             request.dictId = dictionary.getDictionaryId();
             request.txnId = txnId;
             request.type = PProcessDictionaryCacheRequestType.BEGIN;
+            if (refreshPlan.getMode() == DictionaryRefreshPlan.Mode.INCREMENTAL) {
+                request.baseTxnId = dictionary.getLastSuccessVersion();
+                request.droppedPartitionIds = refreshPlan.getDroppedPartitionIds();
+                request.memoryLimit = dictionary.getMemoryLimit();
+            }
 
             error = DictionaryMgr.processDictionaryCacheInteranl(request, errMsg, beNodes, null);
         }
@@ -700,7 +758,15 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
         private void finish(long dictionaryId) {
             GlobalStateMgr.getCurrentState().getDictionaryMgr().unresigerRunningAndUnfinised(dictionaryId);
             if (!error) {
-                GlobalStateMgr.getCurrentState().getDictionaryMgr().updateLastSuccessTxnId(dictionaryId, txnId);
+                if (refreshPlan.getMode() != DictionaryRefreshPlan.Mode.SKIP) {
+                    GlobalStateMgr.getCurrentState().getDictionaryMgr().updateLastSuccessTxnId(dictionaryId, txnId);
+                    // keep the snapshot of the source for the next incremental refresh
+                    DictionaryRefreshPlan.SourceSnapshot snapshot = refreshPlan.getSnapshot();
+                    if (snapshot != null) {
+                        snapshot.setTxnId(txnId);
+                    }
+                    dictionary.setRefreshedSnapshot(snapshot);
+                }
                 dictionary.setFinished();
                 dictionary.setErrorMsg(""); // reset error msg
             } else if (dictionary.getIgnoreFailedRefresh() && dictionary.getState() == Dictionary.DictionaryState.REFRESHING) {
@@ -716,12 +782,7 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
             GlobalStateMgr.getCurrentState().getDictionaryMgr().syncDictionaryMeta(syncDictionary);
         }
 
-        @Override
-        public void run() {
-            // begin refresh dictionary cache txn
-            begin();
-
-            // refresh dictionary cache by executing query plan
+        private void tryRefresh() {
             try {
                 refresh();
             } catch (Exception e) {
@@ -729,6 +790,34 @@ public class DictionaryMgr implements Writable, GsonPostProcessable {
                 errMsg = e.getMessage();
                 error = true;
             }
+        }
+
+        @Override
+        public void run() {
+            // decide how to refresh by the partition versions of the source table
+            prepare();
+            if (refreshPlan.getMode() == DictionaryRefreshPlan.Mode.SKIP) {
+                finish(dictionary.getDictionaryId());
+                return;
+            }
+
+            // begin refresh dictionary cache txn
+            begin();
+
+            // refresh dictionary cache by executing query plan
+            tryRefresh();
+
+            // the cache of the last refresh may be lost on some BEs, fall back to a full refresh by a new txn
+            if (error && refreshPlan.getMode() == DictionaryRefreshPlan.Mode.INCREMENTAL) {
+                LOG.warn("incremental refresh dictionary cache failed, refresh it fully, dictionary id: {}, " +
+                         "txn id: {}", dictionary.getDictionaryId(), txnId);
+                refreshPlan = DictionaryRefreshPlan.fullByPartition(refreshPlan.getSnapshot());
+                txnId = GlobalStateMgr.getCurrentState().getDictionaryMgr().getAndIncrementTxnId();
+                error = false;
+                errMsg = "";
+                begin();
+                tryRefresh();
+            }
 
             // commit refresh dictionary cache txn
             commit();
@@ -0,0 +1,213 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.concurrent.lock.LockType;
+import com.starrocks.common.util.concurrent.lock.Locker;
+import com.starrocks.server.GlobalStateMgr;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides how a dictionary cache is refreshed by the partition versions of its source table.
+ * 1. FULL: read the whole source by one query, used when the source is not an olap table.
+ * 2. FULL_BY_PARTITION: read the whole source by one query for each partition, the BEs keep the partition of
+ * every key so that the following refreshes can be incremental.
+ * 3. INCREMENTAL: the BEs start from the cache of the last refresh without the keys of the changed and dropped
+ * partitions, then only the changed partitions are read.
+ * 4. SKIP: no partition is changed since the last refresh and no BE is restarted, the cache of the last refresh
+ * is still valid. A manual refresh is never skipped.
+ */
+public class DictionaryRefreshPlan {
+    public enum Mode {
+        FULL,
+        FULL_BY_PARTITION,
+        INCREMENTAL,
+        SKIP
+    }
+
+    private final Mode mode;
+    // snapshot of the source table which the dictionary cache will be refreshed from, null for FULL
+    private final SourceSnapshot snapshot;
+    // partitions to read
+    private final List<Long> refreshPartitionIds;
+    // partitions whose keys are removed from the cache of the last refresh, only for INCREMENTAL
+    private final List<Long> droppedPartitionIds;
+
+    private DictionaryRefreshPlan(Mode mode, SourceSnapshot snapshot, List<Long> refreshPartitionIds,
+                                  List<Long> droppedPartitionIds) {
+        this.mode = mode;
+        this.snapshot = snapshot;
+        this.refreshPartitionIds = refreshPartitionIds;
+        this.droppedPartitionIds = droppedPartitionIds;
+    }
+
+    public static DictionaryRefreshPlan full() {
+        return new DictionaryRefreshPlan(Mode.FULL, null, Lists.newArrayList(), Lists.newArrayList());
+    }
+
+    public static DictionaryRefreshPlan fullByPartition(SourceSnapshot snapshot) {
+        return new DictionaryRefreshPlan(Mode.FULL_BY_PARTITION, snapshot,
+                Lists.newArrayList(snapshot.partitionVersions.keySet()), Lists.newArrayList());
+    }
+
+    /**
+     * @param current            snapshot of the source table now, null if the source can't be refreshed by partition
+     * @param last               snapshot of the source table of the last successful refresh, null if unknown
+     * @param lastSuccessVersion the txn id of the dictionary cache on the BEs
+     */
+    public static DictionaryRefreshPlan create(SourceSnapshot current, SourceSnapshot last, long lastSuccessVersion) {
+        return create(current, last, lastSuccessVersion, false);
+    }
+
+    /**
+     * @param manual whether the refresh is requested by REFRESH DICTIONARY, which rebuilds the whole cache
+     */
+    public static DictionaryRefreshPlan create(SourceSnapshot current, SourceSnapshot last, long lastSuccessVersion,
+                                               boolean manual) {
+        if (current == null) {
+            return full();
+        }
+        // a restarted BE has lost the cache of the last refresh although its address is the same
+        if (manual || last == null || last.txnId != lastSuccessVersion || last.tableId != current.tableId ||
+                !last.nodeStartTimes.equals(current.nodeStartTimes)) {
+            return fullByPartition(current);
+        }
+
+        List<Long> changed = Lists.newArrayList();
+        List<Long> dropped = Lists.newArrayList();
+        long changedRows = 0;
+        long totalRows = 0;
+        for (Map.Entry<Long, Long> entry : current.partitionVersions.entrySet()) {
+            long rows = current.partitionRowCounts.getOrDefault(entry.getKey(), 0L);
+            totalRows += rows;
+            Long lastVersion = last.partitionVersions.get(entry.getKey());
+            if (lastVersion == null || !lastVersion.equals(entry.getValue())) {
+                changed.add(entry.getKey());
+                changedRows += rows;
+                if (lastVersion != null) {
+                    dropped.add(entry.getKey());
+                }
+            }
+        }
+        for (Long partitionId : last.partitionVersions.keySet()) {
+            if (!current.partitionVersions.containsKey(partitionId)) {
+                dropped.add(partitionId);
+            }
+        }
+
+        if (changed.isEmpty() && dropped.isEmpty()) {
+            return new DictionaryRefreshPlan(Mode.SKIP, current, changed, dropped);
+        }
+        if (totalRows > 0 && changedRows > totalRows * Config.dictionary_incremental_refresh_max_changed_ratio) {
+            return fullByPartition(current);
+        }
+        return new DictionaryRefreshPlan(Mode.INCREMENTAL, current, changed, dropped);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public SourceSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public List<Long> getRefreshPartitionIds() {
+        return refreshPartitionIds;
+    }
+
+    public List<Long> getDroppedPartitionIds() {
+        return droppedPartitionIds;
+    }
+
+    public String getPartitionName(long partitionId) {
+        return snapshot.partitionNames.get(partitionId);
+    }
+
+    /**
+     * Partition versions of the source table and the BEs that a dictionary cache is refreshed on.
+     */
+    public static class SourceSnapshot {
+        private final long tableId;
+        private final Map<Long, Long> partitionVersions = Maps.newHashMap();
+        private final Map<Long, String> partitionNames = Maps.newHashMap();
+        private final Map<Long, Long> partitionRowCounts = Maps.newHashMap();
+        // id -> start time of the BEs and CNs that the cache is refreshed on
+        private final Map<Long, Long> nodeStartTimes;
+        // txn id of the dictionary cache refreshed from this snapshot, set when the refresh succeeds
+        private long txnId = 0;
+
+        public SourceSnapshot(long tableId, Map<Long, Long> nodeStartTimes) {
+            this.tableId = tableId;
+            this.nodeStartTimes = Maps.newHashMap(nodeStartTimes);
+        }
+
+        public void addPartition(long partitionId, String partitionName, long version, long rowCount) {
+            partitionVersions.put(partitionId, version);
+            partitionNames.put(partitionId, partitionName);
+            partitionRowCounts.put(partitionId, rowCount);
+        }
+
+        public void setTxnId(long txnId) {
+            this.txnId = txnId;
+        }
+
+        public long getTxnId() {
+            return txnId;
+        }
+
+        /**
+         * @return null if the dictionary can't be refreshed by partition
+         */
+        public static SourceSnapshot of(Dictionary dictionary, Map<Long, Long> nodeStartTimes) {
+            if (!Config.enable_dictionary_incremental_refresh) {
+                return null;
+            }
+            Database db = GlobalStateMgr.getCurrentState().getMetadataMgr().getDb(
+                    dictionary.getCatalogName(), dictionary.getDbName());
+            Table table = GlobalStateMgr.getCurrentState().getMetadataMgr().getTable(
+                    dictionary.getCatalogName(), dictionary.getDbName(), dictionary.getQueryableObject());
+            if (db == null || !(table instanceof OlapTable)) {
+                return null;
+            }
+            OlapTable olapTable = (OlapTable) table;
+
+            SourceSnapshot snapshot = new SourceSnapshot(olapTable.getId(), nodeStartTimes);
+            Locker locker = new Locker();
+            locker.lockTablesWithIntensiveDbLock(db.getId(), Lists.newArrayList(olapTable.getId()), LockType.READ);
+            try {
+                if (olapTable.getPartitions().size() > Config.dictionary_incremental_refresh_max_partitions) {
+                    return null;
+                }
+                for (Partition partition : olapTable.getPartitions()) {
+                    // versions only grow, so the sum changes if any sub partition changes
+                    long version = 0;
+                    for (PhysicalPartition physicalPartition : partition.getSubPartitions()) {
+                        version += physicalPartition.getVisibleVersion();
+                    }
+                    snapshot.addPartition(partition.getId(), partition.getName(), version, partition.getRowCount());
+                }
+            } finally {
+                locker.unLockTablesWithIntensiveDbLock(db.getId(), Lists.newArrayList(olapTable.getId()), LockType.READ);
+            }
+            return snapshot;
+        }
+    }
+}
@@ -110,6 +110,11 @@ public class LocalTablet extends Tablet implements GsonPostProcessable {
 
     private long lastFullCloneFinishedTimeMs = -1;
 
+    // bumped under the write lock whenever a replica is added to or removed from this tablet, the caches of the
+    // replicas of this tablet, e.g. ScanRangeTemplateCache, are invalid once it changes
+    // no need to persist
+    private volatile long replicaEpoch = 0;
+
     private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
 
     public LocalTablet() {
@@ -134,6 +139,10 @@ public class LocalTablet extends Tablet implements GsonPostProcessable {
         this.immutableReplicas = Collections.unmodifiableList(replicas);
     }
 
+    public long getReplicaEpoch() {
+        return replicaEpoch;
+    }
+
     public long getCheckedVersion() {
         return this.checkedVersion;
     }
@@ -161,6 +170,7 @@ public class LocalTablet extends Tablet implements GsonPostProcessable {
                     hasBackend = true;
                     if (replica.getVersion() <= version) {
                         iterator.remove();
+                        replicaEpoch++;
                         delete = true;
                     }
                 }
@@ -173,6 +183,7 @@ public class LocalTablet extends Tablet implements GsonPostProcessable {
         try (CloseableLock ignored = CloseableLock.lock(this.rwLock.writeLock())) {
             if (deleteRedundantReplica(replica.getBackendId(), replica.getVersion())) {
                 replicas.add(replica);
+                replicaEpoch++;
                 if (updateInvertedIndex) {
                     GlobalStateMgr.getCurrentState().getTabletInvertedIndex().addReplica(id, replica);
                 }
@@ -291,25 +302,10 @@ public class LocalTablet extends Tablet implements GsonPostProcessable {
                                      long visibleVersion, long localBeId, int schemaHash) {
         try (CloseableLock ignored = CloseableLock.lock(this.rwLock.readLock())) {
             for (Replica replica : replicas) {
-                if (replica.isBad()) {
-                    continue;
-                }
-
-                // Skip the missing version replica
-                if (replica.getLastFailedVersion() > 0) {
-                    continue;
-                }
-
-                ReplicaState state = replica.getState();
-                if (state.canQuery()) {
-                    // replica.getSchemaHash() == -1 is for compatibility
-                    if (replica.checkVersionCatchUp(visibleVersion, false)
-                            && replica.getMinReadableVersion() <= visibleVersion
-                            && (replica.getSchemaHash() == -1 || replica.getSchemaHash() == schemaHash)) {
-                        allQueryableReplicas.add(replica);
-                        if (localBeId != -1 && replica.getBackendId() == localBeId) {
-                            localReplicas.add(replica);
-                        }
+                if (replica.isQueryable(visibleVersion, schemaHash)) {
+                    allQueryableReplicas.add(replica);
+                    if (localBeId != -1 && replica.getBackendId() == localBeId) {
+                        localReplicas.add(replica);
                     }
                 }
             }
@@ -326,23 +322,8 @@ public class LocalTablet extends Tablet implements GsonPostProcessable {
         int size = 0;
         try (CloseableLock ignored = CloseableLock.lock(this.rwLock.readLock())) {
             for (Replica replica : replicas) {
-                if (replica.isBad()) {
-                    continue;
-                }
-
-                // Skip the missing version replica
-                if (replica.getLastFailedVersion() > 0) {
-                    continue;
-                }
-
-                ReplicaState state = replica.getState();
-                if (state.canQuery()) {
-                    // replica.getSchemaHash() == -1 is for compatibility
-                    if (replica.checkVersionCatchUp(visibleVersion, false)
-                            && replica.getMinReadableVersion() <= visibleVersion
-                            && (replica.getSchemaHash() == -1 || replica.getSchemaHash() == schemaHash)) {
-                        size++;
-                    }
+                if (replica.isQueryable(visibleVersion, schemaHash)) {
+                    size++;
                 }
             }
         }
@@ -375,6 +356,7 @@ public class LocalTablet extends Tablet implements GsonPostProcessable {
         try (CloseableLock ignored = CloseableLock.lock(this.rwLock.writeLock())) {
             if (replicas.contains(replica)) {
                 replicas.remove(replica);
+                replicaEpoch++;
                 GlobalStateMgr.getCurrentState().getTabletInvertedIndex().deleteReplica(id, replica.getBackendId());
                 return true;
             }
@@ -389,6 +371,7 @@ public class LocalTablet extends Tablet implements GsonPostProcessable {
                 Replica replica = iterator.next();
                 if (replica.getBackendId() == backendId) {
                     iterator.remove();
+                    replicaEpoch++;
                     GlobalStateMgr.getCurrentState().getTabletInvertedIndex().deleteReplica(id, backendId);
                     return true;
                 }
@@ -402,6 +385,7 @@ public class LocalTablet extends Tablet implements GsonPostProcessable {
     public void clearReplica() {
         try (CloseableLock ignored = CloseableLock.lock(this.rwLock.writeLock())) {
             this.replicas.clear();
+            replicaEpoch++;
         }
     }
 
@@ -849,7 +849,7 @@ public class OlapTable extends Table {
                 rangePartitionInfo.idToReplicationNum.remove(entry.getValue());
                 rangePartitionInfo.idToReplicationNum.put(newPartId,
                         (short) restoreReplicationNum);
-                rangePartitionInfo.getIdToRange(false).put(newPartId,
+                rangePartitionInfo.setRange(newPartId, false,
                         rangePartitionInfo.getIdToRange(false).remove(entry.getValue()));
 
                 rangePartitionInfo.idToInMemory
@@ -35,9 +35,12 @@
 package com.starrocks.catalog;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableRangeMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
+import com.google.common.collect.RangeMap;
+import com.google.common.collect.TreeRangeMap;
 import com.google.gson.annotations.SerializedName;
 import com.starrocks.analysis.Expr;
 import com.starrocks.common.AnalysisException;
@@ -86,6 +89,11 @@ public class RangePartitionInfo extends PartitionInfo {
     // temp partition id -> partition range
     private Map<Long, Range<PartitionKey>> idToTempRange = Maps.newConcurrentMap();
 
+    // Interval index of the formal partition ranges for partition pruning, built on demand. The version is
+    // increased after any formal range changes, and an index built before that is stale.
+    private volatile long rangeVersion = 0;
+    private volatile RangeIndex rangeIndex;
+
     // partitionId -> serialized Range<PartitionKey>
     // because Range<PartitionKey> and PartitionKey can not be serialized by gson
     // ATTN: call preSerialize before serialization and postDeserialized after deserialization
@@ -134,6 +142,7 @@ public class RangePartitionInfo extends PartitionInfo {
         super.dropPartition(partitionId);
         idToRange.remove(partitionId);
         idToTempRange.remove(partitionId);
+        rangeVersion++;
     }
 
     public void addPartition(long partitionId, boolean isTemp, Range<PartitionKey> range, DataProperty dataProperty,
@@ -339,6 +348,26 @@ public class RangePartitionInfo extends PartitionInfo {
         }
     }
 
+    /**
+     * Returns the interval index of the formal partition ranges, whose values are the partition ids.
+     * The index is shared by the queries until any formal range changes.
+     */
+    public RangeMap<PartitionKey, Long> getRangeIndex() {
+        // read the version before the ranges, so an index never has older ranges than its version
+        long version = rangeVersion;
+        RangeIndex index = rangeIndex;
+        if (index != null && index.version == version) {
+            return index.ranges;
+        }
+        RangeMap<PartitionKey, Long> ranges = TreeRangeMap.create();
+        for (Map.Entry<Long, Range<PartitionKey>> entry : idToRange.entrySet()) {
+            ranges.put(entry.getValue(), entry.getKey());
+        }
+        index = new RangeIndex(version, ImmutableRangeMap.copyOf(ranges));
+        rangeIndex = index;
+        return index.ranges;
+    }
+
     public Range<PartitionKey> getRange(long partitionId) {
         Range<PartitionKey> range = idToRange.get(partitionId);
         if (range == null) {
@@ -437,6 +466,7 @@ public class RangePartitionInfo extends PartitionInfo {
             idToTempRange.put(partitionId, range);
         } else {
             idToRange.put(partitionId, range);
+            rangeVersion++;
         }
     }
 
@@ -445,6 +475,7 @@ public class RangePartitionInfo extends PartitionInfo {
             idToTempRange.remove(partitionId);
         } else {
             idToRange.remove(partitionId);
+            rangeVersion++;
         }
     }
 
@@ -452,6 +483,7 @@ public class RangePartitionInfo extends PartitionInfo {
         Range<PartitionKey> range = idToTempRange.remove(tempPartitionId);
         if (range != null) {
             idToRange.put(tempPartitionId, range);
+            rangeVersion++;
         }
     }
 
@@ -495,6 +527,7 @@ public class RangePartitionInfo extends PartitionInfo {
             }
             serializedIdToRange = null;
         }
+        rangeVersion++;
         idToTempRange = Maps.newConcurrentMap();
         if (serializedIdToTempRange != null && !serializedIdToTempRange.isEmpty()) {
             for (Map.Entry<Long, byte[]> entry : serializedIdToTempRange.entrySet()) {
@@ -579,7 +612,18 @@ public class RangePartitionInfo extends PartitionInfo {
         info.partitionColumnIds = Lists.newArrayList(this.partitionColumnIds);
         info.idToRange = new ConcurrentHashMap<>(this.idToRange);
         info.idToTempRange = new ConcurrentHashMap<>(this.idToTempRange);
+        info.rangeIndex = null;
         info.isMultiColumnPartition = partitionColumnIds.size() > 1;
         return info;
     }
+
+    private static class RangeIndex {
+        private final long version;
+        private final RangeMap<PartitionKey, Long> ranges;
+
+        RangeIndex(long version, RangeMap<PartitionKey, Long> ranges) {
+            this.version = version;
+            this.ranges = ranges;
+        }
+    }
 }
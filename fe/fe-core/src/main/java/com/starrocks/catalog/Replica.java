@@ -540,6 +540,19 @@ public class Replica implements Writable {
         return true;
     }
 
+    /**
+     * Whether the data of the visible version can be read from this replica.
+     */
+    public boolean isQueryable(long visibleVersion, int schemaHash) {
+        // Skip the bad and the missing version replica
+        if (bad || lastFailedVersion > 0 || !state.canQuery()) {
+            return false;
+        }
+        // schemaHash == -1 is for compatibility
+        return checkVersionCatchUp(visibleVersion, false) && minReadableVersion <= visibleVersion
+                && (this.schemaHash == -1 || this.schemaHash == schemaHash);
+    }
+
     public void setState(ReplicaState replicaState) {
         this.state = replicaState;
     }
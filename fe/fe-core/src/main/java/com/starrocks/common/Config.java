@@ -600,6 +600,15 @@ public class Config extends ConfigBase {
     @ConfField
     public static int heartbeat_mgr_blocking_queue_size = 1024;
 
+    /**
+     * A heartbeat round of heartbeat_mgr only waits for the responses until the next round is due, the nodes that
+     * have not answered are handled in the following rounds. If the phi of the accrual failure detector of such a
+     * backend or compute node is larger than this, its heartbeat is regarded as failed without waiting for the rpc
+     * timeout. 0 means to always wait for the rpc timeout.
+     */
+    @ConfField(mutable = true)
+    public static double heartbeat_phi_threshold = 8.0;
+
     /**
      * num of thread to handle profile processing
      */
@@ -765,6 +774,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean enable_http_detail_metrics = false;
 
+    /**
+     * Whether to send the prometheus metrics of /metrics as a chunked response while they are being encoded,
+     * instead of building the whole text in memory first.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_metrics_chunked_response = true;
+
     /**
      * Cluster name will be shown as the title of web page
      */
@@ -861,6 +877,25 @@ public class Config extends ConfigBase {
     @ConfField
     public static int max_http_sql_service_task_threads_num = 4096;
 
+    /**
+     * FE arrow flight sql server port, the server is not started if it is -1.
+     */
+    @ConfField
+    public static int arrow_flight_port = -1;
+
+    /**
+     * max num of thread to execute the queries of arrow flight sql.
+     */
+    @ConfField
+    public static int max_arrow_flight_sql_task_threads_num = 4096;
+
+    /**
+     * The result of an arrow flight sql query is dropped and the query is cancelled if the client doesn't start
+     * fetching it in this time after the flight info is returned.
+     */
+    @ConfField
+    public static int arrow_flight_sql_result_expire_seconds = 300;
+
     /**
      * modifies the version string returned by following situations:
      * select version();
@@ -870,6 +905,15 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static String mysql_server_version = "5.1.0";
 
+    /**
+     * Whether to advertise CLIENT_COMPRESS and CLIENT_ZSTD_COMPRESSION_ALGORITHM in the handshake packet.
+     * If the client asks for compression (e.g. mysql --compression-algorithms=zstd, or useCompression=true
+     * of JDBC), the packets after authentication are sent in compressed frames, which saves network bandwidth
+     * for large text results at the cost of CPU.
+     */
+    @ConfField(mutable = true)
+    public static boolean mysql_server_enable_compression = false;
+
     /**
      * If a backend is down for *max_backend_down_time_second*, a BACKEND_DOWN event will be triggered.
      * Do not set this if you know what you are doing.
@@ -1392,6 +1436,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, comment = "The number of bytes to retain profile files")
     public static long proc_profile_file_retained_size_bytes = 2L * 1024 * 1024 * 1024;
 
+    /**
+     * true to record the thread cpu time and the allocated bytes of the planner scopes in Tracers, they are shown
+     * in the planner profile and aggregated into the histograms of each scope in the metrics
+     */
+    @ConfField(mutable = true, comment = "true to record the thread cpu time and the allocated bytes of " +
+            "the planner scopes")
+    public static boolean enable_trace_scope_resource_usage = false;
+
     /**
      * If batch creation of partitions is allowed to create half of the partitions, it is easy to generate holes.
      * By default, this is not enabled. If it is turned on, the partitions built by batch creation syntax will
@@ -1411,6 +1463,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_query_retry_time = 2;
 
+    /**
+     * Whether to request the next result batch from BE as soon as a batch is received, so that BE fetches the
+     * next batch while FE is sending the current one to the client. At most one extra batch is buffered for
+     * each query.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_result_prefetch = false;
+
     /**
      * In order not to wait too long for create table(index), set a max timeout.
      */
@@ -1735,6 +1795,27 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long routine_load_task_timeout_second = 60;
 
+    /**
+     * Whether to plan kafka routine load tasks by the lag of each partition:
+     * tasks with larger lag are scheduled first and consume longer, idle partitions are merged into one task.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_routine_load_lag_aware_scheduling = false;
+
+    /**
+     * The max consume time of a routine load task catching up a large lag when
+     * enable_routine_load_lag_aware_scheduling is true, it's also bounded by half of the task timeout
+     */
+    @ConfField(mutable = true)
+    public static long routine_load_task_max_consume_second = 60;
+
+    /**
+     * Kafka partitions whose lag (number of messages) is less than this are merged into one task
+     * when enable_routine_load_lag_aware_scheduling is true
+     */
+    @ConfField(mutable = true)
+    public static long routine_load_idle_partition_lag = 1000;
+
     /**
      * kafka util request timeout
      */
@@ -2099,6 +2180,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long histogram_max_sample_row_count = 10000000;
 
+    /**
+     * Collect histogram for each changed partition and merge the partition histograms in FE,
+     * instead of rebuilding the histogram from the whole table
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_incremental_histogram_collect = false;
+
     @ConfField(mutable = true)
     public static long connector_table_query_trigger_analyze_small_table_rows = 10000000; // 10M
 
@@ -2139,6 +2227,19 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_distribution_pruner_recursion_depth = 100;
 
+    /**
+     * The number of threads pruning the tablets of the partitions of a query in parallel with the planner thread,
+     * when the query selects at least partition_prune_parallel_min_partitions partitions.
+     */
+    @ConfField
+    public static int partition_prune_parallelism = 4;
+
+    /**
+     * The tablets of fewer partitions than this are pruned by the planner thread alone. 0 disables parallel pruning.
+     */
+    @ConfField(mutable = true)
+    public static int partition_prune_parallel_min_partitions = 10000;
+
     /**
      * Used to limit num of partition for one batch partition clause or one load for expression partition
      */
@@ -2211,6 +2312,26 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_hive_partitions_per_rpc = 5000;
 
+    /**
+     * The number of threads to fetch the partitions of a hive catalog from the metastore in parallel.
+     * Can be overridden by the catalog property "partition_fetch_thread_num".
+     */
+    @ConfField
+    public static int hive_partition_fetch_concurrency = 8;
+
+    /**
+     * The expected latency of one RPC fetching partitions from the metastore, the number of partitions
+     * fetched in one RPC is decreased if the RPC is slower than it, and increased if the RPC is much faster.
+     */
+    @ConfField(mutable = true)
+    public static long hive_partition_fetch_target_latency_ms = 2000;
+
+    /**
+     * The expected payload bytes of one RPC fetching partitions from the metastore.
+     */
+    @ConfField(mutable = true)
+    public static long hive_partition_fetch_target_batch_bytes = 32L * 1024 * 1024;
+
     /**
      * The interval of lazy refreshing remote file's metadata cache
      */
@@ -2666,7 +2787,7 @@ public class Config extends ConfigBase {
     public static String lake_compaction_selector = "ScoreSelector";
 
     @ConfField
-    public static String lake_compaction_sorter = "ScoreSorter";
+    public static String lake_compaction_sorter = "ReadFrequencySorter";
 
     @ConfField(mutable = true)
     public static long lake_compaction_simple_selector_min_versions = 3;
@@ -2716,6 +2837,26 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean lake_compaction_allow_partial_success = false;
 
+    @ConfField(mutable = true, comment = "the max number of tablet compaction tasks running on one compute node, " +
+            "-1 means no limit. A node without running compaction always accepts one job")
+    public static int lake_compaction_max_tasks_per_node = -1;
+
+    @ConfField(mutable = true, comment = "the max estimated bytes of compaction input running on one compute node, " +
+            "-1 means no limit. A node without running compaction always accepts one job")
+    public static long lake_compaction_max_bytes_per_node = -1;
+
+    @ConfField(mutable = true, comment = "the max estimated bytes of compaction input running in the compaction " +
+            "warehouse, -1 means no limit")
+    public static long lake_compaction_max_bytes_per_warehouse = -1;
+
+    // e.g. "warehouse1:1073741824;warehouse2:-1"
+    @ConfField(mutable = true, comment = "the max estimated bytes of compaction input running in each listed " +
+            "warehouse, overrides lake_compaction_max_bytes_per_warehouse for these warehouses")
+    public static String lake_compaction_max_bytes_of_warehouses = "";
+
+    @ConfField(mutable = true, comment = "half life in seconds of the table read count used by ReadFrequencySorter")
+    public static long lake_compaction_read_frequency_half_life_second = 600;
+
     @ConfField(mutable = true, comment = "the max number of previous version files to keep")
     public static int lake_autovacuum_max_previous_versions = 0;
 
@@ -2768,6 +2909,20 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean enable_new_publish_mechanism = false;
 
+    /**
+     * Whether to finish the ready transactions of different tables concurrently when
+     * `enable_new_publish_mechanism` is on, so that a slow table does not delay the visibility of the others.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_parallel_publish_finish = false;
+
+    /**
+     * The max number of threads to finish transactions concurrently, only used when
+     * `enable_parallel_publish_finish` is on.
+     */
+    @ConfField(mutable = true)
+    public static int publish_finish_max_threads = 16;
+
     @ConfField(mutable = true)
     public static boolean enable_sync_publish = true;
 
@@ -2965,17 +3120,41 @@ public class Config extends ConfigBase {
     public static long load_profile_collect_interval_second = 0;
 
     /**
+     * The max number of upload tasks running on a backend for a backup job.
      * If set to <= 0, means that no limitation.
      */
     @ConfField(mutable = true)
     public static int max_upload_task_per_be = 0;
 
     /**
+     * The max number of download tasks running on a backend for a restore job.
      * If set to <= 0, means that no limitation.
      */
     @ConfField(mutable = true)
     public static int max_download_task_per_be = 0;
 
+    /**
+     * The snapshot files of a backup or restore job are transferred by units of tablets of about this size,
+     * and a unit is one upload or download task. Each backend runs at most max_upload_task_per_be or
+     * max_download_task_per_be units at the same time, and the next unit is sent once one is finished.
+     */
+    @ConfField(mutable = true)
+    public static long backup_restore_transfer_unit_bytes = 512L * 1024 * 1024;
+
+    /**
+     * The max number of tablets of a transfer unit, so that the small tablets and the tablets of unknown size are
+     * split into several units. If set to <= 0, means that no limitation.
+     */
+    @ConfField(mutable = true)
+    public static int backup_restore_transfer_unit_max_tablets = 256;
+
+    /**
+     * The interval to persist the transferred tablets of a running backup or restore job, so that the job taken
+     * over by a new leader does not transfer them again. If set to <= 0, the transfer is never checkpointed.
+     */
+    @ConfField(mutable = true)
+    public static long backup_restore_transfer_checkpoint_interval_second = 300;
+
     /*
      * Using persistent index in primary key table by default when creating table.
      */
@@ -3000,6 +3179,9 @@ public class Config extends ConfigBase {
     public static int pipe_scheduler_interval_millis = 1000;
     @ConfField(mutable = true, comment = "default poll interval of pipe")
     public static int pipe_default_poll_interval_s = 60 * 5;
+    @ConfField(mutable = true, comment = "Whether to find the new files of a pipe by an in-memory index of " +
+            "the staged files, instead of querying the file-list table on each poll")
+    public static boolean pipe_enable_staged_file_index = true;
 
     @ConfField(mutable = true)
     public static long mv_active_checker_interval_seconds = 60;
@@ -3162,6 +3344,27 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int refresh_dictionary_cache_thread_num = 2;
 
+    /**
+     * Whether to refresh the dictionary cache incrementally, only the partitions of the source table whose
+     * version changed since the last refresh are read, a full refresh is only the fallback.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_dictionary_incremental_refresh = true;
+
+    /**
+     * An incremental refresh reads the source table by partition, one query for a partition, so the dictionary
+     * over a table with more partitions than this is always fully refreshed by one query.
+     */
+    @ConfField(mutable = true)
+    public static int dictionary_incremental_refresh_max_partitions = 64;
+
+    /**
+     * Fully refresh the dictionary cache if the changed partitions have more than this ratio of the rows
+     * of the source table.
+     */
+    @ConfField(mutable = true)
+    public static double dictionary_incremental_refresh_max_changed_ratio = 0.5;
+
     /*
      * Replication config
      */
@@ -3220,6 +3423,63 @@ public class Config extends ConfigBase {
     @ConfField
     public static boolean enable_parser_context_cache = true;
 
+    /**
+     * Whether to parse INSERT ... VALUES of literals and simple point queries by the hand-written
+     * fast path parser instead of ANTLR. Other statements are always parsed by ANTLR.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_fast_path_parser = true;
+
+    /**
+     * Whether to cache the replica candidates of the tablets of the scanned (physical partition, index,
+     * visible version), so that the scan ranges of the following queries are built without collecting
+     * the queryable replicas of every tablet again.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_scan_range_template_cache = true;
+
+    /**
+     * The max number of tablets in the scan range template cache.
+     */
+    @ConfField
+    public static long scan_range_template_cache_max_tablets = 500000;
+
+    /**
+     * The tablet scanned by a query with enable_scan_replica_affinity is scanned on the same backend by the
+     * following queries in this time, so the concurrent queries reading the same tablet share the page cache.
+     * The time starts when the backend is chosen, after it the next query chooses the backend by load again.
+     */
+    @ConfField
+    public static long scan_replica_affinity_expire_ms = 10000;
+
+    /**
+     * The max number of tablets whose scan backend is remembered for enable_scan_replica_affinity.
+     */
+    @ConfField
+    public static long scan_replica_affinity_max_tablets = 1000000;
+
+    /**
+     * A query only follows the backend recorded by scan replica affinity for a tablet while that backend is assigned
+     * at most this number of scan ranges more than the least loaded replica of the tablet, so the queries scanning
+     * different subsets of the tablets are still balanced over the backends.
+     */
+    @ConfField(mutable = true)
+    public static long scan_replica_affinity_max_skew = 2;
+
+    /**
+     * Whether to deploy the plan fragment and the descriptor table of a query as a fragment template, which is
+     * cached by the backend and reused by the following queries of the same plan, so that only the per-instance
+     * params are sent to the backend.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_fragment_template = true;
+
+    /**
+     * The max number of fragment templates that FE remembers as cached by one backend.
+     */
+    @ConfField
+    public static long fragment_template_max_num_per_backend = 10000;
+
     // Whether restore tables into colocate group if the
     // backuped table is colocated
     @ConfField(mutable = true)
@@ -3248,4 +3508,36 @@ public class Config extends ConfigBase {
      */
     @ConfField(mutable = true)
     public static long slow_query_analyze_threshold = 5000;
+
+    /**
+     * Record the observed selectivity of scan predicates and inner join conditions after the query
+     * finishes, and use it to correct the estimated cardinality of the same predicates and joins
+     * in the later queries. The feedback is persisted by leader and synced to the other FEs.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_cardinality_feedback = false;
+
+    /**
+     * The max number of predicate and join signatures kept in the cardinality feedback store
+     */
+    @ConfField
+    public static long cardinality_feedback_max_entries = 100000;
+
+    /**
+     * The interval in ms at which leader writes the new cardinality feedback to edit log
+     */
+    @ConfField
+    public static long cardinality_feedback_flush_interval_ms = 10000;
+
+    /**
+     * The max number of join conditions whose runtime filter feedback is kept for enable_adaptive_runtime_filter
+     */
+    @ConfField
+    public static long runtime_filter_feedback_max_entries = 100000;
+
+    /**
+     * The runtime filter feedback expires in this time, so a filter dropped by its feedback is tried again
+     */
+    @ConfField
+    public static long runtime_filter_feedback_expire_seconds = 3600;
 }
@@ -39,6 +39,11 @@ public class CommandLogTracer extends LogTracer {
         this.logs.add(new LogEvent(time, log));
     }
 
+    @Override
+    public void merge(LogTracer other) {
+        this.logs.addAll(other.getLogs());
+    }
+
     public List<LogEvent> getLogs() {
         return this.logs;
     }
@@ -28,6 +28,9 @@ public abstract class LogTracer {
     public void log(long time, Function<Object[], String> logFunc, Object... objects) {
     }
 
+    public void merge(LogTracer other) {
+    }
+
     public List<LogEvent> getLogs() {
         return Collections.emptyList();
     }
@@ -18,6 +18,8 @@ import com.google.common.base.Stopwatch;
 import com.starrocks.common.util.DebugUtil;
 import org.apache.commons.lang3.StringUtils;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -26,11 +28,44 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class TimeWatcher {
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
     private int levels = 0;
 
     private final Map<String, ScopedTimer> timers = new LinkedHashMap<>();
 
+    // The cpu time and the allocated bytes are only recorded for the scopes on the owner thread of the watcher.
+    // The watcher is not thread-safe, a parallel task records its scopes in a watcher of its own, see Tracers#fork.
+    // The owner of a forked watcher is the thread which enters its first scope, i.e. the thread of the task.
+    private Thread ownerThread;
+    private final boolean traceResourceUsage;
+
+    public TimeWatcher() {
+        this(false);
+    }
+
+    public TimeWatcher(boolean traceResourceUsage) {
+        this(traceResourceUsage, Thread.currentThread());
+    }
+
+    private TimeWatcher(boolean traceResourceUsage, Thread ownerThread) {
+        this.ownerThread = ownerThread;
+        this.traceResourceUsage = traceResourceUsage && THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() &&
+                THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+    }
+
+    public boolean isTraceResourceUsage() {
+        return traceResourceUsage;
+    }
+
+    public TimeWatcher fork() {
+        return new TimeWatcher(traceResourceUsage, null);
+    }
+
     public Timer scope(long time, String name) {
+        if (ownerThread == null) {
+            ownerThread = Thread.currentThread();
+        }
         ScopedTimer t;
         if (timers.containsKey(name)) {
             t = timers.get(name);
@@ -42,6 +77,21 @@ public class TimeWatcher {
         return t;
     }
 
+    /**
+     * Adds the timers of the watcher of a finished task to this watcher, the timers of the same name are summed up.
+     * The scopes of the task are nested in the scope which is entered on this watcher when merging.
+     */
+    public void merge(TimeWatcher other) {
+        for (ScopedTimer timer : other.timers.values()) {
+            ScopedTimer t = timers.get(timer.name);
+            if (t == null) {
+                t = new ScopedTimer(timer.firstTimePoints, timer.name, levels + timer.scopeLevel);
+                timers.put(timer.name, t);
+            }
+            t.merge(timer);
+        }
+    }
+
     public List<Timer> getAllTimerWithOrder() {
         return timers.values().stream().sorted(Comparator.comparingLong(o -> o.firstTimePoints))
                 .collect(Collectors.toList());
@@ -56,10 +106,21 @@ public class TimeWatcher {
         private int count = 0;
         private int reentrantCount = 0;
 
+        private long startCpuTimeNs;
+        private long startAllocatedBytes;
+        private long cpuTimeNs = 0;
+        private long allocatedBytes = 0;
+        // the time of the merged timers of the parallel tasks
+        private long mergedTimeNs = 0;
+
         public ScopedTimer(long time, String name) {
+            this(time, name, levels);
+        }
+
+        private ScopedTimer(long time, String name, int scopeLevel) {
             this.firstTimePoints = time;
             this.name = name;
-            this.scopeLevel = levels;
+            this.scopeLevel = scopeLevel;
         }
 
         @Override
@@ -70,6 +131,10 @@ public class TimeWatcher {
         public void start() {
             if (reentrantCount == 0) {
                 stopWatch.start();
+                if (isTracingResourceUsage()) {
+                    startCpuTimeNs = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+                    startAllocatedBytes = getCurrentThreadAllocatedBytes();
+                }
             }
             reentrantCount++;
             levels++;
@@ -81,9 +146,24 @@ public class TimeWatcher {
             levels--;
             if (reentrantCount == 0) {
                 stopWatch.stop();
+                if (isTracingResourceUsage()) {
+                    cpuTimeNs += THREAD_MX_BEAN.getCurrentThreadCpuTime() - startCpuTimeNs;
+                    allocatedBytes += getCurrentThreadAllocatedBytes() - startAllocatedBytes;
+                }
             }
         }
 
+        private void merge(ScopedTimer other) {
+            count += other.count;
+            mergedTimeNs += other.stopWatch.elapsed(TimeUnit.NANOSECONDS) + other.mergedTimeNs;
+            cpuTimeNs += other.cpuTimeNs;
+            allocatedBytes += other.allocatedBytes;
+        }
+
+        private boolean isTracingResourceUsage() {
+            return traceResourceUsage && Thread.currentThread() == ownerThread;
+        }
+
         @Override
         public long getFirstTimePoint() {
             return firstTimePoints;
@@ -91,13 +171,39 @@ public class TimeWatcher {
 
         @Override
         public String toString() {
-            return StringUtils.repeat("    ", scopeLevel) + "-- " + name + "[" + count + "] " +
+            String str = StringUtils.repeat("    ", scopeLevel) + "-- " + name + "[" + count + "] " +
                     DebugUtil.getPrettyStringMs(getTotalTime());
+            if (traceResourceUsage) {
+                str += " cpu: " + DebugUtil.getPrettyStringNs(cpuTimeNs) +
+                        " alloc: " + DebugUtil.getPrettyStringBytes(allocatedBytes);
+            }
+            return str;
         }
 
         @Override
         public long getTotalTime() {
-            return stopWatch.elapsed(TimeUnit.MILLISECONDS);
+            return TimeUnit.NANOSECONDS.toMillis(stopWatch.elapsed(TimeUnit.NANOSECONDS) + mergedTimeNs);
+        }
+
+        @Override
+        public long getCpuTimeUs() {
+            return TimeUnit.NANOSECONDS.toMicros(cpuTimeNs);
+        }
+
+        @Override
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+
+    // HotSpot counts the bytes allocated in TLABs and the heap by each thread, 0 if the counter is not available
+    private static long getCurrentThreadAllocatedBytes() {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
         }
+        return 0;
     }
 }
@@ -35,6 +35,14 @@ public class Timer implements AutoCloseable {
         return 0;
     }
 
+    public long getCpuTimeUs() {
+        return 0;
+    }
+
+    public long getAllocatedBytes() {
+        return 0;
+    }
+
     public long getFirstTimePoint() {
         return 0;
     }
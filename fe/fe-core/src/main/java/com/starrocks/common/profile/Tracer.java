@@ -71,4 +71,14 @@ public abstract class Tracer {
 
     public void toRuntimeProfile(RuntimeProfile parent) {
     }
+
+    public void updateResourceUsageMetrics() {
+    }
+
+    public Tracer fork() {
+        return this;
+    }
+
+    public void merge(Tracer other) {
+    }
 }
@@ -16,6 +16,7 @@ package com.starrocks.common.profile;
 
 import com.google.common.base.Stopwatch;
 import com.starrocks.common.util.RuntimeProfile;
+import com.starrocks.metric.MetricRepo;
 
 import java.util.HashMap;
 import java.util.List;
@@ -242,4 +243,37 @@ class TracerImpl extends Tracer {
         buildVars(parent);
         buildReasons(parent);
     }
+
+    // the forked tracer shares the timing of the query, so the time points of the task are in the same timeline
+    @Override
+    public Tracer fork() {
+        return new TracerImpl(timing, watcher.fork(), new VarTracer(), newLogTracer(logTracer),
+                newLogTracer(reasonTracer));
+    }
+
+    private static LogTracer newLogTracer(LogTracer tracer) {
+        return tracer instanceof CommandLogTracer ? new CommandLogTracer() : new FileLogTracer();
+    }
+
+    @Override
+    public void merge(Tracer other) {
+        if (!(other instanceof TracerImpl) || other == this) {
+            return;
+        }
+        TracerImpl task = (TracerImpl) other;
+        watcher.merge(task.watcher);
+        varTracer.merge(task.varTracer);
+        logTracer.merge(task.logTracer);
+        reasonTracer.merge(task.reasonTracer);
+    }
+
+    @Override
+    public void updateResourceUsageMetrics() {
+        if (!watcher.isTraceResourceUsage()) {
+            return;
+        }
+        for (Timer timer : watcher.getAllTimerWithOrder()) {
+            MetricRepo.updateTracerScopeResourceUsage(timer.name(), timer.getCpuTimeUs(), timer.getAllocatedBytes());
+        }
+    }
 }
@@ -15,11 +15,13 @@
 package com.starrocks.common.profile;
 
 import com.google.common.base.Stopwatch;
+import com.starrocks.common.Config;
 import com.starrocks.common.util.RuntimeProfile;
 import com.starrocks.qe.ConnectContext;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.function.Function;
 
 public class Tracers {
@@ -60,7 +62,8 @@ public class Tracers {
         LogTracer logTracer = tracers.isCommandLog ? new CommandLogTracer() : new FileLogTracer();
         LogTracer reasonTracer = tracers.isCommandLog ? new CommandLogTracer() : new FileLogTracer();
         tracers.allTracer[0] = EMPTY_TRACER;
-        tracers.allTracer[1] = new TracerImpl(Stopwatch.createStarted(), new TimeWatcher(), new VarTracer(), logTracer,
+        tracers.allTracer[1] = new TracerImpl(Stopwatch.createStarted(),
+                new TimeWatcher(Config.enable_trace_scope_resource_usage), new VarTracer(), logTracer,
                 reasonTracer);
     }
 
@@ -70,7 +73,8 @@ public class Tracers {
         LogTracer logTracer = new FileLogTracer();
         LogTracer reasonTracer = new FileLogTracer();
         tracers.allTracer[0] = EMPTY_TRACER;
-        tracers.allTracer[1] = new TracerImpl(Stopwatch.createStarted(), new TimeWatcher(), new VarTracer(), logTracer,
+        tracers.allTracer[1] = new TracerImpl(Stopwatch.createStarted(),
+                new TimeWatcher(Config.enable_trace_scope_resource_usage), new VarTracer(), logTracer,
                 reasonTracer);
     }
 
@@ -79,6 +83,43 @@ public class Tracers {
         return THREAD_LOCAL.get();
     }
 
+    /**
+     * Forks the tracers of the current thread for a task which runs on a worker thread of a shared pool. The tracers
+     * are not thread-safe, so the task records its scopes in the forked tracers, which have the same modules and
+     * modes as the tracers of the query. The forked tracers are merged back by {@link #merge(Tracers)} on the thread
+     * of the query after the task finishes.
+     */
+    public static Tracers fork() {
+        Tracers tracers = THREAD_LOCAL.get();
+        Tracers forked = new Tracers();
+        forked.moduleMask = tracers.moduleMask;
+        forked.modeMask = tracers.modeMask;
+        forked.isCommandLog = tracers.isCommandLog;
+        forked.allTracer[1] = tracers.allTracer[1].fork();
+        return forked;
+    }
+
+    /**
+     * Merges the tracers forked by {@link #fork()} into the tracers of the current thread.
+     */
+    public static void merge(Tracers forked) {
+        Tracers tracers = THREAD_LOCAL.get();
+        tracers.allTracer[1].merge(forked.allTracer[1]);
+    }
+
+    /**
+     * Runs the task with these tracers as the tracers of the current thread.
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        Tracers workerTracers = THREAD_LOCAL.get();
+        THREAD_LOCAL.set(this);
+        try {
+            return task.call();
+        } finally {
+            THREAD_LOCAL.set(workerTracers);
+        }
+    }
+
     /**
      * Init tracer with context and mode.
      * @param context connect context
@@ -121,6 +162,12 @@ public class Tracers {
             tracers.modeMask |= 1 << Mode.VARS.ordinal();
             tracers.modeMask |= 1 << Mode.REASON.ordinal();
         }
+        if (Config.enable_trace_scope_resource_usage) {
+            // the scopes of base module are the phases of a query, the metrics of them are always collected
+            tracers.moduleMask |= 1 << Module.BASE.ordinal();
+
+            tracers.modeMask |= 1 << Mode.TIMER.ordinal();
+        }
         if (checkMV) {
             tracers.moduleMask |= 1 << Module.MV.ordinal();
 
@@ -151,6 +198,8 @@ public class Tracers {
     }
 
     public static void close() {
+        Tracers tracers = THREAD_LOCAL.get();
+        tracers.allTracer[1].updateResourceUsageMetrics();
         THREAD_LOCAL.remove();
     }
 
@@ -41,6 +41,16 @@ public class VarTracer {
         allVars.put(name, v);
     }
 
+    public void merge(VarTracer other) {
+        for (Var<?> var : other.allVars.values()) {
+            if (var instanceof CounterVar) {
+                count(var.getTimePoint(), var.getName(), ((CounterVar) var).getValue());
+            } else {
+                allVars.put(var.getName(), var);
+            }
+        }
+    }
+
     public List<Var<?>> getAllVarsWithOrder() {
         return allVars.values().stream().sorted(Comparator.comparingLong(Var::getTimePoint))
                 .collect(Collectors.toList());
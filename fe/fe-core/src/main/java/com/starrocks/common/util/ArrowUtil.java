@@ -0,0 +1,88 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import org.apache.arrow.flatbuf.MessageHeader;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.ipc.ReadChannel;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.ipc.message.MessageMetadataResult;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads the arrow ipc messages of the query results produced by BE, every message is an encapsulated message with
+ * the continuation token, as written by the arrow ipc stream writer.
+ */
+public class ArrowUtil {
+    private ArrowUtil() {
+    }
+
+    /**
+     * @return the number of rows of a record batch message, 0 for the other messages
+     */
+    public static long getRowCount(ByteBuffer message) throws IOException {
+        MessageMetadataResult result = MessageSerializer.readMessage(newReadChannel(message));
+        if (result == null || result.getMessage().headerType() != MessageHeader.RecordBatch) {
+            return 0;
+        }
+        RecordBatch recordBatch = (RecordBatch) result.getMessage().header(new RecordBatch());
+        return recordBatch.length();
+    }
+
+    public static Schema readSchema(ByteBuffer message) throws IOException {
+        return MessageSerializer.deserializeSchema(newReadChannel(message));
+    }
+
+    /**
+     * The buffers of the returned batch are allocated from the allocator, the caller should close it.
+     */
+    public static ArrowRecordBatch readRecordBatch(ByteBuffer message, BufferAllocator allocator) throws IOException {
+        return MessageSerializer.deserializeRecordBatch(newReadChannel(message), allocator);
+    }
+
+    // reads the message without copying it or moving the position of the buffer
+    private static ReadChannel newReadChannel(ByteBuffer message) {
+        ByteBuffer source = message.duplicate();
+        return new ReadChannel(new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) {
+                if (!source.hasRemaining()) {
+                    return -1;
+                }
+                int length = Math.min(dst.remaining(), source.remaining());
+                ByteBuffer slice = source.duplicate();
+                slice.limit(slice.position() + length);
+                dst.put(slice);
+                source.position(source.position() + length);
+                return length;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+}
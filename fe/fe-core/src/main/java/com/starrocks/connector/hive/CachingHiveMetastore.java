@@ -34,6 +34,7 @@ import com.starrocks.connector.exception.StarRocksConnectorException;
 import com.starrocks.connector.hive.events.MetastoreNotificationFetchException;
 import com.starrocks.connector.metastore.CachingMetastore;
 import com.starrocks.connector.metastore.MetastoreTable;
+import com.starrocks.metric.MetricRepo;
 import org.apache.hadoop.hive.metastore.api.NoSuchObjectException;
 import org.apache.hadoop.hive.metastore.api.NotificationEventResponse;
 import org.apache.logging.log4j.LogManager;
@@ -48,6 +49,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
@@ -68,6 +71,9 @@ public class CachingHiveMetastore extends CachingMetastore implements IHiveMetas
 
     private final Map<DatabaseTableName, Long> lastAccessTimeMap;
 
+    // partitions being loaded from the metastore, the queries missing the same partitions wait for the same loading
+    private final Map<HivePartitionName, CompletableFuture<Partition>> loadingPartitions = Maps.newConcurrentMap();
+
     // eg: HivePartitionValue -> List("year=2022/month=10", "year=2022/month=11")
     protected LoadingCache<HivePartitionValue, List<String>> partitionKeysCache;
 
@@ -322,19 +328,54 @@ public class CachingHiveMetastore extends CachingMetastore implements IHiveMetas
         return partitionsByName.build();
     }
 
+    /**
+     * Loads the partitions missing in the cache. The partitions already being loaded by other queries are not
+     * loaded again, this query waits for them after loading the others.
+     */
     private Map<HivePartitionName, Partition> loadPartitionsByNames(Iterable<? extends HivePartitionName> partitionNames) {
-        HivePartitionName hivePartitionName = Iterables.get(partitionNames, 0);
-        Map<String, Partition> partitionsByNames = metastore.getPartitionsByNames(
-                hivePartitionName.getDatabaseName(),
-                hivePartitionName.getTableName(),
-                Streams.stream(partitionNames).map(partitionName -> partitionName.getPartitionNames().get())
-                        .collect(Collectors.toList()));
+        Map<HivePartitionName, CompletableFuture<Partition>> owned = Maps.newLinkedHashMap();
+        Map<HivePartitionName, CompletableFuture<Partition>> waiting = Maps.newLinkedHashMap();
+        for (HivePartitionName partitionName : partitionNames) {
+            CompletableFuture<Partition> future = new CompletableFuture<>();
+            CompletableFuture<Partition> loading = loadingPartitions.putIfAbsent(partitionName, future);
+            if (loading == null) {
+                owned.put(partitionName, future);
+            } else {
+                waiting.put(partitionName, loading);
+            }
+        }
 
         ImmutableMap.Builder<HivePartitionName, Partition> partitions = ImmutableMap.builder();
-        for (HivePartitionName partitionName : partitionNames) {
-            Optional<Partition> optPartition = partitionName.getPartitionNames().map(partitionsByNames::get);
-            Preconditions.checkState(optPartition.isPresent());
-            partitions.put(partitionName, optPartition.get());
+        try {
+            if (!owned.isEmpty()) {
+                HivePartitionName hivePartitionName = Iterables.get(owned.keySet(), 0);
+                Map<String, Partition> partitionsByNames = metastore.getPartitionsByNames(
+                        hivePartitionName.getDatabaseName(),
+                        hivePartitionName.getTableName(),
+                        owned.keySet().stream().map(partitionName -> partitionName.getPartitionNames().get())
+                                .collect(Collectors.toList()));
+                for (Map.Entry<HivePartitionName, CompletableFuture<Partition>> entry : owned.entrySet()) {
+                    Optional<Partition> optPartition = entry.getKey().getPartitionNames().map(partitionsByNames::get);
+                    Preconditions.checkState(optPartition.isPresent());
+                    entry.getValue().complete(optPartition.get());
+                    partitions.put(entry.getKey(), optPartition.get());
+                }
+            }
+        } catch (Throwable e) {
+            owned.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        } finally {
+            owned.forEach(loadingPartitions::remove);
+        }
+
+        for (Map.Entry<HivePartitionName, CompletableFuture<Partition>> entry : waiting.entrySet()) {
+            try {
+                partitions.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException e) {
+                throwIfUnchecked(e.getCause());
+                throw new StarRocksConnectorException("Failed to load partition %s: %s",
+                        entry.getKey(), e.getCause().getMessage());
+            }
         }
         return partitions.build();
     }
@@ -680,17 +721,61 @@ public class CachingHiveMetastore extends CachingMetastore implements IHiveMetas
         }
     }
 
+    /**
+     * Apply the partition and stats carried by an ALTER_PARTITION or INSERT event to the cache.
+     * The partition names of the table are not changed by these events, so the partition keys are kept.
+     * The cached column stats are reused, the stats not cached yet are left to be loaded when they are queried.
+     */
     public synchronized void refreshPartitionByEvent(HivePartitionName hivePartitionName,
                                                      HiveCommonStats commonStats,
                                                      Partition partition) {
-        Map<String, HiveColumnStats> columnStats = get(partitionStatsCache, hivePartitionName).getColumnStats();
-        HivePartitionStats updatedPartitionStats = createPartitionStats(commonStats, columnStats);
-        DatabaseTableName
-                databaseTableName = DatabaseTableName.of(hivePartitionName.getDatabaseName(), hivePartitionName.getTableName());
-        partitionKeysCache.asMap().keySet().stream().filter(hivePartitionValue -> hivePartitionValue.getHiveTableName().
-                equals(databaseTableName)).forEach(partitionKeysCache::invalidate);
         partitionCache.put(hivePartitionName, partition);
-        partitionStatsCache.put(hivePartitionName, updatedPartitionStats);
+        HivePartitionStats cachedStats = partitionStatsCache.getIfPresent(hivePartitionName);
+        if (cachedStats != null) {
+            partitionStatsCache.put(hivePartitionName, createPartitionStats(commonStats, cachedStats.getColumnStats()));
+        }
+        // the stats and the partition names of the table used to be reloaded
+        increaseCallsAvoided(cachedStats == null ? 2 : 1);
+    }
+
+    /**
+     * Apply the partition carried by an ADD_PARTITION event to the cache. The new partition name is appended
+     * to the cached partition keys of the table which it matches, instead of listing all the partition names
+     * of the table from the metastore again.
+     */
+    public synchronized void addPartitionByEvent(HivePartitionName hivePartitionName,
+                                                 HiveCommonStats commonStats,
+                                                 Partition partition) {
+        Preconditions.checkState(hivePartitionName.getPartitionNames().isPresent());
+        String partitionName = hivePartitionName.getPartitionNames().get();
+        DatabaseTableName databaseTableName =
+                DatabaseTableName.of(hivePartitionName.getDatabaseName(), hivePartitionName.getTableName());
+        int patchedKeys = 0;
+        for (Map.Entry<HivePartitionValue, List<String>> entry : partitionKeysCache.asMap().entrySet()) {
+            if (!entry.getKey().getHiveTableName().equals(databaseTableName)) {
+                continue;
+            }
+            List<Optional<String>> partitionValues = entry.getKey().getPartitionValues();
+            if (!partitionValues.isEmpty() && PartitionUtil.getFilteredPartitionKeys(
+                    Lists.newArrayList(partitionName), partitionValues).isEmpty()) {
+                continue;
+            }
+            if (!entry.getValue().contains(partitionName)) {
+                List<String> updatedPartitionNames = Lists.newArrayList(entry.getValue());
+                updatedPartitionNames.add(partitionName);
+                partitionKeysCache.put(entry.getKey(), updatedPartitionNames);
+                patchedKeys++;
+            }
+        }
+        partitionCache.put(hivePartitionName, partition);
+        partitionStatsCache.put(hivePartitionName, createPartitionStats(commonStats, ImmutableMap.of()));
+        increaseCallsAvoided(patchedKeys + 2);
+    }
+
+    private static void increaseCallsAvoided(long calls) {
+        if (MetricRepo.hasInit) {
+            MetricRepo.COUNTER_HIVE_METASTORE_CALLS_AVOIDED.increase(calls);
+        }
     }
 
     private HivePartitionStats createPartitionStats(HiveCommonStats commonStats, Map<String, HiveColumnStats> columnStats) {
@@ -328,9 +328,20 @@ public class HiveCacheUpdateProcessor implements CacheUpdateProcessor {
 
     public void refreshPartitionByEvent(HivePartitionName hivePartitionName, HiveCommonStats commonStats, Partition partion) {
         ((CachingHiveMetastore) metastore).refreshPartitionByEvent(hivePartitionName, commonStats, partion);
+        invalidateRemoteFilesByEvent(partion);
+    }
+
+    public void addPartitionByEvent(HivePartitionName hivePartitionName, HiveCommonStats commonStats, Partition partition) {
+        ((CachingHiveMetastore) metastore).addPartitionByEvent(hivePartitionName, commonStats, partition);
+        invalidateRemoteFilesByEvent(partition);
+    }
+
+    // The events don't carry the size and modification time of the files, so the stale listing of the partition
+    // is dropped and listed again only if the partition is queried, instead of listing it on the event thread.
+    private void invalidateRemoteFilesByEvent(Partition partition) {
         if (remoteFileIO.isPresent()) {
-            RemotePathKey pathKey = RemotePathKey.of(partion.getFullPath(), isRecursive);
-            remoteFileIO.get().updateRemoteFiles(pathKey);
+            RemotePathKey pathKey = RemotePathKey.of(partition.getFullPath(), isRecursive);
+            remoteFileIO.get().invalidatePartition(pathKey);
         }
     }
 
@@ -53,10 +53,12 @@ public class HiveConnectorInternalMgr {
     private ExecutorService pullRemoteFileExecutor;
     private ExecutorService updateRemoteFilesExecutor;
     private ExecutorService updateStatisticsExecutor;
+    private ExecutorService partitionFetchExecutor;
 
     private final boolean isRecursive;
     private final int loadRemoteFileMetadataThreadNum;
     private final int updateRemoteFileMetadataThreadNum;
+    private final int partitionFetchThreadNum;
     private final boolean enableHmsEventsIncrementalSync;
 
     private final boolean enableBackgroundRefreshHiveMetadata;
@@ -77,6 +79,8 @@ public class HiveConnectorInternalMgr {
                 String.valueOf(Config.remote_file_metadata_load_concurrency)));
         this.updateRemoteFileMetadataThreadNum = Integer.parseInt(properties.getOrDefault("remote_file_update_thread_num",
                 String.valueOf(Config.remote_file_metadata_load_concurrency / 4)));
+        this.partitionFetchThreadNum = Integer.parseInt(properties.getOrDefault("partition_fetch_thread_num",
+                String.valueOf(Config.hive_partition_fetch_concurrency)));
         this.enableHmsEventsIncrementalSync = Boolean.parseBoolean(properties.getOrDefault("enable_hms_events_incremental_sync",
                 String.valueOf(Config.enable_hms_events_incremental_sync)));
 
@@ -106,12 +110,16 @@ public class HiveConnectorInternalMgr {
         if (pullRemoteFileExecutor != null) {
             pullRemoteFileExecutor.shutdown();
         }
+        if (partitionFetchExecutor != null) {
+            partitionFetchExecutor.shutdown();
+        }
     }
 
     public IHiveMetastore createHiveMetastore() {
         // TODO(stephen): Abstract the creator class to construct hive meta client
         HiveMetaClient metaClient = HiveMetaClient.createHiveMetaClient(hdfsEnvironment, properties);
-        IHiveMetastore hiveMetastore = new HiveMetastore(metaClient, catalogName, metastoreType);
+        IHiveMetastore hiveMetastore = new HiveMetastore(metaClient, catalogName, metastoreType,
+                new HivePartitionFetcher(getPartitionFetchExecutor(), partitionFetchThreadNum));
         IHiveMetastore baseHiveMetastore;
         if (!enableMetastoreCache) {
             baseHiveMetastore = hiveMetastore;
@@ -161,6 +169,16 @@ public class HiveConnectorInternalMgr {
         return pullRemoteFileExecutor;
     }
 
+    // the pool is created once for the catalog, and shut down when the catalog is dropped
+    public ExecutorService getPartitionFetchExecutor() {
+        if (partitionFetchExecutor == null) {
+            partitionFetchExecutor = Executors.newFixedThreadPool(partitionFetchThreadNum,
+                    new ThreadFactoryBuilder().setNameFormat("hive-partition-fetch-%d").setDaemon(true).build());
+        }
+
+        return partitionFetchExecutor;
+    }
+
     public ExecutorService getupdateRemoteFilesExecutor() {
         if (updateRemoteFilesExecutor == null) {
             updateRemoteFilesExecutor = Executors.newFixedThreadPool(updateRemoteFileMetadataThreadNum,
@@ -35,7 +35,6 @@ import org.apache.hadoop.hive.ql.io.AcidUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -60,11 +59,18 @@ public class HiveMetastore implements IHiveMetastore {
     private final HiveMetaClient client;
     private final String catalogName;
     private final MetastoreType metastoreType;
+    private final HivePartitionFetcher partitionFetcher;
 
     public HiveMetastore(HiveMetaClient client, String catalogName, MetastoreType metastoreType) {
+        this(client, catalogName, metastoreType, HivePartitionFetcher.sequential());
+    }
+
+    public HiveMetastore(HiveMetaClient client, String catalogName, MetastoreType metastoreType,
+                         HivePartitionFetcher partitionFetcher) {
         this.client = client;
         this.catalogName = catalogName;
         this.metastoreType = metastoreType;
+        this.partitionFetcher = partitionFetcher;
     }
 
     @Override
@@ -187,15 +193,10 @@ public class HiveMetastore implements IHiveMetastore {
     }
 
     public Map<String, Partition> getPartitionsByNames(String dbName, String tblName, List<String> partitionNames) {
-        List<org.apache.hadoop.hive.metastore.api.Partition> partitions = new ArrayList<>();
         // fetch partitions by batch per RPC
-        for (int start = 0; start < partitionNames.size(); start += Config.max_hive_partitions_per_rpc) {
-            int end = Math.min(start + Config.max_hive_partitions_per_rpc, partitionNames.size());
-            List<String> namesPerRPC = partitionNames.subList(start, end);
-            List<org.apache.hadoop.hive.metastore.api.Partition> partsPerRPC =
-                    client.getPartitionsByNames(dbName, tblName, namesPerRPC);
-            partitions.addAll(partsPerRPC);
-        }
+        List<org.apache.hadoop.hive.metastore.api.Partition> partitions = partitionFetcher.fetch(partitionNames,
+                namesPerRPC -> client.getPartitionsByNames(dbName, tblName, namesPerRPC),
+                HiveMetastore::estimatePartitionBytes);
 
         Map<String, List<String>> partitionNameToPartitionValues = partitionNames.stream()
                 .collect(Collectors.toMap(Function.identity(), PartitionUtil::toPartitionValues));
@@ -213,6 +214,22 @@ public class HiveMetastore implements IHiveMetastore {
         return resultBuilder.build();
     }
 
+    // a rough estimation of the thrift payload, which is dominated by the location, columns and parameters
+    private static long estimatePartitionBytes(org.apache.hadoop.hive.metastore.api.Partition partition) {
+        long bytes = 64;
+        StorageDescriptor sd = partition.getSd();
+        if (sd != null) {
+            bytes += sd.getLocation() == null ? 0 : sd.getLocation().length();
+            bytes += sd.getColsSize() * 64L;
+        }
+        if (partition.getParameters() != null) {
+            for (Map.Entry<String, String> entry : partition.getParameters().entrySet()) {
+                bytes += entry.getKey().length() + (entry.getValue() == null ? 0 : entry.getValue().length());
+            }
+        }
+        return bytes;
+    }
+
     @Override
     public void addPartitions(String dbName, String tableName, List<HivePartitionWithStats> partitions) {
         List<org.apache.hadoop.hive.metastore.api.Partition> hivePartitions = partitions.stream()
@@ -0,0 +1,194 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.connector.hive;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.common.profile.Tracers;
+import com.starrocks.connector.exception.StarRocksConnectorException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+/**
+ * Fetches a large number of partitions from the metastore in batches.
+ * 1. Up to {@code parallelism} batches are in flight at the same time, the next batch is sent as soon as one returns.
+ * 2. The batch size is adapted to the observed latency and payload of the metastore, bounded by
+ * {@link Config#max_hive_partitions_per_rpc}. A batch slower than {@link Config#hive_partition_fetch_target_latency_ms}
+ * halves the batch size, a batch faster than half of it grows the batch size by half. The batch size is also
+ * limited so that the estimated payload of a batch is not larger than {@link Config#hive_partition_fetch_target_batch_bytes}.
+ * The batch size learned is kept by the fetcher, so the following fetches of the catalog start from it.
+ */
+public class HivePartitionFetcher {
+    private static final Logger LOG = LogManager.getLogger(HivePartitionFetcher.class);
+
+    private static final int MIN_BATCH_SIZE = 16;
+
+    private final Executor executor;
+    private final int parallelism;
+
+    // learned batch size, 0 means no batch has been observed yet
+    private volatile int batchSize = 0;
+    // exponential moving average of the payload bytes of a partition
+    private volatile double bytesPerPartition = 0;
+
+    public HivePartitionFetcher(Executor executor, int parallelism) {
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Fetches the partitions one by one batch in the caller thread, the batch size is still adaptive.
+     */
+    public static HivePartitionFetcher sequential() {
+        return new HivePartitionFetcher(directExecutor(), 1);
+    }
+
+    /**
+     * @param names  names of the partitions to fetch
+     * @param rpc    fetches the partitions of one batch of names from the metastore
+     * @param weigher estimated payload bytes of a fetched partition
+     * @return the partitions of all the batches, in the order of batches
+     */
+    public <T> List<T> fetch(List<String> names, Function<List<String>, List<T>> rpc, ToLongFunction<T> weigher) {
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        CompletionService<Batch<T>> completionService = new ExecutorCompletionService<>(executor);
+        // spread the names over the parallel batches even if the learned batch size is large
+        int splitSize = (names.size() + parallelism - 1) / parallelism;
+        List<Batch<T>> finished = new ArrayList<>();
+        List<Future<Batch<T>>> inflight = new ArrayList<>();
+        int next = 0;
+        try {
+            while (next < names.size() && inflight.size() < parallelism) {
+                next = submit(completionService, inflight, names, next, splitSize, rpc, weigher);
+            }
+            while (!inflight.isEmpty()) {
+                Future<Batch<T>> future = completionService.take();
+                inflight.remove(future);
+                Batch<T> batch = future.get();
+                Tracers.merge(batch.tracers);
+                observe(batch.names.size(), batch.latencyMs, batch.bytes);
+                finished.add(batch);
+                if (next < names.size()) {
+                    next = submit(completionService, inflight, names, next, splitSize, rpc, weigher);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StarRocksConnectorException("Interrupted while fetching partitions: %s", e.getMessage());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new StarRocksConnectorException("Failed to fetch partitions: %s", cause.getMessage());
+        } finally {
+            inflight.forEach(future -> future.cancel(true));
+        }
+
+        finished.sort((a, b) -> Integer.compare(a.start, b.start));
+        List<T> result = new ArrayList<>(names.size());
+        finished.forEach(batch -> result.addAll(batch.partitions));
+        return result;
+    }
+
+    private <T> int submit(CompletionService<Batch<T>> completionService, List<Future<Batch<T>>> inflight,
+                           List<String> names, int start, int splitSize,
+                           Function<List<String>, List<T>> rpc, ToLongFunction<T> weigher) {
+        int end = Math.min(names.size(), start + Math.min(splitSize, nextBatchSize()));
+        List<String> batchNames = names.subList(start, end);
+        // the rpc is traced by the tracers forked for the batch, which are merged into the query when it finishes
+        Tracers tracers = Tracers.fork();
+        inflight.add(completionService.submit(() -> tracers.call(() -> {
+            long startTime = System.currentTimeMillis();
+            List<T> partitions = rpc.apply(batchNames);
+            long latencyMs = System.currentTimeMillis() - startTime;
+            long bytes = 0;
+            for (T partition : partitions) {
+                bytes += weigher.applyAsLong(partition);
+            }
+            return new Batch<>(start, batchNames, partitions, latencyMs, bytes, tracers);
+        })));
+        return end;
+    }
+
+    @VisibleForTesting
+    int nextBatchSize() {
+        int maxSize = Math.max(1, Config.max_hive_partitions_per_rpc);
+        int size = batchSize == 0 ? maxSize : Math.min(batchSize, maxSize);
+        double partitionBytes = bytesPerPartition;
+        if (partitionBytes > 0) {
+            long payloadLimit = (long) (Config.hive_partition_fetch_target_batch_bytes / partitionBytes);
+            size = (int) Math.min(size, Math.max(MIN_BATCH_SIZE, payloadLimit));
+        }
+        return Math.max(1, Math.min(size, maxSize));
+    }
+
+    @VisibleForTesting
+    synchronized void observe(int size, long latencyMs, long bytes) {
+        if (size <= 0) {
+            return;
+        }
+        double partitionBytes = (double) bytes / size;
+        bytesPerPartition = bytesPerPartition == 0 ? partitionBytes : bytesPerPartition * 0.7 + partitionBytes * 0.3;
+
+        int maxSize = Math.max(1, Config.max_hive_partitions_per_rpc);
+        int current = batchSize == 0 ? maxSize : batchSize;
+        long targetLatencyMs = Config.hive_partition_fetch_target_latency_ms;
+        if (latencyMs > targetLatencyMs) {
+            // the batch size is decided by the batch that is slow, not the current size which may have grown
+            current = Math.max(MIN_BATCH_SIZE, Math.min(current, size) / 2);
+        } else if (latencyMs < targetLatencyMs / 2 && size >= current) {
+            // only a full batch proves that the metastore can serve a larger one
+            current = Math.min(maxSize, current + Math.max(1, current / 2));
+        }
+        if (current != batchSize) {
+            LOG.debug("Hive partition fetch batch size changes from {} to {}, latency {}ms, {} partitions {} bytes",
+                    batchSize, current, latencyMs, size, bytes);
+        }
+        batchSize = Math.min(current, maxSize);
+    }
+
+    private static class Batch<T> {
+        private final int start;
+        private final List<String> names;
+        private final List<T> partitions;
+        private final long latencyMs;
+        private final long bytes;
+        private final Tracers tracers;
+
+        Batch(int start, List<String> names, List<T> partitions, long latencyMs, long bytes, Tracers tracers) {
+            this.start = start;
+            this.names = names;
+            this.partitions = partitions;
+            this.latencyMs = latencyMs;
+            this.bytes = bytes;
+            this.tracers = tracers;
+        }
+    }
+}
@@ -17,7 +17,10 @@ package com.starrocks.connector.hive.events;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.starrocks.connector.DatabaseTableName;
 import com.starrocks.connector.hive.HiveCacheUpdateProcessor;
+import com.starrocks.connector.hive.HiveCommonStats;
+import com.starrocks.connector.hive.HiveMetastoreApiConverter;
 import com.starrocks.connector.hive.HivePartitionName;
 import org.apache.hadoop.hive.common.FileUtils;
 import org.apache.hadoop.hive.metastore.api.FieldSchema;
@@ -30,6 +33,8 @@ import org.apache.logging.log4j.Logger;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static com.starrocks.connector.hive.HiveMetastoreApiConverter.toHiveCommonStats;
+
 /**
  * MetastoreEvent for ADD_PARTITION event type
  */
@@ -83,8 +88,49 @@ public class AddPartitionEvent extends MetastoreTableEvent {
         return addPartitionEvents;
     }
 
+    @Override
+    protected boolean canBeBatched(MetastoreEvent event) {
+        return true;
+    }
+
+    @Override
+    protected MetastoreEvent addToBatchEvents(MetastoreEvent event) {
+        BatchEvent<MetastoreTableEvent> batchEvent = new BatchEvent<>(this);
+        Preconditions.checkState(batchEvent.canBeBatched(event));
+        batchEvent.addToBatchEvents(event);
+        return batchEvent;
+    }
+
+    @Override
+    protected boolean existInCache() {
+        return cache.isTablePresent(DatabaseTableName.of(dbName, tblName));
+    }
+
+    @Override
+    protected boolean isSupported() {
+        return true;
+    }
+
     @Override
     protected void process() throws MetastoreNotificationException {
-        throw new UnsupportedOperationException("Unsupported event type: " + getEventType());
+        if (!existInCache()) {
+            return;
+        }
+
+        try {
+            com.starrocks.connector.hive.Partition partition = HiveMetastoreApiConverter.toPartition(
+                    addedPartition.getSd(), addedPartition.getParameters());
+            HiveCommonStats hiveCommonStats = toHiveCommonStats(addedPartition.getParameters());
+
+            LOG.info("Start to process ADD_PARTITION event on [{}.{}.{}.{}]. Partition:[{}], HiveCommonStats:[{}]",
+                    catalogName, dbName, tblName, getHivePartitionName(), partition, hiveCommonStats);
+
+            cache.addPartitionByEvent(getHivePartitionName(), hiveCommonStats, partition);
+        } catch (Exception e) {
+            LOG.error("Failed to process {} event, event detail msg: {}",
+                    getEventType(), metastoreNotificationEvent, e);
+            throw new MetastoreNotificationException(
+                    debugString("Failed to process add partition event"));
+        }
     }
 }
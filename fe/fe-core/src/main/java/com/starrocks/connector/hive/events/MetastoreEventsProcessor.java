@@ -20,6 +20,7 @@ import com.starrocks.common.Config;
 import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.util.FrontendDaemon;
 import com.starrocks.connector.hive.HiveCacheUpdateProcessor;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.server.CatalogMgr;
 import org.apache.hadoop.hive.metastore.IMetaStoreClient;
 import org.apache.hadoop.hive.metastore.api.NotificationEvent;
@@ -195,6 +196,7 @@ public class MetastoreEventsProcessor extends FrontendDaemon {
 
         if (filteredEvents.isEmpty()) {
             cacheProcessor.setLastSyncedEventId(events.get(events.size() - 1).getEventId());
+            updateEventApplyLag(events);
             return;
         }
 
@@ -206,6 +208,15 @@ public class MetastoreEventsProcessor extends FrontendDaemon {
             doExecute(filteredEvents, cacheProcessor);
         }
         cacheProcessor.setLastSyncedEventId(filteredEvents.get(filteredEvents.size() - 1).getEventId());
+        updateEventApplyLag(events);
+    }
+
+    // the event time of hive metastore is in seconds
+    private void updateEventApplyLag(List<NotificationEvent> events) {
+        if (MetricRepo.hasInit) {
+            long eventTimeMs = events.get(events.size() - 1).getEventTime() * 1000L;
+            MetricRepo.GAUGE_HIVE_METASTORE_EVENT_APPLY_LAG.setValue(Math.max(0L, System.currentTimeMillis() - eventTimeMs));
+        }
     }
 
     @Override
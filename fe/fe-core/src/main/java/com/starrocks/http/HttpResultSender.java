@@ -32,11 +32,13 @@
 package com.starrocks.http;
 
 import com.google.gson.JsonObject;
+import com.starrocks.common.util.ArrowUtil;
 import com.starrocks.qe.RowBatch;
 import com.starrocks.qe.ShowResultSet;
 import com.starrocks.qe.scheduler.Coordinator;
 import com.starrocks.sql.plan.ExecPlan;
 import com.starrocks.thrift.TResultBatch;
+import com.starrocks.thrift.TResultSinkFormatType;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFutureListener;
@@ -60,6 +62,9 @@ import static com.starrocks.http.BaseResponse.HEADER_QUERY_ID;
 public class HttpResultSender {
     private static final Logger LOG = LogManager.getLogger(HttpResultSender.class);
 
+    // continuation token 0xFFFFFFFF followed by a zero length, which ends an arrow ipc stream
+    private static final byte[] ARROW_END_OF_STREAM = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0, 0, 0, 0};
+
     private final HttpConnectContext context;
 
     public HttpResultSender(HttpConnectContext context) {
@@ -68,6 +73,9 @@ public class HttpResultSender {
 
     // for select
     public RowBatch sendQueryResult(Coordinator coord, ExecPlan execPlan) throws Exception {
+        if (context.getResultSinkFormatType() == TResultSinkFormatType.ARROW) {
+            return sendArrowQueryResult(coord);
+        }
         RowBatch batch;
         ChannelHandlerContext nettyChannel = context.getNettyChannel();
         // if some data already sent to client, when exception occurs,we just close the channel
@@ -84,7 +92,7 @@ public class HttpResultSender {
         while (true) {
             batch = coord.getNext();
             if (batch.getBatch() != null) {
-                writeResultBatch(batch.getBatch(), nettyChannel, coord);
+                writeResultBatch(batch.getBatch(), 0, nettyChannel, coord);
                 context.updateReturnRows(batch.getBatch().getRows().size());
             }
             if (batch.isEos()) {
@@ -99,6 +107,34 @@ public class HttpResultSender {
         return batch;
     }
 
+    // Every batch from BE is [schema message, record batch message] or only the schema message if BE has no row,
+    // forward the schema message only once, so that the body is a single arrow ipc stream.
+    private RowBatch sendArrowQueryResult(Coordinator coord) throws Exception {
+        RowBatch batch;
+        ChannelHandlerContext nettyChannel = context.getNettyChannel();
+        context.setSendDate(true);
+        sendHeader(nettyChannel, "application/vnd.apache.arrow.stream");
+        boolean schemaSent = false;
+        while (true) {
+            batch = coord.getNext();
+            TResultBatch resultBatch = batch.getBatch();
+            if (resultBatch != null && resultBatch.getRowsSize() > 0) {
+                writeResultBatch(resultBatch, schemaSent ? 1 : 0, nettyChannel, coord);
+                schemaSent = true;
+                // the messages after the schema message are record batches
+                for (int i = 1; i < resultBatch.getRowsSize(); i++) {
+                    context.updateReturnRows((int) ArrowUtil.getRowCount(resultBatch.getRows().get(i)));
+                }
+            }
+            if (batch.isEos()) {
+                nettyChannel.writeAndFlush(Unpooled.wrappedBuffer(ARROW_END_OF_STREAM));
+                sendEmptyLastContent();
+                break;
+            }
+        }
+        return batch;
+    }
+
     public void sendExplainResult(String explainString) {
         JsonObject jsonObject = new JsonObject();
         jsonObject.addProperty("explain", explainString);
@@ -117,9 +153,11 @@ public class HttpResultSender {
     }
 
     // BE already transferred results into json format, FE just need to Forward json objects to the client
-    private void writeResultBatch(TResultBatch resultBatch, ChannelHandlerContext channel, Coordinator coord) {
+    private void writeResultBatch(TResultBatch resultBatch, int startRow, ChannelHandlerContext channel,
+                                  Coordinator coord) {
         int rowsSize = resultBatch.getRowsSize();
-        for (ByteBuffer row : resultBatch.getRows()) {
+        for (int i = startRow; i < rowsSize; i++) {
+            ByteBuffer row = resultBatch.getRows().get(i);
             // when channel is not writeable, sleep a while to balance read/write speed to avoid oom
             while (!channel.channel().isWritable()) {
                 // if channel is closed, cancel query
@@ -129,7 +167,7 @@ public class HttpResultSender {
                 }
                 Thread.yield();
             }
-            if (row != resultBatch.getRows().get(rowsSize - 1)) {
+            if (i != rowsSize - 1) {
                 channel.write(Unpooled.wrappedBuffer(row));
                 if (!channel.channel().isWritable()) {
                     channel.flush();
@@ -141,8 +179,12 @@ public class HttpResultSender {
     }
 
     private void sendHeader(ChannelHandlerContext nettyChannel) {
+        sendHeader(nettyChannel, "application/x-ndjson; charset=utf-8");
+    }
+
+    private void sendHeader(ChannelHandlerContext nettyChannel, String contentType) {
         HttpResponse responseObj = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
-        responseObj.headers().set(HttpHeaderNames.CONTENT_TYPE.toString(), "application/x-ndjson; charset=utf-8");
+        responseObj.headers().set(HttpHeaderNames.CONTENT_TYPE.toString(), contentType);
         responseObj.headers().set(HEADER_QUERY_ID, context.getQueryId());
         HttpUtil.setTransferEncodingChunked(responseObj, true);
 
@@ -127,11 +127,12 @@ public class ExecuteSqlAction extends RestBaseAction {
             changeCatalogAndDB(catalogName, databaseName, context);
             try {
                 SqlRequest requestBody = validatePostBody(requestContent, context);
-                // set result format as json,
-                context.setResultSinkFormatType(TResultSinkFormatType.JSON);
+                // set result format, json by default
+                context.setResultSinkFormatType(parseFormat(requestBody.format));
                 checkSessionVariable(requestBody.sessionVariables, context);
                 // parse the sql here, for the convenience of verification of http request
                 parsedStmt = parse(requestBody.query, context.getSessionVariable());
+                checkFormat(parsedStmt, context.getResultSinkFormatType());
                 context.setStatement(parsedStmt);
 
                 // only register connectContext once for one channel
@@ -202,6 +203,23 @@ public class ExecuteSqlAction extends RestBaseAction {
         return requestBody;
     }
 
+    private TResultSinkFormatType parseFormat(String format) throws StarRocksHttpException {
+        if (Strings.isNullOrEmpty(format) || format.equalsIgnoreCase("json")) {
+            return TResultSinkFormatType.JSON;
+        }
+        if (format.equalsIgnoreCase("arrow")) {
+            return TResultSinkFormatType.ARROW;
+        }
+        throw new StarRocksHttpException(BAD_REQUEST, "http query only support json and arrow format");
+    }
+
+    // arrow result is an arrow ipc stream produced by BE, so only a query executed by BE can output it
+    private void checkFormat(StatementBase parsedStmt, TResultSinkFormatType format) throws StarRocksHttpException {
+        if (format == TResultSinkFormatType.ARROW && (!(parsedStmt instanceof QueryStatement) || parsedStmt.isExplain())) {
+            throw new StarRocksHttpException(BAD_REQUEST, "http query only support arrow format for SELECT statement");
+        }
+    }
+
     private StatementBase parse(String sql, SessionVariable sessionVariables) throws StarRocksHttpException {
         StatementBase parsedStmt;
         List<StatementBase> stmts;
@@ -312,5 +330,7 @@ public class ExecuteSqlAction extends RestBaseAction {
         public String query;
         public Map<String, String> sessionVariables;
         public boolean onlyOutputResultRaw;
+        // json or arrow
+        public String format;
     }
 }
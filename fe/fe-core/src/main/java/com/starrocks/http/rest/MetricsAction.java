@@ -34,8 +34,11 @@
 
 package com.starrocks.http.rest;
 
+import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.http.ActionController;
 import com.starrocks.http.BaseRequest;
@@ -48,15 +51,30 @@ import com.starrocks.metric.PrometheusMetricVisitor;
 import com.starrocks.metric.SimpleCoreMetricVisitor;
 import com.starrocks.privilege.AccessDeniedException;
 import com.starrocks.sql.ast.UserIdentity;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 //fehost:port/metrics
 //fehost:port/metrics?type=core
 //fehost:port/metrics?type=json
+//fehost:port/metrics?metric_family=jvm_heap_size_bytes&metric_family=starrocks_fe_query_latency_ms
 public class MetricsAction extends RestBaseAction {
 
     private static final Logger LOG = LogManager.getLogger(MetricsAction.class);
@@ -65,6 +83,9 @@ public class MetricsAction extends RestBaseAction {
     // `with_table_metrics=all` : with all table metrics
     protected static final String WITH_TABLE_METRICS_PARAM = "with_table_metrics";
     protected static final String WITH_MATERIALIZED_VIEW_METRICS_PARAM = "with_materialized_view_metrics";
+    // `metric_family=a&metric_family=b` or `metric_family=a,b` : only expose the given prometheus metric families,
+    // by the full name or the name without the `starrocks_fe` prefix
+    protected static final String METRIC_FAMILY_PARAM = "metric_family";
     protected static final String COLLECT_MODE_METRICS_MINIFIED = "minified";
     protected static final String COLLECT_MODE_METRICS_ALL = "all";
     protected static final Set<String> SUPPORTED_COLLECT_METRIC_MODES =
@@ -116,6 +137,9 @@ public class MetricsAction extends RestBaseAction {
 
     @Override
     public void execute(BaseRequest request, BaseResponse response) throws DdlException {
+        // parse request params
+        RequestParams requestParams = parseRequestParams(request);
+
         // parse visitor type
         String type = request.getSingleParameter(TYPE_PARAM);
         MetricVisitor visitor = null;
@@ -124,17 +148,90 @@ public class MetricsAction extends RestBaseAction {
         } else if (!Strings.isNullOrEmpty(type) && type.equalsIgnoreCase("json")) {
             visitor = new JsonMetricVisitor("starrocks_fe");
         } else {
-            visitor = new PrometheusMetricVisitor("starrocks_fe");
+            Set<String> families = parseMetricFamilies(request);
+            if (Config.enable_metrics_chunked_response) {
+                executeChunked(request, families, requestParams);
+                return;
+            }
+            visitor = new PrometheusMetricVisitor("starrocks_fe", families, null);
         }
 
-        // parse request params
-        RequestParams requestParams = parseRequestParams(request);
-
         response.setContentType("text/plain");
         response.getContent().append(MetricRepo.getMetric(visitor, requestParams));
         sendResult(request, response);
     }
 
+    // send the prometheus metrics chunk by chunk while they are being encoded, so that the whole text is never
+    // held in memory
+    private void executeChunked(BaseRequest request, Set<String> families, RequestParams requestParams) {
+        ChunkedWriter writer = new ChunkedWriter(request);
+        PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("starrocks_fe", families, writer);
+        try {
+            MetricRepo.getMetric(visitor, requestParams);
+        } catch (RuntimeException e) {
+            if (!writer.headerSent) {
+                throw e;
+            }
+            // the status is sent, the only way to tell the client is to break the response
+            LOG.warn("failed to send metrics", e);
+            request.getContext().close();
+            return;
+        }
+        writer.finish();
+    }
+
+    private static class ChunkedWriter implements Consumer<String> {
+        private final BaseRequest request;
+        private final ChannelHandlerContext ctx;
+        private boolean headerSent = false;
+
+        ChunkedWriter(BaseRequest request) {
+            this.request = request;
+            this.ctx = request.getContext();
+        }
+
+        @Override
+        public void accept(String chunk) {
+            sendHeaderIfNeeded();
+            ctx.writeAndFlush(Unpooled.wrappedBuffer(chunk.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        private void sendHeaderIfNeeded() {
+            if (headerSent) {
+                return;
+            }
+            HttpResponse responseObj = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+            responseObj.headers().set(HttpHeaderNames.CONTENT_TYPE.toString(), "text/plain");
+            HttpUtil.setTransferEncodingChunked(responseObj, true);
+            if (HttpUtil.isKeepAlive(request.getRequest())) {
+                responseObj.headers().set(HttpHeaderNames.CONNECTION.toString(),
+                        HttpHeaderValues.KEEP_ALIVE.toString());
+            }
+            ctx.write(responseObj);
+            headerSent = true;
+        }
+
+        void finish() {
+            sendHeaderIfNeeded();
+            if (HttpUtil.isKeepAlive(request.getRequest())) {
+                ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+            } else {
+                ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(ChannelFutureListener.CLOSE);
+            }
+        }
+    }
+
+    protected Set<String> parseMetricFamilies(BaseRequest request) {
+        Set<String> families = Sets.newHashSet();
+        List<String> values = request.getArrayParameter(METRIC_FAMILY_PARAM);
+        if (values != null) {
+            for (String value : values) {
+                Splitter.on(',').trimResults().omitEmptyStrings().split(value).forEach(families::add);
+            }
+        }
+        return families;
+    }
+
     private boolean isCollectTableOrMVMetrics(String collectMode) {
         if (Strings.isNullOrEmpty(collectMode)) {
             return false;
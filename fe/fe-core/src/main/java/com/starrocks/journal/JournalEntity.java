@@ -76,6 +76,7 @@ import com.starrocks.persist.BatchDropInfo;
 import com.starrocks.persist.BatchModifyPartitionsInfo;
 import com.starrocks.persist.CancelDecommissionDiskInfo;
 import com.starrocks.persist.CancelDisableDiskInfo;
+import com.starrocks.persist.CardinalityFeedbackLog;
 import com.starrocks.persist.ChangeMaterializedViewRefreshSchemeLog;
 import com.starrocks.persist.ColocatePersistInfo;
 import com.starrocks.persist.ColumnRenameInfo;
@@ -763,6 +764,10 @@ public class JournalEntity implements Writable {
                 data = new Text(Text.readBinary(in));
                 break;
             }
+            case OperationType.OP_CARDINALITY_FEEDBACK: {
+                data = GsonUtils.GSON.fromJson(Text.readString(in), CardinalityFeedbackLog.class);
+                break;
+            }
             default: {
                 if (Config.metadata_ignore_unknown_operation_type) {
                     LOG.warn("UNKNOWN Operation Type {}", opCode);
@@ -0,0 +1,129 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.lake.compaction;
+
+import com.starrocks.common.Config;
+import com.starrocks.warehouse.Warehouse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CompactionBudget tracks the running tablet compaction tasks and the estimated input bytes of them on
+ * each compute node and in each warehouse, and decides whether a new compaction job can be started without
+ * exceeding the per-node and per-warehouse limits.
+ * A node (or a warehouse) without running compaction always accepts a new job, otherwise a partition
+ * larger than the limit would never be compacted.
+ */
+public class CompactionBudget {
+    private static final Logger LOG = LogManager.getLogger(CompactionBudget.class);
+
+    private final Map<Long, Integer> nodeToTasks = new HashMap<>();
+    private final Map<Long, Long> nodeToBytes = new HashMap<>();
+    private final Map<Long, Long> warehouseToBytes = new HashMap<>();
+    // warehouse name -> max bytes, parsed from Config.lake_compaction_max_bytes_of_warehouses
+    private final Map<String, Long> warehouseMaxBytes;
+
+    public CompactionBudget() {
+        this.warehouseMaxBytes = parseWarehouseMaxBytes(Config.lake_compaction_max_bytes_of_warehouses);
+    }
+
+    public static CompactionBudget fromRunningJobs(Collection<CompactionJob> jobs) {
+        CompactionBudget budget = new CompactionBudget();
+        jobs.forEach(budget::addJob);
+        return budget;
+    }
+
+    public void addJob(CompactionJob job) {
+        for (CompactionTask task : job.getRunningTasks()) {
+            add(job.getWarehouseId(), task.getNodeId(), task.tabletCount(), task.getEstimatedBytes());
+        }
+    }
+
+    public void add(long warehouseId, long nodeId, int tablets, long bytes) {
+        nodeToTasks.merge(nodeId, tablets, Integer::sum);
+        nodeToBytes.merge(nodeId, bytes, Long::sum);
+        warehouseToBytes.merge(warehouseId, bytes, Long::sum);
+    }
+
+    public boolean canAccept(Warehouse warehouse, Map<Long, List<Long>> nodeToTablets,
+                             Map<Long, Long> nodeToEstimatedBytes) {
+        int maxTasksPerNode = Config.lake_compaction_max_tasks_per_node;
+        long maxBytesPerNode = Config.lake_compaction_max_bytes_per_node;
+        long maxBytesOfWarehouse = getMaxBytesOfWarehouse(warehouse.getName());
+
+        long jobBytes = 0;
+        for (Map.Entry<Long, List<Long>> entry : nodeToTablets.entrySet()) {
+            long nodeId = entry.getKey();
+            long bytes = nodeToEstimatedBytes.getOrDefault(nodeId, 0L);
+            jobBytes += bytes;
+
+            int runningTasks = nodeToTasks.getOrDefault(nodeId, 0);
+            if (runningTasks == 0) {
+                continue;
+            }
+            if (maxTasksPerNode >= 0 && runningTasks + entry.getValue().size() > maxTasksPerNode) {
+                return false;
+            }
+            if (maxBytesPerNode >= 0 && nodeToBytes.getOrDefault(nodeId, 0L) + bytes > maxBytesPerNode) {
+                return false;
+            }
+        }
+        long warehouseBytes = getRunningBytesOfWarehouse(warehouse.getId());
+        return maxBytesOfWarehouse < 0 || warehouseBytes == 0 || warehouseBytes + jobBytes <= maxBytesOfWarehouse;
+    }
+
+    long getMaxBytesOfWarehouse(String warehouseName) {
+        return warehouseMaxBytes.getOrDefault(warehouseName, Config.lake_compaction_max_bytes_per_warehouse);
+    }
+
+    public int getRunningTasks(long nodeId) {
+        return nodeToTasks.getOrDefault(nodeId, 0);
+    }
+
+    public long getRunningBytes(long nodeId) {
+        return nodeToBytes.getOrDefault(nodeId, 0L);
+    }
+
+    public long getRunningBytesOfWarehouse(long warehouseId) {
+        return warehouseToBytes.getOrDefault(warehouseId, 0L);
+    }
+
+    // e.g. "warehouse1:1073741824;warehouse2:-1", the whole config is ignored if it is malformed
+    static Map<String, Long> parseWarehouseMaxBytes(String config) {
+        Map<String, Long> result = new HashMap<>();
+        if (config.isEmpty()) {
+            return result;
+        }
+        for (String item : config.split(";")) {
+            String[] pair = item.split(":");
+            try {
+                if (pair.length != 2 || pair[0].trim().isEmpty()) {
+                    throw new NumberFormatException(item);
+                }
+                result.put(pair[0].trim(), Long.parseLong(pair[1].trim()));
+            } catch (NumberFormatException e) {
+                LOG.warn("Bad format of lake_compaction_max_bytes_of_warehouses: {}, should be like " +
+                        "\"warehouse1:bytes1;warehouse2:bytes2\"", config);
+                return new HashMap<>();
+            }
+        }
+        return result;
+    }
+}
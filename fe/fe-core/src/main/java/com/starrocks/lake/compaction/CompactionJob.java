@@ -19,6 +19,7 @@ import com.starrocks.catalog.Database;
 import com.starrocks.catalog.PhysicalPartition;
 import com.starrocks.catalog.Table;
 import com.starrocks.proto.CompactStat;
+import com.starrocks.server.WarehouseManager;
 import com.starrocks.transaction.TabletCommitInfo;
 import com.starrocks.transaction.VisibleStateWaiter;
 import org.apache.logging.log4j.LogManager;
@@ -43,6 +44,7 @@ public class CompactionJob {
     private VisibleStateWaiter visibleStateWaiter;
     private List<CompactionTask> tasks = Collections.emptyList();
     private boolean allowPartialSuccess = false;
+    private long warehouseId = WarehouseManager.DEFAULT_WAREHOUSE_ID;
 
     public CompactionJob(Database db, Table table, PhysicalPartition partition, long txnId,
             boolean allowPartialSuccess) {
@@ -64,6 +66,14 @@ public class CompactionJob {
         return txnId;
     }
 
+    public long getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(long warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
     public void setTasks(List<CompactionTask> tasks) {
         this.tasks = Objects.requireNonNull(tasks, "tasks is null");
     }
@@ -126,6 +136,14 @@ public class CompactionJob {
         return tasks.stream().filter(Predicate.not(CompactionTask::isDone)).mapToInt(CompactionTask::tabletCount).sum();
     }
 
+    public List<CompactionTask> getRunningTasks() {
+        return tasks.stream().filter(Predicate.not(CompactionTask::isDone)).collect(Collectors.toList());
+    }
+
+    public long getReadBytes() {
+        return tasks.stream().mapToLong(CompactionTask::getReadBytes).sum();
+    }
+
     public long getStartTs() {
         return startTs;
     }
@@ -39,6 +39,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -55,6 +56,8 @@ public class CompactionMgr implements MemoryTrackable {
     private Selector selector;
     private Sorter sorter;
     private CompactionScheduler compactionScheduler;
+    // the queued time of the oldest partition waiting for compaction, updated as the scheduler chooses partitions
+    private volatile long oldestQueuedSince = 0;
 
     public CompactionMgr() {
         try {
@@ -155,6 +158,34 @@ public class CompactionMgr implements MemoryTrackable {
                 .max().orElse(0);
     }
 
+    // Returns the max compaction score of each partition, in ascending order.
+    public List<Double> getSortedCompactionScores() {
+        return partitionStatisticsHashMap.values().stream()
+                .map(PartitionStatistics::getCompactionScore)
+                .filter(Objects::nonNull)
+                .map(Quantiles::getMax)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    // Returns how long the oldest partition waiting for compaction has been waiting, in milliseconds.
+    public long getMaxCompactionQueueAgeMs() {
+        long since = oldestQueuedSince;
+        return since > 0 ? Math.max(0, System.currentTimeMillis() - since) : 0;
+    }
+
+    // Called by the scheduler with the queued time of the oldest partition not started in a round, 0 if none.
+    void setOldestQueuedSince(long oldestQueuedSince) {
+        this.oldestQueuedSince = oldestQueuedSince;
+    }
+
+    // The time since when the partition has new data to compact and is allowed to be compacted.
+    static long getQueuedSince(PartitionStatistics statistics) {
+        PartitionVersion currentVersion = statistics.getCurrentVersion();
+        long versionTime = currentVersion != null ? currentVersion.getCreateTime() : 0;
+        return Math.max(versionTime, statistics.getNextCompactionTime());
+    }
+
     void enableCompactionAfter(PartitionIdentifier partition, long delayMs) {
         PartitionStatistics statistics = partitionStatisticsHashMap.computeIfPresent(partition, (k, v) -> {
             // FE's follower nodes may have a different timestamp with the leader node.
@@ -31,6 +31,7 @@ import com.starrocks.common.util.Daemon;
 import com.starrocks.common.util.concurrent.lock.LockType;
 import com.starrocks.common.util.concurrent.lock.Locker;
 import com.starrocks.lake.LakeTablet;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.proto.CompactRequest;
 import com.starrocks.rpc.BrpcProxy;
 import com.starrocks.rpc.LakeService;
@@ -185,6 +186,9 @@ public class CompactionScheduler extends Daemon {
                 iterator.remove();
                 job.finish();
                 history.offer(CompactionRecord.build(job));
+                if (MetricRepo.hasInit) {
+                    MetricRepo.COUNTER_LAKE_COMPACTION_READ_BYTES.increase(job.getReadBytes());
+                }
                 long cost = job.getFinishTs() - job.getStartTs();
                 if (cost >= /*60 minutes=*/3600000) {
                     LOG.info("Removed published compaction. {} cost={}s running={}", job.getDebugString(),
@@ -199,27 +203,45 @@ public class CompactionScheduler extends Daemon {
         }
 
         // Create new compaction tasks.
-        int index = 0;
         int compactionLimit = compactionTaskLimit();
         int numRunningTasks = runningCompactions.values().stream().mapToInt(CompactionJob::getNumTabletCompactionTasks).sum();
         if (numRunningTasks >= compactionLimit) {
+            // no partition starts in this round, the queue age keeps growing from the oldest one of the last round
             return;
         }
 
         List<PartitionIdentifier> partitions = compactionManager.choosePartitionsToCompact(runningCompactions.keySet(),
                 disabledTables);
-        while (numRunningTasks < compactionLimit && index < partitions.size()) {
-            PartitionIdentifier partition = partitions.get(index++);
-            CompactionJob job = startCompaction(partition);
+        CompactionBudget budget = CompactionBudget.fromRunningJobs(runningCompactions.values());
+        // the oldest partition which is still waiting after this round, read by the queue age metric
+        long oldestQueuedSince = Long.MAX_VALUE;
+        for (PartitionIdentifier partition : partitions) {
+            long queuedSince = getQueuedSince(partition);
+            CompactionJob job = numRunningTasks < compactionLimit ? startCompaction(partition, budget) : null;
             if (job == null) {
+                // a partition skipped by the budget is still waiting, one removed or delayed by failure is not
+                long stillQueuedSince = getQueuedSince(partition);
+                if (stillQueuedSince > 0 && stillQueuedSince <= System.currentTimeMillis()) {
+                    oldestQueuedSince = Math.min(oldestQueuedSince, stillQueuedSince);
+                }
                 continue;
             }
             numRunningTasks += job.getNumTabletCompactionTasks();
+            budget.addJob(job);
             runningCompactions.put(partition, job);
+            if (MetricRepo.hasInit && queuedSince > 0) {
+                MetricRepo.HISTO_LAKE_COMPACTION_QUEUE_AGE.update(Math.max(0, job.getStartTs() - queuedSince));
+            }
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Created new compaction job. partition={} txnId={}", partition, job.getTxnId());
             }
         }
+        compactionManager.setOldestQueuedSince(oldestQueuedSince == Long.MAX_VALUE ? 0 : oldestQueuedSince);
+    }
+
+    private long getQueuedSince(PartitionIdentifier partition) {
+        PartitionStatistics statistics = compactionManager.getStatistics(partition);
+        return statistics != null ? CompactionMgr.getQueuedSince(statistics) : 0;
     }
 
     private void abortTransactionIgnoreException(CompactionJob job, String reason) {
@@ -255,7 +277,7 @@ public class CompactionScheduler extends Daemon {
         }
     }
 
-    private CompactionJob startCompaction(PartitionIdentifier partitionIdentifier) {
+    private CompactionJob startCompaction(PartitionIdentifier partitionIdentifier, CompactionBudget budget) {
         Database db = stateMgr.getLocalMetastore().getDb(partitionIdentifier.getDbId());
         if (db == null) {
             compactionManager.removePartition(partitionIdentifier);
@@ -267,6 +289,8 @@ public class CompactionScheduler extends Daemon {
         OlapTable table;
         PhysicalPartition partition;
         Map<Long, List<Long>> beToTablets;
+        Map<Long, Long> beToBytes = new HashMap<>();
+        Warehouse warehouse;
 
         Locker locker = new Locker();
         locker.lockDatabase(db.getId(), LockType.READ);
@@ -289,12 +313,22 @@ public class CompactionScheduler extends Daemon {
 
             currentVersion = partition.getVisibleVersion();
 
-            beToTablets = collectPartitionTablets(partition);
+            beToTablets = collectPartitionTablets(partition, beToBytes);
             if (beToTablets.isEmpty()) {
                 compactionManager.enableCompactionAfter(partitionIdentifier, MIN_COMPACTION_INTERVAL_MS_ON_FAILURE);
                 return null;
             }
 
+            // Do not punish the partition if the budget is exhausted, it will be retried in the next round.
+            warehouse = GlobalStateMgr.getCurrentState().getWarehouseMgr().getCompactionWarehouse();
+            if (!budget.canAccept(warehouse, beToTablets, beToBytes)) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Skip compaction of partition {} because of the compaction budget. estimated bytes: {}",
+                            partitionIdentifier, beToBytes);
+                }
+                return null;
+            }
+
             // Note: call `beginTransaction()` in the scope of database reader lock to make sure no shadow index will
             // be added to this table(i.e., no schema change) before calling `beginTransaction()`.
             txnId = beginTransaction(partitionIdentifier);
@@ -313,10 +347,12 @@ public class CompactionScheduler extends Daemon {
 
         long nextCompactionInterval = MIN_COMPACTION_INTERVAL_MS_ON_SUCCESS;
         CompactionJob job = new CompactionJob(db, table, partition, txnId, Config.lake_compaction_allow_partial_success);
+        job.setWarehouseId(warehouse.getId());
         try {
             List<CompactionTask> tasks = createCompactionTasks(currentVersion, beToTablets, txnId,
                     job.getAllowPartialSuccess());
             for (CompactionTask task : tasks) {
+                task.setEstimatedBytes(beToBytes.getOrDefault(task.getNodeId(), 0L));
                 task.sendRequest();
             }
             job.setTasks(tasks);
@@ -360,8 +396,10 @@ public class CompactionScheduler extends Daemon {
         return tasks;
     }
 
+    // Returns the tablets of the partition grouped by the compute node, and fills the estimated bytes the compaction
+    // will read on each node into `beToBytes`.
     @NotNull
-    private Map<Long, List<Long>> collectPartitionTablets(PhysicalPartition partition) {
+    private Map<Long, List<Long>> collectPartitionTablets(PhysicalPartition partition, Map<Long, Long> beToBytes) {
         List<MaterializedIndex> visibleIndexes = partition.getMaterializedIndices(MaterializedIndex.IndexExtState.VISIBLE);
         Map<Long, List<Long>> beToTablets = new HashMap<>();
         for (MaterializedIndex index : visibleIndexes) {
@@ -375,6 +413,7 @@ public class CompactionScheduler extends Daemon {
                 }
 
                 beToTablets.computeIfAbsent(computeNode.getId(), k -> Lists.newArrayList()).add(tablet.getId());
+                beToBytes.merge(computeNode.getId(), tablet.getDataSize(true), Long::sum);
             }
         }
         return beToTablets;
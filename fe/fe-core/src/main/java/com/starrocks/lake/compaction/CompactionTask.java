@@ -43,6 +43,8 @@ public class CompactionTask {
     private final LakeService rpcChannel;
     private final CompactRequest request;
     private Future<CompactResponse> responseFuture;
+    // estimated bytes of the input data, used by the scheduler to limit the IO of running compactions
+    private long estimatedBytes = 0;
 
     // FOR TEST
     public CompactionTask(long nodeId) {
@@ -139,6 +141,28 @@ public class CompactionTask {
         return request.tabletIds.size();
     }
 
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public void setEstimatedBytes(long estimatedBytes) {
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    // Returns the bytes read by the compaction reported by the node, or the estimated bytes if nothing reported.
+    public long getReadBytes() {
+        List<CompactStat> stats = getCompactStats();
+        if (CollectionUtils.isEmpty(stats)) {
+            return estimatedBytes;
+        }
+        long bytes = 0;
+        for (CompactStat stat : stats) {
+            bytes += (stat.readBytesRemote != null ? stat.readBytesRemote : 0L) +
+                    (stat.readBytesLocal != null ? stat.readBytesLocal : 0L);
+        }
+        return bytes;
+    }
+
     public List<CompactStat> getCompactStats() {
         if (!isDone()) {
             return null;
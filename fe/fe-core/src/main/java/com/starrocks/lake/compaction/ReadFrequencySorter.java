@@ -0,0 +1,102 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.lake.compaction;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.metric.TableMetricsEntity;
+import com.starrocks.metric.TableMetricsRegistry;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Sort partitions by priority first, then by the compaction score weighted by how frequently the table is read,
+ * so that the partitions hurting queries most are compacted first.
+ * <p>
+ * The read frequency is the scan count of the table in {@link TableMetricsRegistry}, decayed exponentially
+ * with a half life of {@link Config#lake_compaction_read_frequency_half_life_second}. Only the queries coordinated
+ * by this FE are counted.
+ */
+public class ReadFrequencySorter implements Sorter {
+    private final Map<Long, ReadFrequency> tableReadFrequency = new HashMap<>();
+
+    @Override
+    @NotNull
+    public synchronized List<PartitionStatistics> sort(@NotNull List<PartitionStatistics> partitionStatistics) {
+        long now = System.currentTimeMillis();
+        Map<Long, Double> tableWeight = new HashMap<>();
+        for (PartitionStatistics statistics : partitionStatistics) {
+            long tableId = statistics.getPartition().getTableId();
+            tableWeight.computeIfAbsent(tableId, id -> 1 + Math.log1p(updateReadFrequency(id, now)));
+        }
+        // forget the tables which are no longer compaction candidates
+        tableReadFrequency.keySet().retainAll(tableWeight.keySet());
+
+        return partitionStatistics.stream()
+                .filter(p -> p.getCompactionScore() != null)
+                .sorted(Comparator.comparingInt((PartitionStatistics stats) -> stats.getPriority().getValue()).reversed()
+                        .thenComparing(Comparator.comparing((PartitionStatistics stats) ->
+                                weightedScore(stats, tableWeight.get(stats.getPartition().getTableId()))).reversed()))
+                .collect(Collectors.toList());
+    }
+
+    // without any reads, the weight is 1 and the order is the same as ScoreSorter
+    private static Quantiles weightedScore(PartitionStatistics statistics, double weight) {
+        Quantiles score = statistics.getCompactionScore();
+        return new Quantiles(score.getAvg() * weight, score.getP50() * weight, score.getMax() * weight);
+    }
+
+    private double updateReadFrequency(long tableId, long now) {
+        TableMetricsEntity entity = TableMetricsRegistry.getInstance().getMetricsEntityIfPresent(tableId);
+        long scanCount = entity != null ? entity.counterScanFinishedTotal.getValue() : 0L;
+        return updateReadFrequency(tableId, scanCount, now);
+    }
+
+    @VisibleForTesting
+    double updateReadFrequency(long tableId, long scanCount, long now) {
+        ReadFrequency frequency = tableReadFrequency.get(tableId);
+        if (frequency == null) {
+            // the scans before the table became a candidate are counted as recent reads
+            frequency = new ReadFrequency(scanCount, now, scanCount);
+            tableReadFrequency.put(tableId, frequency);
+            return frequency.decayedReads;
+        }
+        // the table metrics are reset periodically, treat the current value as the delta in that case
+        long delta = scanCount >= frequency.lastScanCount ? scanCount - frequency.lastScanCount : scanCount;
+        long halfLifeMs = Math.max(1, Config.lake_compaction_read_frequency_half_life_second) * 1000L;
+        double decay = Math.pow(0.5, (double) Math.max(0, now - frequency.lastUpdateTime) / halfLifeMs);
+        frequency.decayedReads = frequency.decayedReads * decay + delta;
+        frequency.lastScanCount = scanCount;
+        frequency.lastUpdateTime = now;
+        return frequency.decayedReads;
+    }
+
+    private static class ReadFrequency {
+        private long lastScanCount;
+        private long lastUpdateTime;
+        private double decayedReads;
+
+        ReadFrequency(long lastScanCount, long lastUpdateTime, double decayedReads) {
+            this.lastScanCount = lastScanCount;
+            this.lastUpdateTime = lastUpdateTime;
+            this.decayedReads = decayedReads;
+        }
+    }
+}
@@ -138,6 +138,7 @@ public class Pipe implements GsonPostProcessable {
         Pipe res = new Pipe(pipeId, pipeName.getPipeName(), stmt.getTargetTable(), stmt.getDataSource(),
                 stmt.getInsertSql());
         stmt.getDataSource().initPipeId(pipeId);
+        stmt.getDataSource().getFileListRepo().initEmptyFileIndex();
         res.recovered = true;
         res.processProperties(stmt.getProperties());
         return res;
@@ -239,6 +240,12 @@ public class Pipe implements GsonPostProcessable {
         }
         LOG.info("pipe {} start to recover", name);
 
+        try {
+            pipeSource.getFileListRepo().loadFileIndex();
+        } catch (Exception e) {
+            // the files are staged through the repo until the index is loaded successfully
+            LOG.warn("load file index failed, select staged files from the repo, pipe={}", name, e);
+        }
         GlobalTransactionMgr txnMgr = GlobalStateMgr.getCurrentState().getGlobalTransactionMgr();
         long dbId = getPipeId().getDbId();
         List<PipeFileRecord> loadingFiles =
@@ -44,6 +44,17 @@ public abstract class FileListRepo {
      */
     public abstract PipeFileRecord listFilesByPath(String path);
 
+    /**
+     * Load the staged files of the pipe into the in-memory index, which is used to find the new files
+     * when staging files
+     */
+    public abstract void loadFileIndex();
+
+    /**
+     * Start with an empty in-memory index, for a newly created pipe which has no staged files
+     */
+    public abstract void initEmptyFileIndex();
+
     /**
      * Add files into the list, as unloaded state
      * If some files have already been loaded, they will be ignored
@@ -15,6 +15,7 @@
 package com.starrocks.load.pipe.filelist;
 
 import com.starrocks.catalog.CatalogUtils;
+import com.starrocks.common.Config;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.AutoInferUtil;
 import com.starrocks.load.pipe.PipeFileRecord;
@@ -26,6 +27,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Persist the file-list in an OLAP table
@@ -75,6 +77,8 @@ public class FileListTableRepo extends FileListRepo {
 
     protected static final String SELECT_FILES_BY_STATE = SELECT_FILES + " WHERE `pipe_id` = %d AND `state` = %s";
 
+    protected static final String SELECT_FILES_BY_PIPE = SELECT_FILES + " WHERE `pipe_id` = %d";
+
     protected static final String SELECT_FILES_BY_PATH = SELECT_FILES + " WHERE `pipe_id` = %d AND `file_name` = %s";
 
     protected static final String SELECT_FILES_BY_STATE_WITH_LIMIT =
@@ -107,10 +111,59 @@ public class FileListTableRepo extends FileListRepo {
         return RepoAccessor.getInstance().listFilesByPath(pipeId.getId(), path);
     }
 
+    // null if not loaded, then the staged files are selected from the table
+    private volatile StagedFileIndex fileIndex;
+    // the index may miss some files after a failed write, reload it before using
+    private volatile boolean fileIndexStale = false;
+
+    @Override
+    public void loadFileIndex() {
+        if (!Config.pipe_enable_staged_file_index) {
+            fileIndex = null;
+            return;
+        }
+        List<PipeFileRecord> files = RepoAccessor.getInstance().listFilesByPipe(pipeId.getId());
+        StagedFileIndex index = new StagedFileIndex();
+        files.forEach(index::add);
+        fileIndex = index;
+        fileIndexStale = false;
+        LOG.info("load {} staged files into file index, pipe={}", index.size(), pipeId);
+    }
+
+    @Override
+    public void initEmptyFileIndex() {
+        if (Config.pipe_enable_staged_file_index) {
+            fileIndex = new StagedFileIndex();
+            fileIndexStale = false;
+        }
+    }
+
+    private StagedFileIndex getFileIndex() {
+        if (!Config.pipe_enable_staged_file_index) {
+            fileIndex = null;
+            return null;
+        }
+        if (fileIndex != null && fileIndexStale) {
+            try {
+                loadFileIndex();
+            } catch (Exception e) {
+                LOG.warn("reload file index failed, select staged files from the repo, pipe={}", pipeId, e);
+                return null;
+            }
+        }
+        return fileIndex;
+    }
+
     @Override
     public void stageFiles(List<PipeFileRecord> records) {
         records.forEach(file -> file.pipeId = pipeId.getId());
 
+        StagedFileIndex index = getFileIndex();
+        if (index != null) {
+            stageFilesByIndex(records, index);
+            return;
+        }
+
         List<PipeFileRecord> stagingFile = new ArrayList<>();
         for (List<PipeFileRecord> batch : ListUtils.partition(records, SELECT_BATCH_SIZE)) {
             List<PipeFileRecord> stagedFiles = RepoAccessor.getInstance().selectStagedFiles(batch);
@@ -134,6 +187,21 @@ public class FileListTableRepo extends FileListRepo {
         }
     }
 
+    private void stageFilesByIndex(List<PipeFileRecord> records, StagedFileIndex index) {
+        List<PipeFileRecord> newFiles = records.stream().filter(file -> !index.contains(file)).collect(Collectors.toList());
+        try {
+            for (List<PipeFileRecord> batch : ListUtils.partition(newFiles, WRITE_BATCH_SIZE)) {
+                RepoAccessor.getInstance().addFiles(batch);
+                batch.forEach(index::add);
+                LOG.info("stage {} files into file-list, pipe={}, newFiles={}", batch.size(), pipeId, batch);
+            }
+        } catch (Exception e) {
+            // the failed batch may be written partially
+            fileIndexStale = true;
+            throw e;
+        }
+    }
+
     @Override
     public void updateFileState(List<PipeFileRecord> files, PipeFileState state, String insertLabel) {
         files.forEach(x -> x.pipeId = pipeId.getId());
@@ -148,6 +216,7 @@ public class FileListTableRepo extends FileListRepo {
     @Override
     public void destroy() {
         RepoAccessor.getInstance().deleteByPipe(pipeId.getId());
+        fileIndex = null;
     }
 
     /**
@@ -50,6 +50,16 @@ public class RepoAccessor {
         }
     }
 
+    public List<PipeFileRecord> listFilesByPipe(long pipeId) {
+        try {
+            List<TResultBatch> batch = RepoExecutor.getInstance().executeDQL(buildListFileByPipe(pipeId));
+            return PipeFileRecord.fromResultBatch(batch);
+        } catch (Exception e) {
+            LOG.error("listFilesByPipe failed: pipeId={}", pipeId, e);
+            throw e;
+        }
+    }
+
     public List<PipeFileRecord> listFilesByState(long pipeId, FileListRepo.PipeFileState state, long limit) {
         List<PipeFileRecord> res = null;
         try {
@@ -158,6 +168,10 @@ public class RepoAccessor {
                         pipeId, Strings.quote(state.toString()), limit);
     }
 
+    protected String buildListFileByPipe(long pipeId) {
+        return String.format(FileListTableRepo.SELECT_FILES_BY_PIPE, pipeId);
+    }
+
     protected String buildListFileByPath(long pipeId, String path) {
         return String.format(FileListTableRepo.SELECT_FILES_BY_PATH, pipeId, Strings.quote(path));
     }
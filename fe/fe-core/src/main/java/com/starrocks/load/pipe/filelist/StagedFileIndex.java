@@ -0,0 +1,129 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.load.pipe.filelist;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Longs;
+import com.starrocks.load.pipe.PipeFileRecord;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * In-memory set of the files staged into the file-list of a pipe, to decide which polled files are new
+ * without querying the file-list table.
+ * Each file is kept as the 128-bit murmur3 hash of (file_name, file_version), the same key by which the file-list
+ * table deduplicates the files of a pipe, in an open addressing table of longs, so that millions of files only take
+ * tens of MB. The chance of two different files sharing the same hash is negligible at this width, so a hit is
+ * taken as staged.
+ */
+class StagedFileIndex {
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final double MAX_LOAD_FACTOR = 0.6;
+
+    // the two halves of the hash of slot i are at [2 * i] and [2 * i + 1], (0, 0) means an empty slot
+    private long[] slots;
+    private int size;
+
+    StagedFileIndex() {
+        this.slots = new long[INITIAL_CAPACITY * 2];
+    }
+
+    public synchronized boolean contains(PipeFileRecord file) {
+        HashCode hash = hash(file);
+        return findSlot(slots, high(hash), low(hash)) >= 0;
+    }
+
+    /**
+     * @return true if the file was not in the index
+     */
+    public synchronized boolean add(PipeFileRecord file) {
+        HashCode hash = hash(file);
+        long high = high(hash);
+        long low = low(hash);
+        if (findSlot(slots, high, low) >= 0) {
+            return false;
+        }
+        if (size + 1 > capacity() * MAX_LOAD_FACTOR) {
+            resize();
+        }
+        insert(slots, high, low);
+        size++;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int capacity() {
+        return slots.length / 2;
+    }
+
+    private void resize() {
+        long[] newSlots = new long[slots.length * 2];
+        for (int i = 0; i < capacity(); i++) {
+            long high = slots[2 * i];
+            long low = slots[2 * i + 1];
+            if (high != 0 || low != 0) {
+                insert(newSlots, high, low);
+            }
+        }
+        slots = newSlots;
+    }
+
+    private static void insert(long[] slots, long high, long low) {
+        int mask = slots.length / 2 - 1;
+        int i = (int) low & mask;
+        while (slots[2 * i] != 0 || slots[2 * i + 1] != 0) {
+            i = (i + 1) & mask;
+        }
+        slots[2 * i] = high;
+        slots[2 * i + 1] = low;
+    }
+
+    private static int findSlot(long[] slots, long high, long low) {
+        int mask = slots.length / 2 - 1;
+        int i = (int) low & mask;
+        while (slots[2 * i] != 0 || slots[2 * i + 1] != 0) {
+            if (slots[2 * i] == high && slots[2 * i + 1] == low) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static HashCode hash(PipeFileRecord file) {
+        return HASH_FUNCTION.newHasher()
+                .putString(file.getFileName() == null ? "" : file.getFileName(), StandardCharsets.UTF_8)
+                .putByte((byte) 0)
+                .putString(file.getFileVersion() == null ? "" : file.getFileVersion(), StandardCharsets.UTF_8)
+                .hash();
+    }
+
+    private static long high(HashCode hash) {
+        byte[] bytes = hash.asBytes();
+        return Longs.fromBytes(bytes[8], bytes[9], bytes[10], bytes[11], bytes[12], bytes[13], bytes[14], bytes[15]);
+    }
+
+    // an empty slot is (0, 0), so a hash of (0, 0) is stored as (0, 1)
+    private static long low(HashCode hash) {
+        long low = hash.asLong();
+        return low == 0 && high(hash) == 0 ? 1 : low;
+    }
+}
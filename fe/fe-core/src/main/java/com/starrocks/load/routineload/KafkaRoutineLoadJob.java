@@ -83,6 +83,7 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -125,7 +126,13 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
     private List<Pair<Integer, Long>> customeKafkaPartitionOffsets = null;
     boolean useDefaultGroupId = true;
 
-    private Map<Integer, Long> latestPartitionOffsets = Maps.newHashMap();
+    // written by the progress updater and read by the task scheduler to compute the lag
+    private final Map<Integer, Long> latestPartitionOffsets = Maps.newConcurrentMap();
+
+    // smoothing factor of the consume rate
+    private static final double CONSUME_RATE_ALPHA = 0.3;
+    // messages consumed per second of each partition, observed from the committed tasks, not persisted
+    private final Map<Integer, Double> partitionConsumeRates = Maps.newConcurrentMap();
 
     public KafkaRoutineLoadJob() {
         // for serialization, id is dummy
@@ -183,6 +190,65 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         return latestPartitionOffsets.get(Integer.valueOf(partition));
     }
 
+    // Returns the number of messages not consumed yet by the local known latest offset,
+    // or KafkaTaskPlanner.UNKNOWN_LAG if the latest offset or the consumed offset is unknown.
+    public long getPartitionLag(int partition) {
+        Long latestOffset = getPartitionOffset(partition);
+        Long consumedOffset = ((KafkaProgress) progress).getOffsetByPartition(partition);
+        if (latestOffset == null || consumedOffset == null || consumedOffset < 0) {
+            return KafkaTaskPlanner.UNKNOWN_LAG;
+        }
+        return Math.max(0, latestOffset - consumedOffset);
+    }
+
+    public long getLag() {
+        return getLag(currentKafkaPartitions);
+    }
+
+    public long getLag(Collection<Integer> partitions) {
+        long lag = 0;
+        for (Integer partition : partitions) {
+            lag += Math.max(0, getPartitionLag(partition));
+        }
+        return lag;
+    }
+
+    public double getConsumeRate() {
+        return getConsumeRate(currentKafkaPartitions);
+    }
+
+    public double getConsumeRate(Collection<Integer> partitions) {
+        double rate = 0;
+        for (Integer partition : partitions) {
+            rate += partitionConsumeRates.getOrDefault(partition, 0.0);
+        }
+        return rate;
+    }
+
+    // the consume seconds of a task consuming the given partitions, see KafkaTaskPlanner
+    public long getAdaptiveTaskConsumeSecond(Collection<Integer> partitions) {
+        long maxSecond = Math.max(taskConsumeSecond,
+                Math.min(Config.routine_load_task_max_consume_second, taskTimeoutSecond / 2));
+        return KafkaTaskPlanner.taskConsumeSecond(getLag(partitions), getConsumeRate(partitions),
+                taskConsumeSecond, maxSecond);
+    }
+
+    private void updateConsumeRates(KafkaProgress committedProgress, long taskExecutionTimeMs) {
+        if (committedProgress == null || taskExecutionTimeMs <= 0) {
+            return;
+        }
+        for (Map.Entry<Integer, Long> entry : committedProgress.getPartitionIdToOffset().entrySet()) {
+            Long consumedOffset = ((KafkaProgress) progress).getOffsetByPartition(entry.getKey());
+            if (consumedOffset == null || consumedOffset < 0) {
+                continue;
+            }
+            // the committed offset is the last consumed message, consumedOffset is the next message to consume
+            double rate = Math.max(0, entry.getValue() + 1 - consumedOffset) * 1000.0 / taskExecutionTimeMs;
+            partitionConsumeRates.merge(entry.getKey(), rate,
+                    (oldRate, newRate) -> oldRate * (1 - CONSUME_RATE_ALPHA) + newRate * CONSUME_RATE_ALPHA);
+        }
+    }
+
     @Override
     public void prepare() throws UserException {
         super.prepare();
@@ -235,14 +301,12 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         try {
             if (state == JobState.NEED_SCHEDULE) {
                 // divide kafkaPartitions into tasks
-                for (int i = 0; i < currentConcurrentTaskNum; i++) {
+                List<List<Integer>> taskPartitions = divideKafkaPartitions(currentConcurrentTaskNum);
+                for (List<Integer> partitions : taskPartitions) {
                     Map<Integer, Long> taskKafkaProgress = Maps.newHashMap();
-                    for (int j = 0; j < currentKafkaPartitions.size(); j++) {
-                        if (j % currentConcurrentTaskNum == i) {
-                            int kafkaPartition = currentKafkaPartitions.get(j);
-                            taskKafkaProgress.put(kafkaPartition,
-                                    ((KafkaProgress) progress).getOffsetByPartition(kafkaPartition));
-                        }
+                    for (int kafkaPartition : partitions) {
+                        taskKafkaProgress.put(kafkaPartition,
+                                ((KafkaProgress) progress).getOffsetByPartition(kafkaPartition));
                     }
                     long timeToExecuteMs = System.currentTimeMillis() + taskSchedIntervalS * 1000;
                     KafkaTaskInfo kafkaTaskInfo = new KafkaTaskInfo(UUID.randomUUID(), this,
@@ -266,6 +330,29 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         }
     }
 
+    private List<List<Integer>> divideKafkaPartitions(int currentConcurrentTaskNum) {
+        if (Config.enable_routine_load_lag_aware_scheduling && !currentKafkaPartitions.isEmpty()) {
+            Map<Integer, Long> partitionLags = Maps.newHashMap();
+            for (Integer partition : currentKafkaPartitions) {
+                partitionLags.put(partition, getPartitionLag(partition));
+            }
+            return KafkaTaskPlanner.assignPartitions(currentKafkaPartitions, partitionLags, currentConcurrentTaskNum,
+                    Config.routine_load_idle_partition_lag);
+        }
+
+        List<List<Integer>> taskPartitions = Lists.newArrayList();
+        for (int i = 0; i < currentConcurrentTaskNum; i++) {
+            List<Integer> partitions = Lists.newArrayList();
+            for (int j = 0; j < currentKafkaPartitions.size(); j++) {
+                if (j % currentConcurrentTaskNum == i) {
+                    partitions.add(currentKafkaPartitions.get(j));
+                }
+            }
+            taskPartitions.add(partitions);
+        }
+        return taskPartitions;
+    }
+
     @Override
     public int calculateCurrentConcurrentTaskNum() throws MetaNotFoundException {
         SystemInfoService systemInfoService = GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo();
@@ -344,6 +431,7 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
     @Override
     protected void updateProgress(RLTaskTxnCommitAttachment attachment) throws UserException {
         super.updateProgress(attachment);
+        updateConsumeRates((KafkaProgress) attachment.getProgress(), attachment.getTaskExecutionTimeMs());
         this.progress.update(attachment.getProgress());
         this.timestampProgress.update(attachment.getTimestampProgress());
     }
@@ -143,6 +143,11 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         return false;
     }
 
+    @Override
+    public long getLag() {
+        return ((KafkaRoutineLoadJob) job).getLag(partitionIdToOffset.keySet());
+    }
+
     @Override
     public boolean isProgressKeepUp(RoutineLoadProgress progress) {
         KafkaProgress kProgress = (KafkaProgress) progress;
@@ -194,13 +199,20 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         tRoutineLoadTask.setKafka_load_info(tKafkaLoadInfo);
         tRoutineLoadTask.setType(TLoadSourceType.KAFKA);
         tRoutineLoadTask.setParams(plan(routineLoadJob));
+        long consumeSecond = routineLoadJob.getTaskConsumeSecond();
+        long maxBatchRows = routineLoadJob.getMaxBatchRows();
+        if (Config.enable_routine_load_lag_aware_scheduling) {
+            consumeSecond = routineLoadJob.getAdaptiveTaskConsumeSecond(partitionIdToOffset.keySet());
+            maxBatchRows = KafkaTaskPlanner.taskMaxBatchRows(maxBatchRows, consumeSecond,
+                    routineLoadJob.getTaskConsumeSecond());
+        }
         // When the transaction times out, we reduce the consumption time to lower the BE load.
         if (msg != null && msg.contains(DatabaseTransactionMgr.TXN_TIMEOUT_BY_MANAGER)) {
-            tRoutineLoadTask.setMax_interval_s(routineLoadJob.getTaskConsumeSecond() / 2);
+            tRoutineLoadTask.setMax_interval_s(consumeSecond / 2);
         } else {
-            tRoutineLoadTask.setMax_interval_s(routineLoadJob.getTaskConsumeSecond());
+            tRoutineLoadTask.setMax_interval_s(consumeSecond);
         }
-        tRoutineLoadTask.setMax_batch_rows(routineLoadJob.getMaxBatchRows());
+        tRoutineLoadTask.setMax_batch_rows(maxBatchRows);
         tRoutineLoadTask.setMax_batch_size(Config.max_routine_load_batch_size);
         if (!routineLoadJob.getFormat().isEmpty() && routineLoadJob.getFormat().equalsIgnoreCase("json")) {
             tRoutineLoadTask.setFormat(TFileFormatType.FORMAT_JSON);
@@ -0,0 +1,120 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.load.routineload;
+
+import com.google.common.collect.Lists;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans the kafka routine load tasks by the lag of each partition when
+ * {@link com.starrocks.common.Config#enable_routine_load_lag_aware_scheduling} is on.
+ * 1. Partitions with lag are spread over the tasks so that each task has similar lag to catch up.
+ * 2. Idle partitions are merged into one task, so they do not occupy a BE slot each.
+ * 3. A task with large lag consumes longer and more rows, so fewer transactions are needed to catch up.
+ */
+public class KafkaTaskPlanner {
+    // lag of a partition whose latest offset is unknown yet
+    public static final long UNKNOWN_LAG = -1L;
+
+    private KafkaTaskPlanner() {
+    }
+
+    /**
+     * @param partitions    the kafka partitions to consume
+     * @param partitionLags lag of each partition, {@link #UNKNOWN_LAG} or absent if unknown
+     * @param maxTaskNum    the max concurrent task number of the job
+     * @param idleLag       partitions with lag less than this are considered idle
+     * @return partitions of each task, no task is empty
+     */
+    public static List<List<Integer>> assignPartitions(List<Integer> partitions, Map<Integer, Long> partitionLags,
+                                                       int maxTaskNum, long idleLag) {
+        List<Integer> busy = new ArrayList<>();
+        List<Integer> idle = new ArrayList<>();
+        for (Integer partition : partitions) {
+            long lag = partitionLags.getOrDefault(partition, UNKNOWN_LAG);
+            // a partition whose lag is unknown is not considered idle, until we know it is
+            if (lag != UNKNOWN_LAG && lag < idleLag) {
+                idle.add(partition);
+            } else {
+                busy.add(partition);
+            }
+        }
+        if (busy.isEmpty() && idle.isEmpty()) {
+            return Lists.newArrayList();
+        }
+
+        int taskNum = Math.max(1, Math.min(maxTaskNum, busy.size() + (idle.isEmpty() ? 0 : 1)));
+        List<List<Integer>> tasks = new ArrayList<>(taskNum);
+        long[] taskLags = new long[taskNum];
+        for (int i = 0; i < taskNum; i++) {
+            tasks.add(new ArrayList<>());
+        }
+
+        // largest lag first, and always put it into the task with the least lag
+        busy.sort(Comparator.comparingLong((Integer p) -> effectiveLag(partitionLags, p, idleLag)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        for (Integer partition : busy) {
+            int index = leastLoadedTask(taskLags);
+            tasks.get(index).add(partition);
+            taskLags[index] += effectiveLag(partitionLags, partition, idleLag);
+        }
+        if (!idle.isEmpty()) {
+            tasks.get(leastLoadedTask(taskLags)).addAll(idle);
+        }
+        tasks.removeIf(List::isEmpty);
+        return tasks;
+    }
+
+    private static long effectiveLag(Map<Integer, Long> partitionLags, Integer partition, long idleLag) {
+        long lag = partitionLags.getOrDefault(partition, UNKNOWN_LAG);
+        return lag == UNKNOWN_LAG ? idleLag : lag;
+    }
+
+    private static int leastLoadedTask(long[] taskLags) {
+        int index = 0;
+        for (int i = 1; i < taskLags.length; i++) {
+            if (taskLags[i] < taskLags[index]) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the seconds a task should consume to catch up the lag at the observed consume rate,
+     * bounded by [defaultSecond, maxSecond].
+     */
+    public static long taskConsumeSecond(long lag, double consumeRate, long defaultSecond, long maxSecond) {
+        if (lag <= 0 || consumeRate <= 0) {
+            return defaultSecond;
+        }
+        double needSecond = Math.ceil(lag / consumeRate);
+        return (long) Math.max(defaultSecond, Math.min(maxSecond, needSecond));
+    }
+
+    /**
+     * Scales the max batch rows with the consume seconds, so that a longer task is not cut by the row limit.
+     */
+    public static long taskMaxBatchRows(long defaultRows, long consumeSecond, long defaultSecond) {
+        if (defaultSecond <= 0 || consumeSecond <= defaultSecond) {
+            return defaultRows;
+        }
+        return defaultRows * consumeSecond / defaultSecond;
+    }
+}
@@ -107,6 +107,10 @@ public abstract class RoutineLoadTaskInfo {
 
     protected long warehouseId = WarehouseManager.DEFAULT_WAREHOUSE_ID;
 
+    // the lag and sequence when the task is put into the schedule queue, used to order the tasks in the queue
+    private volatile long scheduleLag = 0;
+    private volatile long scheduleSeq = 0;
+
     public RoutineLoadTaskInfo(UUID id, RoutineLoadJob job, long taskScheduleIntervalMs,
                                long timeToExecuteMs, long taskTimeoutMs) {
         this.id = id;
@@ -127,6 +131,24 @@ public abstract class RoutineLoadTaskInfo {
         return id;
     }
 
+    // the number of messages the task has to consume to catch up the source, 0 if unknown
+    public long getLag() {
+        return 0;
+    }
+
+    public long getScheduleLag() {
+        return scheduleLag;
+    }
+
+    public long getScheduleSeq() {
+        return scheduleSeq;
+    }
+
+    public void setSchedulePriority(long scheduleLag, long scheduleSeq) {
+        this.scheduleLag = scheduleLag;
+        this.scheduleSeq = scheduleSeq;
+    }
+
     public RoutineLoadJob getJob() {
         return job;
     }
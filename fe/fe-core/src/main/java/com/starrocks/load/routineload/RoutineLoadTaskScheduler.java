@@ -36,7 +36,6 @@ package com.starrocks.load.routineload;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Queues;
 import com.starrocks.common.Config;
 import com.starrocks.common.InternalErrorCode;
 import com.starrocks.common.LoadException;
@@ -58,12 +57,15 @@ import com.starrocks.thrift.TStatusCode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Routine load task scheduler is a function which allocate task to be.
@@ -71,7 +73,10 @@ import java.util.concurrent.TimeUnit;
  * Step2: submit beIdToBatchTask when queue is empty
  * Step3: take a task from queue and schedule this task
  * <p>
- * The scheduler will be blocked in step3 till the queue receive a new task
+ * The scheduler will be blocked in step3 till the queue receive a new task.
+ * Tasks in the queue are ordered by their lag when enable_routine_load_lag_aware_scheduling is true,
+ * otherwise in FIFO order. With lag ordering, every LAG_AWARE_FIFO_POLL_INTERVAL-th poll takes the task
+ * waiting longest instead, so the tasks with no or unknown lag are not starved by the lagging ones.
  */
 public class RoutineLoadTaskScheduler extends FrontendDaemon {
 
@@ -79,14 +84,22 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
 
     private static final long BACKEND_SLOT_UPDATE_INTERVAL_MS = 10000; // 10s
     private static final long SLOT_FULL_SLEEP_MS = 10000; // 10s
+    // check the idle slots more frequently when lag aware scheduling is on, so that lagging tasks start earlier
+    private static final long LAG_AWARE_SLOT_FULL_SLEEP_MS = 1000; // 1s
     private static final long POLL_TIMEOUT_SEC = 10; // 10s
+    private static final int LAG_AWARE_FIFO_POLL_INTERVAL = 4;
 
     private final RoutineLoadMgr routineLoadManager;
-    private final LinkedBlockingQueue<RoutineLoadTaskInfo> needScheduleTasksQueue = Queues.newLinkedBlockingQueue();
+    private final BlockingQueue<RoutineLoadTaskInfo> needScheduleTasksQueue = new PriorityBlockingQueue<>(
+            11, Comparator.comparingLong(RoutineLoadTaskInfo::getScheduleLag).reversed()
+            .thenComparingLong(RoutineLoadTaskInfo::getScheduleSeq));
+    private final AtomicLong scheduleSeq = new AtomicLong(0);
     private final ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
     private final ExecutorService threadPool = Executors.newCachedThreadPool();
 
     private long lastBackendSlotUpdateTime = -1;
+    private long lastSlotFullLogTime = -1;
+    private long pollCount = 0;
 
     @VisibleForTesting
     public RoutineLoadTaskScheduler() {
@@ -114,16 +127,22 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
         int idleSlotNum = routineLoadManager.getClusterIdleSlotNum();
         // scheduler will be blocked when there is no slot for task in cluster
         if (idleSlotNum <= 0) {
-            LOG.warn("no available be slot to scheduler tasks, wait for {} seconds to scheduler again, " +
-                            "you can set max_routine_load_task_num_per_be bigger in fe.conf, current value is {}",
-                    SLOT_FULL_SLEEP_MS / 1000, Config.max_routine_load_task_num_per_be);
-            Thread.sleep(SLOT_FULL_SLEEP_MS);
+            long sleepMs = Config.enable_routine_load_lag_aware_scheduling ? LAG_AWARE_SLOT_FULL_SLEEP_MS :
+                    SLOT_FULL_SLEEP_MS;
+            long now = System.currentTimeMillis();
+            if (now - lastSlotFullLogTime >= SLOT_FULL_SLEEP_MS) {
+                LOG.warn("no available be slot to scheduler tasks, wait for {} ms to scheduler again, " +
+                                "you can set max_routine_load_task_num_per_be bigger in fe.conf, current value is {}",
+                        sleepMs, Config.max_routine_load_task_num_per_be);
+                lastSlotFullLogTime = now;
+            }
+            Thread.sleep(sleepMs);
             return;
         }
 
         try {
             // This step will be blocked until timeout when queue is empty
-            RoutineLoadTaskInfo routineLoadTaskInfo = needScheduleTasksQueue.poll(POLL_TIMEOUT_SEC, TimeUnit.SECONDS);
+            RoutineLoadTaskInfo routineLoadTaskInfo = pollTask();
             if (routineLoadTaskInfo == null) {
                 return;
             }
@@ -149,12 +168,26 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
         }
     }
 
+    @VisibleForTesting
+    RoutineLoadTaskInfo pollTask() throws InterruptedException {
+        if (Config.enable_routine_load_lag_aware_scheduling && ++pollCount % LAG_AWARE_FIFO_POLL_INTERVAL == 0) {
+            // the queue is small, scan it for the task enqueued earliest
+            RoutineLoadTaskInfo oldest = needScheduleTasksQueue.stream()
+                    .min(Comparator.comparingLong(RoutineLoadTaskInfo::getScheduleSeq)).orElse(null);
+            if (oldest != null && needScheduleTasksQueue.remove(oldest)) {
+                return oldest;
+            }
+        }
+        return needScheduleTasksQueue.poll(POLL_TIMEOUT_SEC, TimeUnit.SECONDS);
+    }
+
     private synchronized void delayPutToQueue(RoutineLoadTaskInfo routineLoadTaskInfo, String msg) {
         if (msg != null) {
             routineLoadTaskInfo.setMsg(msg, true);
         }
         scheduledExecutorService.schedule(() -> {
             try {
+                prepareToEnqueue(routineLoadTaskInfo);
                 needScheduleTasksQueue.put(routineLoadTaskInfo);
             } catch (InterruptedException exception) {
                 LOG.warn("put task to queue failed", exception);
@@ -316,15 +349,33 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
     }
 
     public void addTaskInQueue(RoutineLoadTaskInfo routineLoadTaskInfo) {
+        prepareToEnqueue(routineLoadTaskInfo);
         needScheduleTasksQueue.add(routineLoadTaskInfo);
         LOG.debug("total tasks num in routine load task queue: {}", needScheduleTasksQueue.size());
     }
 
     public void addTasksInQueue(List<RoutineLoadTaskInfo> routineLoadTaskInfoList) {
-        needScheduleTasksQueue.addAll(routineLoadTaskInfoList);
+        for (RoutineLoadTaskInfo routineLoadTaskInfo : routineLoadTaskInfoList) {
+            prepareToEnqueue(routineLoadTaskInfo);
+            needScheduleTasksQueue.add(routineLoadTaskInfo);
+        }
         LOG.debug("total tasks num in routine load task queue: {}", needScheduleTasksQueue.size());
     }
 
+    // The lag is captured when the task is put into the queue, because the order of the elements in
+    // the priority queue must not change while they are in it.
+    private void prepareToEnqueue(RoutineLoadTaskInfo routineLoadTaskInfo) {
+        long lag = 0;
+        if (Config.enable_routine_load_lag_aware_scheduling) {
+            try {
+                lag = routineLoadTaskInfo.getLag();
+            } catch (Exception e) {
+                LOG.warn("failed to get lag of routine load task {}", DebugUtil.printId(routineLoadTaskInfo.getId()), e);
+            }
+        }
+        routineLoadTaskInfo.setSchedulePriority(lag, scheduleSeq.getAndIncrement());
+    }
+
     private void submitTask(long beId, TRoutineLoadTask tTask) throws LoadException {
         // TODO: need to refactor after be split into cn + dn
         ComputeNode node = GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getBackendOrComputeNode(beId);
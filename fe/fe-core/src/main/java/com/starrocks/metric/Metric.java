@@ -65,6 +65,8 @@ public abstract class Metric<T> {
     protected MetricUnit unit;
     protected List<MetricLabel> labels = Lists.newArrayList();
     protected String description;
+    // the series of the last prometheus exposition, reused if the labels and the value are not changed
+    private volatile PrometheusMetricVisitor.EncodedSeries encodedSeries;
 
     public Metric(String name, MetricType type, MetricUnit unit, String description) {
         this.name = name;
@@ -111,5 +113,13 @@ public abstract class Metric<T> {
         return labels;
     }
 
+    PrometheusMetricVisitor.EncodedSeries getEncodedSeries() {
+        return encodedSeries;
+    }
+
+    void setEncodedSeries(PrometheusMetricVisitor.EncodedSeries encodedSeries) {
+        this.encodedSeries = encodedSeries;
+    }
+
     public abstract T getValue();
 }
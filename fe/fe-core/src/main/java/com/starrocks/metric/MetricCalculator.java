@@ -35,6 +35,7 @@
 package com.starrocks.metric;
 
 import com.starrocks.common.Config;
+import com.starrocks.lake.compaction.CompactionMgr;
 import com.starrocks.qe.QueryDetail;
 import com.starrocks.qe.QueryDetailQueue;
 import com.starrocks.server.GlobalStateMgr;
@@ -96,8 +97,14 @@ public class MetricCalculator extends TimerTask {
 
         // max tablet compaction score of all backends
         if (RunMode.isSharedDataMode()) {
-            MetricRepo.GAUGE_MAX_TABLET_COMPACTION_SCORE.setValue(
-                    (long) GlobalStateMgr.getCurrentState().getCompactionMgr().getMaxCompactionScore());
+            CompactionMgr compactionMgr = GlobalStateMgr.getCurrentState().getCompactionMgr();
+            MetricRepo.GAUGE_MAX_TABLET_COMPACTION_SCORE.setValue((long) compactionMgr.getMaxCompactionScore());
+
+            List<Double> scores = compactionMgr.getSortedCompactionScores();
+            MetricRepo.GAUGE_LAKE_COMPACTION_SCORE_MEDIAN.setValue(percentile(scores, 0.5));
+            MetricRepo.GAUGE_LAKE_COMPACTION_SCORE_P90.setValue(percentile(scores, 0.9));
+            MetricRepo.GAUGE_LAKE_COMPACTION_SCORE_P99.setValue(percentile(scores, 0.99));
+            MetricRepo.GAUGE_LAKE_COMPACTION_MAX_QUEUE_AGE.setValue(compactionMgr.getMaxCompactionQueueAgeMs());
         } else {
             long maxCompactionScore = 0;
             List<Metric> compactionScoreMetrics = MetricRepo.getMetricsByName(MetricRepo.TABLET_MAX_COMPACTION_SCORE);
@@ -159,4 +166,12 @@ public class MetricCalculator extends TimerTask {
 
         MetricRepo.GAUGE_SAFE_MODE.setValue(GlobalStateMgr.getCurrentState().isSafeMode() ? 1 : 0);
     }
+
+    // REQUIRE: values are sorted in ascending order
+    private static double percentile(List<Double> values, double quantile) {
+        if (values.isEmpty()) {
+            return 0.0;
+        }
+        return values.get((int) Math.round((values.size() - 1) * quantile));
+    }
 }
@@ -44,6 +44,7 @@ import com.starrocks.alter.AlterJobV2;
 import com.starrocks.backup.AbstractJob;
 import com.starrocks.backup.BackupJob;
 import com.starrocks.backup.RestoreJob;
+import com.starrocks.backup.TransferScheduler;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Table;
@@ -81,7 +82,9 @@ import org.apache.logging.log4j.Logger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -143,6 +146,7 @@ public final class MetricRepo {
 
     public static LongCounterMetric COUNTER_UNFINISHED_BACKUP_JOB;
     public static LongCounterMetric COUNTER_UNFINISHED_RESTORE_JOB;
+    public static LongCounterMetric COUNTER_LAKE_COMPACTION_READ_BYTES;
 
     public static LongCounterMetric COUNTER_LOAD_ADD;
     public static LongCounterMetric COUNTER_LOAD_FINISHED;
@@ -161,6 +165,7 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_PAUSED;
     public static LongCounterMetric COUNTER_SHORTCIRCUIT_QUERY;
     public static LongCounterMetric COUNTER_SHORTCIRCUIT_RPC;
+    public static LongCounterMetric COUNTER_HIVE_METASTORE_CALLS_AVOIDED;
 
     public static Histogram HISTO_QUERY_LATENCY;
     public static Histogram HISTO_EDIT_LOG_WRITE_LATENCY;
@@ -168,6 +173,12 @@ public final class MetricRepo {
     public static Histogram HISTO_JOURNAL_WRITE_BATCH;
     public static Histogram HISTO_JOURNAL_WRITE_BYTES;
     public static Histogram HISTO_SHORTCIRCUIT_RPC_LATENCY;
+    public static Histogram HISTO_LAKE_COMPACTION_QUEUE_AGE;
+
+    // the scope names of Tracers are mostly constant, the limit guards against the scopes named by the data,
+    // e.g. the split keys of the external tables
+    private static final int MAX_TRACER_SCOPE_HISTOGRAMS = 512;
+    private static final Set<String> TRACER_SCOPES = ConcurrentHashMap.newKeySet();
 
     // following metrics will be updated by metric calculator
     public static GaugeMetricImpl<Double> GAUGE_QUERY_PER_SECOND;
@@ -182,7 +193,12 @@ public final class MetricRepo {
     public static GaugeMetricImpl<Double> GAUGE_QUERY_LATENCY_P99;
     public static GaugeMetricImpl<Double> GAUGE_QUERY_LATENCY_P999;
     public static GaugeMetricImpl<Long> GAUGE_MAX_TABLET_COMPACTION_SCORE;
+    public static GaugeMetricImpl<Double> GAUGE_LAKE_COMPACTION_SCORE_MEDIAN;
+    public static GaugeMetricImpl<Double> GAUGE_LAKE_COMPACTION_SCORE_P90;
+    public static GaugeMetricImpl<Double> GAUGE_LAKE_COMPACTION_SCORE_P99;
+    public static GaugeMetricImpl<Long> GAUGE_LAKE_COMPACTION_MAX_QUEUE_AGE;
     public static GaugeMetricImpl<Long> GAUGE_STACKED_JOURNAL_NUM;
+    public static GaugeMetricImpl<Long> GAUGE_HIVE_METASTORE_EVENT_APPLY_LAG;
 
     public static GaugeMetricImpl<Long> GAUGE_ENCRYPTION_KEY_NUM;
 
@@ -337,6 +353,29 @@ public final class MetricRepo {
         GAUGE_MAX_TABLET_COMPACTION_SCORE.setValue(0L);
         STARROCKS_METRIC_REGISTER.addMetric(GAUGE_MAX_TABLET_COMPACTION_SCORE);
 
+        GAUGE_LAKE_COMPACTION_SCORE_MEDIAN = new GaugeMetricImpl<>("lake_compaction_score",
+                MetricUnit.NOUNIT, "median of the max compaction score of all partitions");
+        GAUGE_LAKE_COMPACTION_SCORE_MEDIAN.addLabel(new MetricLabel("type", "50_quantile"));
+        GAUGE_LAKE_COMPACTION_SCORE_MEDIAN.setValue(0.0);
+        STARROCKS_METRIC_REGISTER.addMetric(GAUGE_LAKE_COMPACTION_SCORE_MEDIAN);
+
+        GAUGE_LAKE_COMPACTION_SCORE_P90 = new GaugeMetricImpl<>("lake_compaction_score",
+                MetricUnit.NOUNIT, "p90 of the max compaction score of all partitions");
+        GAUGE_LAKE_COMPACTION_SCORE_P90.addLabel(new MetricLabel("type", "90_quantile"));
+        GAUGE_LAKE_COMPACTION_SCORE_P90.setValue(0.0);
+        STARROCKS_METRIC_REGISTER.addMetric(GAUGE_LAKE_COMPACTION_SCORE_P90);
+
+        GAUGE_LAKE_COMPACTION_SCORE_P99 = new GaugeMetricImpl<>("lake_compaction_score",
+                MetricUnit.NOUNIT, "p99 of the max compaction score of all partitions");
+        GAUGE_LAKE_COMPACTION_SCORE_P99.addLabel(new MetricLabel("type", "99_quantile"));
+        GAUGE_LAKE_COMPACTION_SCORE_P99.setValue(0.0);
+        STARROCKS_METRIC_REGISTER.addMetric(GAUGE_LAKE_COMPACTION_SCORE_P99);
+
+        GAUGE_LAKE_COMPACTION_MAX_QUEUE_AGE = new GaugeMetricImpl<>("lake_compaction_max_queue_age",
+                MetricUnit.MILLISECONDS, "waiting time of the oldest partition waiting for compaction");
+        GAUGE_LAKE_COMPACTION_MAX_QUEUE_AGE.setValue(0L);
+        STARROCKS_METRIC_REGISTER.addMetric(GAUGE_LAKE_COMPACTION_MAX_QUEUE_AGE);
+
         GAUGE_STACKED_JOURNAL_NUM = new GaugeMetricImpl<>(
                 "editlog_stacked_num", MetricUnit.OPERATIONS, "counter of edit log that are stacked");
         GAUGE_STACKED_JOURNAL_NUM.setValue(0L);
@@ -451,6 +490,15 @@ public final class MetricRepo {
         COUNTER_SHORTCIRCUIT_RPC = new LongCounterMetric("shortcircuit_rpc", MetricUnit.REQUESTS, "total shortcircuit rpc");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_SHORTCIRCUIT_RPC);
 
+        COUNTER_HIVE_METASTORE_CALLS_AVOIDED = new LongCounterMetric("hive_metastore_calls_avoided_by_event",
+                MetricUnit.REQUESTS, "total hive metastore calls avoided by applying notification events to the cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_HIVE_METASTORE_CALLS_AVOIDED);
+
+        GAUGE_HIVE_METASTORE_EVENT_APPLY_LAG = new GaugeMetricImpl<>("hive_metastore_event_apply_lag",
+                MetricUnit.MILLISECONDS, "delay between the last applied hive metastore event and its creation");
+        GAUGE_HIVE_METASTORE_EVENT_APPLY_LAG.setValue(0L);
+        STARROCKS_METRIC_REGISTER.addMetric(GAUGE_HIVE_METASTORE_EVENT_APPLY_LAG);
+
         COUNTER_QUERY_ANALYSIS_ERR = new LongCounterMetric("query_analysis_err", MetricUnit.REQUESTS,
                                                            "total analysis error query");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_ANALYSIS_ERR);
@@ -485,6 +533,9 @@ public final class MetricRepo {
         COUNTER_UNFINISHED_RESTORE_JOB = new LongCounterMetric("unfinished_restore_job", MetricUnit.REQUESTS,
                 "current unfinished restore job");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_UNFINISHED_RESTORE_JOB);
+        COUNTER_LAKE_COMPACTION_READ_BYTES = new LongCounterMetric("lake_compaction_read_bytes",
+                MetricUnit.BYTES, "total bytes read by the finished lake compaction jobs");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LAKE_COMPACTION_READ_BYTES);
         List<Database> dbs = Lists.newArrayList();
         if (GlobalStateMgr.getCurrentState().getLocalMetastore().getIdToDb() != null) {
             for (Map.Entry<Long, Database> entry : GlobalStateMgr.getCurrentState().getLocalMetastore().getIdToDb().entrySet()) {
@@ -513,6 +564,8 @@ public final class MetricRepo {
         HISTO_JOURNAL_WRITE_BYTES =
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "bytes"));
         HISTO_SHORTCIRCUIT_RPC_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("shortcircuit", "latency", "ms"));
+        HISTO_LAKE_COMPACTION_QUEUE_AGE =
+                METRIC_REGISTER.histogram(MetricRegistry.name("lake_compaction", "queue_age", "ms"));
 
         // init system metrics
         initSystemMetrics();
@@ -792,6 +845,8 @@ public final class MetricRepo {
         if (Config.enable_routine_load_lag_metrics) {
             collectRoutineLoadProcessMetrics(visitor);
         }
+        collectRoutineLoadJobMetrics(visitor);
+        collectBackupRestoreJobMetrics(visitor);
 
         if (Config.memory_tracker_enable) {
             collectMemoryUsageMetrics(visitor);
@@ -901,6 +956,66 @@ public final class MetricRepo {
         }
     }
 
+    // lag and consume rate of the running kafka routine load jobs, by the offsets known by FE, no kafka api is called
+    private static void collectRoutineLoadJobMetrics(MetricVisitor visitor) {
+        List<RoutineLoadJob> jobs = GlobalStateMgr.getCurrentState().getRoutineLoadMgr().getRoutineLoadJobByState(
+                Sets.newHashSet(RoutineLoadJob.JobState.RUNNING));
+        for (RoutineLoadJob job : jobs) {
+            if (!(job instanceof KafkaRoutineLoadJob)) {
+                continue;
+            }
+            KafkaRoutineLoadJob kJob = (KafkaRoutineLoadJob) job;
+
+            GaugeMetricImpl<Long> lag = new GaugeMetricImpl<>("routine_load_job_lag", MetricUnit.NOUNIT,
+                    "number of messages not consumed by the routine load job");
+            lag.addLabel(new MetricLabel("job_name", kJob.getName()));
+            lag.setValue(kJob.getLag());
+            visitor.visit(lag);
+
+            GaugeMetricImpl<Double> consumeRate = new GaugeMetricImpl<>("routine_load_job_consume_rate",
+                    MetricUnit.NOUNIT, "messages consumed per second by the routine load job");
+            consumeRate.addLabel(new MetricLabel("job_name", kJob.getName()));
+            consumeRate.setValue(kJob.getConsumeRate());
+            visitor.visit(consumeRate);
+        }
+    }
+
+    // transfer progress and throughput of the backup and restore jobs which are uploading or downloading snapshots
+    private static void collectBackupRestoreJobMetrics(MetricVisitor visitor) {
+        long now = System.currentTimeMillis();
+        for (Long dbId : GlobalStateMgr.getCurrentState().getLocalMetastore().getDbIds()) {
+            AbstractJob job = GlobalStateMgr.getCurrentState().getBackupHandler().getJob(dbId);
+            TransferScheduler scheduler = job == null ? null : job.getTransferScheduler();
+            if (scheduler == null || scheduler.getTotalUnits() == 0) {
+                continue;
+            }
+            List<MetricLabel> labels = Lists.newArrayList(
+                    new MetricLabel("job_type", job.getType().name().toLowerCase()),
+                    new MetricLabel("db", job.getDbName()),
+                    new MetricLabel("label", job.getLabel()));
+            visitJobGauge(visitor, labels, "backup_restore_job_total_bytes", MetricUnit.BYTES,
+                    "estimated bytes of the snapshots to transfer", scheduler.getTotalBytes());
+            visitJobGauge(visitor, labels, "backup_restore_job_transferred_bytes", MetricUnit.BYTES,
+                    "estimated bytes of the transferred snapshots", scheduler.getFinishedBytes());
+            visitJobGauge(visitor, labels, "backup_restore_job_transfer_bytes_per_second", MetricUnit.BYTES,
+                    "average transferred bytes per second", scheduler.getBytesPerSecond(now));
+            visitJobGauge(visitor, labels, "backup_restore_job_total_units", MetricUnit.NOUNIT,
+                    "number of the transfer units", (long) scheduler.getTotalUnits());
+            visitJobGauge(visitor, labels, "backup_restore_job_finished_units", MetricUnit.NOUNIT,
+                    "number of the finished transfer units", (long) scheduler.getFinishedUnits());
+            visitJobGauge(visitor, labels, "backup_restore_job_retried_units", MetricUnit.NOUNIT,
+                    "number of the failed and retried transfer units", (long) scheduler.getRetriedUnits());
+        }
+    }
+
+    private static void visitJobGauge(MetricVisitor visitor, List<MetricLabel> labels, String name, MetricUnit unit,
+                                      String description, Long value) {
+        GaugeMetricImpl<Long> gauge = new GaugeMetricImpl<>(name, unit, description);
+        labels.forEach(gauge::addLabel);
+        gauge.setValue(value);
+        visitor.visit(gauge);
+    }
+
     private static void collectMemoryUsageMetrics(MetricVisitor visitor) {
         for (GaugeMetricImpl<Long> metric : GAUGE_MEMORY_USAGE_STATS) {
             visitor.visit(metric);
@@ -925,6 +1040,22 @@ public final class MetricRepo {
         });
     }
 
+    /**
+     * Update the histograms of the cpu time and the allocated bytes of a Tracers scope in a query, see
+     * {@link Config#enable_trace_scope_resource_usage}.
+     */
+    public static void updateTracerScopeResourceUsage(String scope, long cpuTimeUs, long allocatedBytes) {
+        String name = scope.replaceAll("[^a-zA-Z0-9_]", "_");
+        if (!TRACER_SCOPES.contains(name)) {
+            if (TRACER_SCOPES.size() >= MAX_TRACER_SCOPE_HISTOGRAMS) {
+                return;
+            }
+            TRACER_SCOPES.add(name);
+        }
+        METRIC_REGISTER.histogram(MetricRegistry.name("tracer", name, "cpu", "us")).update(cpuTimeUs);
+        METRIC_REGISTER.histogram(MetricRegistry.name("tracer", name, "alloc", "bytes")).update(allocatedBytes);
+    }
+
     public static synchronized List<Metric> getMetricsByName(String name) {
         return STARROCKS_METRIC_REGISTER.getMetricsByName(name);
     }
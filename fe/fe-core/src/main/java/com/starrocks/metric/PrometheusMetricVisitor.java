@@ -37,6 +37,7 @@ package com.starrocks.metric;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Snapshot;
 import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
 import com.starrocks.monitor.jvm.JvmStats;
 import com.starrocks.monitor.jvm.JvmStats.BufferPool;
 import com.starrocks.monitor.jvm.JvmStats.GarbageCollector;
@@ -46,9 +47,11 @@ import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.NodeMgr;
 import com.starrocks.system.SystemInfoService;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /*
@@ -71,32 +74,50 @@ public class PrometheusMetricVisitor extends MetricVisitor {
     private static final String HELP = "# HELP ";
     private static final String TYPE = "# TYPE ";
 
+    // the encoded text is handed to the chunk sink once it grows beyond this
+    static final int CHUNK_SIZE = 64 * 1024;
+
     private final StringBuilder sb;
     private final Set<String> metricNames = new HashSet<>();
+    // metric families to expose, by full name or by name without prefix, empty means all
+    private final Set<String> families;
+    // if not null, receives the encoded text chunk by chunk instead of returning it all from build()
+    private final Consumer<String> chunkSink;
 
     public PrometheusMetricVisitor(String prefix) {
+        this(prefix, Collections.emptySet(), null);
+    }
+
+    public PrometheusMetricVisitor(String prefix, Set<String> families, Consumer<String> chunkSink) {
         super(prefix);
-        sb = new StringBuilder();
+        this.sb = new StringBuilder();
+        this.families = families;
+        this.chunkSink = chunkSink;
+    }
+
+    private boolean accept(String fullName, String name) {
+        return families.isEmpty() || families.contains(fullName) || families.contains(name);
+    }
+
+    private boolean accept(String name) {
+        return families.isEmpty() || families.contains(name);
+    }
+
+    private void flushIfFull() {
+        if (chunkSink != null && sb.length() >= CHUNK_SIZE) {
+            chunkSink.accept(sb.toString());
+            sb.setLength(0);
+        }
     }
 
     @Override
     public void visitJvm(JvmStats jvmStats) {
-        // heap
-        sb.append(Joiner.on(" ").join(HELP, JVM_HEAP_SIZE_BYTES, "jvm heap stat\n"));
-        sb.append(Joiner.on(" ").join(TYPE, JVM_HEAP_SIZE_BYTES, "gauge\n"));
-        sb.append(JVM_HEAP_SIZE_BYTES).append("{type=\"max\"} ").append(jvmStats.getMem().getHeapMax())
-                .append("\n");
-        sb.append(JVM_HEAP_SIZE_BYTES).append("{type=\"committed\"} ")
-                .append(jvmStats.getMem().getHeapCommitted()).append("\n");
-        sb.append(JVM_HEAP_SIZE_BYTES).append("{type=\"used\"} ").append(jvmStats.getMem().getHeapUsed())
-                .append("\n");
-        // non heap
-        sb.append(Joiner.on(" ").join(HELP, JVM_NON_HEAP_SIZE_BYTES, "jvm non heap stat\n"));
-        sb.append(Joiner.on(" ").join(TYPE, JVM_NON_HEAP_SIZE_BYTES, "gauge\n"));
-        sb.append(JVM_NON_HEAP_SIZE_BYTES).append("{type=\"committed\"} ")
-                .append(jvmStats.getMem().getNonHeapCommitted()).append("\n");
-        sb.append(JVM_NON_HEAP_SIZE_BYTES).append("{type=\"used\"} ")
-                .append(jvmStats.getMem().getNonHeapUsed()).append("\n");
+        if (accept(JVM_HEAP_SIZE_BYTES)) {
+            addHeapMetrics(jvmStats);
+        }
+        if (accept(JVM_NON_HEAP_SIZE_BYTES)) {
+            addNonHeapMetrics(jvmStats);
+        }
 
         // mem pool
         for (MemoryPool memPool : jvmStats.getMem()) {
@@ -109,7 +130,7 @@ public class PrometheusMetricVisitor extends MetricVisitor {
 
         // direct buffer pool
         for (BufferPool pool : jvmStats.getBufferPools()) {
-            if (pool.getName().equalsIgnoreCase("direct")) {
+            if (pool.getName().equalsIgnoreCase("direct") && accept(JVM_DIRECT_BUFFER_POOL_SIZE_BYTES)) {
                 sb.append(Joiner.on(" ").join(HELP, JVM_DIRECT_BUFFER_POOL_SIZE_BYTES,
                         "jvm direct buffer pool stat\n"));
                 sb.append(Joiner.on(" ").join(TYPE, JVM_DIRECT_BUFFER_POOL_SIZE_BYTES, "gauge\n"));
@@ -132,23 +153,51 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         }
 
         // threads
-        Threads threads = jvmStats.getThreads();
-        sb.append(Joiner.on(" ").join(HELP, JVM_THREAD, "jvm thread stat\n"));
-        sb.append(Joiner.on(" ").join(TYPE, JVM_THREAD, "gauge\n"));
-        sb.append(JVM_THREAD).append("{type=\"count\"} ").append(threads.getCount()).append("\n");
-        sb.append(JVM_THREAD).append("{type=\"peak_count\"} ").append(threads.getPeakCount()).append("\n");
+        if (accept(JVM_THREAD)) {
+            Threads threads = jvmStats.getThreads();
+            sb.append(Joiner.on(" ").join(HELP, JVM_THREAD, "jvm thread stat\n"));
+            sb.append(Joiner.on(" ").join(TYPE, JVM_THREAD, "gauge\n"));
+            sb.append(JVM_THREAD).append("{type=\"count\"} ").append(threads.getCount()).append("\n");
+            sb.append(JVM_THREAD).append("{type=\"peak_count\"} ").append(threads.getPeakCount()).append("\n");
+        }
+        flushIfFull();
+    }
+
+    private void addHeapMetrics(JvmStats jvmStats) {
+        sb.append(Joiner.on(" ").join(HELP, JVM_HEAP_SIZE_BYTES, "jvm heap stat\n"));
+        sb.append(Joiner.on(" ").join(TYPE, JVM_HEAP_SIZE_BYTES, "gauge\n"));
+        sb.append(JVM_HEAP_SIZE_BYTES).append("{type=\"max\"} ").append(jvmStats.getMem().getHeapMax())
+                .append("\n");
+        sb.append(JVM_HEAP_SIZE_BYTES).append("{type=\"committed\"} ")
+                .append(jvmStats.getMem().getHeapCommitted()).append("\n");
+        sb.append(JVM_HEAP_SIZE_BYTES).append("{type=\"used\"} ").append(jvmStats.getMem().getHeapUsed())
+                .append("\n");
+    }
+
+    private void addNonHeapMetrics(JvmStats jvmStats) {
+        sb.append(Joiner.on(" ").join(HELP, JVM_NON_HEAP_SIZE_BYTES, "jvm non heap stat\n"));
+        sb.append(Joiner.on(" ").join(TYPE, JVM_NON_HEAP_SIZE_BYTES, "gauge\n"));
+        sb.append(JVM_NON_HEAP_SIZE_BYTES).append("{type=\"committed\"} ")
+                .append(jvmStats.getMem().getNonHeapCommitted()).append("\n");
+        sb.append(JVM_NON_HEAP_SIZE_BYTES).append("{type=\"used\"} ")
+                .append(jvmStats.getMem().getNonHeapUsed()).append("\n");
     }
 
     private void addGcMetrics(GarbageCollector gc, String metricName, String desc) {
+        if (!accept(metricName)) {
+            return;
+        }
         sb.append(Joiner.on(" ").join(HELP, metricName, desc));
         sb.append(Joiner.on(" ").join(TYPE, metricName, "gauge\n"));
         sb.append(metricName).append("{type=\"count\"} ").append(gc.getCollectionCount()).append("\n");
         sb.append(metricName).append("{type=\"time\"} ").append(gc.getCollectionTime().getMillis())
                 .append("\n");
-
     }
 
     private void addMemPoolMetrics(MemoryPool memPool, String metricName, String desc) {
+        if (!accept(metricName)) {
+            return;
+        }
         sb.append(Joiner.on(" ").join(HELP, metricName, desc));
         sb.append(Joiner.on(" ").join(TYPE, metricName, "gauge\n"));
         sb.append(metricName).append("{type=\"committed\"} ").append(memPool.getCommitted())
@@ -163,34 +212,41 @@ public class PrometheusMetricVisitor extends MetricVisitor {
 
     @Override
     public void visit(@SuppressWarnings("rawtypes") Metric metric) {
-        // title
-        final String fullName = prefix + "_" + metric.getName();
-        // SR-57 : Fix prometheus parse error : 'second HELP line for metric name ...'
-        if (!metricNames.contains(fullName)) {
-            sb.append(HELP).append(fullName).append(" ").append(metric.getDescription()).append("\n");
-            sb.append(TYPE).append(fullName).append(" ").append(metric.getType().name().toLowerCase()).append("\n");
-            metricNames.add(fullName);
+        // the labels of a metric rarely change, and most values are the same between two scrapes, so the
+        // series is encoded again only if they are changed
+        EncodedSeries series = metric.getEncodedSeries();
+        if (series == null || !series.matches(prefix, metric)) {
+            series = new EncodedSeries(prefix, metric);
+        }
+        if (!accept(series.fullName, metric.getName())) {
+            return;
         }
-        sb.append(fullName);
 
-        // name
-        @SuppressWarnings("unchecked")
-        List<MetricLabel> labels = metric.getLabels();
-        if (!labels.isEmpty()) {
-            sb.append("{");
-            List<String> labelStrings = labels.stream().map(l -> l.getKey() + "=\"" + l.getValue()
-                    + "\"").collect(Collectors.toList());
-            sb.append(Joiner.on(", ").join(labelStrings));
-            sb.append("}");
+        // title
+        // SR-57 : Fix prometheus parse error : 'second HELP line for metric name ...'
+        if (!metricNames.contains(series.fullName)) {
+            sb.append(HELP).append(series.fullName).append(" ").append(metric.getDescription()).append("\n");
+            sb.append(TYPE).append(series.fullName).append(" ").append(metric.getType().name().toLowerCase())
+                    .append("\n");
+            metricNames.add(series.fullName);
         }
 
         // value
-        sb.append(" ").append(metric.getValue().toString()).append("\n");
+        Object value = metric.getValue();
+        if (!series.hasValue(value)) {
+            series = series.withValue(value);
+        }
+        metric.setEncodedSeries(series);
+        sb.append(series.line);
+        flushIfFull();
     }
 
     @Override
     public void visitHistogram(String name, Histogram histogram) {
         final String fullName = prefix + "_" + name.replaceAll("\\.", "_");
+        if (!accept(fullName, name)) {
+            return;
+        }
         sb.append(HELP).append(fullName).append(" ").append("\n");
         sb.append(TYPE).append(fullName).append(" ").append("summary\n");
 
@@ -202,11 +258,15 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         sb.append(fullName).append("{quantile=\"0.999\"} ").append(snapshot.get999thPercentile()).append("\n");
         sb.append(fullName).append("_sum ").append(histogram.getCount() * snapshot.getMean()).append("\n");
         sb.append(fullName).append("_count ").append(histogram.getCount()).append("\n");
+        flushIfFull();
     }
 
     @Override
     public void getNodeInfo() {
         final String NODE_INFO = "node_info";
+        if (!accept(NODE_INFO)) {
+            return;
+        }
         final NodeMgr nodeMgr = GlobalStateMgr.getCurrentState().getNodeMgr();
         final SystemInfoService systemInfoService = nodeMgr.getClusterInfo();
         sb.append(Joiner.on(" ").join(TYPE, NODE_INFO, "gauge\n"));
@@ -235,9 +295,76 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         }
     }
 
+    /**
+     * @return the whole encoded text, or the empty string if the text is handed to the chunk sink, in which
+     * case the remaining text is flushed to the sink
+     */
     @Override
     public String build() {
-        return sb.toString();
+        if (chunkSink == null) {
+            return sb.toString();
+        }
+        if (sb.length() > 0) {
+            chunkSink.accept(sb.toString());
+            sb.setLength(0);
+        }
+        return "";
+    }
+
+    /**
+     * A series encoded as `full_name{k1="v1", k2="v2"} value\n`, kept in the metric so that the next scrape
+     * can reuse it. It is immutable, so the visitors of concurrent scrapes can share it.
+     */
+    static final class EncodedSeries {
+        private final String prefix;
+        private final String name;
+        private final List<MetricLabel> labels;
+        private final String fullName;
+        // `full_name{labels}`, without the value
+        private final String head;
+        private final Object value;
+        private final String line;
+
+        @SuppressWarnings("unchecked")
+        EncodedSeries(String prefix, @SuppressWarnings("rawtypes") Metric metric) {
+            this.prefix = prefix;
+            this.name = metric.getName();
+            this.labels = Lists.newArrayList((List<MetricLabel>) metric.getLabels());
+            this.fullName = prefix + "_" + name;
+            StringBuilder head = new StringBuilder(fullName);
+            if (!labels.isEmpty()) {
+                head.append("{");
+                List<String> labelStrings = labels.stream().map(l -> l.getKey() + "=\"" + l.getValue()
+                        + "\"").collect(Collectors.toList());
+                head.append(Joiner.on(", ").join(labelStrings));
+                head.append("}");
+            }
+            this.head = head.toString();
+            this.value = null;
+            this.line = null;
+        }
+
+        private EncodedSeries(EncodedSeries other, Object value) {
+            this.prefix = other.prefix;
+            this.name = other.name;
+            this.labels = other.labels;
+            this.fullName = other.fullName;
+            this.head = other.head;
+            this.value = value;
+            this.line = head + " " + value.toString() + "\n";
+        }
+
+        boolean matches(String prefix, @SuppressWarnings("rawtypes") Metric metric) {
+            return this.prefix.equals(prefix) && name.equals(metric.getName()) && labels.equals(metric.getLabels());
+        }
+
+        boolean hasValue(Object value) {
+            return line != null && this.value.equals(value);
+        }
+
+        EncodedSeries withValue(Object value) {
+            return new EncodedSeries(this, value);
+        }
     }
 }
 
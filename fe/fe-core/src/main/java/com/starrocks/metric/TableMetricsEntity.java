@@ -44,6 +44,12 @@ public final class TableMetricsEntity {
     public static final String TABLE_LOAD_ABORTED_TASKS = "table_load_aborted_tasks";
     private static final String TABLE_LOAD_ABORTED_TASKS_COMMENT = "total aborted tasks of this table";
 
+    public static final String TABLE_PUBLISH_FINISHED = "table_publish_finished";
+    private static final String TABLE_PUBLISH_FINISHED_COMMENT = "total transactions became visible of this table";
+    public static final String TABLE_PUBLISH_LATENCY_MS = "table_publish_latency_ms";
+    private static final String TABLE_PUBLISH_LATENCY_MS_COMMENT =
+            "total milliseconds from commit to visible of the transactions of this table";
+
     private List<Metric> metrics;
 
     public LongCounterMetric counterScanBytesTotal;
@@ -74,6 +80,9 @@ public final class TableMetricsEntity {
     public LongCounterMetric counterSparkLoadRowsTotal;
     public LongCounterMetric counterSparkLoadFinishedTotal;
 
+    public LongCounterMetric counterPublishFinishedTotal;
+    public LongCounterMetric counterPublishLatencyMsTotal;
+
     public TableMetricsEntity() {
         initTableMetrics();
     }
@@ -175,6 +184,14 @@ public final class TableMetricsEntity {
                 new LongCounterMetric(TABLE_LOAD_FINISHED, MetricUnit.REQUESTS, TABLE_LOAD_FINISHED_COMMENT);
         counterInsertLoadFinishedTotal.addLabel(new MetricLabel("type", "insert_into"));
         metrics.add(counterInsertLoadFinishedTotal);
+
+        // publish metrics
+        counterPublishFinishedTotal =
+                new LongCounterMetric(TABLE_PUBLISH_FINISHED, MetricUnit.REQUESTS, TABLE_PUBLISH_FINISHED_COMMENT);
+        metrics.add(counterPublishFinishedTotal);
+        counterPublishLatencyMsTotal = new LongCounterMetric(TABLE_PUBLISH_LATENCY_MS, MetricUnit.MILLISECONDS,
+                TABLE_PUBLISH_LATENCY_MS_COMMENT);
+        metrics.add(counterPublishLatencyMsTotal);
     }
 }
 
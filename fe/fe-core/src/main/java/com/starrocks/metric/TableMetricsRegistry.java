@@ -44,6 +44,10 @@ public final class TableMetricsRegistry {
         return idToTableMetrics.computeIfAbsent(tableId, k -> new TableMetricsEntity());
     }
 
+    public TableMetricsEntity getMetricsEntityIfPresent(long tableId) {
+        return idToTableMetrics.get(tableId);
+    }
+
     private class MetricsCleaner extends TimerTask {
         @Override
         public void run() {
@@ -50,6 +50,8 @@ public class MysqlAuthPacket extends MysqlPacket {
     private MysqlCapability capability;
     private Map<String, String> connectAttributes;
     private byte[] randomString;
+    // compression level of zstd requested by client, only valid if CLIENT_ZSTD_COMPRESSION_ALGORITHM is set
+    private int zstdCompressionLevel;
 
     public String getUser() {
         return userName;
@@ -87,6 +89,10 @@ public class MysqlAuthPacket extends MysqlPacket {
         return connectAttributes;
     }
 
+    public int getZstdCompressionLevel() {
+        return zstdCompressionLevel;
+    }
+
     @Override
     public boolean readFrom(ByteBuffer buffer) {
         // read capability four byte, which CLIENT_PROTOCOL_41 must be set
@@ -127,6 +133,10 @@ public class MysqlAuthPacket extends MysqlPacket {
         if (buffer.remaining() > 0 && capability.isConnectAttrs()) {
             connectAttributes = parseConnectAttrs(buffer);
         }
+        // zstd compression level
+        if (buffer.remaining() > 0 && capability.isZstdCompression()) {
+            zstdCompressionLevel = MysqlProto.readInt1(buffer);
+        }
 
         // Commented for JDBC
         // if (buffer.remaining() != 0) {
@@ -141,8 +151,9 @@ public class MysqlAuthPacket extends MysqlPacket {
         connectAttributes = Maps.newHashMap();
         try {
             long allAttrLength = MysqlProto.readVInt(buffer);
-            long curDealLen = 0;
-            while (buffer.remaining() > 0 && allAttrLength - curDealLen > 0) {
+            // the length includes the length-encoded prefixes, stop at the end of attrs, zstd level may follow
+            long attrEnd = buffer.position() + allAttrLength;
+            while (buffer.remaining() > 0 && buffer.position() < attrEnd) {
                 key = value = "";
                 long keyLength = MysqlProto.readVInt(buffer);
 
@@ -151,7 +162,6 @@ public class MysqlAuthPacket extends MysqlPacket {
                 } else {
                     return connectAttributes;
                 }
-                curDealLen += keyLength;
                 long valLength = MysqlProto.readVInt(buffer);
                 if (buffer.remaining() >= valLength) {
                     value = new String(MysqlProto.readFixedString(buffer, (int) valLength));
@@ -160,7 +170,6 @@ public class MysqlAuthPacket extends MysqlPacket {
                     connectAttributes.put(key, "");
                     return connectAttributes;
                 }
-                curDealLen += valLength;
                 connectAttributes.put(key, value);
             }
         } catch (Exception ex) {
@@ -55,6 +55,8 @@ public class MysqlChannel {
     protected static final int MAX_PHYSICAL_PACKET_LENGTH = 0xffffff;
     // MySQL packet header length
     protected static final int PACKET_HEADER_LEN = 4;
+    // MySQL compressed packet header length, 3 bytes compressed length, 1 byte sequence id, 3 bytes uncompressed length
+    protected static final int COMPRESSED_PACKET_HEADER_LEN = 7;
     protected static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
     // logger for this class
     protected static final Logger LOG = LogManager.getLogger(MysqlChannel.class);
@@ -70,6 +72,15 @@ public class MysqlChannel {
 
     private SSLChannel sslChannel;
 
+    // codec negotiated with client, null if the packets are not compressed.
+    // https://dev.mysql.com/doc/dev/mysql-server/latest/page_protocol_basic_compression.html
+    private MysqlCompressionCodec compressionCodec;
+    // next sequence id of compressed packet to receive or send, it is independent of sequenceId
+    private int compressedSequenceId;
+    private final ByteBuffer compressedHeaderBuffer = ByteBuffer.allocate(COMPRESSED_PACKET_HEADER_LEN);
+    // decompressed data which is not read by fetchOnePacket yet
+    private ByteBuffer decompressedBuffer;
+
     // for log and show
     protected String remoteHostPortString;
     protected String remoteIp;
@@ -109,6 +120,20 @@ public class MysqlChannel {
 
     public void setSequenceId(int sequenceId) {
         this.sequenceId = sequenceId;
+        // sequence id of compressed packet is also reset when a new command starts
+        this.compressedSequenceId = 0;
+    }
+
+    /**
+     * All the packets after this are sent and received in compressed packets, called after the OK packet
+     * of authentication is sent.
+     */
+    public void setCompressionCodec(MysqlCompressionCodec compressionCodec) {
+        this.compressionCodec = compressionCodec;
+    }
+
+    public MysqlCompressionCodec getCompressionCodec() {
+        return compressionCodec;
     }
 
     public String getRemoteIp() {
@@ -132,6 +157,20 @@ public class MysqlChannel {
         }
     }
 
+    private void accCompressedSequenceId() {
+        compressedSequenceId = (compressedSequenceId + 1) & 0xFF;
+    }
+
+    private static int readInt3(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | ((bytes[offset + 1] & 0xFF) << 8) | ((bytes[offset + 2] & 0xFF) << 16);
+    }
+
+    private static void writeInt3(ByteBuffer buffer, int value) {
+        buffer.put((byte) value);
+        buffer.put((byte) (value >> 8));
+        buffer.put((byte) (value >> 16));
+    }
+
     // Close channel
     public synchronized void close() {
         if (closed) {
@@ -143,6 +182,13 @@ public class MysqlChannel {
             LOG.warn("Close channel exception, ignore.");
         } finally {
             closed = true;
+            closeCompressionCodec();
+        }
+    }
+
+    protected void closeCompressionCodec() {
+        if (compressionCodec != null) {
+            compressionCodec.close();
         }
     }
 
@@ -151,6 +197,13 @@ public class MysqlChannel {
     }
 
     protected int readAll(ByteBuffer dstBuf) throws IOException {
+        if (compressionCodec != null) {
+            return readAllDecompressed(dstBuf);
+        }
+        return readAllRaw(dstBuf);
+    }
+
+    private int readAllRaw(ByteBuffer dstBuf) throws IOException {
         if (sslChannel != null) {
             return sslChannel.readAll(dstBuf);
         } else {
@@ -175,6 +228,53 @@ public class MysqlChannel {
         return channel.read(dstBuf);
     }
 
+    // logical packets may span compressed packets, so read from the decompressed data until dstBuf is full
+    private int readAllDecompressed(ByteBuffer dstBuf) throws IOException {
+        int readLen = 0;
+        while (dstBuf.remaining() != 0) {
+            if ((decompressedBuffer == null || decompressedBuffer.remaining() == 0) && !readCompressedPacket()) {
+                return readLen;
+            }
+            int len = Math.min(dstBuf.remaining(), decompressedBuffer.remaining());
+            dstBuf.put(decompressedBuffer.array(), decompressedBuffer.position(), len);
+            decompressedBuffer.position(decompressedBuffer.position() + len);
+            readLen += len;
+        }
+        return readLen;
+    }
+
+    // false for channel is closed
+    private boolean readCompressedPacket() throws IOException {
+        compressedHeaderBuffer.clear();
+        if (readAllRaw(compressedHeaderBuffer) != COMPRESSED_PACKET_HEADER_LEN) {
+            return false;
+        }
+        byte[] header = compressedHeaderBuffer.array();
+        int compressedLen = readInt3(header, 0);
+        int packetId = header[3] & 0xFF;
+        int uncompressedLen = readInt3(header, 4);
+        if (packetId != compressedSequenceId) {
+            LOG.warn("receive compressed packet sequence id[" + packetId + "] want to get["
+                    + compressedSequenceId + "]");
+            throw new IOException("Bad compressed packet sequence.");
+        }
+        ByteBuffer payload = ByteBuffer.allocate(compressedLen);
+        if (readAllRaw(payload) != compressedLen) {
+            return false;
+        }
+        accCompressedSequenceId();
+        if (uncompressedLen == 0) {
+            // payload is not compressed
+            payload.flip();
+            decompressedBuffer = payload;
+        } else {
+            byte[] uncompressed = new byte[uncompressedLen];
+            compressionCodec.decompress(payload.array(), 0, compressedLen, uncompressed);
+            decompressedBuffer = ByteBuffer.wrap(uncompressed);
+        }
+        return true;
+    }
+
     // read one logical mysql protocol packet
     // null for channel is closed.
     // NOTE: all of the following code is assumed that the channel is in block mode.
@@ -192,7 +292,8 @@ public class MysqlChannel {
                         "remote {} may close the channel.", remoteHostPortString);
                 return null;
             }
-            if (packetId() != sequenceId) {
+            // client syncs the sequence id of logical packets with the compressed ones, so don't check it
+            if (compressionCodec == null && packetId() != sequenceId) {
                 LOG.warn("receive packet sequence id[" + packetId() + "] want to get[" + sequenceId + "]");
                 throw new IOException("Bad packet sequence.");
             }
@@ -230,12 +331,60 @@ public class MysqlChannel {
     }
 
     private void send(ByteBuffer buffer) throws IOException {
+        if (compressionCodec != null) {
+            sendCompressed(buffer);
+        } else {
+            sendRaw(buffer);
+        }
+        isSend = true;
+    }
+
+    private void sendRaw(ByteBuffer buffer) throws IOException {
         if (sslChannel != null) {
             sslChannel.write(buffer);
         } else {
             realNetSend(buffer);
         }
-        isSend = true;
+    }
+
+    // The buffer usually holds many logical packets coalesced by sendBuffer, compress them together in as few
+    // compressed packets as possible, which is much smaller than compressing each row.
+    private void sendCompressed(ByteBuffer buffer) throws IOException {
+        while (buffer.remaining() != 0) {
+            int len = Math.min(buffer.remaining(), MAX_PHYSICAL_PACKET_LENGTH);
+            byte[] src;
+            int offset;
+            if (buffer.hasArray()) {
+                src = buffer.array();
+                offset = buffer.arrayOffset() + buffer.position();
+            } else {
+                src = new byte[len];
+                buffer.duplicate().get(src);
+                offset = 0;
+            }
+            byte[] compressed = len < MysqlCompressionCodec.MIN_COMPRESS_LENGTH ? null :
+                    compressionCodec.compress(src, offset, len);
+
+            ByteBuffer packet;
+            if (compressed == null) {
+                packet = ByteBuffer.allocate(COMPRESSED_PACKET_HEADER_LEN + len);
+                writeInt3(packet, len);
+                packet.put((byte) compressedSequenceId);
+                // uncompressed length 0 means the payload is not compressed
+                writeInt3(packet, 0);
+                packet.put(src, offset, len);
+            } else {
+                packet = ByteBuffer.allocate(COMPRESSED_PACKET_HEADER_LEN + compressed.length);
+                writeInt3(packet, compressed.length);
+                packet.put((byte) compressedSequenceId);
+                writeInt3(packet, len);
+                packet.put(compressed);
+            }
+            packet.flip();
+            sendRaw(packet);
+            accCompressedSequenceId();
+            buffer.position(buffer.position() + len);
+        }
     }
 
     public void realNetSend(ByteBuffer buffer) throws IOException {
@@ -0,0 +1,163 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.mysql;
+
+import com.github.luben.zstd.Zstd;
+import com.starrocks.common.Config;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codec of the payload of MySQL compressed packets.
+ * https://dev.mysql.com/doc/dev/mysql-server/latest/page_protocol_basic_compression.html
+ * zlib is used if the client sets CLIENT_COMPRESS, zstd is used if the client sets
+ * CLIENT_ZSTD_COMPRESSION_ALGORITHM, each compressed packet is a complete zlib or zstd frame.
+ */
+public abstract class MysqlCompressionCodec {
+    // same as MIN_COMPRESS_LENGTH of MySQL, smaller payload is sent without compression
+    public static final int MIN_COMPRESS_LENGTH = 50;
+    public static final int DEFAULT_ZSTD_LEVEL = 3;
+
+    public abstract String getName();
+
+    /**
+     * Returns the compressed bytes, or null if the compressed data is not smaller than the input.
+     */
+    public abstract byte[] compress(byte[] src, int offset, int length);
+
+    public abstract void decompress(byte[] src, int offset, int length, byte[] dst) throws IOException;
+
+    // release the native resources
+    public void close() {
+    }
+
+    /**
+     * Returns the codec requested by the client, or null if the packets should not be compressed.
+     */
+    public static MysqlCompressionCodec negotiate(MysqlAuthPacket authPacket) {
+        if (!Config.mysql_server_enable_compression || authPacket == null) {
+            return null;
+        }
+        MysqlCapability capability = authPacket.getCapability();
+        if (capability.isZstdCompression()) {
+            int level = authPacket.getZstdCompressionLevel();
+            return new ZstdCodec(level > 0 ? level : DEFAULT_ZSTD_LEVEL);
+        }
+        if (capability.isCompress()) {
+            return new ZlibCodec(Deflater.DEFAULT_COMPRESSION);
+        }
+        return null;
+    }
+
+    public static class ZlibCodec extends MysqlCompressionCodec {
+        private final Deflater deflater;
+        private final Inflater inflater = new Inflater();
+        private byte[] outBuffer = new byte[0];
+
+        public ZlibCodec(int level) {
+            this.deflater = new Deflater(level);
+        }
+
+        @Override
+        public String getName() {
+            return "zlib";
+        }
+
+        @Override
+        public byte[] compress(byte[] src, int offset, int length) {
+            if (outBuffer.length < length) {
+                outBuffer = new byte[length];
+            }
+            deflater.reset();
+            deflater.setInput(src, offset, length);
+            deflater.finish();
+            int compressedLen = 0;
+            while (!deflater.finished() && compressedLen < length) {
+                compressedLen += deflater.deflate(outBuffer, compressedLen, length - compressedLen);
+            }
+            if (!deflater.finished() || compressedLen >= length) {
+                return null;
+            }
+            return Arrays.copyOf(outBuffer, compressedLen);
+        }
+
+        @Override
+        public void decompress(byte[] src, int offset, int length, byte[] dst) throws IOException {
+            inflater.reset();
+            inflater.setInput(src, offset, length);
+            try {
+                int len = 0;
+                while (len < dst.length && !inflater.finished()) {
+                    int n = inflater.inflate(dst, len, dst.length - len);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    len += n;
+                }
+                if (len != dst.length) {
+                    throw new IOException("Bad compressed packet, uncompressed length " + len
+                            + " is not equal with length in head " + dst.length);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Bad compressed packet: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            deflater.end();
+            inflater.end();
+        }
+    }
+
+    public static class ZstdCodec extends MysqlCompressionCodec {
+        private final int level;
+
+        public ZstdCodec(int level) {
+            this.level = level;
+        }
+
+        @Override
+        public String getName() {
+            return "zstd";
+        }
+
+        @Override
+        public byte[] compress(byte[] src, int offset, int length) {
+            byte[] dst = new byte[(int) Zstd.compressBound(length)];
+            long compressedLen = Zstd.compressByteArray(dst, 0, dst.length, src, offset, length, level);
+            if (Zstd.isError(compressedLen) || compressedLen >= length) {
+                return null;
+            }
+            return Arrays.copyOf(dst, (int) compressedLen);
+        }
+
+        @Override
+        public void decompress(byte[] src, int offset, int length, byte[] dst) throws IOException {
+            long len = Zstd.decompressByteArray(dst, 0, dst.length, src, offset, length);
+            if (Zstd.isError(len)) {
+                throw new IOException("Bad compressed packet: " + Zstd.getErrorName(len));
+            }
+            if (len != dst.length) {
+                throw new IOException("Bad compressed packet, uncompressed length " + len
+                        + " is not equal with length in head " + dst.length);
+            }
+        }
+    }
+}
@@ -90,6 +90,11 @@ public class MysqlHandshakePacket extends MysqlPacket {
             capability = new MysqlCapability(capability.getFlags()
                     | MysqlCapability.Flag.CLIENT_SSL.getFlagBit());
         }
+        if (Config.mysql_server_enable_compression) {
+            capability = new MysqlCapability(capability.getFlags()
+                    | MysqlCapability.Flag.CLIENT_COMPRESS.getFlagBit()
+                    | MysqlCapability.Flag.CLIENT_ZSTD_COMPRESSION_ALGORITHM.getFlagBit());
+        }
 
         serializer.writeInt1(PROTOCOL_VERSION);
         // JDBC use this version to check which protocol the server support
@@ -36,6 +36,7 @@ package com.starrocks.mysql.nio;
 import com.starrocks.authentication.UserProperty;
 import com.starrocks.common.Pair;
 import com.starrocks.common.util.LogUtil;
+import com.starrocks.mysql.MysqlCompressionCodec;
 import com.starrocks.mysql.MysqlProto;
 import com.starrocks.mysql.NegotiateState;
 import com.starrocks.qe.ConnectContext;
@@ -111,6 +112,9 @@ public class AcceptListener implements ChannelListener<AcceptingChannel<StreamCo
                                 context.updateByUserProperty(userProperty);
                             }
                             MysqlProto.sendResponsePacket(context);
+                            // packets are compressed after the OK packet if the client asks for
+                            context.getMysqlChannel().setCompressionCodec(
+                                    MysqlCompressionCodec.negotiate(result.getAuthPacket()));
                         } else {
                             context.getState().setError(registerResult.second);
                             MysqlProto.sendResponsePacket(context);
@@ -83,6 +83,7 @@ public class NMysqlChannel extends MysqlChannel {
             LOG.warn("Close channel exception, ignore.");
         } finally {
             closed = true;
+            closeCompressionCodec();
         }
     }
 
@@ -1083,6 +1083,11 @@ public class EditLog {
                     GlobalStateMgr.getCurrentState().getKeyMgr().replayAddKey(keyPB);
                     break;
                 }
+                case OperationType.OP_CARDINALITY_FEEDBACK: {
+                    CardinalityFeedbackLog log = (CardinalityFeedbackLog) journal.getData();
+                    globalStateMgr.getCardinalityFeedbackMgr().replayCardinalityFeedback(log);
+                    break;
+                }
                 default: {
                     if (Config.metadata_ignore_unknown_operation_type) {
                         LOG.warn("UNKNOWN Operation Type {}", opCode);
@@ -1383,6 +1388,10 @@ public class EditLog {
         logJsonObject(OperationType.OP_ADD_KEY, key);
     }
 
+    public void logCardinalityFeedback(CardinalityFeedbackLog log) {
+        logEdit(OperationType.OP_CARDINALITY_FEEDBACK, log);
+    }
+
     public void logTimestamp(Timestamp stamp) {
         logJsonObject(OperationType.OP_TIMESTAMP_V2, stamp);
     }
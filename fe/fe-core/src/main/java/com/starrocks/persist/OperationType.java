@@ -575,6 +575,10 @@ public class OperationType {
     @IgnorableOnReplayFailed
     public static final short OP_ADD_KEY = 13512;
 
+    // Cardinality feedback
+    @IgnorableOnReplayFailed
+    public static final short OP_CARDINALITY_FEEDBACK = 13520;
+
     /**
      * NOTICE: OperationType cannot use a value exceeding 20000, and an error will be reported if it exceeds
      */
@@ -97,6 +97,8 @@ public class SRMetaBlockID {
 
     public static final SRMetaBlockID PIPE_MGR = new SRMetaBlockID(32);
 
+    public static final SRMetaBlockID CARDINALITY_FEEDBACK_MGR = new SRMetaBlockID(33);
+
     @Override
     public String toString() {
         return String.valueOf(id);
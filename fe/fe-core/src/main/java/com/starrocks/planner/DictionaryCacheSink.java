@@ -45,11 +45,18 @@ public class DictionaryCacheSink extends DataSink {
     private final List<TNetworkAddress> nodes;
     private final Dictionary dictionary;
     private final long txnId;
+    // the source partition of the rows, -1 if the rows are not refreshed by partition
+    private final long partitionId;
 
     public DictionaryCacheSink(List<TNetworkAddress> nodes, Dictionary dictionary, long txnId) {
+        this(nodes, dictionary, txnId, -1);
+    }
+
+    public DictionaryCacheSink(List<TNetworkAddress> nodes, Dictionary dictionary, long txnId, long partitionId) {
         this.nodes = nodes;
         this.dictionary = dictionary;
         this.txnId = txnId;
+        this.partitionId = partitionId;
     }
 
     public Dictionary getDictionary() {
@@ -75,6 +82,9 @@ public class DictionaryCacheSink extends DataSink {
         tTDictionaryCacheSink.setSchema(buildTSchema());
         tTDictionaryCacheSink.setMemory_limit(dictionary.getMemoryLimit());
         tTDictionaryCacheSink.setKey_size(dictionary.getKeys().size());
+        if (partitionId >= 0) {
+            tTDictionaryCacheSink.setPartition_id(partitionId);
+        }
         result.setDictionary_cache_sink(tTDictionaryCacheSink);
         return result;
     }
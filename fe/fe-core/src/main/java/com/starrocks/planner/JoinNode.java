@@ -50,9 +50,12 @@ import com.starrocks.analysis.TableRef;
 import com.starrocks.analysis.TupleId;
 import com.starrocks.common.FeConstants;
 import com.starrocks.common.IdGenerator;
+import com.starrocks.common.Pair;
 import com.starrocks.common.UserException;
+import com.starrocks.common.profile.Tracers;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
+import com.starrocks.qe.feedback.RuntimeFilterFeedbackMgr;
 import com.starrocks.sql.optimizer.operator.UKFKConstraints;
 import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.thrift.TJoinDistributionMode;
@@ -194,13 +197,14 @@ public abstract class JoinNode extends PlanNode implements RuntimeFilterBuildNod
             return;
         }
 
+        List<RuntimeFilterFeedbackMgr.Feedback> feedbacks = getRuntimeFilterFeedbacks(sessionVariable);
         if (distrMode.equals(DistributionMode.PARTITIONED) || distrMode.equals(DistributionMode.SHUFFLE_HASH_BUCKET)) {
             // If it's partitioned join, and we can not get correct ndv
             // then it's hard to estimate right bloom filter size, or it's too big.
             // so we'd better to skip this global runtime filter.
             // If buildMaxSize == 0, the filter must be used
             // Otherwise would decide based on cardinality
-            long card = inner.getCardinality();
+            long card = getBuildCardinality(feedbacks);
             long buildMaxSize = sessionVariable.getGlobalRuntimeFilterBuildMaxSize();
             if (buildMaxSize > 0 && (card <= 0 || card > buildMaxSize)) {
                 return;
@@ -219,6 +223,12 @@ public abstract class JoinNode extends PlanNode implements RuntimeFilterBuildNod
             rf.setEqualCount(eqJoinConjuncts.size());
             rf.setBuildCardinality(inner.getCardinality());
             rf.setEqualForNull(BinaryPredicate.IS_EQ_NULL_PREDICATE.apply(joinConjunct));
+            RuntimeFilterFeedbackMgr.Feedback feedback = feedbacks.get(i);
+            if (feedback != null && !joinOp.isCrossJoin()) {
+                rf.setBuildCardinality((long) Math.ceil(feedback.getBuildRows()));
+                rf.setObservedFilterRatio(feedback.getFilterRatio());
+                Tracers.count(Tracers.Module.BASE, "RuntimeFilterFeedbackUsed", 1);
+            }
 
             Expr left = joinConjunct.getChild(0);
             Expr right = joinConjunct.getChild(1);
@@ -262,6 +272,44 @@ public abstract class JoinNode extends PlanNode implements RuntimeFilterBuildNod
         }
     }
 
+    /**
+     * Returns the expr of the build side and the expr of the probe side of the eq join conjunct.
+     */
+    public Pair<Expr, Expr> getBuildAndProbeExpr(BinaryPredicate eqJoinConjunct) {
+        Expr left = eqJoinConjunct.getChild(0);
+        Expr right = eqJoinConjunct.getChild(1);
+        if (!left.isBoundByTupleIds(getChild(1).getTupleIds())) {
+            return Pair.create(right, left);
+        }
+        return Pair.create(left, right);
+    }
+
+    // the runtime filter feedback of every eq join conjunct, null if there is no feedback of the conjunct
+    private List<RuntimeFilterFeedbackMgr.Feedback> getRuntimeFilterFeedbacks(SessionVariable sessionVariable) {
+        List<RuntimeFilterFeedbackMgr.Feedback> feedbacks = Lists.newArrayList();
+        for (BinaryPredicate eqJoinConjunct : eqJoinConjuncts) {
+            RuntimeFilterFeedbackMgr.Feedback feedback = null;
+            if (sessionVariable.isEnableAdaptiveRuntimeFilter()) {
+                Pair<Expr, Expr> buildAndProbeExpr = getBuildAndProbeExpr(eqJoinConjunct);
+                feedback = RuntimeFilterFeedbackMgr.getInstance().getFeedback(buildAndProbeExpr.first,
+                        buildAndProbeExpr.second, getChild(1));
+            }
+            feedbacks.add(feedback);
+        }
+        return feedbacks;
+    }
+
+    // the observed build rows are preferred to the estimated cardinality of the build side
+    private long getBuildCardinality(List<RuntimeFilterFeedbackMgr.Feedback> feedbacks) {
+        long buildRows = -1;
+        for (RuntimeFilterFeedbackMgr.Feedback feedback : feedbacks) {
+            if (feedback != null) {
+                buildRows = Math.max(buildRows, (long) Math.ceil(feedback.getBuildRows()));
+            }
+        }
+        return buildRows >= 0 ? buildRows : getChild(1).getCardinality();
+    }
+
     /**
      * Each slotExpr can deduce many slotExprs which is adjective because each join's conjunct can deduce left/right exprs.
      */
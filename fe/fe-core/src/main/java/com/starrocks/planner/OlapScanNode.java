@@ -370,23 +370,19 @@ public class OlapScanNode extends ScanNode {
 
     private List<Long> partitionPrune(RangePartitionInfo partitionInfo, PartitionNames partitionNames)
             throws AnalysisException {
-        Map<Long, Range<PartitionKey>> keyRangeById = null;
-        if (partitionNames != null) {
-            keyRangeById = Maps.newHashMap();
-            for (String partName : partitionNames.getPartitionNames()) {
-                Partition part = olapTable.getPartition(partName, partitionNames.isTemp());
-                if (part == null) {
-                    ErrorReport.reportAnalysisException(ErrorCode.ERR_NO_SUCH_PARTITION, partName);
-                }
-                keyRangeById.put(part.getId(), partitionInfo.getRange(part.getId()));
+        List<Column> partitionColumns = partitionInfo.getPartitionColumns(olapTable.getIdToColumn());
+        if (partitionNames == null) {
+            return new RangePartitionPruner(partitionInfo.getRangeIndex(), partitionColumns, columnFilters).prune();
+        }
+        Map<Long, Range<PartitionKey>> keyRangeById = Maps.newHashMap();
+        for (String partName : partitionNames.getPartitionNames()) {
+            Partition part = olapTable.getPartition(partName, partitionNames.isTemp());
+            if (part == null) {
+                ErrorReport.reportAnalysisException(ErrorCode.ERR_NO_SUCH_PARTITION, partName);
             }
-        } else {
-            keyRangeById = partitionInfo.getIdToRange(false);
+            keyRangeById.put(part.getId(), partitionInfo.getRange(part.getId()));
         }
-        PartitionPruner partitionPruner = new RangePartitionPruner(
-                keyRangeById,
-                partitionInfo.getPartitionColumns(olapTable.getIdToColumn()),
-                columnFilters);
+        PartitionPruner partitionPruner = new RangePartitionPruner(keyRangeById, partitionColumns, columnFilters);
         return partitionPruner.prune();
     }
 
@@ -521,12 +517,17 @@ public class OlapScanNode extends ScanNode {
         selectedPartitionNames.add(partition.getName());
         selectedPartitionVersions.add(visibleVersion);
 
+        // the replicas of the shared data tablets are the compute nodes of the warehouse, which are not cached
+        ScanRangeTemplateCache.PartitionTemplate template = null;
         if (RunMode.getCurrentRunMode() == RunMode.SHARED_DATA) {
             WarehouseManager warehouseManager = GlobalStateMgr.getCurrentState().getWarehouseMgr();
             if (CollectionUtils.isEmpty(warehouseManager.getAliveComputeNodes(warehouseId))) {
                 Warehouse warehouse = warehouseManager.getWarehouse(warehouseId);
                 throw ErrorReportException.report(ErrorCode.ERR_NO_NODES_IN_WAREHOUSE, warehouse.getName());
             }
+        } else if (Config.enable_scan_range_template_cache) {
+            template = ScanRangeTemplateCache.getInstance().getTemplate(physicalPartition.getId(), index,
+                    visibleVersion, warehouseId);
         }
         for (Tablet tablet : tablets) {
             long tabletId = tablet.getId();
@@ -540,7 +541,8 @@ public class OlapScanNode extends ScanNode {
             internalRange.setVersion_hash("0");
             internalRange.setTablet_id(tabletId);
             internalRange.setPartition_id(physicalPartition.getId());
-            internalRange.setRow_count(tablet.getRowCount(0));
+            long rowCount = template == null ? -1 : template.getRowCount(tablet);
+            internalRange.setRow_count(rowCount >= 0 ? rowCount : tablet.getRowCount(0));
             if (isOutputChunkByBucket) {
                 if (withoutColocateRequirement) {
                     internalRange.setBucket_sequence((int) tabletId);
@@ -559,7 +561,8 @@ public class OlapScanNode extends ScanNode {
             if (RunMode.getCurrentRunMode() == RunMode.SHARED_DATA) {
                 tablet.getQueryableReplicas(allQueryableReplicas, localReplicas,
                         visibleVersion, localBeId, schemaHash, warehouseId);
-            } else {
+            } else if (template == null || !template.getQueryableReplicas(tablet, allQueryableReplicas,
+                    localReplicas, localBeId, schemaHash)) {
                 tablet.getQueryableReplicas(allQueryableReplicas, localReplicas,
                         visibleVersion, localBeId, schemaHash);
             }
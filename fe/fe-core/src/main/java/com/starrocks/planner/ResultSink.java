@@ -39,12 +39,14 @@ import com.google.common.collect.Lists;
 import com.starrocks.analysis.OutFileClause;
 import com.starrocks.http.HttpConnectContext;
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.service.arrow.flight.sql.ArrowFlightSqlConnectContext;
 import com.starrocks.thrift.TDataSink;
 import com.starrocks.thrift.TDataSinkType;
 import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TResultFileSinkOptions;
 import com.starrocks.thrift.TResultSink;
+import com.starrocks.thrift.TResultSinkFormatType;
 import com.starrocks.thrift.TResultSinkType;
 
 import java.util.List;
@@ -60,6 +62,8 @@ public class ResultSink extends DataSink {
     private String brokerName;
     private TResultFileSinkOptions fileSinkOptions;
     private boolean isBinaryRow;
+    // used as the field names of the arrow schema for http query
+    private List<String> outputColumnNames;
 
     public ResultSink(PlanNodeId exchNodeId, TResultSinkType sinkType) {
         this.exchNodeId = exchNodeId;
@@ -82,7 +86,16 @@ public class ResultSink extends DataSink {
             tResultSink.setFile_options(fileSinkOptions);
         }
         if (ConnectContext.get() instanceof HttpConnectContext) {
-            tResultSink.setFormat(((HttpConnectContext) ConnectContext.get()).getResultSinkFormatType());
+            TResultSinkFormatType format = ((HttpConnectContext) ConnectContext.get()).getResultSinkFormatType();
+            tResultSink.setFormat(format);
+            if (format == TResultSinkFormatType.ARROW && outputColumnNames != null) {
+                tResultSink.setOutput_column_names(outputColumnNames);
+            }
+        } else if (ConnectContext.get() instanceof ArrowFlightSqlConnectContext) {
+            tResultSink.setFormat(TResultSinkFormatType.ARROW);
+            if (outputColumnNames != null) {
+                tResultSink.setOutput_column_names(outputColumnNames);
+            }
         }
         tResultSink.setIs_binary_row(isBinaryRow);
         result.setResult_sink(tResultSink);
@@ -143,4 +156,8 @@ public class ResultSink extends DataSink {
     public void setBinaryRow(boolean isBinaryRow) {
         this.isBinaryRow = isBinaryRow;
     }
+
+    public void setOutputColumnNames(List<String> outputColumnNames) {
+        this.outputColumnNames = outputColumnNames;
+    }
 }
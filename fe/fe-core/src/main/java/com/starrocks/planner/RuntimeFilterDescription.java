@@ -71,6 +71,9 @@ public class RuntimeFilterDescription {
     private boolean equalForNull;
 
     private long buildCardinality;
+    // ratio of the probe rows eliminated by the filter of the same join condition in the previous queries,
+    // -1 if unknown
+    private double observedFilterRatio = -1;
     private SessionVariable sessionVariable;
 
     private boolean onlyLocal;
@@ -133,6 +136,10 @@ public class RuntimeFilterDescription {
         buildCardinality = value;
     }
 
+    public void setObservedFilterRatio(double observedFilterRatio) {
+        this.observedFilterRatio = observedFilterRatio;
+    }
+
     public RuntimeFilterType runtimeFilterType() {
         return type;
     }
@@ -181,6 +188,9 @@ public class RuntimeFilterDescription {
         if (card < probeMin) {
             return false;
         }
+        if (observedFilterRatio >= 0) {
+            return observedFilterRatio >= sessionVariable.getGlobalRuntimeFilterProbeMinSelectivity();
+        }
         long buildCard = Math.max(0, buildCardinality);
         float evaluatedFilterRatio = (buildCard * 1.0f / card);
         float acceptedFilterRatioLB = 1.0f - sessionVariable.getGlobalRuntimeFilterProbeMinSelectivity();
@@ -276,6 +286,10 @@ public class RuntimeFilterDescription {
         exprOrder = order;
     }
 
+    public int getExprOrder() {
+        return exprOrder;
+    }
+
     public void setJoinMode(JoinNode.DistributionMode mode) {
         joinMode = mode;
     }
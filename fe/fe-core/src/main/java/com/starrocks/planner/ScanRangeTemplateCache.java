@@ -0,0 +1,177 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.planner;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.LocalTablet;
+import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.Tablet;
+import com.starrocks.common.Config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of the scan range templates of the local tablets, so that the scan ranges of a query are built without
+ * taking the lock of every tablet and copying its replicas again.
+ * A template is of a (physical partition, index, visible version, warehouse), and has the replica candidates of
+ * the tablets of the index which are scanned by the queries, so a point query only copies the replicas of the
+ * tablet it scans. A new visible version is published as a new key, and the candidates of a tablet are copied
+ * again once a replica is added to or removed from it, which changes {@link LocalTablet#getReplicaEpoch()}.
+ * The state of a candidate, e.g. bad or its version, still changes under the same key, so every query checks
+ * {@link Replica#isQueryable} of the candidates, which only reads a few fields of the replica.
+ */
+public class ScanRangeTemplateCache {
+    private static final ScanRangeTemplateCache INSTANCE = new ScanRangeTemplateCache();
+
+    // a template is weighed by the tablets of its index, which it holds at most
+    private final Cache<Key, PartitionTemplate> cache = Caffeine.newBuilder()
+            .maximumWeight(Config.scan_range_template_cache_max_tablets)
+            .weigher((Key key, PartitionTemplate template) -> template.numTablets)
+            .build();
+
+    public static ScanRangeTemplateCache getInstance() {
+        return INSTANCE;
+    }
+
+    public PartitionTemplate getTemplate(long physicalPartitionId, MaterializedIndex index, long visibleVersion,
+                                         long warehouseId) {
+        Key key = new Key(physicalPartitionId, index.getId(), visibleVersion, warehouseId);
+        return cache.get(key, k -> new PartitionTemplate(visibleVersion, index.getTablets().size()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Replica candidates of the scanned tablets of a (physical partition, index) at a visible version.
+     */
+    public static class PartitionTemplate {
+        private final long visibleVersion;
+        private final int numTablets;
+        // tablet id -> replicas of the tablet when it is first scanned or its replicas are changed
+        private final Map<Long, TabletReplicas> tabletReplicas = Maps.newConcurrentMap();
+
+        PartitionTemplate(long visibleVersion, int numTablets) {
+            this.visibleVersion = visibleVersion;
+            this.numTablets = numTablets;
+        }
+
+        private Replica[] getReplicas(Tablet tablet) {
+            if (!(tablet instanceof LocalTablet)) {
+                return null;
+            }
+            LocalTablet localTablet = (LocalTablet) tablet;
+            // read the epoch before copying the replicas, so the copy is never older than its epoch
+            long epoch = localTablet.getReplicaEpoch();
+            TabletReplicas replicas = tabletReplicas.get(tablet.getId());
+            if (replicas == null || replicas.epoch != epoch) {
+                replicas = new TabletReplicas(epoch, localTablet.getAllReplicas().toArray(new Replica[0]));
+                tabletReplicas.put(tablet.getId(), replicas);
+            }
+            return replicas.replicas;
+        }
+
+        /**
+         * Same as {@link LocalTablet#getQueryableReplicas} but from the candidates of the template.
+         *
+         * @return false if the tablet is not a local tablet
+         */
+        public boolean getQueryableReplicas(Tablet tablet, List<Replica> allQueryableReplicas,
+                                            List<Replica> localReplicas, long localBeId, int schemaHash) {
+            Replica[] replicas = getReplicas(tablet);
+            if (replicas == null) {
+                return false;
+            }
+            for (Replica replica : replicas) {
+                if (replica.isQueryable(visibleVersion, schemaHash)) {
+                    allQueryableReplicas.add(replica);
+                    if (localBeId != -1 && replica.getBackendId() == localBeId) {
+                        localReplicas.add(replica);
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Same as {@link LocalTablet#getRowCount} of version 0, i.e. the max row count of the replicas.
+         *
+         * @return -1 if the tablet is not a local tablet
+         */
+        public long getRowCount(Tablet tablet) {
+            Replica[] replicas = getReplicas(tablet);
+            if (replicas == null) {
+                return -1;
+            }
+            long rowCount = 0;
+            for (Replica replica : replicas) {
+                rowCount = Math.max(rowCount, replica.getRowCount());
+            }
+            return rowCount;
+        }
+    }
+
+    private static class TabletReplicas {
+        private final long epoch;
+        private final Replica[] replicas;
+
+        TabletReplicas(long epoch, Replica[] replicas) {
+            this.epoch = epoch;
+            this.replicas = replicas;
+        }
+    }
+
+    private static class Key {
+        private final long physicalPartitionId;
+        private final long indexId;
+        private final long visibleVersion;
+        private final long warehouseId;
+
+        Key(long physicalPartitionId, long indexId, long visibleVersion, long warehouseId) {
+            this.physicalPartitionId = physicalPartitionId;
+            this.indexId = indexId;
+            this.visibleVersion = visibleVersion;
+            this.warehouseId = warehouseId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return physicalPartitionId == key.physicalPartitionId && indexId == key.indexId
+                    && visibleVersion == key.visibleVersion && warehouseId == key.warehouseId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(physicalPartitionId, indexId, visibleVersion, warehouseId);
+        }
+    }
+}
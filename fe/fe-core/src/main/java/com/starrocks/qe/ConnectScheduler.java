@@ -42,11 +42,13 @@ import com.starrocks.common.Pair;
 import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.util.LogUtil;
 import com.starrocks.http.HttpConnectContext;
+import com.starrocks.mysql.MysqlCompressionCodec;
 import com.starrocks.mysql.MysqlProto;
 import com.starrocks.mysql.NegotiateState;
 import com.starrocks.mysql.nio.NConnectContext;
 import com.starrocks.privilege.AccessDeniedException;
 import com.starrocks.privilege.PrivilegeType;
+import com.starrocks.service.arrow.flight.sql.ArrowFlightSqlConnectContext;
 import com.starrocks.sql.analyzer.Authorizer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -123,7 +125,8 @@ public class ConnectScheduler {
         context.setConnectionId(nextConnectionId.getAndAdd(1));
         context.resetConnectionStartTime();
         // no necessary for nio or Http.
-        if (context instanceof NConnectContext || context instanceof HttpConnectContext) {
+        if (context instanceof NConnectContext || context instanceof HttpConnectContext ||
+                context instanceof ArrowFlightSqlConnectContext) {
             return true;
         }
         if (executor.submit(new LoopHandler(context)) == null) {
@@ -287,6 +290,9 @@ public class ConnectScheduler {
                     Pair<Boolean, String> registerResult = registerConnection(context);
                     if (registerResult.first) {
                         MysqlProto.sendResponsePacket(context);
+                        // packets are compressed after the OK packet if the client asks for
+                        context.getMysqlChannel().setCompressionCodec(
+                                MysqlCompressionCodec.negotiate(result.getAuthPacket()));
                     } else {
                         context.getState().setError(registerResult.second);
                         MysqlProto.sendResponsePacket(context);
@@ -20,6 +20,8 @@ import com.starrocks.common.Config;
 import com.starrocks.common.UserException;
 import com.starrocks.planner.ScanNode;
 import com.starrocks.qe.scheduler.WorkerProvider;
+import com.starrocks.qe.scheduler.assignment.ScanReplicaAffinity;
+import com.starrocks.thrift.TInternalScanRange;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TScanRangeLocation;
 import com.starrocks.thrift.TScanRangeLocations;
@@ -40,15 +42,24 @@ public class NormalBackendSelector implements BackendSelector {
 
     private final WorkerProvider workerProvider;
     private final boolean isLoad;
+    // null if the scan ranges are not assigned to the backends that recently scanned them
+    private final ScanReplicaAffinity replicaAffinity;
 
     public NormalBackendSelector(ScanNode scanNode, List<TScanRangeLocations> locations,
                                  FragmentScanRangeAssignment assignment, WorkerProvider workerProvider,
                                  boolean isLoad) {
+        this(scanNode, locations, assignment, workerProvider, isLoad, null);
+    }
+
+    public NormalBackendSelector(ScanNode scanNode, List<TScanRangeLocations> locations,
+                                 FragmentScanRangeAssignment assignment, WorkerProvider workerProvider,
+                                 boolean isLoad, ScanReplicaAffinity replicaAffinity) {
         this.scanNode = scanNode;
         this.locations = locations;
         this.assignment = assignment;
         this.workerProvider = workerProvider;
         this.isLoad = isLoad;
+        this.replicaAffinity = replicaAffinity;
     }
 
     private boolean isEnableScheduleByRowCnt(TScanRangeLocations scanRangeLocations) {
@@ -72,9 +83,18 @@ public class NormalBackendSelector implements BackendSelector {
         }
 
         for (TScanRangeLocations scanRangeLocations : locations) {
+            TInternalScanRange internalScanRange = null;
+            long affinityBackendId = -1;
+            if (replicaAffinity != null && scanRangeLocations.getScan_range().isSetInternal_scan_range()) {
+                internalScanRange = scanRangeLocations.getScan_range().getInternal_scan_range();
+                affinityBackendId = replicaAffinity.getBackend(internalScanRange.getTablet_id(),
+                        internalScanRange.getVersion());
+            }
+
             // assign this scan range to the host w/ the fewest assigned row count
             Long minRowCount = Long.MAX_VALUE;
             TScanRangeLocation minLocation = null;
+            TScanRangeLocation affinityLocation = null;
             List<TScanRangeLocation> backupLocations = new ArrayList<>();
 
             for (final TScanRangeLocation location : scanRangeLocations.getLocations()) {
@@ -92,6 +112,9 @@ public class NormalBackendSelector implements BackendSelector {
                     }
                     continue;
                 }
+                if (location.getBackend_id() == affinityBackendId) {
+                    affinityLocation = location;
+                }
 
                 Long assignedBytes = assignedRowCountPerHost.getOrDefault(location.server, 0L);
                 if (assignedBytes < minRowCount) {
@@ -117,6 +140,21 @@ public class NormalBackendSelector implements BackendSelector {
             }
             Preconditions.checkNotNull(minLocation);
 
+            // the replica recently scanned by the other queries is preferred to balancing the load of this query,
+            // as long as it is not loaded much more than the least loaded replica, the tablets of this query may be
+            // a different subset of the tablets which the first query has balanced. Only a backend chosen by load is
+            // recorded, so the affinity expires and the tablet is balanced again even if it is scanned all the time.
+            if (affinityLocation != null) {
+                long affinityRowCount = assignedRowCountPerHost.getOrDefault(affinityLocation.server, 0L);
+                if (affinityRowCount <= minRowCount + Config.scan_replica_affinity_max_skew) {
+                    minLocation = affinityLocation;
+                    minRowCount = affinityRowCount;
+                }
+            } else if (internalScanRange != null) {
+                replicaAffinity.recordBackend(internalScanRange.getTablet_id(), internalScanRange.getVersion(),
+                        minLocation.backend_id);
+            }
+
             // only enable for load now, The insert into select performance problem caused by data skew is the most serious
             long curRowCount;
             if (isEnableScheduleByRowCnt(scanRangeLocations)) {
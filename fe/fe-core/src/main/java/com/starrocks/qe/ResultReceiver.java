@@ -34,6 +34,7 @@
 
 package com.starrocks.qe;
 
+import com.starrocks.common.Config;
 import com.starrocks.common.Status;
 import com.starrocks.common.util.DebugUtil;
 import com.starrocks.metric.MetricRepo;
@@ -67,6 +68,9 @@ public class ResultReceiver {
     private final PUniqueId finstId;
     private final Long backendId;
     private Thread currentThread;
+    // the fetch request of the next batch, sent before the current batch is returned
+    private PFetchDataRequest prefetchRequest;
+    private volatile Future<PFetchDataResult> prefetchFuture;
 
     public ResultReceiver(TUniqueId tid, Long backendId, TNetworkAddress address, int timeoutMs) {
         this.finstId = new PUniqueId();
@@ -84,9 +88,17 @@ public class ResultReceiver {
         final RowBatch rowBatch = new RowBatch();
         try {
             while (!isDone && !isCancel) {
-                PFetchDataRequest request = new PFetchDataRequest(finstId);
-
-                Future<PFetchDataResult> future = BackendServiceClient.getInstance().fetchDataAsync(address, request);
+                PFetchDataRequest request;
+                Future<PFetchDataResult> future;
+                if (prefetchFuture != null) {
+                    request = prefetchRequest;
+                    future = prefetchFuture;
+                    prefetchRequest = null;
+                    prefetchFuture = null;
+                } else {
+                    request = new PFetchDataRequest(finstId);
+                    future = BackendServiceClient.getInstance().fetchDataAsync(address, request);
+                }
                 PFetchDataResult pResult = null;
                 while (pResult == null) {
                     long currentTs = System.currentTimeMillis();
@@ -120,6 +132,9 @@ public class ResultReceiver {
 
                 packetIdx++;
                 isDone = pResult.eos;
+                if (!isDone && Config.enable_result_prefetch) {
+                    prefetch();
+                }
 
                 byte[] serialResult = request.getSerializedResult();
                 if (serialResult != null && serialResult.length > 0) {
@@ -161,7 +176,30 @@ public class ResultReceiver {
         return rowBatch;
     }
 
+    /**
+     * Send the fetch request of the next batch before returning the current one, so BE fetches and transmits
+     * the next batch while the caller is sending the current one to the client. Only one request is in flight
+     * at a time, which keeps the packet sequence and bounds the memory to one extra batch.
+     */
+    private void prefetch() {
+        PFetchDataRequest request = new PFetchDataRequest(finstId);
+        try {
+            prefetchFuture = BackendServiceClient.getInstance().fetchDataAsync(address, request);
+            prefetchRequest = request;
+        } catch (RpcException e) {
+            // fetch it again in the next getNext, which reports the error if it fails again
+            LOG.debug("prefetch result failed, finstId={}", DebugUtil.printId(finstId), e);
+            prefetchFuture = null;
+            prefetchRequest = null;
+        }
+    }
+
     public void cancel() {
         isCancel = true;
+        // nobody takes the prefetched batch after the cancellation, don't wait for it
+        Future<PFetchDataResult> future = prefetchFuture;
+        if (future != null) {
+            future.cancel(true);
+        }
     }
 }
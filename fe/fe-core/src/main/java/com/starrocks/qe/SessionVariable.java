@@ -271,6 +271,7 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     public static final String TABLET_INTERNAL_PARALLEL_MODE = "tablet_internal_parallel_mode";
     public static final String ENABLE_SHARED_SCAN = "enable_shared_scan";
+    public static final String ENABLE_SCAN_REPLICA_AFFINITY = "enable_scan_replica_affinity";
     public static final String PIPELINE_DOP = "pipeline_dop";
     public static final String MAX_PIPELINE_DOP = "max_pipeline_dop";
 
@@ -340,6 +341,7 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String CBO_ENABLE_DP_JOIN_REORDER = "cbo_enable_dp_join_reorder";
     public static final String CBO_MAX_REORDER_NODE_USE_DP = "cbo_max_reorder_node_use_dp";
     public static final String CBO_ENABLE_GREEDY_JOIN_REORDER = "cbo_enable_greedy_join_reorder";
+    public static final String CBO_MAX_MEMO_SIZE_MB = "cbo_max_memo_size_mb";
     public static final String CBO_ENABLE_REPLICATED_JOIN = "cbo_enable_replicated_join";
     public static final String CBO_USE_CORRELATED_JOIN_ESTIMATE = "cbo_use_correlated_join_estimate";
     public static final String ALWAYS_COLLECT_LOW_CARD_DICT = "always_collect_low_card_dict";
@@ -402,6 +404,7 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String GLOBAL_RUNTIME_FILTER_RPC_TIMEOUT = "global_runtime_filter_rpc_timeout";
     public static final String RUNTIME_FILTER_EARLY_RETURN_SELECTIVITY = "runtime_filter_early_return_selectivity";
     public static final String ENABLE_TOPN_RUNTIME_FILTER = "enable_topn_runtime_filter";
+    public static final String ENABLE_ADAPTIVE_RUNTIME_FILTER = "enable_adaptive_runtime_filter";
     public static final String GLOBAL_RUNTIME_FILTER_RPC_HTTP_MIN_SIZE = "global_runtime_filter_rpc_http_min_size";
 
     public static final String ENABLE_PIPELINE_LEVEL_MULTI_PARTITIONED_RF =
@@ -902,6 +905,11 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = ENABLE_SHARED_SCAN)
     private boolean enableSharedScan = false;
 
+    // Scan the tablets on the backend that recently scanned them for the other queries, so the concurrent queries
+    // reading the same tablets share the page cache of one replica.
+    @VariableMgr.VarAttr(name = ENABLE_SCAN_REPLICA_AFFINITY)
+    private boolean enableScanReplicaAffinity = false;
+
     // max memory used on each fragment instance
     // NOTE: only used for non-pipeline engine and stream_load
     // The pipeline engine uses the query_mem_limit
@@ -1286,6 +1294,11 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = CBO_ENABLE_GREEDY_JOIN_REORDER, flag = VariableMgr.INVISIBLE)
     private boolean cboEnableGreedyJoinReorder = true;
 
+    // The estimated memory budget of the memo of a query. Once it is exceeded, the optimizer stops enumerating
+    // join orders and uses the join orders found so far. 0 or negative means no limit.
+    @VariableMgr.VarAttr(name = CBO_MAX_MEMO_SIZE_MB)
+    private long cboMaxMemoSizeMB = 1024;
+
     @VariableMgr.VarAttr(name = CBO_DEBUG_ALIVE_BACKEND_NUMBER, flag = VariableMgr.INVISIBLE)
     private int cboDebugAliveBackendNumber = 0;
 
@@ -1373,6 +1386,11 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = ENABLE_TOPN_RUNTIME_FILTER)
     private boolean enableTopNRuntimeFilter = true;
 
+    // Record the build rows and the probe rows eliminated of the runtime filters after the query finishes, and
+    // decide whether to build and probe the filters of the same join conditions by them in the later queries
+    @VariableMgr.VarAttr(name = ENABLE_ADAPTIVE_RUNTIME_FILTER)
+    private boolean enableAdaptiveRuntimeFilter = false;
+
     // Parameters to determine the usage of runtime filter
     // Either the build_max or probe_min equal to 0 would force use the filter,
     // otherwise would decide based on the cardinality
@@ -2977,6 +2995,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.cboEnableGreedyJoinReorder = true;
     }
 
+    public long getCboMaxMemoSizeMB() {
+        return cboMaxMemoSizeMB;
+    }
+
+    public void setCboMaxMemoSizeMB(long cboMaxMemoSizeMB) {
+        this.cboMaxMemoSizeMB = cboMaxMemoSizeMB;
+    }
+
     public int getCboMaxReorderNode() {
         return cboMaxReorderNode;
     }
@@ -3088,6 +3114,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return enableTopNRuntimeFilter;
     }
 
+    public boolean isEnableAdaptiveRuntimeFilter() {
+        return enableAdaptiveRuntimeFilter;
+    }
+
+    public void setEnableAdaptiveRuntimeFilter(boolean enableAdaptiveRuntimeFilter) {
+        this.enableAdaptiveRuntimeFilter = enableAdaptiveRuntimeFilter;
+    }
+
     public void setGlobalRuntimeFilterBuildMaxSize(long globalRuntimeFilterBuildMaxSize) {
         this.globalRuntimeFilterBuildMaxSize = globalRuntimeFilterBuildMaxSize;
     }
@@ -3242,6 +3276,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return enableSharedScan;
     }
 
+    public boolean isEnableScanReplicaAffinity() {
+        return enableScanReplicaAffinity;
+    }
+
+    public void setEnableScanReplicaAffinity(boolean enableScanReplicaAffinity) {
+        this.enableScanReplicaAffinity = enableScanReplicaAffinity;
+    }
+
     public int getResourceGroupId() {
         return resourceGroupId;
     }
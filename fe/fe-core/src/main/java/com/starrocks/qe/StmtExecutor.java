@@ -114,13 +114,18 @@ import com.starrocks.privilege.AccessDeniedException;
 import com.starrocks.privilege.ObjectType;
 import com.starrocks.privilege.PrivilegeException;
 import com.starrocks.privilege.PrivilegeType;
+import com.starrocks.proto.NodeExecStatsItemPB;
 import com.starrocks.proto.PPlanFragmentCancelReason;
 import com.starrocks.proto.PQueryStatistics;
 import com.starrocks.proto.QueryStatisticsItemPB;
 import com.starrocks.qe.QueryState.MysqlStateType;
+import com.starrocks.qe.feedback.CardinalityFeedbackCollector;
+import com.starrocks.qe.feedback.NodeExecStats;
 import com.starrocks.qe.feedback.OperatorTuningGuides;
 import com.starrocks.qe.feedback.PlanAdvisorExecutor;
 import com.starrocks.qe.feedback.PlanTuningAdvisor;
+import com.starrocks.qe.feedback.RuntimeFilterFeedbackCollector;
+import com.starrocks.qe.feedback.RuntimeFilterFeedbackMgr;
 import com.starrocks.qe.feedback.analyzer.PlanTuningAnalyzer;
 import com.starrocks.qe.feedback.skeleton.SkeletonBuilder;
 import com.starrocks.qe.feedback.skeleton.SkeletonNode;
@@ -128,6 +133,7 @@ import com.starrocks.qe.scheduler.Coordinator;
 import com.starrocks.qe.scheduler.FeExecuteCoordinator;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.ExecuteEnv;
+import com.starrocks.service.arrow.flight.sql.ArrowFlightSqlConnectContext;
 import com.starrocks.sql.ExplainAnalyzer;
 import com.starrocks.sql.PrepareStmtPlanner;
 import com.starrocks.sql.StatementPlanner;
@@ -1192,6 +1198,8 @@ public class StmtExecutor {
         RowBatch batch;
         if (context instanceof HttpConnectContext) {
             batch = httpResultSender.sendQueryResult(coord, execPlan);
+        } else if (context instanceof ArrowFlightSqlConnectContext) {
+            batch = ((ArrowFlightSqlConnectContext) context).sendQueryResult(coord);
         } else {
             boolean needSendResult = !isPlanAdvisorAnalyze && !isExplainAnalyze
                     && !context.getSessionVariable().isEnableExecutionOnly();
@@ -1267,8 +1275,13 @@ public class StmtExecutor {
     }
 
     private void analyzePlanWithExecStats(ExecPlan execPlan) {
+        if (CollectionUtils.isEmpty(statisticsForAuditLog.getNodeExecStatsItems())) {
+            return;
+        }
+        recordCardinalityFeedback(execPlan);
+        recordRuntimeFilterFeedback(execPlan);
         SessionVariable sessionVariable = context.getSessionVariable();
-        if (!sessionVariable.isEnablePlanAdvisor() || CollectionUtils.isEmpty(statisticsForAuditLog.getNodeExecStatsItems())) {
+        if (!sessionVariable.isEnablePlanAdvisor()) {
             return;
         }
         long elapseMs = System.currentTimeMillis() - context.getStartTime();
@@ -1287,6 +1300,43 @@ public class StmtExecutor {
         }
     }
 
+    private void recordCardinalityFeedback(ExecPlan execPlan) {
+        if (!Config.enable_cardinality_feedback || execPlan.getPhysicalPlan() == null) {
+            return;
+        }
+        try (Timer ignored = Tracers.watchScope(Tracers.Module.OPTIMIZER, "CardinalityFeedback")) {
+            Map<Integer, NodeExecStats> nodeExecStatsMap = Maps.newHashMap();
+            for (NodeExecStatsItemPB item : statisticsForAuditLog.getNodeExecStatsItems()) {
+                nodeExecStatsMap.put(item.getNodeId(), NodeExecStats.buildFromPB(item));
+            }
+            Map<String, Double> selectivities = CardinalityFeedbackCollector.collect(execPlan.getPhysicalPlan(),
+                    execPlan.getColumnRefFactory(), nodeExecStatsMap);
+            GlobalStateMgr.getCurrentState().getCardinalityFeedbackMgr().recordFeedback(selectivities);
+        } catch (Exception e) {
+            LOG.warn("failed to record cardinality feedback of query {}", DebugUtil.printId(context.getQueryId()), e);
+        }
+    }
+
+    private void recordRuntimeFilterFeedback(ExecPlan execPlan) {
+        if (!context.getSessionVariable().isEnableAdaptiveRuntimeFilter()) {
+            return;
+        }
+        try (Timer ignored = Tracers.watchScope(Tracers.Module.OPTIMIZER, "RuntimeFilterFeedback")) {
+            Map<Integer, NodeExecStats> nodeExecStatsMap = Maps.newHashMap();
+            for (NodeExecStatsItemPB item : statisticsForAuditLog.getNodeExecStatsItems()) {
+                nodeExecStatsMap.put(item.getNodeId(), NodeExecStats.buildFromPB(item));
+            }
+            RuntimeFilterFeedbackCollector collector = new RuntimeFilterFeedbackCollector(nodeExecStatsMap);
+            RuntimeFilterFeedbackMgr.getInstance().recordFeedback(collector.collect(execPlan));
+            Tracers.record(Tracers.Module.BASE, "RuntimeFilterProbeRows", String.valueOf(collector.getProbeRows()));
+            Tracers.record(Tracers.Module.BASE, "RuntimeFilterProbeRowsEliminated",
+                    String.valueOf(collector.getProbeRowsEliminated()));
+            Tracers.record(Tracers.Module.BASE, "RuntimeFilterBuildRows", String.valueOf(collector.getBuildRows()));
+        } catch (Exception e) {
+            LOG.warn("failed to record runtime filter feedback of query {}", DebugUtil.printId(context.getQueryId()), e);
+        }
+    }
+
     private void handleAnalyzeStmt() throws IOException {
         AnalyzeStmt analyzeStmt = (AnalyzeStmt) parsedStmt;
         TableName tableName = analyzeStmt.getTableName();
@@ -2611,7 +2661,8 @@ public class StmtExecutor {
             return false;
         }
 
-        if (context instanceof HttpConnectContext || context.getCommand() == MysqlCommand.COM_STMT_EXECUTE) {
+        if (context instanceof HttpConnectContext || context instanceof ArrowFlightSqlConnectContext ||
+                context.getCommand() == MysqlCommand.COM_STMT_EXECUTE) {
             return false;
         }
 
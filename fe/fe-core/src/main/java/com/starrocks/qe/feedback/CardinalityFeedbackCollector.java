@@ -0,0 +1,135 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.feedback;
+
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.PhysicalPartition;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptExpressionVisitor;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalDistributionOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalJoinOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
+
+import java.util.Map;
+
+/**
+ * Computes the observed selectivity of the scan predicates and the inner join conditions of an executed plan
+ * from the {@link NodeExecStats} reported by BE.
+ * The selectivity of a scan is its output rows over the rows of the selected partitions, and the selectivity of
+ * an inner join is its output rows over the product of its input rows, the same as how
+ * {@link com.starrocks.sql.optimizer.statistics.StatisticsCalculator} applies them.
+ */
+public class CardinalityFeedbackCollector extends OptExpressionVisitor<Void, Void> {
+    private final ColumnRefFactory columnRefFactory;
+    private final Map<Integer, NodeExecStats> nodeExecStatsMap;
+    private final Map<String, Double> selectivities = Maps.newHashMap();
+
+    private CardinalityFeedbackCollector(ColumnRefFactory columnRefFactory, Map<Integer, NodeExecStats> nodeExecStatsMap) {
+        this.columnRefFactory = columnRefFactory;
+        this.nodeExecStatsMap = nodeExecStatsMap;
+    }
+
+    public static Map<String, Double> collect(OptExpression root, ColumnRefFactory columnRefFactory,
+                                              Map<Integer, NodeExecStats> nodeExecStatsMap) {
+        CardinalityFeedbackCollector collector = new CardinalityFeedbackCollector(columnRefFactory, nodeExecStatsMap);
+        root.getOp().accept(collector, root, null);
+        return collector.selectivities;
+    }
+
+    @Override
+    public Void visit(OptExpression optExpression, Void context) {
+        for (OptExpression input : optExpression.getInputs()) {
+            input.getOp().accept(this, input, context);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitPhysicalOlapScan(OptExpression optExpression, Void context) {
+        PhysicalOlapScanOperator scan = (PhysicalOlapScanOperator) optExpression.getOp();
+        NodeExecStats stats = nodeExecStatsMap.get(scan.getPlanNodeId());
+        // a scan with limit stops early and the predicate is evaluated on part of the rows
+        if (stats == null || stats.getPushRows() <= 0 || scan.getLimit() != Operator.DEFAULT_LIMIT) {
+            return null;
+        }
+        String signature = CardinalityFeedbackSignature.ofScan(scan.getTable(), scan.getPredicate(),
+                scan.getColRefToColumnMetaMap());
+        if (signature != null) {
+            // push rows are the rows of the scanned tablets, before the predicates and the runtime filters
+            double outputRows = Math.min(stats.getPullRows() + stats.getRfFilterRows(), stats.getPushRows());
+            selectivities.put(signature, outputRows * getScannedTabletRatio(scan) / stats.getPushRows());
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitPhysicalJoin(OptExpression optExpression, Void context) {
+        PhysicalJoinOperator join = (PhysicalJoinOperator) optExpression.getOp();
+        NodeExecStats stats = nodeExecStatsMap.get(join.getPlanNodeId());
+        if (stats != null && join.getJoinType().isInnerJoin() && join.getLimit() == Operator.DEFAULT_LIMIT) {
+            double leftRows = getInputRows(optExpression.inputAt(0));
+            double rightRows = getInputRows(optExpression.inputAt(1));
+            String signature = CardinalityFeedbackSignature.ofJoin(join.getJoinType(), join.getOnPredicate(),
+                    columnRefFactory);
+            if (signature != null && leftRows > 0 && rightRows > 0) {
+                // the predicate of the join operator is estimated separately, count the rows before it
+                double outputRows = stats.getPullRows() + stats.getPredFilterRows();
+                selectivities.put(signature, outputRows / leftRows / rightRows);
+            }
+        }
+        return visit(optExpression, context);
+    }
+
+    // The runtime filters of the join filter its probe side, but the optimizer estimates the join without them.
+    // So the rows filtered by the runtime filters are counted as the input of the join.
+    private double getInputRows(OptExpression input) {
+        while (input.getOp() instanceof PhysicalDistributionOperator) {
+            input = input.inputAt(0);
+        }
+        NodeExecStats stats = nodeExecStatsMap.get(input.getOp().getPlanNodeId());
+        if (stats == null) {
+            return -1;
+        }
+        return stats.getPullRows() + stats.getRfFilterRows();
+    }
+
+    // the tablets pruned by the predicates on the distribution columns are not read, but they are counted by the
+    // optimizer as the input of the predicates
+    private static double getScannedTabletRatio(PhysicalOlapScanOperator scan) {
+        if (scan.getSelectedPartitionId() == null || scan.getSelectedTabletId() == null) {
+            return 1;
+        }
+        OlapTable table = (OlapTable) scan.getTable();
+        long totalTablets = 0;
+        for (long partitionId : scan.getSelectedPartitionId()) {
+            Partition partition = table.getPartition(partitionId);
+            if (partition == null) {
+                continue;
+            }
+            for (PhysicalPartition physicalPartition : partition.getSubPartitions()) {
+                MaterializedIndex index = physicalPartition.getIndex(scan.getSelectedIndexId());
+                if (index != null) {
+                    totalTablets += index.getTablets().size();
+                }
+            }
+        }
+        return totalTablets == 0 ? 1 : Math.min(1, (double) scan.getSelectedTabletId().size() / totalTablets);
+    }
+}
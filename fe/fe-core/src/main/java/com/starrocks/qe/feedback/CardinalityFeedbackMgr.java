@@ -0,0 +1,154 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.feedback;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.Maps;
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.FrontendDaemon;
+import com.starrocks.persist.CardinalityFeedbackLog;
+import com.starrocks.persist.ImageWriter;
+import com.starrocks.persist.metablock.SRMetaBlockEOFException;
+import com.starrocks.persist.metablock.SRMetaBlockException;
+import com.starrocks.persist.metablock.SRMetaBlockID;
+import com.starrocks.persist.metablock.SRMetaBlockReader;
+import com.starrocks.persist.metablock.SRMetaBlockWriter;
+import com.starrocks.server.GlobalStateMgr;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Stores the observed selectivity of scan predicates and join conditions, keyed by
+ * {@link CardinalityFeedbackSignature}, so the optimizer can correct its estimation of the same predicates and
+ * joins in the later queries, whatever the SQL text is.
+ * Every FE records the feedback of its own queries in memory. Leader also writes its feedback to edit log in
+ * batches every {@link Config#cardinality_feedback_flush_interval_ms}, and saves all the feedback in image,
+ * so the feedback survives the restart and is synced to the other FEs.
+ */
+public class CardinalityFeedbackMgr extends FrontendDaemon {
+    private static final Logger LOG = LogManager.getLogger(CardinalityFeedbackMgr.class);
+
+    private final Cache<String, Feedback> feedbacks = Caffeine.newBuilder()
+            .maximumSize(Config.cardinality_feedback_max_entries)
+            .build();
+
+    // feedback recorded by leader and not written to edit log yet
+    private final Map<String, Feedback> pendingFeedbacks = Maps.newConcurrentMap();
+
+    public CardinalityFeedbackMgr() {
+        super("cardinality-feedback", Config.cardinality_feedback_flush_interval_ms);
+    }
+
+    /**
+     * Returns the observed selectivity of the signature, or -1 if there is no feedback.
+     */
+    public double getSelectivity(String signature) {
+        if (signature == null) {
+            return -1;
+        }
+        Feedback feedback = feedbacks.getIfPresent(signature);
+        return feedback == null ? -1 : feedback.getSelectivity();
+    }
+
+    public void recordFeedback(Map<String, Double> observedSelectivities) {
+        boolean isLeader = GlobalStateMgr.getCurrentState().isLeader();
+        for (Map.Entry<String, Double> entry : observedSelectivities.entrySet()) {
+            Feedback feedback = feedbacks.asMap().merge(entry.getKey(), new Feedback(entry.getValue(), 1),
+                    Feedback::merge);
+            if (isLeader) {
+                pendingFeedbacks.put(entry.getKey(), feedback);
+            }
+        }
+    }
+
+    @Override
+    protected void runAfterCatalogReady() {
+        if (pendingFeedbacks.isEmpty()) {
+            return;
+        }
+        Map<String, Feedback> batch = Maps.newHashMap();
+        for (String signature : pendingFeedbacks.keySet()) {
+            Feedback feedback = pendingFeedbacks.remove(signature);
+            if (feedback != null) {
+                batch.put(signature, feedback);
+            }
+        }
+        GlobalStateMgr.getCurrentState().getEditLog().logCardinalityFeedback(new CardinalityFeedbackLog(batch));
+        LOG.debug("write {} cardinality feedback to edit log", batch.size());
+    }
+
+    public void replayCardinalityFeedback(CardinalityFeedbackLog log) {
+        feedbacks.putAll(log.getFeedbacks());
+    }
+
+    public long getFeedbackCount() {
+        return feedbacks.estimatedSize();
+    }
+
+    public void clear() {
+        feedbacks.invalidateAll();
+        pendingFeedbacks.clear();
+    }
+
+    public void save(ImageWriter imageWriter) throws IOException, SRMetaBlockException {
+        SRMetaBlockWriter writer = imageWriter.getBlockWriter(SRMetaBlockID.CARDINALITY_FEEDBACK_MGR, 1);
+        writer.writeJson(new CardinalityFeedbackLog(Maps.newHashMap(feedbacks.asMap())));
+        writer.close();
+    }
+
+    public void load(SRMetaBlockReader reader) throws SRMetaBlockEOFException, IOException, SRMetaBlockException {
+        CardinalityFeedbackLog log = reader.readJson(CardinalityFeedbackLog.class);
+        feedbacks.putAll(log.getFeedbacks());
+        LOG.info("loaded {} cardinality feedback", log.getFeedbacks().size());
+    }
+
+    public static class Feedback {
+        // an observation weighs at least this much, so the feedback follows the change of data
+        private static final double MIN_OBSERVATION_WEIGHT = 0.3;
+        private static final double MIN_SELECTIVITY = Double.MIN_NORMAL;
+
+        @SerializedName("s")
+        private final double selectivity;
+
+        @SerializedName("n")
+        private final int samples;
+
+        public Feedback(double selectivity, int samples) {
+            this.selectivity = Math.min(1, Math.max(MIN_SELECTIVITY, selectivity));
+            this.samples = samples;
+        }
+
+        public double getSelectivity() {
+            return selectivity;
+        }
+
+        public int getSamples() {
+            return samples;
+        }
+
+        // The selectivity is averaged in log space, the observations of a skewed predicate are in different
+        // orders of magnitude and an arithmetic mean is dominated by the largest one.
+        public Feedback merge(Feedback observation) {
+            double weight = Math.max(1.0 / (samples + 1), MIN_OBSERVATION_WEIGHT);
+            double logSelectivity = (1 - weight) * Math.log(selectivity) + weight * Math.log(observation.selectivity);
+            return new Feedback(Math.exp(logSelectivity), samples == Integer.MAX_VALUE ? samples : samples + 1);
+        }
+    }
+}
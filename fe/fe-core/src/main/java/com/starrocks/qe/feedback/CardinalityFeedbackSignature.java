@@ -0,0 +1,138 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.feedback;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import com.starrocks.analysis.JoinOperator;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.Table;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.ReplaceColumnRefRewriter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Signature of a scan predicate or a join condition in the cardinality feedback store.
+ * The column refs are replaced by the table id and the column name, so the same predicate of different queries,
+ * whatever the SQL text, the aliases and the column ref ids are, has the same signature. The conjuncts are sorted,
+ * and the signature is hashed to keep the store compact.
+ */
+public final class CardinalityFeedbackSignature {
+
+    private CardinalityFeedbackSignature() {
+    }
+
+    /**
+     * The conjuncts on the partition columns are left out, because they are used to prune partitions and may be
+     * removed from the scan after pruning, and the feedback is the selectivity over the selected partitions.
+     * Returns null if there is no other conjunct or any column is not a column of the table.
+     */
+    public static String ofScan(Table table, ScalarOperator predicate,
+                                Map<ColumnRefOperator, Column> colRefToColumnMetaMap) {
+        if (predicate == null) {
+            return null;
+        }
+        Set<String> partitionColumns = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        partitionColumns.addAll(table.getPartitionColumnNames());
+
+        List<ScalarOperator> conjuncts = Lists.newArrayList();
+        for (ScalarOperator conjunct : Utils.extractConjuncts(predicate)) {
+            List<ColumnRefOperator> columnRefs = conjunct.getColumnRefs();
+            if (columnRefs.isEmpty()) {
+                continue;
+            }
+            boolean onPartitionColumns = true;
+            for (ColumnRefOperator columnRef : columnRefs) {
+                Column column = colRefToColumnMetaMap.get(columnRef);
+                if (column == null) {
+                    return null;
+                }
+                onPartitionColumns &= partitionColumns.contains(column.getName());
+            }
+            if (!onPartitionColumns) {
+                conjuncts.add(conjunct);
+            }
+        }
+        if (conjuncts.isEmpty()) {
+            return null;
+        }
+        String normalized = normalize(conjuncts, columnRef -> {
+            Column column = colRefToColumnMetaMap.get(columnRef);
+            return column == null ? null : table.getId() + "." + column.getName();
+        });
+        return normalized == null ? null : hash("scan|" + table.getId() + "|" + normalized);
+    }
+
+    /**
+     * Returns null if any column of the join condition is not a column of a table, e.g. an expression.
+     */
+    public static String ofJoin(JoinOperator joinType, ScalarOperator onPredicate, ColumnRefFactory columnRefFactory) {
+        if (onPredicate == null || columnRefFactory == null) {
+            return null;
+        }
+        String normalized = normalize(Utils.extractConjuncts(onPredicate), columnRef -> {
+            Column column = columnRefFactory.getColumn(columnRef);
+            Table table = columnRefFactory.getColumnRefToTable().get(columnRef);
+            return column == null || table == null ? null : table.getId() + "." + column.getName();
+        });
+        return normalized == null ? null : hash("join|" + joinType + "|" + normalized);
+    }
+
+    private static String normalize(List<ScalarOperator> conjuncts, Function<ColumnRefOperator, String> naming) {
+        List<String> normalized = Lists.newArrayList();
+        for (ScalarOperator conjunct : conjuncts) {
+            Map<ColumnRefOperator, ScalarOperator> replaceMap = Maps.newHashMap();
+            for (ColumnRefOperator columnRef : conjunct.getColumnRefs()) {
+                String name = naming.apply(columnRef);
+                if (name == null) {
+                    return null;
+                }
+                replaceMap.put(columnRef, new ColumnRefOperator(0, columnRef.getType(), name, columnRef.isNullable()));
+            }
+            ScalarOperator rewritten = new ReplaceColumnRefRewriter(replaceMap).rewrite(conjunct);
+            normalized.add(toString(rewritten));
+        }
+        Collections.sort(normalized);
+        return String.join(" AND ", normalized);
+    }
+
+    // the equal predicates are commutative, a = b and b = a have the same signature
+    private static String toString(ScalarOperator conjunct) {
+        if (conjunct instanceof BinaryPredicateOperator &&
+                ((BinaryPredicateOperator) conjunct).getBinaryType().isEquivalence()) {
+            String left = conjunct.getChild(0).toString();
+            String right = conjunct.getChild(1).toString();
+            String op = ((BinaryPredicateOperator) conjunct).getBinaryType().toString();
+            return left.compareTo(right) <= 0 ? left + " " + op + " " + right : right + " " + op + " " + left;
+        }
+        return conjunct.toString();
+    }
+
+    private static String hash(String signature) {
+        return Hashing.murmur3_128().hashString(signature, StandardCharsets.UTF_8).toString();
+    }
+}
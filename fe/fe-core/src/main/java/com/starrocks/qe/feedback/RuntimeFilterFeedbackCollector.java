@@ -0,0 +1,167 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.feedback;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.analysis.BinaryPredicate;
+import com.starrocks.analysis.Expr;
+import com.starrocks.common.Pair;
+import com.starrocks.planner.ExchangeNode;
+import com.starrocks.planner.JoinNode;
+import com.starrocks.planner.PlanFragment;
+import com.starrocks.planner.PlanNode;
+import com.starrocks.planner.RuntimeFilterDescription;
+import com.starrocks.sql.plan.ExecPlan;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the observed build rows and filter ratio of the runtime filters of an executed plan from the
+ * {@link NodeExecStats} reported by BE, and sums up the probe rows eliminated by the filters and the rows the
+ * filters are built from.
+ */
+public class RuntimeFilterFeedbackCollector {
+    private final Map<Integer, NodeExecStats> nodeExecStatsMap;
+    // exchange node id -> the root of the fragment sending to it
+    private final Map<Integer, PlanNode> exchangeInputs = Maps.newHashMap();
+    private final Map<String, RuntimeFilterFeedbackMgr.Feedback> observations = Maps.newHashMap();
+    // probe node id -> the number of the runtime filters it probes
+    private final Map<Integer, Integer> probeNodeFilterNums = Maps.newHashMap();
+    // the probe nodes counted in the probe rows, a node may probe several filters
+    private final Set<Integer> countedProbeNodes = Sets.newHashSet();
+
+    private long probeRows = 0;
+    private long probeRowsEliminated = 0;
+    private long buildRows = 0;
+
+    public RuntimeFilterFeedbackCollector(Map<Integer, NodeExecStats> nodeExecStatsMap) {
+        this.nodeExecStatsMap = nodeExecStatsMap;
+    }
+
+    public Map<String, RuntimeFilterFeedbackMgr.Feedback> collect(ExecPlan execPlan) {
+        for (PlanFragment fragment : execPlan.getFragments()) {
+            if (fragment.getDestNode() != null) {
+                exchangeInputs.put(fragment.getDestNode().getId().asInt(), fragment.getPlanRoot());
+            }
+        }
+        List<JoinNode> joins = Lists.newArrayList();
+        for (PlanFragment fragment : execPlan.getFragments()) {
+            collectJoins(fragment.getPlanRoot(), joins);
+        }
+        for (JoinNode join : joins) {
+            for (RuntimeFilterDescription rf : join.getBuildRuntimeFilters()) {
+                for (int probeNodeId : rf.getNodeIdToProbeExpr().keySet()) {
+                    probeNodeFilterNums.merge(probeNodeId, 1, Integer::sum);
+                }
+            }
+        }
+        joins.forEach(this::visitJoin);
+        return observations;
+    }
+
+    public long getProbeRows() {
+        return probeRows;
+    }
+
+    public long getProbeRowsEliminated() {
+        return probeRowsEliminated;
+    }
+
+    public long getBuildRows() {
+        return buildRows;
+    }
+
+    // the child of an exchange node is the root of the sending fragment, which is visited as a fragment
+    private static void collectJoins(PlanNode node, List<JoinNode> joins) {
+        if (node instanceof JoinNode && !((JoinNode) node).getJoinOp().isCrossJoin()) {
+            joins.add((JoinNode) node);
+        }
+        if (node instanceof ExchangeNode) {
+            return;
+        }
+        for (PlanNode child : node.getChildren()) {
+            collectJoins(child, joins);
+        }
+    }
+
+    private void visitJoin(JoinNode join) {
+        NodeExecStats buildStats = getExecStats(join.getChild(1));
+        if (buildStats == null || buildStats.getPullRows() < 0) {
+            return;
+        }
+        List<BinaryPredicate> eqJoinConjuncts = join.getEqJoinConjuncts();
+        for (int i = 0; i < eqJoinConjuncts.size(); i++) {
+            Pair<Expr, Expr> buildAndProbeExpr = join.getBuildAndProbeExpr(eqJoinConjuncts.get(i));
+            String signature = RuntimeFilterFeedbackMgr.getSignature(buildAndProbeExpr.first, buildAndProbeExpr.second,
+                    join.getChild(1));
+            if (signature == null) {
+                continue;
+            }
+            double filterRatio = -1;
+            RuntimeFilterDescription rf = getRuntimeFilter(join, i);
+            if (rf != null) {
+                filterRatio = getFilterRatio(rf);
+                buildRows += buildStats.getPullRows();
+            }
+            observations.put(signature, new RuntimeFilterFeedbackMgr.Feedback(buildStats.getPullRows(), filterRatio, 1));
+        }
+    }
+
+    // BE reports the rows filtered by all the runtime filters of a probe node together, so the rows can only be
+    // attributed to a filter when it is the only filter of its probe nodes. Otherwise, the ratio is unknown, a filter
+    // eliminating nothing must not be credited with the rows eliminated by the selective filters next to it.
+    private double getFilterRatio(RuntimeFilterDescription rf) {
+        long inputRows = 0;
+        long filteredRows = 0;
+        boolean shared = false;
+        for (int probeNodeId : rf.getNodeIdToProbeExpr().keySet()) {
+            NodeExecStats stats = nodeExecStatsMap.get(probeNodeId);
+            if (stats == null || stats.getRfFilterRows() < 0) {
+                continue;
+            }
+            shared |= probeNodeFilterNums.getOrDefault(probeNodeId, 0) > 1;
+            inputRows += stats.getPullRows() + stats.getRfFilterRows();
+            filteredRows += stats.getRfFilterRows();
+            if (countedProbeNodes.add(probeNodeId)) {
+                probeRows += stats.getPullRows() + stats.getRfFilterRows();
+                probeRowsEliminated += stats.getRfFilterRows();
+            }
+        }
+        if (shared || inputRows <= 0) {
+            return -1;
+        }
+        return (double) filteredRows / inputRows;
+    }
+
+    private static RuntimeFilterDescription getRuntimeFilter(JoinNode join, int exprOrder) {
+        for (RuntimeFilterDescription rf : join.getBuildRuntimeFilters()) {
+            if (rf.getExprOrder() == exprOrder) {
+                return rf;
+            }
+        }
+        return null;
+    }
+
+    private NodeExecStats getExecStats(PlanNode node) {
+        while (node instanceof ExchangeNode) {
+            node = exchangeInputs.get(node.getId().asInt());
+        }
+        return node == null ? null : nodeExecStatsMap.get(node.getId().asInt());
+    }
+}
@@ -0,0 +1,167 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.feedback;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.SlotDescriptor;
+import com.starrocks.analysis.SlotRef;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.Table;
+import com.starrocks.common.Config;
+import com.starrocks.planner.OlapScanNode;
+import com.starrocks.planner.PlanNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores the observed build rows and the ratio of the probe rows eliminated by the runtime filters, keyed by the
+ * build column and the probe column of the join condition and the predicates of the build side, so the planner
+ * decides whether to build a global runtime filter and whether a probe node uses it by what the filter did in the
+ * previous queries, instead of the estimated cardinality. The build rows of a join depend on the predicates of its
+ * build side, e.g. the rows of the items of a category, so the feedback of a join is not applied to the joins on the
+ * same columns with other predicates on the build side.
+ * The feedback is kept in memory of every FE and expires after {@link Config#runtime_filter_feedback_expire_seconds},
+ * so a filter dropped by its feedback is tried again after the data changes.
+ */
+public class RuntimeFilterFeedbackMgr {
+    private static final RuntimeFilterFeedbackMgr INSTANCE = new RuntimeFilterFeedbackMgr();
+
+    private final Cache<String, Feedback> feedbacks = Caffeine.newBuilder()
+            .maximumSize(Config.runtime_filter_feedback_max_entries)
+            .expireAfterWrite(Config.runtime_filter_feedback_expire_seconds, TimeUnit.SECONDS)
+            .build();
+
+    public static RuntimeFilterFeedbackMgr getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns null if any of the exprs is not a column of a table, e.g. an expression or an output of aggregation.
+     */
+    public static String getSignature(Expr buildExpr, Expr probeExpr, PlanNode buildSide) {
+        String buildColumn = getColumnName(buildExpr);
+        String probeColumn = getColumnName(probeExpr);
+        if (buildColumn == null || probeColumn == null) {
+            return null;
+        }
+        return buildColumn + "->" + probeColumn + "@" + getBuildPredicateDigest(buildSide);
+    }
+
+    // the digest of the conjuncts of all the nodes of the build side and the partitions selected by its scans
+    private static String getBuildPredicateDigest(PlanNode buildSide) {
+        List<String> predicates = Lists.newArrayList();
+        collectBuildPredicates(buildSide, predicates);
+        Collections.sort(predicates);
+        return Hashing.murmur3_128().hashString(String.join("\n", predicates), StandardCharsets.UTF_8).toString();
+    }
+
+    private static void collectBuildPredicates(PlanNode node, List<String> predicates) {
+        for (Expr conjunct : node.getConjuncts()) {
+            predicates.add(conjunct.toSql());
+        }
+        // the predicates on the partition columns are removed from the conjuncts once they are used to prune
+        if (node instanceof OlapScanNode) {
+            OlapScanNode scanNode = (OlapScanNode) node;
+            predicates.add(scanNode.getOlapTable().getId() + " partitions " + scanNode.getSelectedPartitionIds());
+        }
+        for (PlanNode child : node.getChildren()) {
+            collectBuildPredicates(child, predicates);
+        }
+    }
+
+    private static String getColumnName(Expr expr) {
+        if (!(expr instanceof SlotRef)) {
+            return null;
+        }
+        SlotDescriptor slot = ((SlotRef) expr).getDesc();
+        if (slot == null || slot.getColumn() == null || slot.getParent() == null) {
+            return null;
+        }
+        Table table = slot.getParent().getTable();
+        Column column = slot.getColumn();
+        return table == null ? null : table.getId() + "." + column.getName();
+    }
+
+    /**
+     * Returns null if there is no feedback of the join condition.
+     */
+    public Feedback getFeedback(Expr buildExpr, Expr probeExpr, PlanNode buildSide) {
+        String signature = getSignature(buildExpr, probeExpr, buildSide);
+        return signature == null ? null : feedbacks.getIfPresent(signature);
+    }
+
+    public void recordFeedback(Map<String, Feedback> observations) {
+        for (Map.Entry<String, Feedback> entry : observations.entrySet()) {
+            feedbacks.asMap().merge(entry.getKey(), entry.getValue(), Feedback::merge);
+        }
+    }
+
+    public long getFeedbackCount() {
+        return feedbacks.estimatedSize();
+    }
+
+    public void clear() {
+        feedbacks.invalidateAll();
+    }
+
+    public static class Feedback {
+        // an observation weighs at least this much, so the feedback follows the change of data
+        private static final double MIN_OBSERVATION_WEIGHT = 0.3;
+
+        // rows of the build side of the join
+        private final double buildRows;
+        // ratio of the probe rows eliminated by the runtime filter, -1 if the filter is not built or probed
+        private final double filterRatio;
+        private final int samples;
+
+        public Feedback(double buildRows, double filterRatio, int samples) {
+            this.buildRows = buildRows;
+            this.filterRatio = filterRatio < 0 ? -1 : Math.min(1, filterRatio);
+            this.samples = samples;
+        }
+
+        public double getBuildRows() {
+            return buildRows;
+        }
+
+        public double getFilterRatio() {
+            return filterRatio;
+        }
+
+        public int getSamples() {
+            return samples;
+        }
+
+        public Feedback merge(Feedback observation) {
+            double weight = Math.max(1.0 / (samples + 1), MIN_OBSERVATION_WEIGHT);
+            double mergedBuildRows = (1 - weight) * buildRows + weight * observation.buildRows;
+            double mergedFilterRatio;
+            if (filterRatio < 0 || observation.filterRatio < 0) {
+                mergedFilterRatio = Math.max(filterRatio, observation.filterRatio);
+            } else {
+                mergedFilterRatio = (1 - weight) * filterRatio + weight * observation.filterRatio;
+            }
+            return new Feedback(mergedBuildRows, mergedFilterRatio, samples == Integer.MAX_VALUE ? samples : samples + 1);
+        }
+    }
+}
@@ -17,10 +17,13 @@ package com.starrocks.qe.scheduler;
 import com.google.api.client.util.Sets;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.starrocks.common.Config;
 import com.starrocks.common.Status;
 import com.starrocks.common.UserException;
 import com.starrocks.common.profile.Timer;
 import com.starrocks.common.profile.Tracers;
+import com.starrocks.planner.ExportSink;
+import com.starrocks.planner.MultiCastPlanFragment;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.scheduler.dag.ExecutionDAG;
 import com.starrocks.qe.scheduler.dag.ExecutionFragment;
@@ -36,6 +39,7 @@ import com.starrocks.thrift.TQueryOptions;
 import com.starrocks.thrift.TStatusCode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.thrift.TException;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -139,6 +143,11 @@ public class Deployer {
         // if pipeline is enable and current fragment contain olap table sink, in fe we will
         // calculate the number of all tablet sinks in advance and assign them to each fragment instance
         boolean enablePipelineTableSinkDop = isEnablePipeline && fragment.getPlanFragment().hasTableSink();
+        // The fragment of a load job has the transaction in its sink, and the fragment of a multi-cast fragment or an
+        // export sink is changed for each instance, so they are never the same between jobs.
+        boolean enableFragmentTemplate = Config.enable_fragment_template && isEnablePipeline && !jobSpec.isLoadType() &&
+                !(fragment.getPlanFragment() instanceof MultiCastPlanFragment) &&
+                !(fragment.getPlanFragment().getSink() instanceof ExportSink);
 
         List<List<FragmentInstance>> threeStageInstancesToDeploy = ImmutableList.of(
                 new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
@@ -178,6 +187,10 @@ public class Deployer {
                 "tableSinkTotalDop = %d should be >= 0", totalTableSinkDop);
 
         int accTabletSinkDop = 0;
+        // The instances of the fragment have the same plan fragment and the same descriptor table in a stage, so the
+        // template key is computed by the first instance of them, instead of serializing them for every instance.
+        String fragmentTemplateKey = null;
+        TDescriptorTable fragmentTemplateDescTable = null;
         for (int stageIndex = 0; stageIndex < threeStageInstancesToDeploy.size(); stageIndex++) {
             List<FragmentInstance> stageInstances = threeStageInstancesToDeploy.get(stageIndex);
             if (stageInstances.isEmpty()) {
@@ -205,6 +218,14 @@ public class Deployer {
                         request,
                         instance.getWorker());
                 execution.setFragmentInstance(instance);
+                if (enableFragmentTemplate && (fragmentTemplateKey == null || fragmentTemplateDescTable != curDescTable)) {
+                    fragmentTemplateKey = computeFragmentTemplateKey(request, instance);
+                    fragmentTemplateDescTable = curDescTable;
+                    enableFragmentTemplate = fragmentTemplateKey != null;
+                }
+                if (enableFragmentTemplate) {
+                    execution.setFragmentTemplateKey(fragmentTemplateKey);
+                }
 
                 threeStageExecutionsToDeploy.get(stageIndex).add(execution);
 
@@ -222,6 +243,15 @@ public class Deployer {
         }
     }
 
+    private static String computeFragmentTemplateKey(TExecPlanFragmentParams request, FragmentInstance instance) {
+        try {
+            return FragmentTemplateRegistry.computeKey(request.getFragment(), request.getDesc_tbl());
+        } catch (TException e) {
+            LOG.warn("failed to compute the fragment template key, fragmentId={}", instance.getFragmentId(), e);
+            return null;
+        }
+    }
+
     private void waitForDeploymentCompletion(List<FragmentInstanceExecState> executions) throws RpcException, UserException {
         if (executions.isEmpty()) {
             return;
@@ -0,0 +1,78 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.starrocks.common.Config;
+import com.starrocks.rpc.ConfigurableSerDesFactory;
+import com.starrocks.thrift.TDescriptorTable;
+import com.starrocks.thrift.TPlanFragment;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the fragment templates cached by each worker.
+ * A fragment template is the plan fragment and the descriptor table of a fragment instance request, keyed by the
+ * hash of their content, so the repeated queries of the same plan have the same template.
+ * The request is sent with the whole template and the key for the first time, and the worker tells whether it
+ * has cached the template. Then the following requests leave the template out and only have the key and the
+ * per-instance params. If the worker has evicted the template or restarted, it fails the request with
+ * FRAGMENT_TEMPLATE_NOT_FOUND, and the request is sent again with the whole template.
+ */
+public class FragmentTemplateRegistry {
+    private static final FragmentTemplateRegistry INSTANCE = new FragmentTemplateRegistry();
+
+    // worker id -> keys of the templates cached by the worker
+    private final Map<Long, Cache<String, Boolean>> workerTemplates = new ConcurrentHashMap<>();
+
+    public static FragmentTemplateRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public static String computeKey(TPlanFragment fragment, TDescriptorTable descTable) throws TException {
+        TSerializer serializer = ConfigurableSerDesFactory.getTSerializer();
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putBytes(serializer.serialize(fragment));
+        if (descTable != null) {
+            hasher.putBytes(serializer.serialize(descTable));
+        }
+        return hasher.hash().toString();
+    }
+
+    public boolean contains(long workerId, String key) {
+        Cache<String, Boolean> templates = workerTemplates.get(workerId);
+        return templates != null && templates.getIfPresent(key) != null;
+    }
+
+    public void add(long workerId, String key) {
+        workerTemplates.computeIfAbsent(workerId, k -> Caffeine.newBuilder()
+                        .maximumSize(Config.fragment_template_max_num_per_backend)
+                        .build())
+                .put(key, true);
+    }
+
+    public void remove(long workerId, String key) {
+        Cache<String, Boolean> templates = workerTemplates.get(workerId);
+        if (templates != null) {
+            templates.invalidate(key);
+        }
+    }
+}
@@ -91,7 +91,12 @@ public class BackendSelectorFactory {
                         colocatedAssignment, isRightOrFullBucketShuffleFragment, workerProvider,
                         sessionVariable.getMaxBucketsPerBeToUseBalancerAssignment());
             } else {
-                return new NormalBackendSelector(scanNode, locations, assignment, workerProvider, isLoadType);
+                ScanReplicaAffinity replicaAffinity = null;
+                if (!isLoadType && scanNode instanceof OlapScanNode && sessionVariable.isEnableScanReplicaAffinity()) {
+                    replicaAffinity = ScanReplicaAffinity.getInstance();
+                }
+                return new NormalBackendSelector(scanNode, locations, assignment, workerProvider, isLoadType,
+                        replicaAffinity);
             }
         }
     }
@@ -0,0 +1,107 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler.assignment;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.starrocks.common.Config;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the backend that recently scanned each (tablet, version), so the concurrent queries scanning the same
+ * tablet, e.g. the panels of a dashboard, read it from the same replica. The pages of the tablet are then read
+ * from disk and decompressed once, and the other queries hit the page cache of that backend, instead of every
+ * replica reading the same data for a different query.
+ * Every query still has its own scan of the tablet with its own predicates and columns. The first query chooses
+ * the replica by the load of its own assignment as usual, so the tablets of a table are still spread over the
+ * backends. An entry expires {@link Config#scan_replica_affinity_expire_ms} after the backend is chosen, even if
+ * the tablet is still scanned by the following queries, so a hot tablet is not pinned to one backend forever and
+ * the next query chooses the replica by its load again. A new version of the tablet is a new key.
+ */
+public class ScanReplicaAffinity {
+    private static final ScanReplicaAffinity INSTANCE = new ScanReplicaAffinity();
+
+    private final Cache<Key, Long> cache;
+
+    private ScanReplicaAffinity() {
+        this(Ticker.systemTicker());
+    }
+
+    ScanReplicaAffinity(Ticker ticker) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(Config.scan_replica_affinity_max_tablets)
+                .expireAfterWrite(Config.scan_replica_affinity_expire_ms, TimeUnit.MILLISECONDS)
+                .ticker(ticker)
+                .build();
+    }
+
+    public static ScanReplicaAffinity getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the backend that recently scanned the tablet at the version, or -1 if there is none.
+     */
+    public long getBackend(long tabletId, String version) {
+        Long backendId = cache.getIfPresent(new Key(tabletId, version));
+        return backendId == null ? -1 : backendId;
+    }
+
+    /**
+     * Records the backend chosen for the tablet at the version, which restarts the expiration of the entry. So it
+     * must only be called when the backend is chosen by load, not when the recorded backend is followed.
+     */
+    public void recordBackend(long tabletId, String version, long backendId) {
+        cache.put(new Key(tabletId, version), backendId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static class Key {
+        private final long tabletId;
+        private final String version;
+
+        Key(long tabletId, String version) {
+            this.tabletId = tabletId;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return tabletId == key.tabletId && Objects.equals(version, key.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tabletId, version);
+        }
+    }
+}
@@ -25,12 +25,15 @@ import com.starrocks.proto.PPlanFragmentCancelReason;
 import com.starrocks.proto.StatusPB;
 import com.starrocks.qe.QueryStatisticsItem;
 import com.starrocks.qe.SimpleScheduler;
+import com.starrocks.qe.scheduler.FragmentTemplateRegistry;
 import com.starrocks.rpc.AttachmentRequest;
 import com.starrocks.rpc.BackendServiceClient;
 import com.starrocks.rpc.RpcException;
 import com.starrocks.system.ComputeNode;
+import com.starrocks.thrift.TDescriptorTable;
 import com.starrocks.thrift.TExecPlanFragmentParams;
 import com.starrocks.thrift.TNetworkAddress;
+import com.starrocks.thrift.TPlanFragment;
 import com.starrocks.thrift.TPlanFragmentDestination;
 import com.starrocks.thrift.TReportExecStatusParams;
 import com.starrocks.thrift.TStatusCode;
@@ -88,6 +91,17 @@ public class FragmentInstanceExecState {
     private byte[] serializedRequest;
     private Future<PExecPlanFragmentResult> deployFuture = null;
 
+    /**
+     * The key to deploy the fragment and the descriptor table of the request as a fragment template, null if the
+     * template is disabled, see {@link FragmentTemplateRegistry}. The key is computed once for all the instances of
+     * the fragment by the {@link com.starrocks.qe.scheduler.Deployer}. If the worker has cached the template, they are
+     * left out of the request and kept here, in case the worker misses the template and the whole request has to be
+     * sent again.
+     */
+    private String fragmentTemplateKey;
+    private TPlanFragment templateFragment;
+    private TDescriptorTable templateDescTable;
+
     private final int fragmentIndex;
     private final RuntimeProfile profile;
 
@@ -161,10 +175,14 @@ public class FragmentInstanceExecState {
     }
 
     public void serializeRequest() {
+        prepareFragmentTemplate();
         try {
             TSerializer serializer = AttachmentRequest.getSerializer(jobSpec.getPlanProtocol());
             serializedRequest = serializer.serialize(requestToDeploy);
-            requestToDeploy = null;
+            // keep the request without the template, which is sent again if the worker misses the template
+            if (templateFragment == null) {
+                requestToDeploy = null;
+            }
         } catch (TException ignore) {
             // throw exception means serializedRequest will be empty, and then we will treat it as not serialized
         }
@@ -176,7 +194,38 @@ public class FragmentInstanceExecState {
      */
     public void deployAsync() {
         transitionState(State.DEPLOYING);
+        prepareFragmentTemplate();
+        sendRequest();
+    }
 
+    private void prepareFragmentTemplate() {
+        if (fragmentTemplateKey == null || requestToDeploy == null || !requestToDeploy.isSetFragment() ||
+                requestToDeploy.isSetFragment_template_key()) {
+            return;
+        }
+        requestToDeploy.setFragment_template_key(fragmentTemplateKey);
+        if (FragmentTemplateRegistry.getInstance().contains(worker.getId(), fragmentTemplateKey)) {
+            templateFragment = requestToDeploy.getFragment();
+            templateDescTable = requestToDeploy.getDesc_tbl();
+            requestToDeploy.unsetFragment();
+            requestToDeploy.unsetDesc_tbl();
+        }
+    }
+
+    /**
+     * Send the whole request again, after the worker misses the fragment template of the request.
+     */
+    private void resendWithFragmentTemplate() {
+        FragmentTemplateRegistry.getInstance().remove(worker.getId(), fragmentTemplateKey);
+        requestToDeploy.setFragment(templateFragment);
+        requestToDeploy.setDesc_tbl(templateDescTable);
+        templateFragment = null;
+        templateDescTable = null;
+        serializedRequest = null;
+        sendRequest();
+    }
+
+    private void sendRequest() {
         TNetworkAddress brpcAddress = worker.getBrpcAddress();
         try {
             // when `set enable_plan_serialize_concurrently = false` or encountered exception when serializing.
@@ -272,6 +321,17 @@ public class FragmentInstanceExecState {
         try {
             PExecPlanFragmentResult result = deployFuture.get(deployTimeoutMs, TimeUnit.MILLISECONDS);
             code = TStatusCode.findByValue(result.status.statusCode);
+            if (code == TStatusCode.FRAGMENT_TEMPLATE_NOT_FOUND && templateFragment != null) {
+                LOG.info("worker misses the fragment template {}, resend the whole request, fragmentId={}, " +
+                        "backend={}:{}", fragmentTemplateKey, fragmentId, address.hostname, address.port);
+                resendWithFragmentTemplate();
+                result = deployFuture.get(deployTimeoutMs, TimeUnit.MILLISECONDS);
+                code = TStatusCode.findByValue(result.status.statusCode);
+            }
+            if (code == TStatusCode.OK && fragmentTemplateKey != null &&
+                    Boolean.TRUE.equals(result.fragmentTemplateCached)) {
+                FragmentTemplateRegistry.getInstance().add(worker.getId(), fragmentTemplateKey);
+            }
             if (!CollectionUtils.isEmpty(result.status.errorMsgs)) {
                 errMsg = result.status.errorMsgs.get(0);
             }
@@ -306,6 +366,7 @@ public class FragmentInstanceExecState {
 
         requestToDeploy = null;
         deployFuture = null;
+        resetFragmentTemplate();
         return new DeploymentResult(code, errMsg, failure);
     }
 
@@ -452,7 +513,7 @@ public class FragmentInstanceExecState {
         if (!requestToDeploy.getParams().getDestinations().isEmpty()) {
             return requestToDeploy.getParams().getDestinations();
         }
-        if (requestToDeploy.getFragment().isSetOutput_sink() &&
+        if (requestToDeploy.isSetFragment() && requestToDeploy.getFragment().isSetOutput_sink() &&
                 requestToDeploy.getFragment().getOutput_sink().isSetMulti_cast_stream_sink()) {
             return requestToDeploy.getFragment().getOutput_sink().getMulti_cast_stream_sink()
                     .getDestinations().stream()
@@ -504,5 +565,16 @@ public class FragmentInstanceExecState {
 
     public void setRequestToDeploy(TExecPlanFragmentParams requestToDeploy) {
         this.requestToDeploy = requestToDeploy;
+        resetFragmentTemplate();
+    }
+
+    public void setFragmentTemplateKey(String fragmentTemplateKey) {
+        this.fragmentTemplateKey = fragmentTemplateKey;
+    }
+
+    private void resetFragmentTemplate() {
+        fragmentTemplateKey = null;
+        templateFragment = null;
+        templateDescTable = null;
     }
 }
@@ -188,6 +188,7 @@ import com.starrocks.qe.QueryStatisticsInfo;
 import com.starrocks.qe.SessionVariable;
 import com.starrocks.qe.ShowExecutor;
 import com.starrocks.qe.VariableMgr;
+import com.starrocks.qe.feedback.CardinalityFeedbackMgr;
 import com.starrocks.qe.scheduler.slot.GlobalSlotProvider;
 import com.starrocks.qe.scheduler.slot.LocalSlotProvider;
 import com.starrocks.qe.scheduler.slot.ResourceUsageMonitor;
@@ -470,6 +471,7 @@ public class GlobalStateMgr {
     private final ReplicationMgr replicationMgr;
 
     private final KeyMgr keyMgr;
+    private final CardinalityFeedbackMgr cardinalityFeedbackMgr;
     private final KeyRotationDaemon keyRotationDaemon;
 
     private LockManager lockManager;
@@ -777,6 +779,7 @@ public class GlobalStateMgr {
 
         this.keyMgr = new KeyMgr();
         this.keyRotationDaemon = new KeyRotationDaemon(keyMgr);
+        this.cardinalityFeedbackMgr = new CardinalityFeedbackMgr();
 
         this.variableMgr = new VariableMgr();
 
@@ -999,6 +1002,10 @@ public class GlobalStateMgr {
         return keyMgr;
     }
 
+    public CardinalityFeedbackMgr getCardinalityFeedbackMgr() {
+        return cardinalityFeedbackMgr;
+    }
+
     public LockManager getLockManager() {
         return lockManager;
     }
@@ -1406,6 +1413,8 @@ public class GlobalStateMgr {
         temporaryTableCleaner.start();
 
         connectorTableTriggerAnalyzeMgr.start();
+
+        cardinalityFeedbackMgr.start();
     }
 
     // start threads that should run on all FE
@@ -1520,6 +1529,7 @@ public class GlobalStateMgr {
                     .put(SRMetaBlockID.REPLICATION_MGR, replicationMgr::load)
                     .put(SRMetaBlockID.KEY_MGR, keyMgr::load)
                     .put(SRMetaBlockID.PIPE_MGR, pipeManager.getRepo()::load)
+                    .put(SRMetaBlockID.CARDINALITY_FEEDBACK_MGR, cardinalityFeedbackMgr::load)
                     .build();
 
         Set<SRMetaBlockID> metaMgrMustExists = new HashSet<>(loadImages.keySet());
@@ -1719,6 +1729,7 @@ public class GlobalStateMgr {
                 replicationMgr.save(imageWriter);
                 keyMgr.save(imageWriter);
                 pipeManager.getRepo().save(imageWriter);
+                cardinalityFeedbackMgr.save(imageWriter);
             } catch (SRMetaBlockException e) {
                 LOG.error("Save meta block failed ", e);
                 throw new IOException("Save meta block failed ", e);
@@ -0,0 +1,66 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.starrocks.authentication.AuthenticationMgr;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.ast.UserIdentity;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.auth2.BasicCallHeaderAuthenticator;
+import org.apache.arrow.flight.auth2.CallHeaderAuthenticator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Validates the user and password of the basic authentication of a flight client by the users of StarRocks. After
+ * the handshake, the client calls with the bearer token generated by the server, whose peer identity is the user.
+ */
+public class ArrowFlightSqlAuthenticator implements BasicCallHeaderAuthenticator.CredentialValidator {
+    private static final Logger LOG = LogManager.getLogger(ArrowFlightSqlAuthenticator.class);
+
+    // The remote address of the client is not passed to the authenticator by flight, so the users are checked as
+    // they connect from an unknown host, only the users whose host is '%' can log in.
+    private static final String UNKNOWN_REMOTE_IP = "0.0.0.0";
+
+    // peer identity -> user identity of the authenticated users
+    private final ConcurrentMap<String, UserIdentity> users = new ConcurrentHashMap<>();
+
+    @Override
+    public CallHeaderAuthenticator.AuthResult validate(String username, String password) {
+        AuthenticationMgr authenticationMgr = GlobalStateMgr.getCurrentState().getAuthenticationMgr();
+        UserIdentity currentUser = authenticationMgr.checkPlainPassword(username, UNKNOWN_REMOTE_IP, password);
+        if (currentUser == null) {
+            LOG.warn("arrow flight sql access denied for {}", username);
+            throw CallStatus.UNAUTHENTICATED.withDescription("Access denied for " + username).toRuntimeException();
+        }
+        users.put(username, currentUser);
+        return () -> username;
+    }
+
+    public UserIdentity getUserIdentity(String peerIdentity) {
+        UserIdentity userIdentity = users.get(peerIdentity);
+        if (userIdentity == null) {
+            throw CallStatus.UNAUTHENTICATED.withDescription("Unknown user " + peerIdentity).toRuntimeException();
+        }
+        return userIdentity;
+    }
+
+    public static String getRemoteIp() {
+        return UNKNOWN_REMOTE_IP;
+    }
+}
@@ -0,0 +1,148 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.starrocks.common.util.ArrowUtil;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.RowBatch;
+import com.starrocks.qe.StmtExecutor;
+import com.starrocks.qe.scheduler.Coordinator;
+import com.starrocks.sql.ast.StatementBase;
+import com.starrocks.thrift.TResultBatch;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The context of one query of arrow flight sql. BE produces the result as arrow ipc messages, the messages are
+ * queued by the thread executing the query and taken by the flight stream of the client, the bounded queue slows
+ * down fetching the result from BE if the client is slow.
+ */
+public class ArrowFlightSqlConnectContext extends ConnectContext {
+    private static final Logger LOG = LogManager.getLogger(ArrowFlightSqlConnectContext.class);
+
+    // marks the end of the result, the query is finished or failed
+    private static final ByteBuffer END_OF_RESULT = ByteBuffer.allocate(0);
+    private static final int MAX_QUEUED_MESSAGES = 16;
+    private static final long OFFER_INTERVAL_MS = 100;
+
+    // the query is parsed before it is executed, to check that it is a query statement
+    private final StatementBase statement;
+    private final BlockingQueue<ByteBuffer> messages = new ArrayBlockingQueue<>(MAX_QUEUED_MESSAGES);
+    // set if the client doesn't read the result anymore
+    private volatile boolean resultClosed = false;
+    // read from the first message of the result
+    private Schema resultSchema;
+
+    public ArrowFlightSqlConnectContext(StatementBase statement) {
+        super();
+        this.statement = statement;
+    }
+
+    public StatementBase getStatement() {
+        return statement;
+    }
+
+    public Schema getResultSchema() {
+        return resultSchema;
+    }
+
+    public void setResultSchema(Schema resultSchema) {
+        this.resultSchema = resultSchema;
+    }
+
+    // Every batch from BE is [schema message, record batch message] or only the schema message if BE has no row,
+    // queue the schema message only once, so that the messages are a single arrow ipc stream.
+    public RowBatch sendQueryResult(Coordinator coord) throws Exception {
+        RowBatch batch;
+        boolean schemaSent = false;
+        while (true) {
+            batch = coord.getNext();
+            TResultBatch resultBatch = batch.getBatch();
+            if (resultBatch != null) {
+                for (int i = schemaSent ? 1 : 0; i < resultBatch.getRowsSize(); i++) {
+                    ByteBuffer message = resultBatch.getRows().get(i);
+                    if (i > 0) {
+                        updateReturnRows((int) ArrowUtil.getRowCount(message));
+                    }
+                    if (!offer(message)) {
+                        coord.cancel("arrow flight sql result is closed by the client");
+                        return batch;
+                    }
+                }
+                schemaSent |= resultBatch.getRowsSize() > 0;
+            }
+            if (batch.isEos()) {
+                break;
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Called by the thread executing the query when the query is finished or failed.
+     */
+    public void finishResult() throws InterruptedException {
+        offer(END_OF_RESULT);
+    }
+
+    /**
+     * @return the next message, or null at the end of the result
+     * @throws TimeoutException if no message comes in the timeout
+     */
+    public ByteBuffer takeMessage(long timeoutMs) throws InterruptedException, TimeoutException {
+        ByteBuffer message = messages.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (message == null) {
+            throw new TimeoutException("wait for the result of query " + getQueryId() + " timeout");
+        }
+        return message == END_OF_RESULT ? null : message;
+    }
+
+    /**
+     * Called when the client doesn't read the result anymore, the query is cancelled if it is still running.
+     */
+    public void closeResult() {
+        resultClosed = true;
+        messages.clear();
+    }
+
+    private boolean offer(ByteBuffer message) throws InterruptedException {
+        while (!resultClosed) {
+            if (messages.offer(message, OFFER_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void kill(boolean killConnection, String cancelledMessage) {
+        LOG.warn("kill arrow flight sql query {}, kill connection: {}", getQueryId(), killConnection);
+        if (killConnection) {
+            isKilled = true;
+            closeResult();
+        }
+        StmtExecutor executorRef = executor;
+        if (executorRef != null) {
+            executorRef.cancel(cancelledMessage);
+        }
+    }
+}
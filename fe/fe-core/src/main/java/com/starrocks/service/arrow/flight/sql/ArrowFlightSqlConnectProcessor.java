@@ -0,0 +1,95 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.starrocks.common.UserException;
+import com.starrocks.common.profile.Tracers;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.mysql.MysqlCommand;
+import com.starrocks.qe.ConnectProcessor;
+import com.starrocks.qe.QueryState;
+import com.starrocks.qe.StmtExecutor;
+import com.starrocks.sql.ast.StatementBase;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// inherit ConnectProcessor to record the audit log and Query Detail, like HttpConnectProcessor
+public class ArrowFlightSqlConnectProcessor extends ConnectProcessor {
+    private static final Logger LOG = LogManager.getLogger(ArrowFlightSqlConnectProcessor.class);
+
+    public ArrowFlightSqlConnectProcessor(ArrowFlightSqlConnectContext context) {
+        super(context);
+    }
+
+    @Override
+    protected void handleQuery() {
+        MetricRepo.COUNTER_REQUEST_ALL.increase(1L);
+        ctx.getAuditEventBuilder().reset();
+        ctx.getAuditEventBuilder()
+                .setTimestamp(System.currentTimeMillis())
+                .setClientIp(ctx.getRemoteIP())
+                .setUser(ctx.getQualifiedUser())
+                .setAuthorizedUser(
+                        ctx.getCurrentUserIdentity() == null ? "null" : ctx.getCurrentUserIdentity().toString())
+                .setDb(ctx.getDatabase())
+                .setCatalog(ctx.getCurrentCatalog());
+        Tracers.register(ctx);
+        Tracers.init(ctx, Tracers.Mode.TIMER, null);
+
+        StatementBase parsedStmt = ((ArrowFlightSqlConnectContext) ctx).getStatement();
+        String sql = parsedStmt.getOrigStmt().originStmt;
+
+        executor = new StmtExecutor(ctx, parsedStmt);
+        ctx.setExecutor(executor);
+        ctx.setIsLastStmt(true);
+
+        try {
+            if (executor.isForwardToLeader()) {
+                // the client can't be redirected to the leader in the middle of a flight
+                ctx.getState().setError("non-leader FE can not read, please connect to the leader FE");
+                ctx.getState().setErrType(QueryState.ErrType.ANALYSIS_ERR);
+            } else {
+                executor.addRunningQueryDetail(parsedStmt);
+                executor.execute();
+            }
+        } catch (UserException e) {
+            LOG.warn("Process one query failed. SQL: " + sql + ", because.", e);
+            ctx.getState().setError(e.getMessage());
+            ctx.getState().setErrType(QueryState.ErrType.ANALYSIS_ERR);
+        } catch (Throwable e) {
+            LOG.warn("Process one query failed. SQL: " + sql + ", because unknown reason: ", e);
+            ctx.getState().setError("Unexpected exception: " + e.getMessage());
+            ctx.getState().setErrType(QueryState.ErrType.INTERNAL_ERR);
+        } finally {
+            Tracers.close();
+        }
+
+        auditAfterExec(sql, executor.getParsedStmt(), executor.getQueryStatisticsForAuditLog());
+        executor.addFinishedQueryDetail();
+    }
+
+    @Override
+    public void processOnce() {
+        ctx.getState().reset();
+        executor = null;
+
+        ctx.setCommand(MysqlCommand.COM_QUERY);
+        ctx.setStartTime();
+        ctx.setResourceGroup(null);
+        ctx.resetErrorCode();
+        handleQuery();
+        ctx.setCommand(MysqlCommand.COM_SLEEP);
+    }
+}
@@ -0,0 +1,69 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import org.apache.arrow.flight.FlightServer;
+import org.apache.arrow.flight.Location;
+import org.apache.arrow.flight.auth2.BasicCallHeaderAuthenticator;
+import org.apache.arrow.flight.auth2.GeneratedBearerTokenAuthenticator;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+
+// Arrow Flight SQL service, the query results are sent to the client as arrow record batches.
+public class ArrowFlightSqlService {
+    private static final Logger LOG = LogManager.getLogger(ArrowFlightSqlService.class);
+
+    private final int port;
+    private BufferAllocator allocator;
+    private ArrowFlightSqlServiceImpl producer;
+    private FlightServer flightServer;
+
+    public ArrowFlightSqlService(int port) {
+        this.port = port;
+    }
+
+    public void start() throws IOException {
+        if (port <= 0) {
+            LOG.info("arrow flight sql service is disabled, arrow_flight_port: {}", port);
+            return;
+        }
+        allocator = new RootAllocator();
+        ArrowFlightSqlAuthenticator authenticator = new ArrowFlightSqlAuthenticator();
+        producer = new ArrowFlightSqlServiceImpl(allocator, authenticator);
+        flightServer = FlightServer.builder(allocator, Location.forGrpcInsecure("0.0.0.0", port), producer)
+                .headerAuthenticator(new GeneratedBearerTokenAuthenticator(
+                        new BasicCallHeaderAuthenticator(authenticator)))
+                .build();
+        flightServer.start();
+        LOG.info("arrow flight sql service start, port: {}", port);
+    }
+
+    public void stop() {
+        if (flightServer == null) {
+            return;
+        }
+        try {
+            flightServer.close();
+            producer.close();
+            allocator.close();
+        } catch (Exception e) {
+            LOG.warn("stop arrow flight sql service failed", e);
+        }
+    }
+}
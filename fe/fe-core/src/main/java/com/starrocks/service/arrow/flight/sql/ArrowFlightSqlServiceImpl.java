@@ -0,0 +1,272 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.common.util.ArrowUtil;
+import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.ConnectScheduler;
+import com.starrocks.qe.OriginStatement;
+import com.starrocks.qe.QueryState;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.service.ExecuteEnv;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.StatementBase;
+import com.starrocks.sql.ast.UserIdentity;
+import com.starrocks.sql.parser.SqlParser;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightDescriptor;
+import org.apache.arrow.flight.FlightEndpoint;
+import org.apache.arrow.flight.FlightInfo;
+import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.flight.Result;
+import org.apache.arrow.flight.Ticket;
+import org.apache.arrow.flight.sql.NoOpFlightSqlProducer;
+import org.apache.arrow.flight.sql.impl.FlightSql;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorLoader;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The flight sql producer of FE. A query is planned and executed by {@link com.starrocks.qe.StmtExecutor} like the
+ * queries of the mysql and http protocols, BE converts the result to arrow record batches.
+ * 1. GetFlightInfo parses the query, starts executing it on a thread of the pool, and waits for the schema of the
+ * result, which is the first message of the result. The flight info has one endpoint, whose ticket is the handle of
+ * the query on this FE.
+ * 2. DoGet of the ticket streams the record batches of the result, as they are fetched from BE.
+ * A prepared statement is only the handle of the query text, it is executed like a statement.
+ */
+public class ArrowFlightSqlServiceImpl extends NoOpFlightSqlProducer {
+    private static final Logger LOG = LogManager.getLogger(ArrowFlightSqlServiceImpl.class);
+
+    private final BufferAllocator allocator;
+    private final ArrowFlightSqlAuthenticator authenticator;
+    private final ExecutorService executor = ThreadPoolManager.newDaemonCacheThreadPool(
+            Config.max_arrow_flight_sql_task_threads_num, "starrocks-arrow-flight-sql-pool", true);
+
+    // query handle -> the executed query whose result is not fetched yet
+    private final Cache<String, ArrowFlightSqlConnectContext> queries = CacheBuilder.newBuilder()
+            .expireAfterWrite(Config.arrow_flight_sql_result_expire_seconds, TimeUnit.SECONDS)
+            .removalListener(notification -> {
+                if (notification.getCause() != RemovalCause.EXPLICIT) {
+                    ArrowFlightSqlConnectContext context = (ArrowFlightSqlConnectContext) notification.getValue();
+                    context.kill(true, "the result of arrow flight sql query is not fetched");
+                }
+            })
+            .build();
+    // prepared statement handle -> query
+    private final Cache<String, String> preparedStatements = CacheBuilder.newBuilder()
+            .expireAfterAccess(Config.arrow_flight_sql_result_expire_seconds, TimeUnit.SECONDS)
+            .build();
+
+    public ArrowFlightSqlServiceImpl(BufferAllocator allocator, ArrowFlightSqlAuthenticator authenticator) {
+        this.allocator = allocator;
+        this.authenticator = authenticator;
+    }
+
+    @Override
+    public FlightInfo getFlightInfoStatement(FlightSql.CommandStatementQuery command, CallContext callContext,
+                                             FlightDescriptor descriptor) {
+        return executeQuery(command.getQuery(), callContext, descriptor);
+    }
+
+    @Override
+    public FlightInfo getFlightInfoPreparedStatement(FlightSql.CommandPreparedStatementQuery command,
+                                                     CallContext callContext, FlightDescriptor descriptor) {
+        String handle = command.getPreparedStatementHandle().toStringUtf8();
+        String query = preparedStatements.getIfPresent(handle);
+        if (query == null) {
+            throw CallStatus.NOT_FOUND.withDescription("Unknown prepared statement " + handle).toRuntimeException();
+        }
+        return executeQuery(query, callContext, descriptor);
+    }
+
+    @Override
+    public void createPreparedStatement(FlightSql.ActionCreatePreparedStatementRequest request,
+                                        CallContext callContext, StreamListener<Result> listener) {
+        String handle = UUIDUtil.genUUID().toString();
+        preparedStatements.put(handle, request.getQuery());
+        FlightSql.ActionCreatePreparedStatementResult result = FlightSql.ActionCreatePreparedStatementResult.newBuilder()
+                .setPreparedStatementHandle(ByteString.copyFromUtf8(handle))
+                .build();
+        listener.onNext(new Result(Any.pack(result).toByteArray()));
+        listener.onCompleted();
+    }
+
+    @Override
+    public void closePreparedStatement(FlightSql.ActionClosePreparedStatementRequest request,
+                                       CallContext callContext, StreamListener<Result> listener) {
+        preparedStatements.invalidate(request.getPreparedStatementHandle().toStringUtf8());
+        listener.onCompleted();
+    }
+
+    @Override
+    public void getStreamStatement(FlightSql.TicketStatementQuery ticket, CallContext callContext,
+                                   ServerStreamListener listener) {
+        String handle = ticket.getStatementHandle().toStringUtf8();
+        ArrowFlightSqlConnectContext context = queries.asMap().remove(handle);
+        if (context == null) {
+            listener.error(CallStatus.NOT_FOUND.withDescription("Unknown query " + handle).toRuntimeException());
+            return;
+        }
+        listener.setOnCancelHandler(() -> context.kill(true, "arrow flight sql stream is cancelled"));
+        long timeoutMs = context.getSessionVariable().getQueryTimeoutS() * 1000L;
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(context.getResultSchema(), allocator)) {
+            VectorLoader loader = new VectorLoader(root);
+            listener.start(root);
+            ByteBuffer message;
+            while ((message = context.takeMessage(timeoutMs)) != null) {
+                try (ArrowRecordBatch batch = ArrowUtil.readRecordBatch(message, allocator)) {
+                    loader.load(batch);
+                }
+                listener.putNext();
+            }
+            if (context.getState().getStateType() == QueryState.MysqlStateType.ERR) {
+                listener.error(CallStatus.INTERNAL.withDescription(context.getState().getErrorMessage())
+                        .toRuntimeException());
+            } else {
+                listener.completed();
+            }
+        } catch (Exception e) {
+            LOG.warn("send the result of arrow flight sql query {} failed", handle, e);
+            context.kill(true, "send the result of arrow flight sql query failed");
+            listener.error(CallStatus.INTERNAL.withDescription(e.getMessage()).withCause(e).toRuntimeException());
+        } finally {
+            context.closeResult();
+        }
+    }
+
+    private FlightInfo executeQuery(String query, CallContext callContext, FlightDescriptor descriptor) {
+        UserIdentity currentUser = authenticator.getUserIdentity(callContext.peerIdentity());
+        StatementBase parsedStmt = parse(query);
+        ArrowFlightSqlConnectContext context = new ArrowFlightSqlConnectContext(parsedStmt);
+        context.setGlobalStateMgr(GlobalStateMgr.getCurrentState());
+        context.setQualifiedUser(currentUser.getUser());
+        context.setQueryId(UUIDUtil.genUUID());
+        context.setRemoteIP(ArrowFlightSqlAuthenticator.getRemoteIp());
+        context.setCurrentUserIdentity(currentUser);
+        context.setCurrentRoleIds(currentUser);
+        registerContext(context);
+
+        String handle = context.getQueryId().toString();
+        queries.put(handle, context);
+        executor.submit(() -> execute(context));
+
+        long timeoutMs = context.getSessionVariable().getQueryTimeoutS() * 1000L;
+        try {
+            // the first message of the result is the schema, it comes after the query is planned and BE produces
+            // the first batch, or the end of the result if the query fails
+            ByteBuffer schemaMessage = context.takeMessage(timeoutMs);
+            if (schemaMessage == null) {
+                String errorMessage = context.getState().getStateType() == QueryState.MysqlStateType.ERR ?
+                        context.getState().getErrorMessage() : "query has no result";
+                throw CallStatus.INTERNAL.withDescription(errorMessage).toRuntimeException();
+            }
+            Schema schema = ArrowUtil.readSchema(schemaMessage);
+            context.setResultSchema(schema);
+            Ticket ticket = new Ticket(Any.pack(FlightSql.TicketStatementQuery.newBuilder()
+                    .setStatementHandle(ByteString.copyFrom(handle, StandardCharsets.UTF_8))
+                    .build()).toByteArray());
+            List<FlightEndpoint> endpoints = Collections.singletonList(new FlightEndpoint(ticket));
+            return new FlightInfo(schema, descriptor, endpoints, -1, -1);
+        } catch (FlightRuntimeException e) {
+            queries.invalidate(handle);
+            context.kill(true, "get the schema of arrow flight sql query failed");
+            throw e;
+        } catch (Exception e) {
+            queries.invalidate(handle);
+            context.kill(true, "get the schema of arrow flight sql query failed");
+            throw CallStatus.INTERNAL.withDescription(e.getMessage()).withCause(e).toRuntimeException();
+        }
+    }
+
+    private static StatementBase parse(String query) {
+        ConnectContext context = new ConnectContext();
+        List<StatementBase> stmts;
+        try {
+            stmts = SqlParser.parse(query, context.getSessionVariable());
+        } catch (Exception e) {
+            throw CallStatus.INVALID_ARGUMENT.withDescription(e.getMessage()).toRuntimeException();
+        }
+        if (stmts.size() != 1) {
+            throw CallStatus.INVALID_ARGUMENT.withDescription("arrow flight sql only supports one statement")
+                    .toRuntimeException();
+        }
+        StatementBase parsedStmt = stmts.get(0);
+        // the result is an arrow ipc stream produced by BE, so only a query executed by BE can output it
+        if (!(parsedStmt instanceof QueryStatement) || parsedStmt.isExplain() ||
+                ((QueryStatement) parsedStmt).hasOutFileClause()) {
+            throw CallStatus.INVALID_ARGUMENT.withDescription("arrow flight sql only supports SELECT statement")
+                    .toRuntimeException();
+        }
+        parsedStmt.setOrigStmt(new OriginStatement(query));
+        return parsedStmt;
+    }
+
+    // refer to ExecuteSqlAction.registerContext
+    private static void registerContext(ArrowFlightSqlConnectContext context) {
+        ConnectScheduler connectScheduler = ExecuteEnv.getInstance().getScheduler();
+        connectScheduler.submit(context);
+        context.setConnectScheduler(connectScheduler);
+        Pair<Boolean, String> result = connectScheduler.registerConnection(context);
+        if (!result.first) {
+            throw CallStatus.RESOURCE_EXHAUSTED.withDescription(result.second).toRuntimeException();
+        }
+        context.setStartTime();
+    }
+
+    private static void execute(ArrowFlightSqlConnectContext context) {
+        try {
+            context.setThreadLocalInfo();
+            new ArrowFlightSqlConnectProcessor(context).processOnce();
+        } catch (Throwable e) {
+            LOG.warn("execute arrow flight sql query {} failed", context.getQueryId(), e);
+            context.getState().setError(e.getMessage());
+        } finally {
+            ConnectContext.remove();
+            try {
+                context.finishResult();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            context.getConnectScheduler().unregisterConnection(context);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        executor.shutdownNow();
+        queries.invalidateAll();
+    }
+}
@@ -17,6 +17,7 @@ package com.starrocks.sql;
 import com.starrocks.http.HttpConnectContext;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.PrepareStmtContext;
+import com.starrocks.service.arrow.flight.sql.ArrowFlightSqlConnectContext;
 import com.starrocks.sql.ast.ExecuteStmt;
 import com.starrocks.sql.ast.QueryRelation;
 import com.starrocks.sql.ast.QueryStatement;
@@ -60,8 +61,9 @@ public class PrepareStmtPlanner {
                 // use cache and rebuild physical plan
                 rePlan(executeStmt, execPlan.getLogicalPlan(), execPlan.getPhysicalPlan());
 
-                TResultSinkType resultSinkType = session instanceof HttpConnectContext ? TResultSinkType.HTTP_PROTOCAL :
-                        TResultSinkType.MYSQL_PROTOCAL;
+                TResultSinkType resultSinkType =
+                        session instanceof HttpConnectContext || session instanceof ArrowFlightSqlConnectContext ?
+                                TResultSinkType.HTTP_PROTOCAL : TResultSinkType.MYSQL_PROTOCAL;
                 resultSinkType = queryStmt.hasOutFileClause() ? TResultSinkType.FILE : resultSinkType;
 
                 OptExpression physicalPlan = execPlan.getPhysicalPlan();
@@ -43,6 +43,7 @@ import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.FrontendOptions;
+import com.starrocks.service.arrow.flight.sql.ArrowFlightSqlConnectContext;
 import com.starrocks.sql.analyzer.Analyzer;
 import com.starrocks.sql.analyzer.AnalyzerUtils;
 import com.starrocks.sql.analyzer.Authorizer;
@@ -94,7 +95,7 @@ public class StatementPlanner {
     private static final Logger LOG = LogManager.getLogger(StatementPlanner.class);
 
     public static ExecPlan plan(StatementBase stmt, ConnectContext session) {
-        if (session instanceof HttpConnectContext) {
+        if (session instanceof HttpConnectContext || session instanceof ArrowFlightSqlConnectContext) {
             return plan(stmt, session, TResultSinkType.HTTP_PROTOCAL);
         }
         return plan(stmt, session, TResultSinkType.MYSQL_PROTOCAL);
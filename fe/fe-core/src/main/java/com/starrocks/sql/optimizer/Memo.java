@@ -49,6 +49,11 @@ import java.util.Set;
 public class Memo {
     private static final Logger LOG = LogManager.getLogger(Memo.class);
 
+    // The rough retained size of a group and a group expression, including their own collections and the
+    // cost and property maps filled in the search. The operators and the statistics are shared and not counted.
+    private static final long GROUP_BYTES = 1024;
+    private static final long GROUP_EXPRESSION_BYTES = 512;
+
     private int nextGroupId = 0;
 
     // The group id is same with the group index in groups List
@@ -80,6 +85,22 @@ public class Memo {
         return rootGroup;
     }
 
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    public int getGroupExpressionCount() {
+        return groupExpressions.size();
+    }
+
+    /**
+     * The estimated memory used by the memo, the optimizer stops enumerating join orders when it exceeds the
+     * budget of the query, see {@link OptimizerContext#isMemoOverBudget()}.
+     */
+    public long getEstimatedBytes() {
+        return groups.size() * GROUP_BYTES + groupExpressions.size() * GROUP_EXPRESSION_BYTES;
+    }
+
     /**
      * Copy an expression into search space, this function will add an GroupExpression for
      * this Expression. If this Expression has children, this function will be called
@@ -827,7 +827,9 @@ public class Optimizer {
         // Join reorder
         int innerCrossJoinNode = Utils.countJoinNodeSize(tree, JoinOperator.innerCrossJoinSet());
         if (!sessionVariable.isDisableJoinReorder() && innerCrossJoinNode < sessionVariable.getCboMaxReorderNode()) {
-            if (innerCrossJoinNode > sessionVariable.getCboMaxReorderNodeUseExhaustive()) {
+            // the memo may already be over budget after the materialized view rewrite of the logical phase
+            if (innerCrossJoinNode > sessionVariable.getCboMaxReorderNodeUseExhaustive() ||
+                    context.isMemoOverBudget()) {
                 CTEUtils.collectForceCteStatistics(memo, context);
 
                 OptimizerTraceUtil.logOptExpression("before ReorderJoinRule:\n%s", tree);
@@ -872,6 +874,10 @@ public class Optimizer {
 
         context.getTaskScheduler().pushTask(new OptimizeGroupTask(rootTaskContext, memo.getRootGroup()));
         context.getTaskScheduler().executeTasks(rootTaskContext);
+
+        Tracers.count(Tracers.Module.BASE, "MemoGroups", memo.getGroupCount());
+        Tracers.count(Tracers.Module.BASE, "MemoGroupExpressions", memo.getGroupExpressionCount());
+        Tracers.count(Tracers.Module.BASE, "MemoEstimatedBytes", memo.getEstimatedBytes());
     }
 
     private OptExpression physicalRuleRewrite(ConnectContext connectContext, TaskContext rootTaskContext, OptExpression result) {
@@ -20,6 +20,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.common.VectorSearchOptions;
+import com.starrocks.common.profile.Tracers;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
 import com.starrocks.server.GlobalStateMgr;
@@ -74,6 +75,7 @@ public class OptimizerContext {
 
     private boolean isShortCircuit = false;
     private boolean inMemoPhase = false;
+    private boolean memoOverBudget = false;
 
     // Is not null predicate can be derived from inner join or semi join,
     // which should be kept to be used to convert outer join into inner join.
@@ -288,6 +290,27 @@ public class OptimizerContext {
         return this.inMemoPhase;
     }
 
+    /**
+     * Whether the estimated size of the memo exceeds cbo_max_memo_size_mb. Once it does, the optimizer degrades
+     * the search: the join reorder skips the DP and greedy algorithms and the join associativity rules are
+     * exhausted, the plan is chosen from the join orders already in the memo.
+     * The memo hardly shrinks in the memo phase, so the result is kept once it is true.
+     */
+    public boolean isMemoOverBudget() {
+        if (memoOverBudget) {
+            return true;
+        }
+        long budgetMB = sessionVariable.getCboMaxMemoSizeMB();
+        if (memo == null || budgetMB <= 0 || memo.getEstimatedBytes() <= budgetMB * 1024 * 1024) {
+            return false;
+        }
+        memoOverBudget = true;
+        Tracers.record(Tracers.Module.BASE, "MemoOverBudget", String.valueOf(memo.getEstimatedBytes()));
+        Tracers.log(Tracers.Module.OPTIMIZER, "memo exceeds {} MB with {} groups and {} group expressions, " +
+                "stop enumerating join orders", budgetMB, memo.getGroupCount(), memo.getGroupExpressionCount());
+        return true;
+    }
+
     public List<IsNullPredicateOperator> getPushdownNotNullPredicates() {
         return pushdownNotNullPredicates;
     }
@@ -26,64 +26,94 @@ import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.PhysicalPartition;
 import com.starrocks.catalog.Table;
-import com.starrocks.common.AnalysisException;
-import com.starrocks.planner.DistributionPruner;
+import com.starrocks.catalog.Tablet;
+import com.starrocks.common.Pair;
 import com.starrocks.planner.HashDistributionPruner;
 import com.starrocks.planner.PartitionColumnFilter;
 import com.starrocks.sql.common.MetaUtils;
 import com.starrocks.sql.optimizer.operator.ColumnFilterConverter;
 import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 public class OptDistributionPruner {
-    private static final Logger LOG = LogManager.getLogger(OptDistributionPruner.class);
-
     public static List<Long> pruneTabletIds(LogicalOlapScanOperator olapScanOperator,
                                             List<Long> selectedPartitionIds) {
         OlapTable olapTable = (OlapTable) olapScanOperator.getTable();
+        // the filters are the same for all the partitions
+        Map<String, PartitionColumnFilter> filters = getDistributionColumnFilters(olapScanOperator);
+        return PartitionPruneExecutor.flatMapChunks(selectedPartitionIds,
+                partitionIds -> pruneTabletIds(olapScanOperator, olapTable, filters, partitionIds));
+    }
 
+    private static List<Long> pruneTabletIds(LogicalOlapScanOperator olapScanOperator, OlapTable olapTable,
+                                             Map<String, PartitionColumnFilter> filters, List<Long> partitionIds) {
+        // (distribution columns, bucket num) -> the selected bucket sequences, the partitions mostly share them
+        Map<Pair<List<ColumnId>, Integer>, Collection<Long>> selectedBuckets = Maps.newHashMap();
         List<Long> result = Lists.newArrayList();
-        for (Long partitionId : selectedPartitionIds) {
+        for (Long partitionId : partitionIds) {
             Partition partition = olapTable.getPartition(partitionId);
+            DistributionInfo distributionInfo = partition.getDistributionInfo();
             for (PhysicalPartition physicalPartition : partition.getSubPartitions()) {
-                MaterializedIndex table = physicalPartition.getIndex(olapScanOperator.getSelectedIndexId());
-                Collection<Long> tabletIds = distributionPrune(table, partition.getDistributionInfo(),
-                        olapScanOperator, olapTable.getIdToColumn());
-                result.addAll(tabletIds);
+                MaterializedIndex index = physicalPartition.getIndex(olapScanOperator.getSelectedIndexId());
+                if (distributionInfo.getType() != DistributionInfo.DistributionInfoType.HASH) {
+                    result.addAll(index.getTabletIdsInOrder());
+                    continue;
+                }
+                HashDistributionInfo info = (HashDistributionInfo) distributionInfo;
+                Collection<Long> buckets = selectedBuckets.computeIfAbsent(
+                        Pair.create(info.getDistributionColumns(), info.getBucketNum()),
+                        key -> distributionPrune(info, filters, olapTable.getIdToColumn()));
+                List<Tablet> tablets = index.getTablets();
+                if (buckets instanceof Set || tablets.size() != info.getBucketNum()) {
+                    // the tablets of the buckets selected by IN predicates are in the order of the hash set of
+                    // their ids, which can not be mapped from the order of the bucket sequences
+                    result.addAll(distributionPrune(index, info, filters, olapTable.getIdToColumn()));
+                } else {
+                    for (Long bucket : buckets) {
+                        result.add(tablets.get(bucket.intValue()).getId());
+                    }
+                }
             }
         }
         return result;
     }
 
-    private static Collection<Long> distributionPrune(MaterializedIndex index, DistributionInfo distributionInfo,
-                                                      LogicalOlapScanOperator operator, Map<ColumnId, Column> idToColumn) {
-        try {
-            DistributionPruner distributionPruner;
-            if (distributionInfo.getType() == DistributionInfo.DistributionInfoType.HASH) {
-                HashDistributionInfo info = (HashDistributionInfo) distributionInfo;
-                Map<String, PartitionColumnFilter> filters = Maps.newHashMap();
-                Table table = operator.getTable();
-                if (table.isExprPartitionTable()) {
-                    // Bucketing needs to use the original predicate for hashing
-                    ColumnFilterConverter.convertColumnFilterWithoutExpr(operator.getPredicate(), filters, table);
-                } else {
-                    filters = operator.getColumnFilters();
-                }
-                distributionPruner = new HashDistributionPruner(index.getTabletIdsInOrder(),
-                        MetaUtils.getColumnsByColumnIds(idToColumn, info.getDistributionColumns()),
-                        filters,
-                        info.getBucketNum());
-                return distributionPruner.prune();
-            }
-        } catch (AnalysisException e) {
-            LOG.warn("distribution prune failed. ", e);
+    private static Map<String, PartitionColumnFilter> getDistributionColumnFilters(LogicalOlapScanOperator operator) {
+        Table table = operator.getTable();
+        if (!table.isExprPartitionTable()) {
+            return operator.getColumnFilters();
         }
+        // Bucketing needs to use the original predicate for hashing
+        Map<String, PartitionColumnFilter> filters = Maps.newHashMap();
+        ColumnFilterConverter.convertColumnFilterWithoutExpr(operator.getPredicate(), filters, table);
+        return filters;
+    }
+
+    // Returns the selected bucket sequences, all of them in order if no bucket is pruned.
+    private static Collection<Long> distributionPrune(HashDistributionInfo info,
+                                                      Map<String, PartitionColumnFilter> filters,
+                                                      Map<ColumnId, Column> idToColumn) {
+        List<Long> bucketSeqs = LongStream.range(0, info.getBucketNum()).boxed().collect(Collectors.toList());
+        HashDistributionPruner distributionPruner = new HashDistributionPruner(bucketSeqs,
+                MetaUtils.getColumnsByColumnIds(idToColumn, info.getDistributionColumns()),
+                filters,
+                info.getBucketNum());
+        return distributionPruner.prune();
+    }
 
-        return index.getTabletIdsInOrder();
+    private static Collection<Long> distributionPrune(MaterializedIndex index, HashDistributionInfo info,
+                                                      Map<String, PartitionColumnFilter> filters,
+                                                      Map<ColumnId, Column> idToColumn) {
+        HashDistributionPruner distributionPruner = new HashDistributionPruner(index.getTabletIdsInOrder(),
+                MetaUtils.getColumnsByColumnIds(idToColumn, info.getDistributionColumns()),
+                filters,
+                info.getBucketNum());
+        return distributionPruner.prune();
     }
 }
@@ -81,8 +81,8 @@ public class OptOlapPartitionPruner {
                             Collectors.toList());
             // some test cases need to perceive partitions pruned, so we can not filter empty partitions.
         } else {
-            selectedPartitionIds = selectedPartitionIds.stream()
-                    .filter(id -> table.getPartition(id).hasData()).collect(Collectors.toList());
+            selectedPartitionIds = PartitionPruneExecutor.flatMapChunks(selectedPartitionIds, partitionIds ->
+                    partitionIds.stream().filter(id -> table.getPartition(id).hasData()).collect(Collectors.toList()));
         }
 
         if (isNeedFurtherPrune(selectedPartitionIds, logicalOlapScanOperator, partitionInfo)) {
@@ -368,6 +368,8 @@ public class OptOlapPartitionPruner {
     private static List<Long> rangePartitionPrune(OlapTable olapTable, RangePartitionInfo partitionInfo,
                                                   LogicalOlapScanOperator operator) {
         Map<Long, Range<PartitionKey>> keyRangeById;
+        List<Column> partitionColumns = partitionInfo.getPartitionColumns(olapTable.getIdToColumn());
+        PartitionPruner partitionPruner;
         if (operator.getPartitionNames() != null && operator.getPartitionNames().getPartitionNames() != null) {
             keyRangeById = Maps.newHashMap();
             for (String partName : operator.getPartitionNames().getPartitionNames()) {
@@ -377,12 +379,13 @@ public class OptOlapPartitionPruner {
                 }
                 keyRangeById.put(part.getId(), partitionInfo.getRange(part.getId()));
             }
+            partitionPruner = new RangePartitionPruner(keyRangeById, partitionColumns, operator.getColumnFilters());
         } else {
             keyRangeById = partitionInfo.getIdToRange(false);
+            // the interval index of the ranges is shared by the queries, instead of being built by every query
+            partitionPruner = new RangePartitionPruner(partitionInfo.getRangeIndex(), partitionColumns,
+                    operator.getColumnFilters());
         }
-        PartitionPruner partitionPruner = new RangePartitionPruner(keyRangeById,
-                partitionInfo.getPartitionColumns(olapTable.getIdToColumn()),
-                operator.getColumnFilters());
         try {
             return partitionPruner.prune();
         } catch (Exception e) {
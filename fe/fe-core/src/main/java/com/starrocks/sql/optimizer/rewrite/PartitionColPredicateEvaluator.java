@@ -120,6 +120,10 @@ public class PartitionColPredicateEvaluator {
             if (!exprToCandidateRanges.containsKey(call)) {
                 List<Range<PartitionKey>> mappingRanges = Lists.newArrayList();
                 PrimitiveType returnType = call.getType().getPrimitiveType();
+                // compile the call once and fold it for the bounds of all candidates, fallback to rewrite
+                // the call for each bound if it contains something can not be compiled
+                Optional<ScalarOperatorEvaluator.BatchEvaluator> batchEvaluator =
+                        ScalarOperatorEvaluator.INSTANCE.compile(call, true);
                 for (Range<PartitionKey> range : candidateRanges) {
                     Range<PartitionKey> newRange;
                     if (!range.hasUpperBound() || range.upperEndpoint().getKeys().get(0) instanceof MaxLiteral) {
@@ -130,8 +134,8 @@ public class PartitionColPredicateEvaluator {
                         LiteralExpr lowerBound = range.hasLowerBound() ? range.lowerEndpoint().getKeys().get(0)
                                 : createInfinity(partitionColumn.getType(), false);
                         LiteralExpr upperBound = range.upperEndpoint().getKeys().get(0);
-                        Optional<LiteralExpr> mappingLowerBound = mapRangeBoundValue(call, lowerBound);
-                        Optional<LiteralExpr> mappingUpperBound = mapRangeBoundValue(call, upperBound);
+                        Optional<LiteralExpr> mappingLowerBound = mapRangeBoundValue(call, batchEvaluator, lowerBound);
+                        Optional<LiteralExpr> mappingUpperBound = mapRangeBoundValue(call, batchEvaluator, upperBound);
                         if (mappingLowerBound.isPresent() && mappingUpperBound.isPresent()) {
                             LiteralExpr newLowerBound = mappingLowerBound.get();
                             LiteralExpr newUpperBound = mappingUpperBound.get();
@@ -349,14 +353,23 @@ public class PartitionColPredicateEvaluator {
             }
         }
 
-        private Optional<LiteralExpr> mapRangeBoundValue(CallOperator callOperator, LiteralExpr literalExpr) {
-            ColumnRefReplacer refReplacer = new ColumnRefReplacer(literalExpr);
-            CallOperator newCall = (CallOperator) callOperator.accept(refReplacer, null);
+        private Optional<LiteralExpr> mapRangeBoundValue(CallOperator callOperator,
+                                                         Optional<ScalarOperatorEvaluator.BatchEvaluator> batchEvaluator,
+                                                         LiteralExpr literalExpr) {
+            ScalarOperator result;
+            if (batchEvaluator.isPresent()) {
+                if (literalExpr instanceof MaxLiteral) {
+                    return Optional.empty();
+                }
+                result = batchEvaluator.get().evaluate(ColumnRefReplacer.toConstant(literalExpr));
+            } else {
+                ColumnRefReplacer refReplacer = new ColumnRefReplacer(literalExpr);
+                CallOperator newCall = (CallOperator) callOperator.accept(refReplacer, null);
 
-            ScalarOperatorRewriter rewriter = new ScalarOperatorRewriter();
-            ScalarOperator result = rewriter.rewrite(newCall,
-                    Collections.singletonList(new FoldConstantsRule(true)));
-            if (result.isConstantRef()) {
+                ScalarOperatorRewriter rewriter = new ScalarOperatorRewriter();
+                result = rewriter.rewrite(newCall, Collections.singletonList(new FoldConstantsRule(true)));
+            }
+            if (result != null && result.isConstantRef()) {
                 LiteralExpr newLiteralExpr;
                 try {
                     newLiteralExpr = ColumnFilterConverter.convertLiteral((ConstantOperator) result);
@@ -376,7 +389,7 @@ public class PartitionColPredicateEvaluator {
         }
     }
 
-    private class ColumnRefReplacer extends BaseScalarOperatorShuttle {
+    private static class ColumnRefReplacer extends BaseScalarOperatorShuttle {
 
         private final LiteralExpr literalExpr;
 
@@ -386,10 +399,16 @@ public class PartitionColPredicateEvaluator {
 
         @Override
         public ScalarOperator visitVariableReference(ColumnRefOperator variable, Void context) {
+            if (literalExpr instanceof MaxLiteral) {
+                return variable;
+            } else {
+                return toConstant(literalExpr);
+            }
+        }
+
+        private static ConstantOperator toConstant(LiteralExpr literalExpr) {
             if (literalExpr instanceof NullLiteral) {
                 return ConstantOperator.createNull(literalExpr.getType());
-            } else if (literalExpr instanceof MaxLiteral) {
-                return variable;
             } else {
                 return ConstantOperator.createObject(literalExpr.getRealObjectValue(), literalExpr.getType());
             }
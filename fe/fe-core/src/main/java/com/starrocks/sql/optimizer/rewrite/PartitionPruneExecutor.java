@@ -0,0 +1,76 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.optimizer.rewrite;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.sql.common.ErrorType;
+import com.starrocks.sql.common.StarRocksPlannerException;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+
+/**
+ * Runs the per-partition pruning of the huge partition lists in chunks, one chunk by the planner thread and the
+ * others by a pool shared by all the queries. The chunk function must only read the catalog, which is locked by
+ * the planner thread during the pruning.
+ */
+public class PartitionPruneExecutor {
+    private static final ThreadPoolExecutor EXECUTOR =
+            ThreadPoolManager.newDaemonFixedThreadPool(Math.max(1, Config.partition_prune_parallelism),
+                    Integer.MAX_VALUE, "partition-prune", true);
+
+    /**
+     * Applies the function to the chunks of the partition ids and concatenates the results in the order of the
+     * chunks, so the result is the same as applying it to all the partition ids at once.
+     */
+    public static <T> List<T> flatMapChunks(List<Long> partitionIds, Function<List<Long>, List<T>> function) {
+        int minPartitions = Config.partition_prune_parallel_min_partitions;
+        if (minPartitions <= 0 || partitionIds.size() < minPartitions || Config.partition_prune_parallelism <= 0) {
+            return function.apply(partitionIds);
+        }
+
+        int numChunks = Config.partition_prune_parallelism + 1;
+        int chunkSize = (partitionIds.size() + numChunks - 1) / numChunks;
+        List<List<Long>> chunks = Lists.partition(partitionIds, chunkSize);
+        List<Future<List<T>>> futures = Lists.newArrayList();
+        for (int i = 1; i < chunks.size(); i++) {
+            List<Long> chunk = chunks.get(i);
+            futures.add(EXECUTOR.submit(() -> function.apply(chunk)));
+        }
+
+        List<T> result = Lists.newArrayList(function.apply(chunks.get(0)));
+        try {
+            for (Future<List<T>> future : futures) {
+                result.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new StarRocksPlannerException("partition prune is interrupted", ErrorType.INTERNAL_ERROR, e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new StarRocksPlannerException("partition prune failed", ErrorType.INTERNAL_ERROR, e.getCause());
+        }
+        return result;
+    }
+}
@@ -33,6 +33,7 @@ import com.starrocks.sql.common.StarRocksPlannerException;
 import com.starrocks.sql.optimizer.function.MetaFunctions;
 import com.starrocks.sql.optimizer.operator.OperatorType;
 import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CastOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import org.apache.commons.collections4.ListUtils;
@@ -40,6 +41,9 @@ import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -155,32 +159,15 @@ public enum ScalarOperatorEvaluator {
         // 2. Not in isNotAlwaysNullResultWithNullParamFunctions
         // 3. Has null parameter
         // 4. Not assert_true
-        if (!GlobalStateMgr.getCurrentState()
-                .isNotAlwaysNullResultWithNullParamFunction(fn.getFunctionName().getFunction())
-                && !fn.isUdf()
-                && !FunctionSet.ASSERT_TRUE.equals(fn.getFunctionName().getFunction())) {
+        if (isNullResultWithNullParam(fn)) {
             for (ScalarOperator op : root.getChildren()) {
                 if (((ConstantOperator) op).isNull()) {
-                    // Should return ConstantOperator.createNull(fn.getReturnType()),
-                    // but for keep same with old StarRocks
-                    // types in decimalv3-typed function instances are wild types(both precision and scale are -1)
-                    // the wild types should never escaped outside of function instance resolution.
-                    Type type = fn.getReturnType();
-                    if (type.isDecimalV3()) {
-                        return ConstantOperator.createNull(root.getType());
-                    } else {
-                        return ConstantOperator.createNull(fn.getReturnType());
-                    }
+                    return createNullResult(root);
                 }
             }
         }
 
-        List<Type> argTypes = new ArrayList<>(Arrays.asList(fn.getArgs()));
-
-        FunctionSignature signature =
-                new FunctionSignature(fn.functionName().toUpperCase(), argTypes, fn.getReturnType());
-
-        FunctionInvoker invoker = functions.get(signature);
+        FunctionInvoker invoker = getInvoker(fn);
 
         if (invoker == null) {
             return root;
@@ -190,8 +177,43 @@ public enum ScalarOperatorEvaluator {
             return root;
         }
 
+        ConstantOperator operator = invoke(invoker, fn, root.getChildren());
+        return operator != null ? operator : root;
+    }
+
+    private boolean isNullResultWithNullParam(Function fn) {
+        return !GlobalStateMgr.getCurrentState()
+                .isNotAlwaysNullResultWithNullParamFunction(fn.getFunctionName().getFunction())
+                && !fn.isUdf()
+                && !FunctionSet.ASSERT_TRUE.equals(fn.getFunctionName().getFunction());
+    }
+
+    private ConstantOperator createNullResult(CallOperator root) {
+        // Should return ConstantOperator.createNull(fn.getReturnType()),
+        // but for keep same with old StarRocks
+        // types in decimalv3-typed function instances are wild types(both precision and scale are -1)
+        // the wild types should never escaped outside of function instance resolution.
+        Type type = root.getFunction().getReturnType();
+        if (type.isDecimalV3()) {
+            return ConstantOperator.createNull(root.getType());
+        } else {
+            return ConstantOperator.createNull(type);
+        }
+    }
+
+    private FunctionInvoker getInvoker(Function fn) {
+        List<Type> argTypes = new ArrayList<>(Arrays.asList(fn.getArgs()));
+        FunctionSignature signature =
+                new FunctionSignature(fn.functionName().toUpperCase(), argTypes, fn.getReturnType());
+        return functions.get(signature);
+    }
+
+    /**
+     * @return the folded constant, or null if the function failed to evaluate in FE
+     */
+    private ConstantOperator invoke(FunctionInvoker invoker, Function fn, List<? extends ScalarOperator> args) {
         try {
-            ConstantOperator operator = invoker.invoke(root.getChildren());
+            ConstantOperator operator = invoker.invoke(args);
             // check return result type, decimal will change return type
             if (!operator.isNull() &&
                     operator.getType().getPrimitiveType() != fn.getReturnType().getPrimitiveType()) {
@@ -206,7 +228,95 @@ public enum ScalarOperatorEvaluator {
                 throw new StarRocksPlannerException(ErrorType.USER_ERROR, ExceptionUtils.getRootCauseMessage(e));
             }
         }
-        return root;
+        return null;
+    }
+
+    /**
+     * Compile an expression of a single column into a {@link BatchEvaluator}, which folds the expression for many
+     * values of the column, e.g. the bounds of all candidate partitions during partition pruning.
+     * The function lookup, the null and monotonic checks are done once here instead of once per value, and the
+     * result of each value is the same as replacing the column with the value and applying
+     * {@link com.starrocks.sql.optimizer.rewrite.scalar.FoldConstantsRule}.
+     *
+     * @return empty if the expression contains operators other than call, cast, constant and column ref,
+     * or some function can never be folded in FE
+     */
+    public Optional<BatchEvaluator> compile(ScalarOperator expr, boolean needMonotonic) {
+        if (ConnectContext.get() != null
+                && ConnectContext.get().getSessionVariable().isDisableFunctionFoldConstants()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(compileOperator(expr, needMonotonic));
+    }
+
+    private BatchEvaluator compileOperator(ScalarOperator expr, boolean needMonotonic) {
+        if (expr.isConstantRef()) {
+            ConstantOperator constant = (ConstantOperator) expr;
+            return value -> constant;
+        } else if (expr.isColumnRef()) {
+            return value -> value;
+        } else if (expr instanceof CastOperator) {
+            return compileCast((CastOperator) expr, needMonotonic);
+        } else if (expr instanceof CallOperator) {
+            return compileCall((CallOperator) expr, needMonotonic);
+        }
+        return null;
+    }
+
+    private BatchEvaluator compileCast(CastOperator cast, boolean needMonotonic) {
+        BatchEvaluator child = compileOperator(cast.getChild(0), needMonotonic);
+        if (child == null) {
+            return null;
+        }
+        Type targetType = cast.getType();
+        return value -> {
+            ConstantOperator arg = child.evaluate(value);
+            if (arg == null) {
+                return null;
+            }
+            if (arg.isNull() || arg.getType().isNull()) {
+                return ConstantOperator.createNull(targetType);
+            }
+            return arg.castTo(targetType).orElse(null);
+        };
+    }
+
+    private BatchEvaluator compileCall(CallOperator root, boolean needMonotonic) {
+        Function fn = root.getFunction();
+        if (root.isAggregate() || fn == null) {
+            return null;
+        }
+        FunctionInvoker invoker = getInvoker(fn);
+        if (invoker == null || (needMonotonic && !isMonotonicFunc(invoker, root))) {
+            return null;
+        }
+
+        List<BatchEvaluator> children = new ArrayList<>();
+        for (ScalarOperator child : root.getChildren()) {
+            BatchEvaluator compiled = compileOperator(child, needMonotonic);
+            if (compiled == null) {
+                return null;
+            }
+            children.add(compiled);
+        }
+
+        boolean nullResultWithNullParam = isNullResultWithNullParam(fn);
+        ConstantOperator nullResult = createNullResult(root);
+        return value -> {
+            ConstantOperator[] args = new ConstantOperator[children.size()];
+            boolean hasNull = false;
+            for (int i = 0; i < args.length; i++) {
+                args[i] = children.get(i).evaluate(value);
+                if (args[i] == null) {
+                    return null;
+                }
+                hasNull |= args[i].isNull();
+            }
+            if (hasNull && nullResultWithNullParam) {
+                return nullResult;
+            }
+            return invoke(invoker, fn, Arrays.asList(args));
+        };
     }
 
     public boolean isMonotonicFunction(CallOperator call) {
@@ -295,11 +405,32 @@ public enum ScalarOperatorEvaluator {
         return unsupportedFormat ? Optional.empty() : Optional.of(builder.toString());
     }
 
+    /**
+     * Evaluates a compiled expression for values of its column.
+     */
+    public interface BatchEvaluator {
+        /**
+         * @return the folded constant, or null if the expression can not be folded for this value
+         */
+        ConstantOperator evaluate(ConstantOperator value);
+
+        default List<ConstantOperator> evaluate(List<ConstantOperator> values) {
+            List<ConstantOperator> results = new ArrayList<>(values.size());
+            for (ConstantOperator value : values) {
+                results.add(evaluate(value));
+            }
+            return results;
+        }
+    }
+
     private static class FunctionInvoker {
         private final boolean isMetaFunction;
 
         private final boolean isMonotonic;
         private final Method method;
+        // (Object[])Object, bound to the static method once, cheaper than Method.invoke on every call
+        private final MethodHandle handle;
+        private final Class<?>[] parameterTypes;
         private final FunctionSignature signature;
 
         public FunctionInvoker(Method method, FunctionSignature signature, boolean isMetaFunction, boolean isMonotonic) {
@@ -307,6 +438,14 @@ public enum ScalarOperatorEvaluator {
             this.signature = signature;
             this.isMetaFunction = isMetaFunction;
             this.isMonotonic = isMonotonic;
+            this.parameterTypes = method.getParameterTypes();
+            try {
+                this.handle = MethodHandles.publicLookup().unreflect(method)
+                        .asSpreader(Object[].class, parameterTypes.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("constant function " + method + " is not accessible", e);
+            }
         }
 
         public Method getMethod() {
@@ -318,18 +457,23 @@ public enum ScalarOperatorEvaluator {
         }
 
         // Function doesn't support array type
-        public ConstantOperator invoke(List<ScalarOperator> args) throws IllegalAccessException, InvocationTargetException {
-            final List<Object> invokeArgs = createInvokeArgs(args);
-            return (ConstantOperator) method.invoke(null, invokeArgs.toArray());
+        public ConstantOperator invoke(List<? extends ScalarOperator> args) throws InvocationTargetException {
+            final Object[] invokeArgs = createInvokeArgs(args);
+            try {
+                return (ConstantOperator) (Object) handle.invokeExact(invokeArgs);
+            } catch (Throwable e) {
+                // keep the same exception as Method.invoke
+                throw new InvocationTargetException(e);
+            }
         }
 
-        private List<Object> createInvokeArgs(List<ScalarOperator> args) {
-            final List<Object> invokeArgs = Lists.newArrayList();
-            for (int index = 0; index < method.getParameterTypes().length; index++) {
-                final Class<?> argType = method.getParameterTypes()[index];
+        private Object[] createInvokeArgs(List<? extends ScalarOperator> args) {
+            final Object[] invokeArgs = new Object[parameterTypes.length];
+            for (int index = 0; index < parameterTypes.length; index++) {
+                final Class<?> argType = parameterTypes[index];
 
                 if (argType.isArray()) {
-                    Preconditions.checkArgument(method.getParameterTypes().length == index + 1);
+                    Preconditions.checkArgument(parameterTypes.length == index + 1);
                     final List<ConstantOperator> variableArgs = Lists.newArrayList();
                     Set<PrimitiveType> checkSet = Sets.newHashSet();
 
@@ -346,9 +490,9 @@ public enum ScalarOperatorEvaluator {
 
                     ConstantOperator[] argsArray = new ConstantOperator[variableArgs.size()];
                     argsArray = variableArgs.toArray(argsArray);
-                    invokeArgs.add(argsArray);
+                    invokeArgs[index] = argsArray;
                 } else {
-                    invokeArgs.add(args.get(index));
+                    invokeArgs[index] = args.get(index);
                 }
             }
             return invokeArgs;
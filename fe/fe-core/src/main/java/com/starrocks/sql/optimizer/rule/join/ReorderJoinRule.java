@@ -228,14 +228,16 @@ public class ReorderJoinRule extends Rule {
                     continue;
                 }
 
+                // Every algorithm copies its top k join orders into memo, the DP and greedy algorithms are
+                // skipped when the memo is over budget, and the join orders found so far are used.
                 if (multiJoinNode.getAtoms().size() <= context.getSessionVariable().getCboMaxReorderNodeUseDP()
-                        && context.getSessionVariable().isCboEnableDPJoinReorder()) {
+                        && context.getSessionVariable().isCboEnableDPJoinReorder() && !context.isMemoOverBudget()) {
                     // 10 table join reorder takes more than 100ms,
                     // so the join reorder using dp is currently controlled below 10.
                     enumerate(new JoinReorderDP(context), context, innerJoinRoot, multiJoinNode, true);
                 }
 
-                if (context.getSessionVariable().isCboEnableGreedyJoinReorder()) {
+                if (context.getSessionVariable().isCboEnableGreedyJoinReorder() && !context.isMemoOverBudget()) {
                     enumerate(new JoinReorderGreedy(context), context, innerJoinRoot, multiJoinNode, true);
                 }
             }
@@ -81,6 +81,13 @@ public abstract class JoinAssociateBaseRule extends TransformationRule {
 
     public abstract int createTransformMask(boolean isTop);
 
+    // The associativity generates new groups for every join order, which makes the memo grow exponentially with
+    // the number of joins, give it up once the memo is over budget.
+    @Override
+    public boolean exhausted(OptimizerContext context) {
+        return context.isMemoOverBudget();
+    }
+
     @Override
     public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
         LogicalJoinOperator.Builder newTopJoinBuilder = new LogicalJoinOperator.Builder();
@@ -48,22 +48,8 @@ public class HistogramUtils {
         for (int i = 0; i < histogramObj.size(); ++i) {
             JsonArray bucketJsonArray = histogramObj.get(i).getAsJsonArray();
             try {
-                double low;
-                double high;
-                if (type.isDate()) {
-                    low = (double) getLongFromDateTime(DateUtils.parseStringWithDefaultHSM(
-                            bucketJsonArray.get(0).getAsString(), DateUtils.DATE_FORMATTER_UNIX));
-                    high = (double) getLongFromDateTime(DateUtils.parseStringWithDefaultHSM(
-                            bucketJsonArray.get(1).getAsString(), DateUtils.DATE_FORMATTER_UNIX));
-                } else if (type.isDatetime()) {
-                    low = (double) getLongFromDateTime(DateUtils.parseDatTimeString(
-                            bucketJsonArray.get(0).getAsString()));
-                    high = (double) getLongFromDateTime(DateUtils.parseDatTimeString(
-                            bucketJsonArray.get(1).getAsString()));
-                } else {
-                    low = Double.parseDouble(bucketJsonArray.get(0).getAsString());
-                    high = Double.parseDouble(bucketJsonArray.get(1).getAsString());
-                }
+                double low = convertBucketBound(bucketJsonArray.get(0).getAsString(), type);
+                double high = convertBucketBound(bucketJsonArray.get(1).getAsString(), type);
 
                 Bucket bucket = new Bucket(low, high,
                         Long.parseLong(bucketJsonArray.get(2).getAsString()),
@@ -76,6 +62,16 @@ public class HistogramUtils {
         return buckets;
     }
 
+    public static double convertBucketBound(String bound, Type type) throws AnalysisException {
+        if (type.isDate()) {
+            return (double) getLongFromDateTime(DateUtils.parseStringWithDefaultHSM(bound, DateUtils.DATE_FORMATTER_UNIX));
+        } else if (type.isDatetime()) {
+            return (double) getLongFromDateTime(DateUtils.parseDatTimeString(bound));
+        } else {
+            return Double.parseDouble(bound);
+        }
+    }
+
     public static Map<String, Long> convertMCV(String histogramString) {
         JsonObject jsonObject = JsonParser.parseString(histogramString).getAsJsonObject();
         JsonElement jsonElement = jsonObject.get("mcv");
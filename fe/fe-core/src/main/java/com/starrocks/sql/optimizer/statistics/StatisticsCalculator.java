@@ -40,12 +40,14 @@ import com.starrocks.catalog.RangePartitionInfo;
 import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Type;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
 import com.starrocks.connector.PartitionUtil;
 import com.starrocks.connector.TableVersionRange;
 import com.starrocks.connector.statistics.ConnectorTableColumnStats;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
+import com.starrocks.qe.feedback.CardinalityFeedbackSignature;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.common.ErrorType;
 import com.starrocks.sql.common.StarRocksPlannerException;
@@ -222,6 +224,7 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
         Statistics statistics = context.getStatistics();
         if (null != predicate) {
             statistics = estimateStatistics(ImmutableList.of(predicate), statistics);
+            statistics = adjustScanByCardinalityFeedback(node, predicate, context.getStatistics(), statistics);
         }
 
         Statistics.Builder statisticsBuilder = Statistics.buildFrom(statistics);
@@ -1087,10 +1090,57 @@ public class StatisticsCalculator extends OperatorVisitor<Void, ExpressionContex
                     .build();
         }
 
+        if (joinType.isInnerJoin() && !eqOnPredicates.isEmpty()) {
+            estimateStatistics = adjustJoinByCardinalityFeedback(joinType, joinOnPredicate, leftRowCount, rightRowCount,
+                    estimateStatistics);
+        }
+
         context.setStatistics(estimateStatistics);
         return visitOperator(context.getOp(), context);
     }
 
+    // Replace the estimated rows of an olap scan by the observed selectivity of the same predicate, if any.
+    private Statistics adjustScanByCardinalityFeedback(Operator node, ScalarOperator predicate,
+                                                       Statistics inputStatistics, Statistics statistics) {
+        if (!Config.enable_cardinality_feedback) {
+            return statistics;
+        }
+        String signature;
+        if (node instanceof LogicalOlapScanOperator) {
+            LogicalOlapScanOperator scan = (LogicalOlapScanOperator) node;
+            signature = CardinalityFeedbackSignature.ofScan(scan.getTable(), predicate, scan.getColRefToColumnMetaMap());
+        } else if (node instanceof PhysicalOlapScanOperator) {
+            PhysicalOlapScanOperator scan = (PhysicalOlapScanOperator) node;
+            signature = CardinalityFeedbackSignature.ofScan(scan.getTable(), predicate, scan.getColRefToColumnMetaMap());
+        } else {
+            return statistics;
+        }
+        double selectivity = GlobalStateMgr.getCurrentState().getCardinalityFeedbackMgr().getSelectivity(signature);
+        if (selectivity < 0) {
+            return statistics;
+        }
+        return Statistics.buildFrom(statistics)
+                .setOutputRowCount(Math.max(1, inputStatistics.getOutputRowCount() * selectivity))
+                .build();
+    }
+
+    // Replace the estimated rows of an inner join by the observed selectivity of the same join condition, if any.
+    private Statistics adjustJoinByCardinalityFeedback(JoinOperator joinType, ScalarOperator joinOnPredicate,
+                                                       double leftRowCount, double rightRowCount,
+                                                       Statistics statistics) {
+        if (!Config.enable_cardinality_feedback) {
+            return statistics;
+        }
+        String signature = CardinalityFeedbackSignature.ofJoin(joinType, joinOnPredicate, columnRefFactory);
+        double selectivity = GlobalStateMgr.getCurrentState().getCardinalityFeedbackMgr().getSelectivity(signature);
+        if (selectivity < 0) {
+            return statistics;
+        }
+        double rowCount = Math.min(leftRowCount * selectivity * rightRowCount,
+                StatisticsEstimateCoefficient.MAXIMUM_ROW_COUNT);
+        return Statistics.buildFrom(statistics).setOutputRowCount(Math.max(1, rowCount)).build();
+    }
+
     private Statistics buildStatisticsForUKFKJoin(JoinOperator joinType, UKFKConstraints constraints,
                                                   double leftRowCount, double rightRowCount,
                                                   Statistics.Builder builder) {
@@ -0,0 +1,696 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.parser;
+
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.BinaryPredicate;
+import com.starrocks.analysis.BinaryType;
+import com.starrocks.analysis.BoolLiteral;
+import com.starrocks.analysis.CompoundPredicate;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.LimitElement;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.NullLiteral;
+import com.starrocks.analysis.SlotRef;
+import com.starrocks.analysis.TableName;
+import com.starrocks.common.NotImplementedException;
+import com.starrocks.sql.ast.DefaultValueExpr;
+import com.starrocks.sql.ast.InsertStmt;
+import com.starrocks.sql.ast.QualifiedName;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.SelectList;
+import com.starrocks.sql.ast.SelectListItem;
+import com.starrocks.sql.ast.SelectRelation;
+import com.starrocks.sql.ast.StatementBase;
+import com.starrocks.sql.ast.TableRelation;
+import com.starrocks.sql.ast.ValuesRelation;
+import org.antlr.v4.runtime.misc.IntervalSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hand-written parser of the two kinds of statements which are sent in large numbers by the clients, and are
+ * simple enough to be recognized without ANTLR:
+ * 1. INSERT INTO | OVERWRITE tbl [(col, ...)] VALUES (value, ...), ...
+ * where a value is DEFAULT, NULL, TRUE, FALSE, a string or a signed number
+ * 2. SELECT col | *, ... FROM tbl [WHERE col op literal [AND col op literal ...]] [LIMIT n]
+ * It scans the sql in place and builds the same AST as {@link AstBuilder}, without the tokens and the parse tree.
+ * Anything else, e.g. comments, hints, keywords used as column names, expressions other than literals, or a
+ * statement which would exceed the token or expression limit, makes it give up and return null, and the statement
+ * is parsed by ANTLR as usual. So it never reports a syntax error by itself.
+ */
+public class FastPathParser {
+    // kinds of the tokens
+    private static final int EOF = 0;
+    private static final int IDENTIFIER = 1;
+    private static final int KEYWORD = 2;
+    private static final int BACKQUOTED_IDENTIFIER = 3;
+    private static final int STRING = 4;
+    private static final int INTEGER_VALUE = 5;
+    private static final int DECIMAL_VALUE = 6;
+    private static final int DOUBLE_VALUE = 7;
+    private static final int LEFT_PAREN = 8;
+    private static final int RIGHT_PAREN = 9;
+    private static final int COMMA = 10;
+    private static final int DOT = 11;
+    private static final int SEMICOLON = 12;
+    private static final int ASTERISK = 13;
+    private static final int PLUS = 14;
+    private static final int MINUS = 15;
+    private static final int EQ = 16;
+    private static final int NEQ = 17;
+    private static final int LT = 18;
+    private static final int LTE = 19;
+    private static final int GT = 20;
+    private static final int GTE = 21;
+
+    // upper case keyword -> token type of StarRocksLexer
+    private static final Map<String, Integer> KEYWORDS = new HashMap<>();
+    // token types of the keywords which can be used as identifiers
+    private static final IntervalSet NON_RESERVED_KEYWORDS = StarRocksParser._ATN.nextTokens(
+            StarRocksParser._ATN.ruleToStartState[StarRocksParser.RULE_nonReserved]);
+
+    static {
+        for (int type = 1; type <= StarRocksLexer.VOCABULARY.getMaxTokenType(); type++) {
+            String literal = StarRocksLexer.VOCABULARY.getLiteralName(type);
+            if (literal != null && literal.length() > 2 && isIdentifierStart(literal.charAt(1))) {
+                KEYWORDS.put(literal.substring(1, literal.length() - 1), type);
+            }
+        }
+    }
+
+    /**
+     * Thrown to give up the fast path, it has no stack trace, so it's cheap to throw.
+     */
+    private static class FallbackException extends RuntimeException {
+        private static final FallbackException INSTANCE = new FallbackException();
+
+        private FallbackException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final String sql;
+    private final long sqlMode;
+    private final int tokenLimit;
+    private final int exprLimit;
+
+    // position of the next char to scan, line starts from 1 and column starts from 0, the same as ANTLR
+    private int index = 0;
+    private int line = 1;
+    private int col = 0;
+    // number of the scanned tokens, including the whitespaces, which are hidden tokens of ANTLR
+    private int tokenCount = 0;
+
+    // the current token
+    private int tokenType;
+    private int keywordType;
+    private int tokenStart;
+    private int tokenLine;
+    private int tokenCol;
+
+    // start of the last consumed token, i.e. the stop token of the node being built
+    private int lastLine;
+    private int lastCol;
+
+    private FastPathParser(String sql, long sqlMode, int tokenLimit, int exprLimit) {
+        this.sql = sql;
+        this.sqlMode = sqlMode;
+        this.tokenLimit = tokenLimit;
+        this.exprLimit = exprLimit;
+    }
+
+    /**
+     * @return the statement, or null if the sql is not recognized, and it should be parsed by ANTLR
+     */
+    public static StatementBase parse(String sql, long sqlMode, int tokenLimit, int exprLimit) {
+        if (!startsWithKeyword(sql, "INSERT") && !startsWithKeyword(sql, "SELECT")) {
+            return null;
+        }
+        try {
+            return new FastPathParser(sql, sqlMode, tokenLimit, exprLimit).parseStatement();
+        } catch (FallbackException | ParsingException e) {
+            // ParsingException is thrown by building a literal, e.g. an overflowed integer, and ANTLR reports it
+            return null;
+        }
+    }
+
+    private static boolean startsWithKeyword(String sql, String keyword) {
+        int i = 0;
+        while (i < sql.length() && isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return sql.regionMatches(true, i, keyword, 0, keyword.length());
+    }
+
+    private StatementBase parseStatement() {
+        next();
+        StatementBase statement;
+        if (isKeyword(StarRocksLexer.INSERT)) {
+            statement = parseInsert();
+        } else if (isKeyword(StarRocksLexer.SELECT)) {
+            statement = parseSelect();
+        } else {
+            throw FallbackException.INSTANCE;
+        }
+        if (tokenType == SEMICOLON) {
+            next();
+        }
+        if (tokenType != EOF) {
+            throw FallbackException.INSTANCE;
+        }
+        return statement;
+    }
+
+    private InsertStmt parseInsert() {
+        int startLine = tokenLine;
+        int startCol = tokenCol;
+        next();
+        boolean isOverwrite;
+        if (isKeyword(StarRocksLexer.INTO)) {
+            isOverwrite = false;
+        } else if (isKeyword(StarRocksLexer.OVERWRITE)) {
+            isOverwrite = true;
+        } else {
+            throw FallbackException.INSTANCE;
+        }
+        next();
+        TableName tableName = parseTableName();
+
+        List<String> columnNames = null;
+        if (tokenType == LEFT_PAREN) {
+            next();
+            columnNames = new ArrayList<>();
+            do {
+                // the same as AstBuilder#getColumnNames
+                columnNames.add(parseIdentifier(true).toLowerCase());
+            } while (consume(COMMA));
+            expect(RIGHT_PAREN);
+        }
+
+        if (!isKeyword(StarRocksLexer.VALUES)) {
+            throw FallbackException.INSTANCE;
+        }
+        int valuesLine = tokenLine;
+        int valuesCol = tokenCol;
+        next();
+        List<List<Expr>> rows = new ArrayList<>();
+        do {
+            if (rows.size() >= exprLimit) {
+                throw FallbackException.INSTANCE;
+            }
+            rows.add(parseRow());
+        } while (consume(COMMA));
+
+        List<String> colNames = new ArrayList<>();
+        for (int i = 0; i < rows.get(0).size(); ++i) {
+            colNames.add("column_" + i);
+        }
+        QueryStatement queryStatement = new QueryStatement(new ValuesRelation(rows, colNames,
+                new NodePosition(valuesLine, valuesCol, lastLine, lastCol)));
+        return new InsertStmt(tableName, null, null, columnNames, queryStatement, isOverwrite, new HashMap<>(),
+                new NodePosition(startLine, startCol, lastLine, lastCol));
+    }
+
+    private List<Expr> parseRow() {
+        expect(LEFT_PAREN);
+        List<Expr> row = Lists.newArrayList();
+        do {
+            if (row.size() >= exprLimit) {
+                throw FallbackException.INSTANCE;
+            }
+            if (isKeyword(StarRocksLexer.DEFAULT)) {
+                row.add(new DefaultValueExpr(new NodePosition(tokenLine, tokenCol, tokenLine, tokenCol)));
+                next();
+            } else {
+                row.add(parseLiteral());
+            }
+        } while (consume(COMMA));
+        expect(RIGHT_PAREN);
+        return row;
+    }
+
+    private QueryStatement parseSelect() {
+        int startLine = tokenLine;
+        int startCol = tokenCol;
+        int startIndex = tokenStart;
+        next();
+        List<SelectListItem> selectItems = new ArrayList<>();
+        do {
+            if (tokenType == ASTERISK) {
+                selectItems.add(new SelectListItem(null, new NodePosition(tokenLine, tokenCol, tokenLine, tokenCol)));
+                next();
+            } else {
+                SlotRef column = parseColumn();
+                selectItems.add(new SelectListItem(column, null, column.getPos()));
+            }
+        } while (consume(COMMA));
+
+        if (!isKeyword(StarRocksLexer.FROM)) {
+            throw FallbackException.INSTANCE;
+        }
+        next();
+        TableName tableName = parseTableName();
+        TableRelation tableRelation = new TableRelation(tableName, null, Lists.newArrayList(), Lists.newArrayList(),
+                tableName.getPos());
+
+        Expr where = null;
+        if (isKeyword(StarRocksLexer.WHERE)) {
+            next();
+            where = parseComparison();
+            while (isKeyword(StarRocksLexer.AND)) {
+                next();
+                Expr right = parseComparison();
+                where = new CompoundPredicate(CompoundPredicate.Operator.AND, where, right,
+                        new NodePosition(where.getPos().getLine(), where.getPos().getCol(), lastLine, lastCol));
+            }
+        }
+        SelectRelation selectRelation = new SelectRelation(new SelectList(selectItems, false), tableRelation, where,
+                null, null, new NodePosition(startLine, startCol, lastLine, lastCol));
+
+        LimitElement limitElement = null;
+        if (isKeyword(StarRocksLexer.LIMIT)) {
+            int limitLine = tokenLine;
+            int limitCol = tokenCol;
+            next();
+            // a longer one may overflow, let ANTLR report it
+            if (tokenType != INTEGER_VALUE || index - tokenStart > 18) {
+                throw FallbackException.INSTANCE;
+            }
+            long limit = Long.parseLong(sql.substring(tokenStart, index));
+            next();
+            limitElement = new LimitElement(0, limit, new NodePosition(limitLine, limitCol, lastLine, lastCol));
+        }
+        selectRelation.setOrderBy(new ArrayList<>());
+        selectRelation.setLimit(limitElement);
+
+        QueryStatement queryStatement = new QueryStatement(selectRelation);
+        queryStatement.setQueryStartIndex(startIndex);
+        return queryStatement;
+    }
+
+    private Expr parseComparison() {
+        SlotRef left = parseColumn();
+        BinaryType op;
+        switch (tokenType) {
+            case EQ:
+                op = BinaryType.EQ;
+                break;
+            case NEQ:
+                op = BinaryType.NE;
+                break;
+            case LT:
+                op = BinaryType.LT;
+                break;
+            case LTE:
+                op = BinaryType.LE;
+                break;
+            case GT:
+                op = BinaryType.GT;
+                break;
+            case GTE:
+                op = BinaryType.GE;
+                break;
+            default:
+                throw FallbackException.INSTANCE;
+        }
+        next();
+        Expr right = parseLiteral();
+        return new BinaryPredicate(op, left, right,
+                new NodePosition(left.getPos().getLine(), left.getPos().getCol(), lastLine, lastCol));
+    }
+
+    private SlotRef parseColumn() {
+        NodePosition pos = new NodePosition(tokenLine, tokenCol, tokenLine, tokenCol);
+        // a keyword may be a function or a special expression, e.g. CURRENT_DATE, leave it to ANTLR
+        String name = parseIdentifier(false);
+        return new SlotRef(QualifiedName.of(Lists.newArrayList(name), pos));
+    }
+
+    private TableName parseTableName() {
+        int startLine = tokenLine;
+        int startCol = tokenCol;
+        List<String> parts = new ArrayList<>(3);
+        parts.add(parseIdentifier(true));
+        while (consume(DOT)) {
+            parts.add(parseIdentifier(true));
+        }
+        NodePosition pos = new NodePosition(startLine, startCol, lastLine, lastCol);
+        // the same as AstBuilder#qualifiedNameToTableName
+        if (parts.size() == 3) {
+            return new TableName(parts.get(0), parts.get(1), parts.get(2), pos);
+        } else if (parts.size() == 2) {
+            return new TableName(null, parts.get(0), parts.get(1), pos);
+        } else if (parts.size() == 1) {
+            return new TableName(null, null, parts.get(0), pos);
+        } else {
+            throw FallbackException.INSTANCE;
+        }
+    }
+
+    private String parseIdentifier(boolean allowNonReserved) {
+        String identifier;
+        if (tokenType == IDENTIFIER ||
+                (tokenType == KEYWORD && allowNonReserved && NON_RESERVED_KEYWORDS.contains(keywordType))) {
+            identifier = sql.substring(tokenStart, index);
+        } else if (tokenType == BACKQUOTED_IDENTIFIER) {
+            // the same as AstBuilder#visitBackQuotedIdentifier
+            identifier = sql.substring(tokenStart, index).replace("`", "");
+        } else {
+            throw FallbackException.INSTANCE;
+        }
+        next();
+        return identifier;
+    }
+
+    private LiteralExpr parseLiteral() {
+        NodePosition pos = new NodePosition(tokenLine, tokenCol, tokenLine, tokenCol);
+        LiteralExpr literal;
+        switch (tokenType) {
+            case PLUS:
+            case MINUS:
+                // the same as AstBuilder#visitArithmeticUnary, the sign is folded into the number
+                boolean negative = tokenType == MINUS;
+                next();
+                if (tokenType != INTEGER_VALUE && tokenType != DECIMAL_VALUE && tokenType != DOUBLE_VALUE) {
+                    throw FallbackException.INSTANCE;
+                }
+                literal = parseLiteral();
+                if (negative) {
+                    try {
+                        literal.swapSign();
+                    } catch (NotImplementedException e) {
+                        throw FallbackException.INSTANCE;
+                    }
+                }
+                return literal;
+            case INTEGER_VALUE:
+                literal = AstBuilder.createIntegerLiteral(sql.substring(tokenStart, index), pos);
+                break;
+            case DECIMAL_VALUE:
+                literal = AstBuilder.createDecimalLiteral(sql.substring(tokenStart, index), sqlMode, pos);
+                break;
+            case DOUBLE_VALUE:
+                literal = AstBuilder.createDoubleLiteral(sql.substring(tokenStart, index), sqlMode, pos);
+                break;
+            case STRING:
+                literal = AstBuilder.createStringLiteral(sql.substring(tokenStart, index), pos);
+                break;
+            case KEYWORD:
+                if (keywordType == StarRocksLexer.NULL) {
+                    literal = new NullLiteral(pos);
+                } else if (keywordType == StarRocksLexer.TRUE || keywordType == StarRocksLexer.FALSE) {
+                    literal = new BoolLiteral(keywordType == StarRocksLexer.TRUE, pos);
+                } else {
+                    throw FallbackException.INSTANCE;
+                }
+                break;
+            default:
+                throw FallbackException.INSTANCE;
+        }
+        next();
+        return literal;
+    }
+
+    private boolean isKeyword(int type) {
+        return tokenType == KEYWORD && keywordType == type;
+    }
+
+    private boolean consume(int type) {
+        if (tokenType == type) {
+            next();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(int type) {
+        if (tokenType != type) {
+            throw FallbackException.INSTANCE;
+        }
+        next();
+    }
+
+    // ---------------------------------------- Scanner -----------------------------------------------------
+
+    /**
+     * Consumes the current token and scans the next one, it's a subset of StarRocksLex.g4, and gives up once
+     * it meets a token which may be scanned differently by ANTLR.
+     */
+    private void next() {
+        lastLine = tokenLine;
+        lastCol = tokenCol;
+        if (index < sql.length() && isWhitespace(sql.charAt(index))) {
+            countToken();
+            do {
+                advance();
+            } while (index < sql.length() && isWhitespace(sql.charAt(index)));
+        }
+        // EOF is a token too
+        countToken();
+        tokenStart = index;
+        tokenLine = line;
+        tokenCol = col;
+        if (index >= sql.length()) {
+            tokenType = EOF;
+            return;
+        }
+
+        char c = sql.charAt(index);
+        if (isIdentifierStart(c)) {
+            scanWord();
+            return;
+        }
+        if (c >= '0' && c <= '9') {
+            scanNumber();
+            return;
+        }
+        switch (c) {
+            case '\'':
+            case '"':
+                scanQuoted(c, true);
+                tokenType = STRING;
+                return;
+            case '`':
+                scanQuoted(c, false);
+                tokenType = BACKQUOTED_IDENTIFIER;
+                return;
+            case '(':
+                scanSymbol(LEFT_PAREN, 1);
+                return;
+            case ')':
+                scanSymbol(RIGHT_PAREN, 1);
+                return;
+            case ',':
+                scanSymbol(COMMA, 1);
+                return;
+            case ';':
+                scanSymbol(SEMICOLON, 1);
+                return;
+            case '*':
+                scanSymbol(ASTERISK, 1);
+                return;
+            case '+':
+                scanSymbol(PLUS, 1);
+                return;
+            case '.':
+                // .123 is a decimal, and ... is a symbol
+                if (isDigitOrDot(peek(1))) {
+                    throw FallbackException.INSTANCE;
+                }
+                scanSymbol(DOT, 1);
+                return;
+            case '-':
+                // -- is a comment and -> is an arrow
+                if (peek(1) == '-' || peek(1) == '>') {
+                    throw FallbackException.INSTANCE;
+                }
+                scanSymbol(MINUS, 1);
+                return;
+            case '=':
+                if (isComparisonChar(peek(1))) {
+                    throw FallbackException.INSTANCE;
+                }
+                scanSymbol(EQ, 1);
+                return;
+            case '!':
+                if (peek(1) != '=' || isComparisonChar(peek(2))) {
+                    throw FallbackException.INSTANCE;
+                }
+                scanSymbol(NEQ, 2);
+                return;
+            case '<':
+                if (peek(1) == '>' && !isComparisonChar(peek(2))) {
+                    scanSymbol(NEQ, 2);
+                } else if (peek(1) == '=' && !isComparisonChar(peek(2))) {
+                    scanSymbol(LTE, 2);
+                } else if (!isComparisonChar(peek(1))) {
+                    scanSymbol(LT, 1);
+                } else {
+                    // <=>, <<, etc.
+                    throw FallbackException.INSTANCE;
+                }
+                return;
+            case '>':
+                if (peek(1) == '=' && !isComparisonChar(peek(2))) {
+                    scanSymbol(GTE, 2);
+                } else if (!isComparisonChar(peek(1))) {
+                    scanSymbol(GT, 1);
+                } else {
+                    throw FallbackException.INSTANCE;
+                }
+                return;
+            default:
+                // comments, hints, parameters, non-ascii identifiers, etc.
+                throw FallbackException.INSTANCE;
+        }
+    }
+
+    private void scanWord() {
+        do {
+            advance();
+        } while (index < sql.length() && isIdentifierPart(sql.charAt(index)));
+        char c = peek(0);
+        // a non-ascii letter is part of the identifier, and X'..' is a binary literal
+        if (c >= 0x80 || c == '\'' || c == '"' || c == '`') {
+            throw FallbackException.INSTANCE;
+        }
+        Integer type = KEYWORDS.get(sql.substring(tokenStart, index).toUpperCase(Locale.ROOT));
+        if (type == null) {
+            tokenType = IDENTIFIER;
+        } else {
+            tokenType = KEYWORD;
+            keywordType = type;
+        }
+    }
+
+    private void scanNumber() {
+        tokenType = INTEGER_VALUE;
+        scanDigits();
+        if (peek(0) == '.') {
+            tokenType = DECIMAL_VALUE;
+            advance();
+            scanDigits();
+        }
+        char c = peek(0);
+        if ((c == 'e' || c == 'E') &&
+                (isDigit(peek(1)) || ((peek(1) == '+' || peek(1) == '-') && isDigit(peek(2))))) {
+            tokenType = DOUBLE_VALUE;
+            advance();
+            advance();
+            scanDigits();
+        }
+        // 1a is an identifier, let ANTLR handle all these cases
+        c = peek(0);
+        if (isIdentifierPart(c) || c >= 0x80 || c == '.' || c == '\'' || c == '"' || c == '`') {
+            throw FallbackException.INSTANCE;
+        }
+    }
+
+    private void scanDigits() {
+        while (isDigit(peek(0))) {
+            advance();
+        }
+    }
+
+    /**
+     * Scans SINGLE_QUOTED_TEXT, DOUBLE_QUOTED_TEXT or BACKQUOTED_IDENTIFIER, a doubled quote is part of the text.
+     */
+    private void scanQuoted(char quote, boolean backslashEscape) {
+        advance();
+        while (true) {
+            if (index >= sql.length()) {
+                throw FallbackException.INSTANCE;
+            }
+            char c = sql.charAt(index);
+            if (c == '\\' && backslashEscape) {
+                if (index + 1 >= sql.length()) {
+                    throw FallbackException.INSTANCE;
+                }
+                advance();
+                advance();
+            } else if (c == quote) {
+                advance();
+                if (peek(0) != quote) {
+                    return;
+                }
+                advance();
+            } else {
+                advance();
+            }
+        }
+    }
+
+    private void scanSymbol(int type, int length) {
+        tokenType = type;
+        for (int i = 0; i < length; i++) {
+            advance();
+        }
+    }
+
+    private void countToken() {
+        // PostProcessListener rejects the statement once the index of a token reaches the limit
+        if (tokenCount >= tokenLimit) {
+            throw FallbackException.INSTANCE;
+        }
+        tokenCount++;
+    }
+
+    private void advance() {
+        char c = sql.charAt(index++);
+        if (c == '\n') {
+            line++;
+            col = 0;
+        } else if (Character.isSurrogate(c)) {
+            // ANTLR counts the columns by code points
+            throw FallbackException.INSTANCE;
+        } else {
+            col++;
+        }
+    }
+
+    private char peek(int offset) {
+        return index + offset < sql.length() ? sql.charAt(index + offset) : 0;
+    }
+
+    // U+3000 is a whitespace of StarRocksLex.g4, but ANTLR scans it as an identifier, for LETTER has it too
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\r' || c == '\n' || c == '\t';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDigitOrDot(char c) {
+        return isDigit(c) || c == '.';
+    }
+
+    private static boolean isComparisonChar(char c) {
+        return c == '=' || c == '<' || c == '>' || c == '!';
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || isDigit(c) || c == '$';
+    }
+}
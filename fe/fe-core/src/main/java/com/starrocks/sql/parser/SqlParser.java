@@ -134,6 +134,17 @@ public class SqlParser {
 
     private static List<StatementBase> parseWithStarRocksDialect(String sql, SessionVariable sessionVariable) {
         List<StatementBase> statements = Lists.newArrayList();
+        // the fast path builds the AST by itself, so it's skipped if the AstBuilder is customized
+        if (Config.enable_fast_path_parser &&
+                GlobalStateMgr.getCurrentState().getSqlParser().astBuilderFactory == AstBuilder.getInstance()) {
+            StatementBase statement = FastPathParser.parse(sql, sessionVariable.getSqlMode(),
+                    getTokenLimit(sessionVariable), getExprLimit(sessionVariable));
+            if (statement != null) {
+                statement.setOrigStmt(new OriginStatement(sql, 0));
+                statements.add(statement);
+                return statements;
+            }
+        }
         Pair<ParserRuleContext, StarRocksParser> pair = invokeParser(sql, sessionVariable, StarRocksParser::sqlStatements);
         StarRocksParser.SqlStatementsContext sqlStatementsContext = (StarRocksParser.SqlStatementsContext) pair.first;
         List<StarRocksParser.SingleStatementContext> singleStatementContexts = sqlStatementsContext.singleStatement();
@@ -228,8 +239,8 @@ public class SqlParser {
         StarRocksLexer lexer = new StarRocksLexer(new CaseInsensitiveStream(CharStreams.fromString(sql)));
         lexer.setSqlMode(sessionVariable.getSqlMode());
         CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-        int exprLimit = Math.max(Config.expr_children_limit, sessionVariable.getExprChildrenLimit());
-        int tokenLimit = Math.max(MIN_TOKEN_LIMIT, sessionVariable.getParseTokensLimit());
+        int exprLimit = getExprLimit(sessionVariable);
+        int tokenLimit = getTokenLimit(sessionVariable);
         StarRocksParser parser = new StarRocksParser(tokenStream);
         parser.removeErrorListeners();
         parser.addErrorListener(new ErrorHandler());
@@ -260,6 +271,14 @@ public class SqlParser {
         }
     }
 
+    private static int getExprLimit(SessionVariable sessionVariable) {
+        return Math.max(Config.expr_children_limit, sessionVariable.getExprChildrenLimit());
+    }
+
+    private static int getTokenLimit(SessionVariable sessionVariable) {
+        return Math.max(MIN_TOKEN_LIMIT, sessionVariable.getParseTokensLimit());
+    }
+
     public static String getTokenDisplay(Token t) {
         if (t == null) {
             return "<no token>";
@@ -104,6 +104,7 @@ import com.starrocks.planner.PlanFragment;
 import com.starrocks.planner.PlanNode;
 import com.starrocks.planner.ProjectNode;
 import com.starrocks.planner.RepeatNode;
+import com.starrocks.planner.ResultSink;
 import com.starrocks.planner.RuntimeFilterId;
 import com.starrocks.planner.ScanNode;
 import com.starrocks.planner.SchemaScanNode;
@@ -361,6 +362,9 @@ public class PlanFragmentBuilder {
         List<PlanFragment> fragments = execPlan.getFragments();
         for (PlanFragment fragment : fragments) {
             fragment.createDataSink(resultSinkType);
+            if (fragment.getSink() instanceof ResultSink) {
+                ((ResultSink) fragment.getSink()).setOutputColumnNames(execPlan.getColNames());
+            }
             fragment.setCollectExecStatsIds(execPlan.getCollectExecStatsIds());
         }
         Collections.reverse(fragments);
@@ -436,7 +440,9 @@ public class PlanFragmentBuilder {
             if (ConnectContext.get() == null) {
                 return;
             }
-            if (!ConnectContext.get().getSessionVariable().isEnablePlanAdvisor()) {
+            SessionVariable sessionVariable = ConnectContext.get().getSessionVariable();
+            if (!sessionVariable.isEnablePlanAdvisor() && !Config.enable_cardinality_feedback &&
+                    !sessionVariable.isEnableAdaptiveRuntimeFilter()) {
                 return;
             }
 
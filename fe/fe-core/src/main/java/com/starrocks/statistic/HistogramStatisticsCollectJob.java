@@ -17,22 +17,31 @@ package com.starrocks.statistic;
 import com.google.common.base.Joiner;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Type;
 import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.thrift.TStatisticData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.apache.velocity.VelocityContext;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.starrocks.statistic.StatsConstants.HISTOGRAM_STATISTICS_TABLE_NAME;
+import static com.starrocks.statistic.StatsConstants.PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME;
 
 public class HistogramStatisticsCollectJob extends StatisticsCollectJob {
+    private static final Logger LOG = LogManager.getLogger(HistogramStatisticsCollectJob.class);
+
     private static final String COLLECT_HISTOGRAM_STATISTIC_TEMPLATE =
             "SELECT $tableId, '$columnNameStr', $dbId, '$dbName.$tableName'," +
                     " histogram(`column_key`, cast($bucketNum as int), cast($sampleRatio as double)), " +
@@ -54,6 +63,31 @@ public class HistogramStatisticsCollectJob extends StatisticsCollectJob {
                     "group by $columnName " +
                     "order by count($columnName) desc limit $topN ) t";
 
+    private static final String COLLECT_PARTITION_HISTOGRAM_STATISTIC_TEMPLATE =
+            "SELECT $tableId, $partitionId, '$columnNameStr', $dbId, '$dbName.$tableName'," +
+                    " histogram(`column_key`, cast($bucketNum as int), cast($sampleRatio as double)), " +
+                    " $mcv," +
+                    " NOW()" +
+                    " FROM (SELECT $columnName as column_key FROM `$dbName`.`$tableName` partition `$partitionName`" +
+                    " where rand() <= $sampleRatio and $columnName is not null $MCVExclude" +
+                    " ORDER BY $columnName LIMIT $totalRows) t";
+
+    private static final String COLLECT_PARTITION_MCV_STATISTIC_TEMPLATE =
+            "select cast(version as INT), cast(db_id as BIGINT), cast(table_id as BIGINT), " +
+                    "cast(column_key as varchar), cast(column_value as varchar) from (" +
+                    "select " + StatsConstants.STATISTIC_HISTOGRAM_VERSION + " as version, " +
+                    "$dbId as db_id, " +
+                    "$tableId as table_id, " +
+                    "$columnName as column_key, " +
+                    "count($columnName) as column_value " +
+                    "from `$dbName`.`$tableName` partition `$partitionName` where $columnName is not null " +
+                    "group by $columnName " +
+                    "order by count($columnName) desc limit $topN ) t";
+
+    private static final String MERGED_HISTOGRAM_STATISTIC_TEMPLATE =
+            "INSERT INTO " + HISTOGRAM_STATISTICS_TABLE_NAME +
+                    " VALUES ($tableId, '$columnNameStr', $dbId, '$dbName.$tableName', $buckets, $mcv, NOW())";
+
     public HistogramStatisticsCollectJob(Database db, Table table, List<String> columnNames, List<Type> columnTypes,
                                          StatsConstants.AnalyzeType type, StatsConstants.ScheduleType scheduleType,
                                          Map<String, String> properties) {
@@ -76,22 +110,149 @@ public class HistogramStatisticsCollectJob extends StatisticsCollectJob {
         for (int i = 0; i < columnNames.size(); i++) {
             String columnName = columnNames.get(i);
             Type columnType = columnTypes.get(i);
-            String sql = buildCollectMCV(db, table, mcvSize, columnName);
-            StatisticExecutor statisticExecutor = new StatisticExecutor();
-            List<TStatisticData> mcv = statisticExecutor.queryMCV(context, sql);
+            if (isIncrementalCollect(columnType)) {
+                collectIncremental(context, sampleRatio, bucketNum, mcvSize, columnName, columnType);
+            } else {
+                String sql = buildCollectMCV(db, table, mcvSize, columnName);
+                StatisticExecutor statisticExecutor = new StatisticExecutor();
+                List<TStatisticData> mcv = statisticExecutor.queryMCV(context, sql);
+
+                Map<String, String> mostCommonValues = new HashMap<>();
+                for (TStatisticData tStatisticData : mcv) {
+                    mostCommonValues.put(tStatisticData.columnName, tStatisticData.histogram);
+                }
+
+                sql = buildCollectHistogram(db, table, sampleRatio, bucketNum, mostCommonValues, columnName,
+                        columnType);
+                collectStatisticSync(sql, context);
+            }
 
+            finishedSQLNum++;
+            analyzeStatus.setProgress(finishedSQLNum * 100 / totalCollectSQL);
+            GlobalStateMgr.getCurrentState().getAnalyzeMgr().addAnalyzeStatus(analyzeStatus);
+        }
+    }
+
+    private boolean isIncrementalCollect(Type columnType) {
+        return Config.enable_incremental_histogram_collect && table.isNativeTableOrMaterializedView()
+                && table.getPartitions().size() > 1 && PartitionHistogramMerger.supportMerge(columnType);
+    }
+
+    /*
+     * Collect the histogram of the partitions changed since the last collection into
+     * partition_histogram_statistics, then merge all partition histograms into the table histogram.
+     * The unchanged partitions are not scanned again.
+     */
+    private void collectIncremental(ConnectContext context, double sampleRatio, long bucketNum, long mcvSize,
+                                    String columnName, Type columnType) throws Exception {
+        HistogramStatsMeta histogramStatsMeta = GlobalStateMgr.getCurrentState().getAnalyzeMgr()
+                .getHistogramStatsMetaMap().get(new Pair<>(table.getId(), columnName));
+        LocalDateTime lastCollectTime = histogramStatsMeta == null ? LocalDateTime.MIN :
+                histogramStatsMeta.getUpdateTime();
+
+        List<Partition> partitions = new ArrayList<>();
+        for (Partition partition : table.getPartitions()) {
+            if (partition.hasData()) {
+                partitions.add(partition);
+            }
+        }
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        StatisticExecutor statisticExecutor = new StatisticExecutor();
+        Map<Long, String> partitionHistograms = queryPartitionHistograms(context, statisticExecutor, columnName,
+                partitions.stream().map(Partition::getId).collect(Collectors.toList()));
+
+        List<Long> collectedPartitionIds = new ArrayList<>();
+        for (Partition partition : partitions) {
+            if (partitionHistograms.containsKey(partition.getId()) &&
+                    !lastCollectTime.isBefore(StatisticUtils.getPartitionLastUpdateTime(partition))) {
+                continue;
+            }
+
+            String sql = buildCollectPartitionMCV(db, table, partition, mcvSize, columnName);
+            List<TStatisticData> mcv = statisticExecutor.queryMCV(context, sql);
             Map<String, String> mostCommonValues = new HashMap<>();
             for (TStatisticData tStatisticData : mcv) {
                 mostCommonValues.put(tStatisticData.columnName, tStatisticData.histogram);
             }
 
-            sql = buildCollectHistogram(db, table, sampleRatio, bucketNum, mostCommonValues, columnName, columnType);
+            sql = buildCollectPartitionHistogram(db, table, partition, sampleRatio, bucketNum, mostCommonValues,
+                    columnName, columnType);
             collectStatisticSync(sql, context);
+            collectedPartitionIds.add(partition.getId());
+        }
 
-            finishedSQLNum++;
-            analyzeStatus.setProgress(finishedSQLNum * 100 / totalCollectSQL);
-            GlobalStateMgr.getCurrentState().getAnalyzeMgr().addAnalyzeStatus(analyzeStatus);
+        if (!collectedPartitionIds.isEmpty()) {
+            partitionHistograms.putAll(queryPartitionHistograms(context, statisticExecutor, columnName,
+                    collectedPartitionIds));
+        }
+        LOG.info("incremental histogram collect on table: {}, column: {}, collected partitions: {}/{}",
+                table.getName(), columnName, collectedPartitionIds.size(), partitions.size());
+
+        PartitionHistogramMerger merger = new PartitionHistogramMerger(columnType, bucketNum, mcvSize);
+        for (String histogram : partitionHistograms.values()) {
+            merger.addPartitionHistogram(histogram);
+        }
+        String mergedMCV = merger.mergeMCV();
+        String mergedBuckets = merger.mergeBuckets();
+        collectStatisticSync(buildMergedHistogram(db, table, columnName, mergedBuckets, mergedMCV), context);
+    }
+
+    private Map<Long, String> queryPartitionHistograms(ConnectContext context, StatisticExecutor statisticExecutor,
+                                                       String columnName, List<Long> partitionIds) {
+        Map<Long, String> result = new HashMap<>();
+        for (TStatisticData data : statisticExecutor.queryPartitionHistogram(context, table.getId(), columnName,
+                partitionIds)) {
+            result.put(data.getPartitionId(), data.getHistogram());
         }
+        return result;
+    }
+
+    private String buildCollectPartitionMCV(Database database, Table table, Partition partition, Long topN,
+                                            String columnName) {
+        VelocityContext context = new VelocityContext();
+        context.put("tableId", table.getId());
+        context.put("columnName", StatisticUtils.quoting(table, columnName));
+        context.put("dbId", database.getId());
+
+        context.put("dbName", database.getOriginName());
+        context.put("tableName", table.getName());
+        context.put("partitionName", partition.getName());
+        context.put("topN", topN);
+
+        return build(context, COLLECT_PARTITION_MCV_STATISTIC_TEMPLATE);
+    }
+
+    private String buildCollectPartitionHistogram(Database database, Table table, Partition partition,
+                                                  double sampleRatio, Long bucketNum,
+                                                  Map<String, String> mostCommonValues, String columnName,
+                                                  Type columnType) {
+        StringBuilder builder = new StringBuilder("INSERT INTO ").append(PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME)
+                .append(" ");
+
+        VelocityContext context = new VelocityContext();
+        context.put("partitionId", partition.getId());
+        context.put("partitionName", partition.getName());
+        fillHistogramContext(context, database, table, sampleRatio, bucketNum, mostCommonValues, columnName,
+                columnType);
+
+        builder.append(build(context, COLLECT_PARTITION_HISTOGRAM_STATISTIC_TEMPLATE));
+        return builder.toString();
+    }
+
+    private String buildMergedHistogram(Database database, Table table, String columnName, String buckets,
+                                        String mcv) {
+        VelocityContext context = new VelocityContext();
+        context.put("tableId", table.getId());
+        context.put("columnNameStr", columnName);
+        context.put("dbId", database.getId());
+        context.put("dbName", database.getOriginName());
+        context.put("tableName", table.getName());
+        context.put("buckets", buckets == null ? "NULL" : "'" + buckets + "'");
+        context.put("mcv", mcv == null ? "NULL" : "'" + mcv + "'");
+        return build(context, MERGED_HISTOGRAM_STATISTIC_TEMPLATE);
     }
 
     private String buildCollectMCV(Database database, Table table, Long topN, String columnName) {
@@ -111,9 +272,20 @@ public class HistogramStatisticsCollectJob extends StatisticsCollectJob {
                                          Long bucketNum, Map<String, String> mostCommonValues, String columnName,
                                          Type columnType) {
         StringBuilder builder = new StringBuilder("INSERT INTO ").append(HISTOGRAM_STATISTICS_TABLE_NAME).append(" ");
-        String quoteColumName = StatisticUtils.quoting(table, columnName);
 
         VelocityContext context = new VelocityContext();
+        fillHistogramContext(context, database, table, sampleRatio, bucketNum, mostCommonValues, columnName,
+                columnType);
+
+        builder.append(build(context, COLLECT_HISTOGRAM_STATISTIC_TEMPLATE));
+        return builder.toString();
+    }
+
+    private void fillHistogramContext(VelocityContext context, Database database, Table table, double sampleRatio,
+                                      Long bucketNum, Map<String, String> mostCommonValues, String columnName,
+                                      Type columnType) {
+        String quoteColumName = StatisticUtils.quoting(table, columnName);
+
         context.put("tableId", table.getId());
         context.put("columnName", quoteColumName);
         context.put("columnNameStr", columnName);
@@ -147,8 +319,5 @@ public class HistogramStatisticsCollectJob extends StatisticsCollectJob {
         } else {
             context.put("MCVExclude", "");
         }
-
-        builder.append(build(context, COLLECT_HISTOGRAM_STATISTIC_TEMPLATE));
-        return builder.toString();
     }
 }
@@ -0,0 +1,228 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.statistic;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.starrocks.catalog.Type;
+import com.starrocks.common.AnalysisException;
+import com.starrocks.sql.optimizer.statistics.HistogramUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Merge the per-partition histograms (equi-height buckets + most common values) persisted in
+ * {@link StatsConstants#PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME} into one table level histogram, so that
+ * only the changed partitions need to be rescanned when the histogram is refreshed.
+ * <p>
+ * Buckets are treated as a piecewise uniform distribution, the merged bucket bounds are picked from the
+ * bounds of the input buckets, so the output keeps the same string format as the BE histogram function.
+ * MCV counts are summed across partitions, the values which don't fit in the merged MCV list are folded
+ * back into the buckets, so the total row count is kept.
+ */
+public class PartitionHistogramMerger {
+    private final Type columnType;
+    private final long bucketNum;
+    private final long mcvSize;
+
+    private final List<InputBucket> inputBuckets = new ArrayList<>();
+    private final Map<String, Long> mcv = new HashMap<>();
+
+    public PartitionHistogramMerger(Type columnType, long bucketNum, long mcvSize) {
+        this.columnType = columnType;
+        this.bucketNum = Math.max(1, bucketNum);
+        this.mcvSize = mcvSize;
+    }
+
+    public static boolean supportMerge(Type type) {
+        return type.isNumericType() || type.isDate() || type.isDatetime();
+    }
+
+    /**
+     * Add one partition histogram, the format is the same as histogram statistics query result:
+     * {"buckets": [[lower, upper, count, upper_repeats], ...], "mcv": [[value, count], ...]}
+     */
+    public void addPartitionHistogram(String histogramJson) throws AnalysisException {
+        JsonObject jsonObject = JsonParser.parseString(histogramJson).getAsJsonObject();
+
+        JsonElement bucketsElement = jsonObject.get("buckets");
+        if (bucketsElement != null && !bucketsElement.isJsonNull()) {
+            JsonArray buckets = parseArray(bucketsElement);
+            long lastCount = 0;
+            for (int i = 0; i < buckets.size(); ++i) {
+                JsonArray bucket = buckets.get(i).getAsJsonArray();
+                String lower = bucket.get(0).getAsString();
+                String upper = bucket.get(1).getAsString();
+                // bucket count is accumulated in one histogram
+                long count = Long.parseLong(bucket.get(2).getAsString());
+                long upperRepeats = Long.parseLong(bucket.get(3).getAsString());
+                inputBuckets.add(new InputBucket(lower, HistogramUtils.convertBucketBound(lower, columnType),
+                        upper, HistogramUtils.convertBucketBound(upper, columnType),
+                        Math.max(0, count - lastCount), upperRepeats));
+                lastCount = count;
+            }
+        }
+
+        JsonElement mcvElement = jsonObject.get("mcv");
+        if (mcvElement != null && !mcvElement.isJsonNull()) {
+            JsonArray values = parseArray(mcvElement);
+            for (int i = 0; i < values.size(); ++i) {
+                JsonArray value = values.get(i).getAsJsonArray();
+                mcv.merge(value.get(0).getAsString(), Long.parseLong(value.get(1).getAsString()), Long::sum);
+            }
+        }
+    }
+
+    private static JsonArray parseArray(JsonElement element) {
+        // the buckets/mcv column is stored as varchar, json_object returns it as a json string
+        if (element.isJsonPrimitive()) {
+            return JsonParser.parseString(element.getAsString()).getAsJsonArray();
+        }
+        return element.getAsJsonArray();
+    }
+
+    /**
+     * @return the merged MCV in the format of histogram statistics table, null if there is no MCV
+     */
+    public String mergeMCV() throws AnalysisException {
+        List<Map.Entry<String, Long>> sorted = mcv.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .collect(Collectors.toList());
+
+        List<String> kept = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            Map.Entry<String, Long> entry = sorted.get(i);
+            if (i < mcvSize) {
+                kept.add("[\"" + entry.getKey() + "\",\"" + entry.getValue() + "\"]");
+            } else {
+                // fold into buckets as a point bucket
+                double value = HistogramUtils.convertBucketBound(entry.getKey(), columnType);
+                inputBuckets.add(new InputBucket(entry.getKey(), value, entry.getKey(), value,
+                        entry.getValue(), entry.getValue()));
+            }
+        }
+        mcv.clear();
+        return kept.isEmpty() ? null : "[" + String.join(",", kept) + "]";
+    }
+
+    /**
+     * Must be called after {@link #mergeMCV()}
+     *
+     * @return the merged buckets in the format of histogram statistics table, null if there is no bucket
+     */
+    public String mergeBuckets() {
+        if (inputBuckets.isEmpty()) {
+            return null;
+        }
+
+        // all bounds sorted by value, they are the candidates of the merged bucket bounds
+        List<InputBucket> byLower = new ArrayList<>(inputBuckets);
+        byLower.sort(Comparator.comparingDouble(b -> b.lower));
+        List<Bound> bounds = new ArrayList<>();
+        for (InputBucket b : inputBuckets) {
+            bounds.add(new Bound(b.lowerStr, b.lower));
+            bounds.add(new Bound(b.upperStr, b.upper));
+        }
+        bounds.sort(Comparator.comparingDouble(b -> b.value));
+
+        long total = inputBuckets.stream().mapToLong(b -> b.count).sum();
+        double rowsPerBucket = Math.max(1.0, (double) total / bucketNum);
+
+        List<String> result = new ArrayList<>();
+        List<InputBucket> active = new ArrayList<>();
+        int lowerIndex = 0;
+        long finishedRows = 0;
+        double lastCount = 0;
+        String nextLower = bounds.get(0).str;
+
+        for (int i = 0; i < bounds.size(); i++) {
+            Bound bound = bounds.get(i);
+            // skip the duplicate values, only the last one is used as a candidate
+            if (i + 1 < bounds.size() && bounds.get(i + 1).value == bound.value) {
+                continue;
+            }
+            double x = bound.value;
+
+            while (lowerIndex < byLower.size() && byLower.get(lowerIndex).lower <= x) {
+                active.add(byLower.get(lowerIndex++));
+            }
+
+            double cumulative = finishedRows;
+            long upperRepeats = 0;
+            List<InputBucket> stillActive = new ArrayList<>(active.size());
+            for (InputBucket b : active) {
+                if (b.upper <= x) {
+                    finishedRows += b.count;
+                    cumulative += b.count;
+                    if (b.upper == x) {
+                        upperRepeats += b.upperRepeats;
+                    }
+                } else {
+                    cumulative += (b.count - b.upperRepeats) * (x - b.lower) / (b.upper - b.lower);
+                    stillActive.add(b);
+                }
+            }
+            active = stillActive;
+
+            boolean isLast = i == bounds.size() - 1;
+            if (cumulative - lastCount >= rowsPerBucket || isLast) {
+                long count = Math.max((long) lastCount, Math.round(cumulative));
+                result.add("[\"" + nextLower + "\",\"" + bound.str + "\",\"" + count + "\",\"" +
+                        Math.min(upperRepeats, count) + "\"]");
+                lastCount = count;
+                if (!isLast) {
+                    nextLower = bounds.get(i + 1).str;
+                }
+            }
+        }
+        return "[" + String.join(",", result) + "]";
+    }
+
+    private static class InputBucket {
+        private final String lowerStr;
+        private final double lower;
+        private final String upperStr;
+        private final double upper;
+        private final long count;
+        private final long upperRepeats;
+
+        private InputBucket(String lowerStr, double lower, String upperStr, double upper, long count,
+                            long upperRepeats) {
+            this.lowerStr = lowerStr;
+            this.lower = lower;
+            this.upperStr = upperStr;
+            this.upper = upper;
+            this.count = count;
+            this.upperRepeats = Math.min(upperRepeats, count);
+        }
+    }
+
+    private static class Bound {
+        private final String str;
+        private final double value;
+
+        private Bound(String str, double value) {
+            this.str = str;
+            this.value = value;
+        }
+    }
+}
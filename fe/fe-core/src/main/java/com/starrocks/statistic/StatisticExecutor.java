@@ -140,14 +140,22 @@ public class StatisticExecutor {
     public boolean dropPartitionStatistics(ConnectContext statsConnectCtx, List<Long> pids) {
         String sql = StatisticSQLBuilder.buildDropPartitionSQL(pids);
         LOG.debug("Expire partition statistic SQL: {}", sql);
-        return executeDML(statsConnectCtx, sql);
+        boolean result = executeDML(statsConnectCtx, sql);
+
+        sql = StatisticSQLBuilder.buildDropPartitionHistogramSQL(pids);
+        LOG.debug("Expire partition histogram statistic SQL: {}", sql);
+        return executeDML(statsConnectCtx, sql) && result;
     }
 
     public boolean dropTableInvalidPartitionStatistics(ConnectContext statsConnectCtx, List<Long> tables,
                                                        List<Long> pids) {
         String sql = StatisticSQLBuilder.buildDropTableInvalidPartitionSQL(tables, pids);
         LOG.debug("Expire invalid partition statistic SQL: {}", sql);
-        return executeDML(statsConnectCtx, sql);
+        boolean result = executeDML(statsConnectCtx, sql);
+
+        sql = StatisticSQLBuilder.buildDropTableInvalidPartitionHistogramSQL(tables, pids);
+        LOG.debug("Expire invalid partition histogram statistic SQL: {}", sql);
+        return executeDML(statsConnectCtx, sql) && result;
     }
 
     public List<TStatisticData> queryHistogram(ConnectContext statsConnectCtx, Long tableId, List<String> columnNames) {
@@ -160,6 +168,12 @@ public class StatisticExecutor {
         return executeStatisticDQL(statsConnectCtx, sql);
     }
 
+    public List<TStatisticData> queryPartitionHistogram(ConnectContext statsConnectCtx, Long tableId,
+                                                        String columnName, List<Long> partitionIds) {
+        String sql = StatisticSQLBuilder.buildQueryPartitionHistogramStatisticsSQL(tableId, columnName, partitionIds);
+        return executeStatisticDQL(statsConnectCtx, sql);
+    }
+
     public List<TStatisticData> queryMCV(ConnectContext statsConnectCtx, String sql) {
         return executeStatisticDQL(statsConnectCtx, sql);
     }
@@ -170,6 +184,11 @@ public class StatisticExecutor {
         if (!result) {
             LOG.warn("Execute statistic table expire fail.");
         }
+
+        sql = StatisticSQLBuilder.buildDropPartitionHistogramSQL(tableId, columnNames);
+        if (!executeDML(statsConnectCtx, sql)) {
+            LOG.warn("Execute partition histogram statistic table expire fail.");
+        }
     }
 
     public void dropExternalHistogram(ConnectContext statsConnectCtx, String tableUUID, List<String> columnNames) {
@@ -259,7 +278,8 @@ public class StatisticExecutor {
                 || version == StatsConstants.STATISTIC_EXTERNAL_VERSION
                 || version == StatsConstants.STATISTIC_EXTERNAL_QUERY_VERSION
                 || version == StatsConstants.STATISTIC_EXTERNAL_HISTOGRAM_VERSION
-                || version == StatsConstants.STATISTIC_EXTERNAL_QUERY_V2_VERSION) {
+                || version == StatsConstants.STATISTIC_EXTERNAL_QUERY_V2_VERSION
+                || version == StatsConstants.STATISTIC_PARTITION_HISTOGRAM_VERSION) {
             TDeserializer deserializer = new TDeserializer(new TCompactProtocol.Factory());
             for (TResultBatch resultBatch : sqlResult) {
                 for (ByteBuffer bb : resultBatch.rows) {
@@ -30,11 +30,13 @@ import java.util.stream.Collectors;
 
 import static com.starrocks.statistic.StatsConstants.EXTERNAL_FULL_STATISTICS_TABLE_NAME;
 import static com.starrocks.statistic.StatsConstants.FULL_STATISTICS_TABLE_NAME;
+import static com.starrocks.statistic.StatsConstants.PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME;
 import static com.starrocks.statistic.StatsConstants.SAMPLE_STATISTICS_TABLE_NAME;
 import static com.starrocks.statistic.StatsConstants.STATISTIC_DATA_VERSION;
 import static com.starrocks.statistic.StatsConstants.STATISTIC_EXTERNAL_HISTOGRAM_VERSION;
 import static com.starrocks.statistic.StatsConstants.STATISTIC_EXTERNAL_QUERY_V2_VERSION;
 import static com.starrocks.statistic.StatsConstants.STATISTIC_HISTOGRAM_VERSION;
+import static com.starrocks.statistic.StatsConstants.STATISTIC_PARTITION_HISTOGRAM_VERSION;
 import static com.starrocks.statistic.StatsConstants.STATISTIC_TABLE_VERSION;
 
 public class StatisticSQLBuilder {
@@ -73,6 +75,12 @@ public class StatisticSQLBuilder {
                     + " FROM " + StatsConstants.HISTOGRAM_STATISTICS_TABLE_NAME
                     + " WHERE $predicate";
 
+    private static final String QUERY_PARTITION_HISTOGRAM_STATISTIC_TEMPLATE =
+            "SELECT cast(" + STATISTIC_PARTITION_HISTOGRAM_VERSION + " as INT), partition_id, table_id, column_name,"
+                    + " cast(json_object(\"buckets\", buckets, \"mcv\", mcv) as varchar)"
+                    + " FROM " + PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME
+                    + " WHERE $predicate";
+
     private static final String QUERY_EXTERNAL_HISTOGRAM_STATISTIC_TEMPLATE =
             "SELECT cast(" + STATISTIC_EXTERNAL_HISTOGRAM_VERSION + " as INT), column_name,"
                     + " cast(json_object(\"buckets\", buckets, \"mcv\", mcv) as varchar)"
@@ -197,11 +205,25 @@ public class StatisticSQLBuilder {
                 ");";
     }
 
+    public static String buildDropPartitionHistogramSQL(List<Long> pids) {
+        return "DELETE FROM " + PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME + " WHERE PARTITION_ID IN (" +
+                pids.stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")";
+    }
+
     public static String buildDropTableInvalidPartitionSQL(List<Long> tables, List<Long> partitions) {
+        return buildDropTableInvalidPartitionSQL(FULL_STATISTICS_TABLE_NAME, tables, partitions);
+    }
+
+    public static String buildDropTableInvalidPartitionHistogramSQL(List<Long> tables, List<Long> partitions) {
+        return buildDropTableInvalidPartitionSQL(PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME, tables, partitions);
+    }
+
+    private static String buildDropTableInvalidPartitionSQL(String statisticsTableName, List<Long> tables,
+                                                            List<Long> partitions) {
         Preconditions.checkState(!tables.isEmpty() && !partitions.isEmpty());
 
         StringBuilder sql = new StringBuilder();
-        sql.append("DELETE FROM " + FULL_STATISTICS_TABLE_NAME + " WHERE");
+        sql.append("DELETE FROM " + statisticsTableName + " WHERE");
         String tids = tables.stream().map(String::valueOf).collect(Collectors.joining(", "));
         String pids = partitions.stream().map(String::valueOf).collect(Collectors.joining(", "));
         sql.append(" TABLE_ID IN (").append(tids).append(")");
@@ -226,6 +248,15 @@ public class StatisticSQLBuilder {
         return build(context, QUERY_HISTOGRAM_STATISTIC_TEMPLATE);
     }
 
+    public static String buildQueryPartitionHistogramStatisticsSQL(Long tableId, String columnName,
+                                                                   List<Long> partitionIds) {
+        VelocityContext context = new VelocityContext();
+        context.put("predicate", "table_id = " + tableId + " and column_name = '" + columnName + "'"
+                + " and partition_id in (" +
+                partitionIds.stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")");
+        return build(context, QUERY_PARTITION_HISTOGRAM_STATISTIC_TEMPLATE);
+    }
+
     public static String buildQueryConnectorHistogramStatisticsSQL(String tableUUID, List<String> columnNames) {
         VelocityContext context = new VelocityContext();
 
@@ -249,6 +280,12 @@ public class StatisticSQLBuilder {
                 .join(columnNames.stream().map(c -> "'" + c + "'").collect(Collectors.toList())) + ")";
     }
 
+    public static String buildDropPartitionHistogramSQL(Long tableId, List<String> columnNames) {
+        return "delete from " + PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME + " where table_id = "
+                + tableId + " and column_name in (" + Joiner.on(", ")
+                .join(columnNames.stream().map(c -> "'" + c + "'").collect(Collectors.toList())) + ")";
+    }
+
     public static String buildDropExternalHistogramSQL(String tableUUID, List<String> columnNames) {
         return "delete from " + StatsConstants.EXTERNAL_HISTOGRAM_STATISTICS_TABLE_NAME + " where table_uuid = '"
                 + tableUUID + "' and column_name in (" + Joiner.on(", ")
@@ -131,6 +131,10 @@ public class StatisticsMetaManager extends FrontendDaemon {
             "table_id", "column_name"
     );
 
+    private static final List<String> PARTITION_HISTOGRAM_KEY_COLUMNS = ImmutableList.of(
+            "table_id", "partition_id", "column_name"
+    );
+
     private static final List<String> EXTERNAL_FULL_STATISTICS_KEY_COLUMNS = ImmutableList.of(
             "table_uuid", "partition_name", "column_name"
     );
@@ -239,6 +243,44 @@ public class StatisticsMetaManager extends FrontendDaemon {
         return checkTableExist(StatsConstants.HISTOGRAM_STATISTICS_TABLE_NAME);
     }
 
+    private boolean createPartitionHistogramStatisticsTable(ConnectContext context) {
+        LOG.info("create partition histogram statistics table start");
+        TableName tableName = new TableName(StatsConstants.STATISTICS_DB_NAME,
+                StatsConstants.PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME);
+        KeysType keysType = RunMode.isSharedDataMode() ? KeysType.UNIQUE_KEYS : KeysType.PRIMARY_KEYS;
+        Map<String, String> properties = Maps.newHashMap();
+        try {
+            int defaultReplicationNum = AutoInferUtil.calDefaultReplicationNum();
+            properties.put(PropertyAnalyzer.PROPERTIES_REPLICATION_NUM, Integer.toString(defaultReplicationNum));
+            CreateTableStmt stmt = new CreateTableStmt(false, false,
+                    tableName,
+                    StatisticUtils.buildStatsColumnDef(StatsConstants.PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME),
+                    EngineType.defaultEngine().name(),
+                    new KeysDesc(keysType, PARTITION_HISTOGRAM_KEY_COLUMNS),
+                    null,
+                    new HashDistributionDesc(10, PARTITION_HISTOGRAM_KEY_COLUMNS),
+                    properties,
+                    null,
+                    "");
+
+            Analyzer.analyze(stmt, context);
+            GlobalStateMgr.getCurrentState().getLocalMetastore().createTable(stmt);
+        } catch (UserException e) {
+            LOG.warn("Failed to create partition histogram statistics table", e);
+            return false;
+        }
+        LOG.info("create partition histogram statistics table done");
+        // partition histograms are lost, the next incremental collect must rescan all partitions
+        for (Map.Entry<Pair<Long, String>, HistogramStatsMeta> entry :
+                GlobalStateMgr.getCurrentState().getAnalyzeMgr().getHistogramStatsMetaMap().entrySet()) {
+            HistogramStatsMeta histogramStatsMeta = entry.getValue();
+            GlobalStateMgr.getCurrentState().getAnalyzeMgr().addHistogramStatsMeta(new HistogramStatsMeta(
+                    histogramStatsMeta.getDbId(), histogramStatsMeta.getTableId(), histogramStatsMeta.getColumn(),
+                    histogramStatsMeta.getType(), LocalDateTime.MIN, histogramStatsMeta.getProperties()));
+        }
+        return checkTableExist(StatsConstants.PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME);
+    }
+
     private boolean createExternalFullStatisticsTable(ConnectContext context) {
         LOG.info("create external full statistics table start");
         TableName tableName = new TableName(StatsConstants.STATISTICS_DB_NAME,
@@ -357,6 +399,8 @@ public class StatisticsMetaManager extends FrontendDaemon {
             return createFullStatisticsTable(context);
         } else if (tableName.equals(StatsConstants.HISTOGRAM_STATISTICS_TABLE_NAME)) {
             return createHistogramStatisticsTable(context);
+        } else if (tableName.equals(StatsConstants.PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME)) {
+            return createPartitionHistogramStatisticsTable(context);
         } else if (tableName.equals(StatsConstants.EXTERNAL_FULL_STATISTICS_TABLE_NAME)) {
             return createExternalFullStatisticsTable(context);
         } else if (tableName.equals(StatsConstants.EXTERNAL_HISTOGRAM_STATISTICS_TABLE_NAME)) {
@@ -399,6 +443,7 @@ public class StatisticsMetaManager extends FrontendDaemon {
         refreshStatisticsTable(StatsConstants.SAMPLE_STATISTICS_TABLE_NAME);
         refreshStatisticsTable(StatsConstants.FULL_STATISTICS_TABLE_NAME);
         refreshStatisticsTable(StatsConstants.HISTOGRAM_STATISTICS_TABLE_NAME);
+        refreshStatisticsTable(StatsConstants.PARTITION_HISTOGRAM_STATISTICS_TABLE_NAME);
         refreshStatisticsTable(StatsConstants.EXTERNAL_FULL_STATISTICS_TABLE_NAME);
         refreshStatisticsTable(StatsConstants.EXTERNAL_HISTOGRAM_STATISTICS_TABLE_NAME);
 
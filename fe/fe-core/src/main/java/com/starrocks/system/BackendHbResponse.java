@@ -72,6 +72,10 @@ public class BackendHbResponse extends HeartbeatResponse implements Writable {
 
     private boolean isSetStoragePath = false;
 
+    // load of the node piggybacked by the heartbeat, -1 if not reported, only used by the leader so not persisted
+    private int numRunningQueries = -1;
+    private long memUsedBytes = -1;
+
     public BackendHbResponse() {
         super(HeartbeatResponse.Type.BACKEND);
     }
@@ -108,6 +112,23 @@ public class BackendHbResponse extends HeartbeatResponse implements Writable {
         this.hbTime = System.currentTimeMillis();
     }
 
+    public void setResourceUsage(int numRunningQueries, long memUsedBytes) {
+        this.numRunningQueries = numRunningQueries;
+        this.memUsedBytes = memUsedBytes;
+    }
+
+    public boolean hasResourceUsage() {
+        return numRunningQueries >= 0 && memUsedBytes >= 0;
+    }
+
+    public int getNumRunningQueries() {
+        return numRunningQueries;
+    }
+
+    public long getMemUsedBytes() {
+        return memUsedBytes;
+    }
+
     public long getRebootTime() {
         return rebootTime;
     }
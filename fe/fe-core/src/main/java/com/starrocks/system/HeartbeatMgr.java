@@ -36,7 +36,6 @@ package com.starrocks.system;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.catalog.FsBroker;
 import com.starrocks.common.Config;
@@ -67,12 +66,16 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.json.JSONObject;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -84,6 +87,13 @@ public class HeartbeatMgr extends FrontendDaemon {
     private static final AtomicReference<TMasterInfo> MASTER_INFO = new AtomicReference<>();
 
     private final ExecutorService executor;
+    // heartbeats sent but not handled yet, by node, only accessed by the heartbeat daemon
+    private final Map<String, PendingHeartbeat> pendingHeartbeats = Maps.newLinkedHashMap();
+    // heartbeats regarded as failed by the failure detector whose threads have not returned yet, by node,
+    // only accessed by the heartbeat daemon
+    private final Map<String, PendingHeartbeat> cancelledHeartbeats = Maps.newHashMap();
+    // failure detectors of the backends and compute nodes, by node id
+    private final Map<Long, PhiAccrualFailureDetector> failureDetectors = Maps.newConcurrentMap();
 
     public HeartbeatMgr(boolean needRegisterMetric) {
         super("heartbeat mgr", Config.heartbeat_timeout_second * 1000L);
@@ -106,8 +116,10 @@ public class HeartbeatMgr extends FrontendDaemon {
 
     /**
      * At each round:
-     * 1. send heartbeat to all nodes
-     * 2. collect the heartbeat response from all nodes, and handle them
+     * 1. send heartbeat to all nodes, except the nodes whose heartbeat of the former rounds is still in flight
+     * 2. collect the heartbeat responses until the next round is due, and handle them. The nodes that have not
+     * answered yet are handled in the following rounds, so that a few stragglers do not delay the heartbeats and
+     * the failure detection of all the other nodes.
      */
     @Override
     protected void runAfterCatalogReady() {
@@ -117,20 +129,16 @@ public class HeartbeatMgr extends FrontendDaemon {
             return;
         }
 
-        List<Future<HeartbeatResponse>> hbResponses = Lists.newArrayList();
-
         long startTime = System.currentTimeMillis();
         // send backend heartbeat
         for (Backend backend : idToBackendRef.values()) {
-            BackendHeartbeatHandler handler = new BackendHeartbeatHandler(backend);
-            hbResponses.add(executor.submit(handler));
+            sendHeartbeat("be_" + backend.getId(), backend.getId(), new BackendHeartbeatHandler(backend));
         }
 
         // send compute node heartbeat
         for (ComputeNode computeNode : GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getIdComputeNode()
                 .values()) {
-            BackendHeartbeatHandler handler = new BackendHeartbeatHandler(computeNode);
-            hbResponses.add(executor.submit(handler));
+            sendHeartbeat("be_" + computeNode.getId(), computeNode.getId(), new BackendHeartbeatHandler(computeNode));
         }
 
         // send frontend heartbeat
@@ -143,7 +151,7 @@ public class HeartbeatMgr extends FrontendDaemon {
             FrontendHeartbeatHandler handler = new FrontendHeartbeatHandler(frontend,
                     GlobalStateMgr.getCurrentState().getNodeMgr().getClusterId(),
                     GlobalStateMgr.getCurrentState().getNodeMgr().getToken());
-            hbResponses.add(executor.submit(handler));
+            sendHeartbeat("fe_" + frontend.getNodeName(), -1L, handler);
         }
 
         // send broker heartbeat;
@@ -153,31 +161,48 @@ public class HeartbeatMgr extends FrontendDaemon {
             for (FsBroker brokerAddress : entry.getValue()) {
                 BrokerHeartbeatHandler handler = new BrokerHeartbeatHandler(entry.getKey(), brokerAddress,
                         MASTER_INFO.get().getNetwork_address().getHostname());
-                hbResponses.add(executor.submit(handler));
+                sendHeartbeat("broker_" + entry.getKey() + "_" + brokerAddress.ip + ":" + brokerAddress.port, -1L,
+                        handler);
             }
         }
 
-        // collect all heartbeat responses and handle them.
+        // collect the heartbeat responses until the next round is due, and handle them.
         // and we also find the node whose info has been changed, if changed, we need to collect them and write
         // an edit log to synchronize the info to fe followers.
+        long deadline = startTime + Config.heartbeat_timeout_second * 1000L;
         HbPackage hbPackage = new HbPackage();
-        for (Future<HeartbeatResponse> future : hbResponses) {
-            boolean isChanged = false;
+        Iterator<Map.Entry<String, PendingHeartbeat>> iter = pendingHeartbeats.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<String, PendingHeartbeat> entry = iter.next();
+            PendingHeartbeat pending = entry.getValue();
+            HeartbeatResponse response;
             try {
-                // the heartbeat rpc's timeout is 5 seconds, so we will not be blocked here too long.
-                HeartbeatResponse response = future.get();
-                if (response.getStatus() != HbStatus.OK) {
-                    LOG.warn("get bad heartbeat response: {}", response);
-                }
-                isChanged = handleHbResponse(response, false);
-
-                if (isChanged) {
-                    hbPackage.addHbResponse(response);
+                response = pending.future.get(Math.max(0L, deadline - System.currentTimeMillis()),
+                        TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                response = checkStraggler(pending);
+                if (response == null) {
+                    // wait for it in the next round
+                    continue;
                 }
+                cancelledHeartbeats.put(entry.getKey(), pending);
             } catch (InterruptedException | ExecutionException e) {
                 LOG.warn("got exception when doing heartbeat", e);
+                iter.remove();
+                continue;
+            }
+            iter.remove();
+
+            if (response.getStatus() != HbStatus.OK) {
+                LOG.warn("get bad heartbeat response: {}", response);
+            }
+            if (handleHbResponse(response, false)) {
+                hbPackage.addHbResponse(response);
             }
         } // end for all results
+        cancelledHeartbeats.values().removeIf(pending -> pending.finished);
+        failureDetectors.keySet().removeIf(nodeId ->
+                GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getBackendOrComputeNode(nodeId) == null);
 
         // we also add a 'mocked' master Frontend heartbeat response to synchronize master info to other Frontends.
         hbPackage.addHbResponse(new FrontendHbResponse(masterFeNodeName, Config.query_port, Config.rpc_port,
@@ -193,6 +218,61 @@ public class HeartbeatMgr extends FrontendDaemon {
         setInterval(Math.max(1L, Config.heartbeat_timeout_second * 1000L - (System.currentTimeMillis() - startTime)));
     }
 
+    private void sendHeartbeat(String nodeKey, long nodeId, Callable<HeartbeatResponse> handler) {
+        if (pendingHeartbeats.containsKey(nodeKey)) {
+            // the heartbeat of the former round has not been answered
+            return;
+        }
+        PendingHeartbeat cancelled = cancelledHeartbeats.get(nodeKey);
+        if (cancelled != null && !cancelled.finished) {
+            // the cancelled heartbeat still holds a thread of the pool, e.g. blocked in socket io which is not
+            // woken up by the interruption, so the node fails this round without taking another thread
+            pendingHeartbeats.put(nodeKey, new PendingHeartbeat(nodeId, new BackendHbResponse(nodeId,
+                    TStatusCode.TIMEOUT, "the former heartbeat is still not answered")));
+            return;
+        }
+        cancelledHeartbeats.remove(nodeKey);
+        PendingHeartbeat pending = new PendingHeartbeat(nodeId);
+        pending.future = executor.submit(() -> pending.call(handler));
+        pendingHeartbeats.put(nodeKey, pending);
+    }
+
+    /**
+     * The heartbeat of a backend or compute node that has not been answered in its round is regarded as failed,
+     * without waiting for the rpc timeout, if the phi accrual failure detector of the node is suspicious enough.
+     * Only the heartbeats sent to the node are judged. The time a heartbeat waits for a thread of the pool, e.g.
+     * behind the heartbeats of hanging nodes, is not counted as the silence of the node, and a whole heartbeat
+     * round is allowed for the rpc itself.
+     *
+     * @return null if it should be waited for
+     */
+    private HeartbeatResponse checkStraggler(PendingHeartbeat pending) {
+        if (pending.nodeId < 0 || Config.heartbeat_phi_threshold <= 0) {
+            return null;
+        }
+        long startTimeMs = pending.startTimeMs;
+        if (startTimeMs < 0) {
+            // still queued in the pool
+            return null;
+        }
+        PhiAccrualFailureDetector detector = failureDetectors.get(pending.nodeId);
+        if (detector == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        double phi = detector.phi(now - (startTimeMs - pending.sendTimeMs), Config.heartbeat_timeout_second * 1000L);
+        if (phi < Config.heartbeat_phi_threshold) {
+            return null;
+        }
+        pending.future.cancel(true);
+        return new BackendHbResponse(pending.nodeId, TStatusCode.TIMEOUT,
+                String.format("heartbeat is not answered in %d ms, phi: %.1f", now - startTimeMs, phi));
+    }
+
+    PhiAccrualFailureDetector getFailureDetector(long nodeId) {
+        return failureDetectors.get(nodeId);
+    }
+
     private boolean handleHbResponse(HeartbeatResponse response, boolean isReplay) {
         switch (response.getType()) {
             case FRONTEND: {
@@ -222,6 +302,15 @@ public class HeartbeatMgr extends FrontendDaemon {
                                     .abortTxnWhenCoordinateBeDown(computeNode.getHost(), 100);
                         }
                     } else {
+                        if (!isReplay) {
+                            failureDetectors.computeIfAbsent(computeNode.getId(), k -> new PhiAccrualFailureDetector())
+                                    .heartbeat(hbResponse.getHbTime());
+                            if (hbResponse.hasResourceUsage()) {
+                                GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().updateResourceUsage(
+                                        computeNode.getId(), hbResponse.getNumRunningQueries(),
+                                        hbResponse.getMemUsedBytes(), computeNode.getCpuUsedPermille(), null);
+                            }
+                        }
                         if (RunMode.isSharedDataMode() && !isReplay) {
                             // addWorker
                             int starletPort = computeNode.getStarletPort();
@@ -258,6 +347,38 @@ public class HeartbeatMgr extends FrontendDaemon {
         return false;
     }
 
+    private static class PendingHeartbeat {
+        private Future<HeartbeatResponse> future;
+        // id of the backend or compute node, -1 for the other nodes
+        private final long nodeId;
+        private final long sendTimeMs;
+        // set by the thread of the pool, -1 while the heartbeat is queued in the pool
+        private volatile long startTimeMs = -1;
+        private volatile boolean finished = false;
+
+        PendingHeartbeat(long nodeId) {
+            this.nodeId = nodeId;
+            this.sendTimeMs = System.currentTimeMillis();
+        }
+
+        // a heartbeat failed without being sent
+        PendingHeartbeat(long nodeId, HeartbeatResponse response) {
+            this(nodeId);
+            this.future = CompletableFuture.completedFuture(response);
+            this.startTimeMs = sendTimeMs;
+            this.finished = true;
+        }
+
+        HeartbeatResponse call(Callable<HeartbeatResponse> handler) throws Exception {
+            startTimeMs = System.currentTimeMillis();
+            try {
+                return handler.call();
+            } finally {
+                finished = true;
+            }
+        }
+    }
+
     // backend heartbeat
     public static class BackendHeartbeatHandler implements Callable<HeartbeatResponse> {
         private ComputeNode computeNode;
@@ -323,6 +444,10 @@ public class HeartbeatMgr extends FrontendDaemon {
                     if (tBackendInfo.isSetReboot_time()) {
                         backendHbResponse.setRebootTime(tBackendInfo.getReboot_time());
                     }
+                    if (tBackendInfo.isSetNum_running_queries() && tBackendInfo.isSetMem_used_bytes()) {
+                        backendHbResponse.setResourceUsage(tBackendInfo.getNum_running_queries(),
+                                tBackendInfo.getMem_used_bytes());
+                    }
                     return backendHbResponse;
                 } else {
                     return new BackendHbResponse(computeNodeId, result.getStatus().getStatus_code(),
@@ -0,0 +1,84 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.system;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * The phi accrual failure detector of one node, from "The Phi Accrual Failure Detector" by Hayashibara et al.
+ * It keeps the intervals between the recent heartbeats of the node, and tells how suspicious it is that no
+ * heartbeat is received after some time, as phi = -log10(1 - F(elapsed)), where F is the cumulative distribution
+ * of a normal distribution with the mean and the standard deviation of the intervals.
+ * A phi of 1 means a 10% chance of a false suspicion, 2 means 1%, 3 means 0.1% and so on.
+ */
+public class PhiAccrualFailureDetector {
+    private static final int MAX_SAMPLE_SIZE = 100;
+    // the standard deviation is at least this, so that the phi of a node with very regular heartbeats does not
+    // jump up once a heartbeat is a little late
+    private static final double MIN_STD_DEVIATION_MS = 500;
+
+    private final Deque<Long> intervals = new ArrayDeque<>();
+    private double intervalSum = 0;
+    private double squaredIntervalSum = 0;
+    private long lastHeartbeatMs = -1;
+
+    public synchronized void heartbeat(long nowMs) {
+        if (lastHeartbeatMs >= 0 && nowMs > lastHeartbeatMs) {
+            long interval = nowMs - lastHeartbeatMs;
+            if (intervals.size() >= MAX_SAMPLE_SIZE) {
+                long removed = intervals.removeFirst();
+                intervalSum -= removed;
+                squaredIntervalSum -= (double) removed * removed;
+            }
+            intervals.addLast(interval);
+            intervalSum += interval;
+            squaredIntervalSum += (double) interval * interval;
+        }
+        lastHeartbeatMs = Math.max(lastHeartbeatMs, nowMs);
+    }
+
+    /**
+     * @return 0 if there are not enough heartbeats to tell
+     */
+    public double phi(long nowMs) {
+        return phi(nowMs, 0);
+    }
+
+    /**
+     * @param acceptablePauseMs a pause longer than the usual intervals which is not suspicious yet, it is added to
+     *                          the mean interval, so that phi is not just a timeout of about one interval
+     * @return 0 if there are not enough heartbeats to tell
+     */
+    public synchronized double phi(long nowMs, long acceptablePauseMs) {
+        if (intervals.isEmpty()) {
+            return 0;
+        }
+        double elapsed = nowMs - lastHeartbeatMs;
+        double mean = intervalSum / intervals.size();
+        double variance = Math.max(0, squaredIntervalSum / intervals.size() - mean * mean);
+        double stdDeviation = Math.max(Math.sqrt(variance), MIN_STD_DEVIATION_MS);
+        mean += acceptablePauseMs;
+
+        // logistic approximation of the cumulative distribution of the normal distribution
+        double y = (elapsed - mean) / stdDeviation;
+        double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        if (elapsed > mean) {
+            return -Math.log10(e / (1.0 + e));
+        } else {
+            return -Math.log10(1.0 - 1.0 / (1.0 + e));
+        }
+    }
+}
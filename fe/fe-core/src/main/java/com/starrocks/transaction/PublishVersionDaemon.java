@@ -52,6 +52,8 @@ import com.starrocks.lake.PartitionPublishVersionData;
 import com.starrocks.lake.TxnInfoHelper;
 import com.starrocks.lake.Utils;
 import com.starrocks.lake.compaction.Quantiles;
+import com.starrocks.metric.TableMetricsEntity;
+import com.starrocks.metric.TableMetricsRegistry;
 import com.starrocks.proto.DeleteTxnLogRequest;
 import com.starrocks.proto.TxnInfoPB;
 import com.starrocks.rpc.BrpcProxy;
@@ -78,6 +80,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
 import javax.validation.constraints.NotNull;
@@ -92,10 +95,13 @@ public class PublishVersionDaemon extends FrontendDaemon {
     // about 16 (2 * LAKE_PUBLISH_MAX_QUEUE_SIZE/LAKE_PUBLISH_THREAD_POOL_DEFAULT_MAX_SIZE ) tasks pending for
     // each thread under the default configurations
     private static final int LAKE_PUBLISH_MAX_QUEUE_SIZE = 4096;
+    private static final int PUBLISH_FINISH_MAX_QUEUE_SIZE = 1024;
 
     private ThreadPoolExecutor lakeTaskExecutor;
     private ThreadPoolExecutor deleteTxnLogExecutor;
     private Set<Long> publishingLakeTransactions;
+    private ThreadPoolExecutor publishFinishExecutor;
+    private Set<Long> finishingTransactions;
 
     @VisibleForTesting
     protected Set<Long> publishingLakeTransactionsBatchTableId;
@@ -251,6 +257,31 @@ public class PublishVersionDaemon extends FrontendDaemon {
         return publishingLakeTransactions;
     }
 
+    private @NotNull Set<Long> getFinishingTransactions() {
+        if (finishingTransactions == null) {
+            finishingTransactions = Sets.newConcurrentHashSet();
+        }
+        return finishingTransactions;
+    }
+
+    private @NotNull ThreadPoolExecutor getPublishFinishExecutor() {
+        if (publishFinishExecutor == null) {
+            int numThreads = Math.max(Config.publish_finish_max_threads, 1);
+            publishFinishExecutor = ThreadPoolManager.newDaemonFixedThreadPool(numThreads,
+                    PUBLISH_FINISH_MAX_QUEUE_SIZE, "publish-finish-task", true);
+            publishFinishExecutor.allowCoreThreadTimeOut(true);
+
+            // register ThreadPool config change listener
+            GlobalStateMgr.getCurrentState().getConfigRefreshDaemon().registerListener(() -> {
+                int newNumThreads = Config.publish_finish_max_threads;
+                if (publishFinishExecutor != null && newNumThreads > 0) {
+                    ThreadPoolManager.setFixedThreadPoolSize(publishFinishExecutor, newNumThreads);
+                }
+            });
+        }
+        return publishFinishExecutor;
+    }
+
     // Only one table in all transactionStates in transactionStateBatch
     // so we can judge whether the transactionStateBatch is publishing by tableId
     // we can not judge whether one transactionBatch is publishing by the transactionStateBatch itself,
@@ -335,35 +366,97 @@ public class PublishVersionDaemon extends FrontendDaemon {
                     }
                     // clear publish version tasks to reduce memory usage when state changed to visible.
                     transactionState.clearAfterPublished();
+                    updatePublishMetrics(transactionState);
                 }
             }
         } // end for readyTransactionStates
     }
 
     private void publishVersionNew(GlobalTransactionMgr globalTransactionMgr, List<TransactionState> txns) {
+        if (Config.enable_parallel_publish_finish) {
+            publishVersionNewParallel(globalTransactionMgr, txns);
+            return;
+        }
+        for (TransactionState transactionState : txns) {
+            Set<Long> publishErrorReplicas = Sets.newHashSet();
+            if (!transactionState.allPublishTasksFinishedOrQuorumWaitTimeout(publishErrorReplicas)) {
+                continue;
+            }
+            tryFinishTransactionNew(globalTransactionMgr, transactionState, publishErrorReplicas);
+        }
+    }
+
+    /**
+     * The ready transactions returned by the transaction graph never share a table, so each of them is the head
+     * of an independent table chain and can be finished concurrently. A transaction whose publish tasks are not
+     * finished yet just stalls its own chain, the other chains still become visible.
+     * If the executor is saturated, stop submitting and retry the remaining transactions in the next round.
+     */
+    private void publishVersionNewParallel(GlobalTransactionMgr globalTransactionMgr, List<TransactionState> txns) {
+        Set<Long> finishing = getFinishingTransactions();
+        ThreadPoolExecutor executor = getPublishFinishExecutor();
         for (TransactionState transactionState : txns) {
+            long txnId = transactionState.getTransactionId();
+            if (finishing.contains(txnId)) {
+                continue;
+            }
             Set<Long> publishErrorReplicas = Sets.newHashSet();
             if (!transactionState.allPublishTasksFinishedOrQuorumWaitTimeout(publishErrorReplicas)) {
                 continue;
             }
+            if (executor.getQueue().remainingCapacity() == 0) {
+                LOG.info("too many transactions are finishing, txn {} will be finished later", txnId);
+                return;
+            }
+            finishing.add(txnId);
             try {
-                if (transactionState.checkCanFinish()) {
-                    globalTransactionMgr.finishTransactionNew(transactionState, publishErrorReplicas);
-                }
-                if (transactionState.getTransactionStatus() != TransactionStatus.VISIBLE) {
-                    transactionState.updateSendTaskTime();
-                    LOG.debug("publish version for transaction {} failed, has {} error replicas during publish",
-                            transactionState, transactionState.getErrorReplicas().size());
-                } else {
-                    for (PublishVersionTask task : transactionState.getPublishVersionTasks().values()) {
-                        AgentTaskQueue.removeTask(task.getBackendId(), TTaskType.PUBLISH_VERSION, task.getSignature());
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        tryFinishTransactionNew(globalTransactionMgr, transactionState, publishErrorReplicas);
+                    } catch (Throwable e) {
+                        LOG.error("errors while finish transaction {}", txnId, e);
+                    } finally {
+                        finishing.remove(txnId);
                     }
-                    // clear publish version tasks to reduce memory usage when state changed to visible.
-                    transactionState.clearAfterPublished();
+                }, executor);
+            } catch (RejectedExecutionException e) {
+                finishing.remove(txnId);
+                LOG.info("too many transactions are finishing, txn {} will be finished later", txnId);
+                return;
+            }
+        }
+    }
+
+    private void tryFinishTransactionNew(GlobalTransactionMgr globalTransactionMgr, TransactionState transactionState,
+                                         Set<Long> publishErrorReplicas) {
+        try {
+            if (transactionState.checkCanFinish()) {
+                globalTransactionMgr.finishTransactionNew(transactionState, publishErrorReplicas);
+            }
+            if (transactionState.getTransactionStatus() != TransactionStatus.VISIBLE) {
+                transactionState.updateSendTaskTime();
+                LOG.debug("publish version for transaction {} failed, has {} error replicas during publish",
+                        transactionState, transactionState.getErrorReplicas().size());
+            } else {
+                for (PublishVersionTask task : transactionState.getPublishVersionTasks().values()) {
+                    AgentTaskQueue.removeTask(task.getBackendId(), TTaskType.PUBLISH_VERSION, task.getSignature());
                 }
-            } catch (UserException e) {
-                LOG.error("errors while publish version to all backends", e);
+                // clear publish version tasks to reduce memory usage when state changed to visible.
+                transactionState.clearAfterPublished();
+                updatePublishMetrics(transactionState);
             }
+        } catch (UserException e) {
+            LOG.error("errors while publish version to all backends", e);
+        }
+    }
+
+    @VisibleForTesting
+    static void updatePublishMetrics(TransactionState transactionState) {
+        long latencyMs = Math.max(0, transactionState.getFinishTime() - transactionState.getCommitTime());
+        for (long tableId : transactionState.getTableIdList()) {
+            TableMetricsEntity entity = TableMetricsRegistry.getInstance().getMetricsEntity(tableId);
+            entity.counterPublishFinishedTotal.increase(1L);
+            entity.counterPublishLatencyMsTotal.increase(latencyMs);
         }
     }
 
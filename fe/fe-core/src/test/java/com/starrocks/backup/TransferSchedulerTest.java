@@ -0,0 +1,91 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.backup;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class TransferSchedulerTest {
+    @Test
+    public void testSplitUnits() {
+        TransferScheduler scheduler = new TransferScheduler(100, 3, 0, 0);
+        // 1 and 2 are packed together, 3 is too large to pack with others, 4, 5 and 6 have unknown size and fill
+        // the unit of 1 and 2 up to the tablet limit
+        scheduler.addTablets(1, ImmutableMap.of(1L, 40L, 2L, 50L, 3L, 120L, 4L, 0L, 5L, 0L, 6L, 0L));
+        Assert.assertEquals(3, scheduler.getTotalUnits());
+        Assert.assertEquals(6, scheduler.getTotalTablets());
+        Assert.assertEquals(210, scheduler.getTotalBytes());
+
+        List<TransferScheduler.Unit> units = scheduler.pollUnitsToSend(1);
+        Assert.assertEquals(3, units.size());
+        // largest first
+        Assert.assertEquals(Lists.newArrayList(3L), units.get(0).getTabletIds());
+        Assert.assertEquals(Lists.newArrayList(2L, 1L, 4L), units.get(1).getTabletIds());
+        Assert.assertEquals(90, units.get(1).getBytes());
+        Assert.assertEquals(Lists.newArrayList(5L, 6L), units.get(2).getTabletIds());
+        Assert.assertEquals(0, units.get(2).getBytes());
+    }
+
+    @Test
+    public void testUnknownSizeTabletsWithoutTabletLimit() {
+        TransferScheduler scheduler = new TransferScheduler(100, 0, 0, 0);
+        scheduler.addTablets(1, ImmutableMap.of(1L, 0L, 2L, 0L, 3L, 0L));
+        Assert.assertEquals(1, scheduler.getTotalUnits());
+        Assert.assertEquals(Lists.newArrayList(1L, 2L, 3L), scheduler.pollUnitsToSend(1).get(0).getTabletIds());
+    }
+
+    @Test
+    public void testRunningUnitsPerBackend() {
+        TransferScheduler scheduler = new TransferScheduler(100, 0, 2, 0);
+        scheduler.addTablets(1, ImmutableMap.of(1L, 100L, 2L, 100L, 3L, 100L));
+        scheduler.addTablets(2, ImmutableMap.of(4L, 100L));
+        Assert.assertEquals(Lists.newArrayList(1L, 2L), scheduler.getBackendIds());
+
+        List<TransferScheduler.Unit> units = scheduler.pollUnitsToSend(1);
+        Assert.assertEquals(2, units.size());
+        scheduler.onUnitSent(units.get(0), 10);
+        scheduler.onUnitSent(units.get(1), 11);
+        Assert.assertTrue(scheduler.pollUnitsToSend(1).isEmpty());
+
+        List<TransferScheduler.Unit> units2 = scheduler.pollUnitsToSend(2);
+        Assert.assertEquals(1, units2.size());
+        scheduler.onUnitSent(units2.get(0), 20);
+        Assert.assertEquals(3, scheduler.getRunningUnits());
+
+        // a finished unit frees a slot of its backend
+        scheduler.onUnitFailed(10);
+        Assert.assertEquals(1, scheduler.getRetriedUnits());
+        Assert.assertSame(units.get(0), scheduler.finishUnit(10));
+        Assert.assertNull(scheduler.finishUnit(10));
+        Assert.assertNull(scheduler.finishUnit(99));
+        units = scheduler.pollUnitsToSend(1);
+        Assert.assertEquals(1, units.size());
+        scheduler.onUnitSent(units.get(0), 12);
+        Assert.assertFalse(scheduler.isDone());
+
+        scheduler.finishUnit(11);
+        scheduler.finishUnit(12);
+        scheduler.finishUnit(20);
+        Assert.assertTrue(scheduler.isDone());
+        Assert.assertEquals(4, scheduler.getFinishedUnits());
+        Assert.assertEquals(4, scheduler.getFinishedTablets());
+        Assert.assertEquals(400, scheduler.getFinishedBytes());
+        Assert.assertEquals(200, scheduler.getBytesPerSecond(2000));
+    }
+}
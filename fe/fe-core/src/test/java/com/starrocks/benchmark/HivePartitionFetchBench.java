@@ -0,0 +1,133 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import com.starrocks.connector.MetastoreType;
+import com.starrocks.connector.PartitionUtil;
+import com.starrocks.connector.hive.HiveMetaClient;
+import com.starrocks.connector.hive.HiveMetastore;
+import com.starrocks.connector.hive.HivePartitionFetcher;
+import com.starrocks.connector.hive.Partition;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.metastore.api.SerDeInfo;
+import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmark fetching the partitions of a table on a cold cache, against a fake metastore whose RPC latency
+ * is a fixed cost plus a cost per partition.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class HivePartitionFetchBench {
+    private static final long RPC_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long PARTITION_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"20000"})
+    private int partitionNum;
+
+    @Param({"1", "8"})
+    private int parallelism;
+
+    private List<String> partitionNames;
+    private ExecutorService executor;
+    private HiveMetastore metastore;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(HivePartitionFetchBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        partitionNames = new ArrayList<>(partitionNum);
+        for (int i = 0; i < partitionNum; i++) {
+            partitionNames.add("dt=" + (i / 24) + "/hour=" + (i % 24));
+        }
+        executor = Executors.newFixedThreadPool(parallelism);
+        metastore = new HiveMetastore(new FakeHiveMetaClient(), "hive_catalog", MetastoreType.HMS,
+                new HivePartitionFetcher(executor, parallelism));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Partition> getPartitionsByNames() {
+        return metastore.getPartitionsByNames("db", "tbl", partitionNames);
+    }
+
+    private static class FakeHiveMetaClient extends HiveMetaClient {
+        FakeHiveMetaClient() {
+            super(new HiveConf());
+        }
+
+        @Override
+        public List<org.apache.hadoop.hive.metastore.api.Partition> getPartitionsByNames(
+                String dbName, String tblName, List<String> partitionNames) {
+            LockSupport.parkNanos(RPC_LATENCY_NANOS + PARTITION_LATENCY_NANOS * partitionNames.size());
+            List<org.apache.hadoop.hive.metastore.api.Partition> partitions = new ArrayList<>(partitionNames.size());
+            for (String partitionName : partitionNames) {
+                StorageDescriptor sd = new StorageDescriptor();
+                sd.setInputFormat("org.apache.hadoop.hive.ql.io.parquet.MapredParquetInputFormat");
+                SerDeInfo serDeInfo = new SerDeInfo();
+                serDeInfo.setParameters(ImmutableMap.of());
+                sd.setSerdeInfo(serDeInfo);
+                sd.setLocation("hdfs://127.0.0.1:10000/hive.db/tbl/" + partitionName);
+
+                org.apache.hadoop.hive.metastore.api.Partition partition =
+                        new org.apache.hadoop.hive.metastore.api.Partition();
+                partition.setSd(sd);
+                partition.setParameters(ImmutableMap.of("totalSize", "1024", "numRows", "10"));
+                partition.setValues(PartitionUtil.toPartitionValues(partitionName));
+                partitions.add(partition);
+            }
+            return partitions;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.starrocks.mysql.MysqlChannel;
+import com.starrocks.mysql.MysqlCompressionCodec;
+import com.starrocks.mysql.MysqlSerializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Benchmark sending a wide text result set through the mysql channel, with and without compressed packets.
+ * Each op sends {@link #ROW_NUM} rows, the "wireBytes" counter is the bytes written to the socket per op.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+public class MysqlCompressionBench {
+    private static final int ROW_NUM = 4096;
+    private static final int COLUMN_NUM = 32;
+
+    @Param({"none", "zlib", "zstd"})
+    private String codec;
+
+    private List<ByteBuffer> rows;
+    private MysqlChannel channel;
+    private long sentBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireCounter {
+        public long wireBytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(MysqlCompressionBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        // text columns like a wide BI report, ids, dates, enums and free text
+        String[] statuses = {"PENDING", "SHIPPED", "DELIVERED", "RETURNED", "CANCELLED"};
+        Random random = new Random(0);
+        rows = new ArrayList<>(ROW_NUM);
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        for (int i = 0; i < ROW_NUM; i++) {
+            serializer.reset();
+            for (int c = 0; c < COLUMN_NUM; c++) {
+                String value;
+                switch (c % 4) {
+                    case 0:
+                        value = String.valueOf(random.nextInt(1000000));
+                        break;
+                    case 1:
+                        value = String.format("2024-%02d-%02d 12:00:00", 1 + random.nextInt(12), 1 + random.nextInt(28));
+                        break;
+                    case 2:
+                        value = statuses[random.nextInt(statuses.length)];
+                        break;
+                    default:
+                        value = "customer comment for order " + random.nextInt(1000) + " in region " + (c % 7);
+                        break;
+                }
+                serializer.writeLenEncodedString(value);
+            }
+            rows.add(ByteBuffer.wrap(serializer.toArray()));
+        }
+
+        channel = new MysqlChannel(null) {
+            @Override
+            public void realNetSend(ByteBuffer buffer) {
+                sentBytes += buffer.remaining();
+                buffer.position(buffer.limit());
+            }
+        };
+        switch (codec) {
+            case "zlib":
+                channel.setCompressionCodec(new MysqlCompressionCodec.ZlibCodec(Deflater.DEFAULT_COMPRESSION));
+                break;
+            case "zstd":
+                channel.setCompressionCodec(new MysqlCompressionCodec.ZstdCodec(MysqlCompressionCodec.DEFAULT_ZSTD_LEVEL));
+                break;
+            default:
+                break;
+        }
+        channel.initBuffer(1024 * 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (channel.getCompressionCodec() != null) {
+            channel.getCompressionCodec().close();
+        }
+    }
+
+    @Benchmark
+    public void sendRows(WireCounter counter) throws IOException {
+        sentBytes = 0;
+        channel.setSequenceId(1);
+        for (ByteBuffer row : rows) {
+            row.rewind();
+            channel.sendOnePacket(row);
+        }
+        channel.flush();
+        counter.wireBytes += sentBytes;
+    }
+}
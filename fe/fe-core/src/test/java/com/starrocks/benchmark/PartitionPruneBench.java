@@ -0,0 +1,172 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.starrocks.analysis.BinaryType;
+import com.starrocks.analysis.DateLiteral;
+import com.starrocks.analysis.FunctionName;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.DataProperty;
+import com.starrocks.catalog.Function;
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.catalog.PartitionKey;
+import com.starrocks.catalog.PrimitiveType;
+import com.starrocks.catalog.RangePartitionInfo;
+import com.starrocks.catalog.Type;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.BaseScalarOperatorShuttle;
+import com.starrocks.sql.optimizer.rewrite.PartitionColPredicateEvaluator;
+import com.starrocks.sql.optimizer.rewrite.PartitionColPredicateExtractor;
+import com.starrocks.sql.optimizer.rewrite.ScalarOperatorEvaluator;
+import com.starrocks.sql.optimizer.rewrite.ScalarOperatorRewriter;
+import com.starrocks.sql.optimizer.rewrite.scalar.FoldConstantsRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the range partition pruning with an expression on the partition column, e.g.
+ * date_trunc('month', dt) = '2000-03-01' on a table with one partition per day.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+public class PartitionPruneBench {
+
+    @Param({"10000", "100000"})
+    private int partitionNum;
+
+    private List<Column> partitionColumns;
+    private RangePartitionInfo partitionInfo;
+    private List<Long> partitionIds;
+    private Map<Column, ColumnRefOperator> columnMetaToColRefMap;
+    private CallOperator dateTrunc;
+    private ScalarOperator predicate;
+    private List<ConstantOperator> lowerBounds;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PartitionPruneBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        ConnectContext ctx = new ConnectContext();
+        ctx.setThreadLocalInfo();
+
+        Column dt = new Column("dt", Type.DATE);
+        partitionColumns = Lists.newArrayList(dt);
+        partitionInfo = new RangePartitionInfo(partitionColumns);
+        partitionIds = Lists.newArrayList();
+        lowerBounds = Lists.newArrayList();
+        LocalDate start = LocalDate.of(1800, 1, 1);
+        for (int i = 0; i < partitionNum; i++) {
+            LocalDate lower = start.plusDays(i);
+            LocalDate upper = lower.plusDays(1);
+            PartitionKey lowerKey = new PartitionKey();
+            lowerKey.pushColumn(new DateLiteral(lower.getYear(), lower.getMonthValue(), lower.getDayOfMonth()),
+                    PrimitiveType.DATE);
+            PartitionKey upperKey = new PartitionKey();
+            upperKey.pushColumn(new DateLiteral(upper.getYear(), upper.getMonthValue(), upper.getDayOfMonth()),
+                    PrimitiveType.DATE);
+            long partitionId = 10000L + i;
+            partitionInfo.addPartition(partitionId, false, Range.closedOpen(lowerKey, upperKey),
+                    DataProperty.getInferredDefaultDataProperty(), (short) 1, false);
+            partitionIds.add(partitionId);
+            lowerBounds.add(ConstantOperator.createDate(lower.atStartOfDay()));
+        }
+
+        ColumnRefFactory factory = new ColumnRefFactory();
+        ColumnRefOperator dtRef = factory.create("dt", Type.DATE, true);
+        columnMetaToColRefMap = Maps.newHashMap();
+        columnMetaToColRefMap.put(dt, dtRef);
+
+        Function fn = new Function(new FunctionName(FunctionSet.DATE_TRUNC),
+                new Type[] {Type.VARCHAR, Type.DATE}, Type.DATE, false);
+        dateTrunc = new CallOperator(FunctionSet.DATE_TRUNC, Type.DATE,
+                Lists.newArrayList(ConstantOperator.createVarchar("month"), dtRef), fn);
+        predicate = new BinaryPredicateOperator(BinaryType.EQ, dateTrunc,
+                ConstantOperator.createDate(LocalDate.of(2000, 3, 1).atStartOfDay()));
+    }
+
+    @Benchmark
+    public List<Long> prunePartitions() {
+        PartitionColPredicateExtractor extractor =
+                new PartitionColPredicateExtractor(partitionColumns, partitionInfo, columnMetaToColRefMap);
+        PartitionColPredicateEvaluator evaluator =
+                new PartitionColPredicateEvaluator(partitionColumns, partitionInfo, partitionIds);
+        return evaluator.prunePartitions(extractor, predicate);
+    }
+
+    /**
+     * Fold the expression for the lower bound of each partition by one pass of the compiled evaluator.
+     */
+    @Benchmark
+    public List<ConstantOperator> foldBoundsByBatchEvaluator() {
+        return ScalarOperatorEvaluator.INSTANCE.compile(dateTrunc, true).get().evaluate(lowerBounds);
+    }
+
+    /**
+     * Fold the expression for the lower bound of each partition by replacing the column and rewriting the call,
+     * which is what the pruning did for every bound before.
+     */
+    @Benchmark
+    public List<ScalarOperator> foldBoundsByRewrite() {
+        List<ScalarOperator> results = Lists.newArrayListWithCapacity(lowerBounds.size());
+        for (ConstantOperator bound : lowerBounds) {
+            ScalarOperator call = dateTrunc.accept(new BaseScalarOperatorShuttle() {
+                @Override
+                public ScalarOperator visitVariableReference(ColumnRefOperator variable, Void context) {
+                    return bound;
+                }
+            }, null);
+            ScalarOperatorRewriter rewriter = new ScalarOperatorRewriter();
+            results.add(rewriter.rewrite(call, Collections.singletonList(new FoldConstantsRule(true))));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,220 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Pair;
+import com.starrocks.sql.optimizer.dump.QueryDumpInfo;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.sql.plan.ReplayFromDumpTestBase;
+import com.starrocks.utframe.UtFrameUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.Statistics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replays a directory of query dumps against the mock catalog built from each dump, and reports the planning
+ * latency percentiles and the allocated bytes per planning of every dump. The dumps may be captured from
+ * production queries, or desensitized before they are shared, the replay is the same.
+ * <p>
+ * The report directory gets the raw JMH result, a summary of every dump, and the plan of every dump. Passing the
+ * report directory of a previous build as the baseline prints the dumps whose latency or allocation regress, or
+ * whose plan changes, so planner regressions can be caught before release.
+ * <p>
+ * Usage: QueryDumpReplayBench [dump dir] [report dir] [baseline report dir]
+ * The dump dir defaults to the query dumps of the replay tests. Like the unit tests, the JVM needs the jmockit
+ * java agent, the forked JVMs inherit it.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class QueryDumpReplayBench {
+    private static final String SUMMARY_FILE = "summary.tsv";
+    private static final String RESULT_FILE = "result.json";
+    private static final String PLAN_DIR = "plans";
+    // the latency or allocation of a dump regresses if it grows more than the ratio from the baseline
+    private static final double REGRESSION_RATIO = 1.2;
+
+    // the path of the dump file, the values are set by main from the dump directory
+    @Param({""})
+    private String dumpFile;
+
+    @Param({""})
+    private String reportDir;
+
+    private String sql;
+
+    public static void main(String[] args) throws Exception {
+        String dumpDir = args.length > 0 ? args[0] : Objects.requireNonNull(
+                ClassLoader.getSystemClassLoader().getResource("sql/query_dump")).getPath();
+        String reportDir = args.length > 1 ? args[1] : "planner_bench_report";
+        String baselineDir = args.length > 2 ? args[2] : null;
+
+        List<String> dumpFiles;
+        try (Stream<Path> paths = Files.list(Paths.get(dumpDir))) {
+            dumpFiles = paths.filter(p -> p.toString().endsWith(".json"))
+                    .map(p -> p.toAbsolutePath().toString()).sorted().collect(Collectors.toList());
+        }
+        Files.createDirectories(Paths.get(reportDir, PLAN_DIR));
+
+        Options opt = new OptionsBuilder()
+                .include(QueryDumpReplayBench.class.getSimpleName())
+                .param("dumpFile", dumpFiles.toArray(new String[0]))
+                .param("reportDir", new File(reportDir).getAbsolutePath())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(Paths.get(reportDir, RESULT_FILE).toString())
+                .build();
+        Collection<RunResult> results = new Runner(opt).run();
+
+        Map<String, double[]> summary = Maps.newTreeMap();
+        for (RunResult result : results) {
+            summary.put(getDumpName(result.getParams()), summarize(result));
+        }
+        writeSummary(Paths.get(reportDir, SUMMARY_FILE), summary);
+        if (baselineDir != null) {
+            compareWithBaseline(Paths.get(baselineDir), Paths.get(reportDir), summary);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ReplayFromDumpTestBase.beforeClass();
+        String dump = new String(Files.readAllBytes(Paths.get(dumpFile)), StandardCharsets.UTF_8);
+        QueryDumpInfo queryDumpInfo = ReplayFromDumpTestBase.getDumpInfoFromJson(dump);
+        sql = UtFrameUtils.setUpTestDump(ReplayFromDumpTestBase.connectContext, queryDumpInfo);
+
+        // the plan shape is compared across builds, the costs are left out as they follow the statistics
+        Pair<String, ExecPlan> plan = replay();
+        Files.write(Paths.get(reportDir, PLAN_DIR, new File(dumpFile).getName() + ".plan"),
+                plan.first.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        UtFrameUtils.tearDownTestDump();
+    }
+
+    @Benchmark
+    public Pair<String, ExecPlan> replay() throws Exception {
+        ReplayFromDumpTestBase.connectContext.setThreadLocalInfo();
+        return UtFrameUtils.replaySql(ReplayFromDumpTestBase.connectContext, sql);
+    }
+
+    private static String getDumpName(BenchmarkParams params) {
+        return new File(params.getParam("dumpFile")).getName();
+    }
+
+    // p50, p90, p99 of the latency in ms, and the allocated bytes per planning
+    private static double[] summarize(RunResult result) {
+        Statistics statistics = result.getPrimaryResult().getStatistics();
+        double allocatedBytes = Double.NaN;
+        for (Map.Entry<String, Result> entry : result.getSecondaryResults().entrySet()) {
+            if (entry.getKey().endsWith("gc.alloc.rate.norm")) {
+                allocatedBytes = entry.getValue().getScore();
+            }
+        }
+        return new double[] {statistics.getPercentile(50), statistics.getPercentile(90),
+                statistics.getPercentile(99), allocatedBytes};
+    }
+
+    private static void writeSummary(Path path, Map<String, double[]> summary) throws IOException {
+        List<String> lines = Lists.newArrayList("dump\tp50_ms\tp90_ms\tp99_ms\talloc_bytes");
+        summary.forEach((dump, values) -> lines.add(String.format("%s\t%.3f\t%.3f\t%.3f\t%.0f",
+                dump, values[0], values[1], values[2], values[3])));
+        Files.write(path, lines, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, double[]> readSummary(Path path) throws IOException {
+        Map<String, double[]> summary = Maps.newTreeMap();
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split("\t");
+            double[] values = new double[fields.length - 1];
+            for (int i = 1; i < fields.length; i++) {
+                values[i - 1] = Double.parseDouble(fields[i]);
+            }
+            summary.put(fields[0], values);
+        }
+        return summary;
+    }
+
+    private static void compareWithBaseline(Path baselineDir, Path reportDir, Map<String, double[]> summary)
+            throws IOException {
+        Map<String, double[]> baseline = readSummary(baselineDir.resolve(SUMMARY_FILE));
+        List<String> regressions = Lists.newArrayList();
+        for (Map.Entry<String, double[]> entry : summary.entrySet()) {
+            String dump = entry.getKey();
+            double[] current = entry.getValue();
+            double[] base = baseline.get(dump);
+            if (base == null) {
+                continue;
+            }
+            // p90 is compared for the latency, p99 of a few samples is too noisy
+            if (current[1] > base[1] * REGRESSION_RATIO) {
+                regressions.add(String.format("%s\tp90 %.3f ms -> %.3f ms", dump, base[1], current[1]));
+            }
+            if (current[3] > base[3] * REGRESSION_RATIO) {
+                regressions.add(String.format("%s\talloc %.0f bytes -> %.0f bytes", dump, base[3], current[3]));
+            }
+            Path basePlan = baselineDir.resolve(PLAN_DIR).resolve(dump + ".plan");
+            Path currentPlan = reportDir.resolve(PLAN_DIR).resolve(dump + ".plan");
+            if (Files.exists(basePlan) && Files.exists(currentPlan) &&
+                    !Files.readAllLines(basePlan).equals(Files.readAllLines(currentPlan))) {
+                regressions.add(String.format("%s\tplan changed: diff %s %s", dump, basePlan, currentPlan));
+            }
+        }
+        Files.write(reportDir.resolve("regressions.txt"), regressions, StandardCharsets.UTF_8);
+        System.out.println("Planner regressions against " + baselineDir + ":");
+        regressions.forEach(System.out::println);
+    }
+}
@@ -0,0 +1,167 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.starrocks.analysis.IntLiteral;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.DataProperty;
+import com.starrocks.catalog.PartitionKey;
+import com.starrocks.catalog.RangePartitionInfo;
+import com.starrocks.catalog.Type;
+import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
+import com.starrocks.planner.HashDistributionPruner;
+import com.starrocks.planner.PartitionColumnFilter;
+import com.starrocks.planner.RangePartitionPruner;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.ast.PartitionValue;
+import com.starrocks.sql.optimizer.rewrite.PartitionPruneExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the range partition pruning of a point query on a table with huge partitions, by the interval index
+ * cached in the partition info against the index built by every query, and the bucket pruning of all the
+ * partitions by the planner thread against the chunks pruned in parallel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+public class RangePartitionIndexBench {
+    private static final int BUCKET_NUM = 16;
+
+    @Param({"10000", "100000", "1000000"})
+    private int partitionNum;
+
+    private List<Column> partitionColumns;
+    private RangePartitionInfo partitionInfo;
+    private List<Long> partitionIds;
+    private Map<String, PartitionColumnFilter> partitionFilters;
+    private List<Column> distributionColumns;
+    private Map<String, PartitionColumnFilter> distributionFilters;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RangePartitionIndexBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws AnalysisException {
+        ConnectContext ctx = new ConnectContext();
+        ctx.setThreadLocalInfo();
+
+        Column k1 = new Column("k1", Type.BIGINT);
+        partitionColumns = Lists.newArrayList(k1);
+        partitionInfo = new RangePartitionInfo(partitionColumns);
+        partitionIds = Lists.newArrayList();
+        for (int i = 0; i < partitionNum; i++) {
+            PartitionKey lowerKey = PartitionKey.createPartitionKey(
+                    Lists.newArrayList(new PartitionValue(String.valueOf(i * 10L))), partitionColumns);
+            PartitionKey upperKey = PartitionKey.createPartitionKey(
+                    Lists.newArrayList(new PartitionValue(String.valueOf((i + 1) * 10L))), partitionColumns);
+            long partitionId = 10000L + i;
+            partitionInfo.addPartition(partitionId, false, Range.closedOpen(lowerKey, upperKey),
+                    DataProperty.getInferredDefaultDataProperty(), (short) 1, false);
+            partitionIds.add(partitionId);
+        }
+        partitionFilters = Maps.newHashMap();
+        partitionFilters.put("k1", pointFilter(new IntLiteral(partitionNum * 5L, Type.BIGINT)));
+
+        Column k2 = new Column("k2", Type.INT);
+        distributionColumns = Lists.newArrayList(k2);
+        distributionFilters = Maps.newHashMap();
+        distributionFilters.put("k2", pointFilter(new IntLiteral(42, Type.INT)));
+    }
+
+    private static PartitionColumnFilter pointFilter(LiteralExpr value) {
+        PartitionColumnFilter filter = new PartitionColumnFilter();
+        filter.setLowerBound(value, true);
+        filter.setUpperBound(value, true);
+        return filter;
+    }
+
+    @Benchmark
+    public List<Long> prunePartitionsByCachedIndex() throws AnalysisException {
+        return new RangePartitionPruner(partitionInfo.getRangeIndex(), partitionColumns, partitionFilters).prune();
+    }
+
+    @Benchmark
+    public List<Long> prunePartitionsByBuiltIndex() throws AnalysisException {
+        return new RangePartitionPruner(partitionInfo.getIdToRange(false), partitionColumns, partitionFilters)
+                .prune();
+    }
+
+    @Benchmark
+    public List<Long> pruneBucketsSerially() {
+        int minPartitions = Config.partition_prune_parallel_min_partitions;
+        Config.partition_prune_parallel_min_partitions = 0;
+        try {
+            return PartitionPruneExecutor.flatMapChunks(partitionIds, this::pruneBuckets);
+        } finally {
+            Config.partition_prune_parallel_min_partitions = minPartitions;
+        }
+    }
+
+    @Benchmark
+    public List<Long> pruneBucketsInParallel() {
+        int minPartitions = Config.partition_prune_parallel_min_partitions;
+        Config.partition_prune_parallel_min_partitions = 1;
+        try {
+            return PartitionPruneExecutor.flatMapChunks(partitionIds, this::pruneBuckets);
+        } finally {
+            Config.partition_prune_parallel_min_partitions = minPartitions;
+        }
+    }
+
+    // the tablets of a partition are mocked by the partition id and the bucket sequence
+    private List<Long> pruneBuckets(List<Long> chunk) {
+        List<Long> result = Lists.newArrayList();
+        for (Long partitionId : chunk) {
+            List<Long> tabletIds = Lists.newArrayListWithCapacity(BUCKET_NUM);
+            for (int i = 0; i < BUCKET_NUM; i++) {
+                tabletIds.add(partitionId * BUCKET_NUM + i);
+            }
+            result.addAll(new HashDistributionPruner(tabletIds, distributionColumns, distributionFilters, BUCKET_NUM)
+                    .prune());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.DictionaryRefreshPlan.Mode;
+import com.starrocks.catalog.DictionaryRefreshPlan.SourceSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class DictionaryRefreshPlanTest {
+    // node id -> start time
+    private static final Map<Long, Long> NODES = ImmutableMap.of(1L, 1000L, 2L, 1000L);
+
+    private static SourceSnapshot snapshot(long txnId, long... versions) {
+        return snapshot(NODES, txnId, versions);
+    }
+
+    private static SourceSnapshot snapshot(Map<Long, Long> nodes, long txnId, long... versions) {
+        SourceSnapshot snapshot = new SourceSnapshot(100, nodes);
+        for (int i = 0; i < versions.length; i++) {
+            if (versions[i] > 0) {
+                snapshot.addPartition(i, "p" + i, versions[i], 1000);
+            }
+        }
+        snapshot.setTxnId(txnId);
+        return snapshot;
+    }
+
+    @Test
+    public void testFullRefresh() {
+        // the source can't be refreshed by partition
+        Assert.assertEquals(Mode.FULL, DictionaryRefreshPlan.create(null, snapshot(1, 2, 2), 1).getMode());
+
+        // no refresh before
+        DictionaryRefreshPlan plan = DictionaryRefreshPlan.create(snapshot(0, 2, 2), null, 0);
+        Assert.assertEquals(Mode.FULL_BY_PARTITION, plan.getMode());
+        Assert.assertEquals(Lists.newArrayList(0L, 1L), plan.getRefreshPartitionIds());
+        Assert.assertEquals("p1", plan.getPartitionName(1));
+
+        // the cache on the BEs is not refreshed from the last snapshot
+        Assert.assertEquals(Mode.FULL_BY_PARTITION,
+                DictionaryRefreshPlan.create(snapshot(0, 2, 3), snapshot(1, 2, 2), 2).getMode());
+
+        // a new BE has no cache of the last refresh
+        Assert.assertEquals(Mode.FULL_BY_PARTITION, DictionaryRefreshPlan.create(
+                snapshot(ImmutableMap.of(1L, 1000L, 2L, 1000L, 3L, 1000L), 0, 2), snapshot(1, 2), 1).getMode());
+
+        // a restarted BE has lost the cache of the last refresh
+        Assert.assertEquals(Mode.FULL_BY_PARTITION, DictionaryRefreshPlan.create(
+                snapshot(ImmutableMap.of(1L, 1000L, 2L, 2000L), 0, 2), snapshot(1, 2), 1).getMode());
+
+        // a manual refresh is never skipped
+        Assert.assertEquals(Mode.FULL_BY_PARTITION,
+                DictionaryRefreshPlan.create(snapshot(0, 2, 2), snapshot(1, 2, 2), 1, true).getMode());
+
+        // most of the rows are changed
+        Assert.assertEquals(Mode.FULL_BY_PARTITION,
+                DictionaryRefreshPlan.create(snapshot(0, 3, 3), snapshot(1, 2, 2), 1).getMode());
+    }
+
+    @Test
+    public void testIncrementalRefresh() {
+        // nothing changed
+        Assert.assertEquals(Mode.SKIP,
+                DictionaryRefreshPlan.create(snapshot(0, 2, 2, 2), snapshot(1, 2, 2, 2), 1).getMode());
+
+        // p1 is changed, p3 is added and p2 is dropped
+        DictionaryRefreshPlan plan =
+                DictionaryRefreshPlan.create(snapshot(0, 2, 3, 0, 2, 2, 2), snapshot(1, 2, 2, 2, 0, 2, 2), 1);
+        Assert.assertEquals(Mode.INCREMENTAL, plan.getMode());
+        Assert.assertEquals(Lists.newArrayList(1L, 3L), plan.getRefreshPartitionIds());
+        Assert.assertEquals(Lists.newArrayList(1L, 2L), plan.getDroppedPartitionIds());
+
+        // only p1 is dropped
+        plan = DictionaryRefreshPlan.create(snapshot(0, 2, 0, 2), snapshot(1, 2, 2, 2), 1);
+        Assert.assertEquals(Mode.INCREMENTAL, plan.getMode());
+        Assert.assertTrue(plan.getRefreshPartitionIds().isEmpty());
+        Assert.assertEquals(Lists.newArrayList(1L), plan.getDroppedPartitionIds());
+    }
+
+    @Test
+    public void testBuildQuery() {
+        Dictionary dictionary = new Dictionary(1, "dict", "t", "default_catalog", "db",
+                Lists.newArrayList("k"), Lists.newArrayList("v1", "v2"), null);
+        Assert.assertEquals("SELECT k, v1, v2 FROM t;", dictionary.buildQuery());
+        Assert.assertEquals("SELECT k, v1, v2 FROM t PARTITION (`p1`);", dictionary.buildQuery("p1"));
+    }
+}
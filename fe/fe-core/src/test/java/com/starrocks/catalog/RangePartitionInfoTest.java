@@ -372,4 +372,37 @@ public class RangePartitionInfoTest {
         Assert.assertTrue(rangePartitionInfo.getRange(123L) == null);
     }
 
+    @Test
+    public void testRangeIndex() throws Exception {
+        Column k1 = new Column("k1", new ScalarType(PrimitiveType.INT), true, null, "", "");
+        partitionColumns.add(k1);
+        RangePartitionInfo rangePartitionInfo = new RangePartitionInfo(partitionColumns);
+        rangePartitionInfo.addPartition(1L, false, createRange(0, 10), null, (short) 1, false, null);
+        rangePartitionInfo.addPartition(2L, false, createRange(10, 20), null, (short) 1, false, null);
+        PartitionKey key = PartitionKey.createPartitionKey(
+                Lists.newArrayList(new PartitionValue("15")), partitionColumns);
+        Assert.assertEquals(Long.valueOf(2L), rangePartitionInfo.getRangeIndex().get(key));
+        Assert.assertSame(rangePartitionInfo.getRangeIndex(), rangePartitionInfo.getRangeIndex());
+
+        // the index follows the formal ranges, but not the temp ones
+        rangePartitionInfo.dropPartition(2L);
+        Assert.assertNull(rangePartitionInfo.getRangeIndex().get(key));
+        rangePartitionInfo.addPartition(3L, true, createRange(10, 20), null, (short) 1, false, null);
+        Assert.assertNull(rangePartitionInfo.getRangeIndex().get(key));
+        rangePartitionInfo.moveRangeFromTempToFormal(3L);
+        Assert.assertEquals(Long.valueOf(3L), rangePartitionInfo.getRangeIndex().get(key));
+
+        RangePartitionInfo copyInfo = (RangePartitionInfo) rangePartitionInfo.clone();
+        rangePartitionInfo.dropPartition(3L);
+        Assert.assertNull(rangePartitionInfo.getRangeIndex().get(key));
+        Assert.assertEquals(Long.valueOf(3L), copyInfo.getRangeIndex().get(key));
+    }
+
+    private Range<PartitionKey> createRange(int lower, int upper) throws AnalysisException {
+        PartitionKey lowerKey = PartitionKey.createPartitionKey(
+                Lists.newArrayList(new PartitionValue(String.valueOf(lower))), partitionColumns);
+        PartitionKey upperKey = PartitionKey.createPartitionKey(
+                Lists.newArrayList(new PartitionValue(String.valueOf(upper))), partitionColumns);
+        return Range.closedOpen(lowerKey, upperKey);
+    }
 }
@@ -418,6 +418,38 @@ public class CachingHiveMetastoreTest {
         Partition partition = cachingHiveMetastore.getPartition(
                 "db1", "unpartitioned_table", Lists.newArrayList("col1"));
         cachingHiveMetastore.refreshPartitionByEvent(hivePartitionName, stats, partition);
+        Assert.assertTrue(cachingHiveMetastore.isPartitionPresent(hivePartitionName));
+        // the stats not cached are not loaded by the event
+        Assert.assertNull(cachingHiveMetastore.partitionStatsCache.getIfPresent(hivePartitionName));
+
+        cachingHiveMetastore.partitionStatsCache.put(hivePartitionName, HivePartitionStats.empty());
+        cachingHiveMetastore.refreshPartitionByEvent(hivePartitionName, stats, partition);
+        Assert.assertEquals(10, cachingHiveMetastore.partitionStatsCache.getIfPresent(hivePartitionName)
+                .getCommonStats().getRowNums());
+    }
+
+    @Test
+    public void testAddPartitionByEvent() {
+        CachingHiveMetastore cachingHiveMetastore = new CachingHiveMetastore(
+                metastore, executor, expireAfterWriteSec, refreshAfterWriteSec, 1000, true);
+        Assert.assertEquals(Lists.newArrayList("col1"), cachingHiveMetastore.getPartitionKeysByValue("db1", "tbl1",
+                HivePartitionValue.ALL_PARTITION_VALUES));
+
+        HiveCommonStats stats = new HiveCommonStats(10, 100);
+        HivePartitionName hivePartitionName = HivePartitionName.of("db1", "tbl1", "col1=2");
+        Partition partition = cachingHiveMetastore.getPartition("db1", "tbl1", Lists.newArrayList("par1"));
+        cachingHiveMetastore.addPartitionByEvent(hivePartitionName, stats, partition);
+
+        Assert.assertEquals(Lists.newArrayList("col1", "col1=2"), cachingHiveMetastore.getPartitionKeysByValue(
+                "db1", "tbl1", HivePartitionValue.ALL_PARTITION_VALUES));
+        Assert.assertSame(partition, cachingHiveMetastore.partitionCache.getIfPresent(hivePartitionName));
+        Assert.assertEquals(10, cachingHiveMetastore.partitionStatsCache.getIfPresent(hivePartitionName)
+                .getCommonStats().getRowNums());
+
+        // the same event applied twice doesn't add the partition name again
+        cachingHiveMetastore.addPartitionByEvent(hivePartitionName, stats, partition);
+        Assert.assertEquals(2, cachingHiveMetastore.getPartitionKeysByValue(
+                "db1", "tbl1", HivePartitionValue.ALL_PARTITION_VALUES).size());
     }
 
     @Test
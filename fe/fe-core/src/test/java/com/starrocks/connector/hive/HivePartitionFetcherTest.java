@@ -0,0 +1,173 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.connector.hive;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.profile.Timer;
+import com.starrocks.common.profile.Tracers;
+import com.starrocks.connector.exception.StarRocksConnectorException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class HivePartitionFetcherTest {
+    private ExecutorService executor;
+    private int maxPartitionsPerRpc;
+    private long targetLatencyMs;
+    private long targetBatchBytes;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        maxPartitionsPerRpc = Config.max_hive_partitions_per_rpc;
+        targetLatencyMs = Config.hive_partition_fetch_target_latency_ms;
+        targetBatchBytes = Config.hive_partition_fetch_target_batch_bytes;
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+        Config.max_hive_partitions_per_rpc = maxPartitionsPerRpc;
+        Config.hive_partition_fetch_target_latency_ms = targetLatencyMs;
+        Config.hive_partition_fetch_target_batch_bytes = targetBatchBytes;
+    }
+
+    private static List<String> partitionNames(int num) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < num; i++) {
+            names.add("p=" + i);
+        }
+        return names;
+    }
+
+    @Test
+    public void testFetchInParallel() {
+        Config.max_hive_partitions_per_rpc = 100;
+        HivePartitionFetcher fetcher = new HivePartitionFetcher(executor, 4);
+        List<String> names = partitionNames(1000);
+        AtomicInteger rpcNum = new AtomicInteger();
+        List<String> partitions = fetcher.fetch(names, batch -> {
+            Assert.assertTrue(batch.size() <= 100);
+            rpcNum.incrementAndGet();
+            return batch.stream().map(String::toUpperCase).collect(Collectors.toList());
+        }, partition -> 10);
+
+        Assert.assertEquals(names.stream().map(String::toUpperCase).collect(Collectors.toList()), partitions);
+        Assert.assertEquals(10, rpcNum.get());
+
+        // names are spread over the parallel batches
+        rpcNum.set(0);
+        fetcher.fetch(partitionNames(40), batch -> {
+            rpcNum.incrementAndGet();
+            return batch;
+        }, partition -> 10);
+        Assert.assertEquals(4, rpcNum.get());
+    }
+
+    @Test
+    public void testTraceFetchInPool() {
+        Tracers.register();
+        Tracers.init(Tracers.Mode.TIMER, Tracers.Module.EXTERNAL, false, false);
+        try {
+            HivePartitionFetcher fetcher = new HivePartitionFetcher(executor, 4);
+            fetcher.fetch(partitionNames(100), batch -> {
+                try (Timer ignored = Tracers.watchScope(Tracers.Module.EXTERNAL, "HMS.getPartitionsByNames")) {
+                    return batch;
+                }
+            }, partition -> 10);
+            Assert.assertTrue(Tracers.printScopeTimer(), Tracers.printScopeTimer().contains("HMS.getPartitionsByNames"));
+        } finally {
+            Tracers.close();
+        }
+    }
+
+    @Test
+    public void testTraceParallelFetchWithProfile() {
+        Config.max_hive_partitions_per_rpc = 10;
+        Tracers.register();
+        Tracers.init(Tracers.Mode.NONE, Tracers.Module.NONE, true, false);
+        try (Timer ignored = Tracers.watchScope(Tracers.Module.EXTERNAL, "HMS.getPartitions")) {
+            HivePartitionFetcher fetcher = new HivePartitionFetcher(executor, 4);
+            List<String> names = partitionNames(400);
+            List<String> partitions = fetcher.fetch(names, batch -> {
+                try (Timer rpc = Tracers.watchScope(Tracers.Module.EXTERNAL, "HMS.getPartitionsByNames")) {
+                    Thread.sleep(2);
+                    Tracers.count(Tracers.Module.EXTERNAL, "HMS.partitions", batch.size());
+                    return batch;
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }, partition -> 10);
+            Assert.assertEquals(names, partitions);
+        }
+        try {
+            String timers = Tracers.printScopeTimer();
+            Assert.assertTrue(timers, timers.contains("-- HMS.getPartitionsByNames[40]"));
+            Assert.assertTrue(timers, timers.contains("    -- HMS.getPartitionsByNames"));
+            Assert.assertTrue(Tracers.printVars(), Tracers.printVars().contains("HMS.partitions: 400"));
+        } finally {
+            Tracers.close();
+        }
+    }
+
+    @Test
+    public void testFetchFailed() {
+        HivePartitionFetcher fetcher = new HivePartitionFetcher(executor, 4);
+        Assert.assertThrows(StarRocksConnectorException.class, () -> fetcher.fetch(partitionNames(100), batch -> {
+            throw new StarRocksConnectorException("mocked failure");
+        }, partition -> 10));
+        Assert.assertTrue(fetcher.fetch(new ArrayList<String>(), batch -> batch, partition -> 10).isEmpty());
+    }
+
+    @Test
+    public void testAdaptiveBatchSize() {
+        Config.max_hive_partitions_per_rpc = 1000;
+        Config.hive_partition_fetch_target_latency_ms = 1000;
+        Config.hive_partition_fetch_target_batch_bytes = 1024 * 1024;
+        HivePartitionFetcher fetcher = HivePartitionFetcher.sequential();
+        Assert.assertEquals(1000, fetcher.nextBatchSize());
+
+        // slow batches halve the batch size
+        fetcher.observe(1000, 3000, 1000);
+        Assert.assertEquals(500, fetcher.nextBatchSize());
+        fetcher.observe(500, 3000, 500);
+        Assert.assertEquals(250, fetcher.nextBatchSize());
+
+        // fast full batches grow it, up to max_hive_partitions_per_rpc
+        fetcher.observe(250, 100, 250);
+        Assert.assertEquals(375, fetcher.nextBatchSize());
+        // a small batch can't tell whether the metastore can serve more partitions
+        fetcher.observe(10, 100, 10);
+        Assert.assertEquals(375, fetcher.nextBatchSize());
+        for (int i = 0; i < 10; i++) {
+            fetcher.observe(fetcher.nextBatchSize(), 100, fetcher.nextBatchSize());
+        }
+        Assert.assertEquals(1000, fetcher.nextBatchSize());
+
+        // large partitions limit the batch size by payload
+        for (int i = 0; i < 30; i++) {
+            fetcher.observe(1000, 100, 1000L * 8 * 1024);
+        }
+        Assert.assertEquals(128, fetcher.nextBatchSize());
+    }
+}
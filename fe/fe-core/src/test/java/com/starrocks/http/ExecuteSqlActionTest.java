@@ -194,4 +194,34 @@ public class ExecuteSqlActionTest extends StarRocksHttpTestCase {
         Assert.assertEquals("FAILED", jsonObject.get("status").toString());
         Assert.assertTrue(jsonObject.get("msg").toString().contains("Unknown system variable"));
     }
+
+    @Test
+    public void test3ExecuteSqlFormatFail() throws IOException {
+        RequestBody body = RequestBody.create(JSON, "{ \"query\" :  \" select 1;\", \"format\" : \"csv\" }");
+        Request request = new Request.Builder()
+                .get()
+                .addHeader("Authorization", rootAuth)
+                .url(BASE_URL + QUERY_EXECUTE_API)
+                .post(body)
+                .build();
+        Response response = networkClient.newCall(request).execute();
+        String respStr = Objects.requireNonNull(response.body()).string();
+        JSONObject jsonObject = new JSONObject(respStr);
+        Assert.assertEquals("FAILED", jsonObject.get("status").toString());
+        Assert.assertEquals("http query only support json and arrow format", jsonObject.get("msg").toString());
+
+        body = RequestBody.create(JSON, "{ \"query\" :  \" show catalogs\", \"format\" : \"arrow\" }");
+        request = new Request.Builder()
+                .get()
+                .addHeader("Authorization", rootAuth)
+                .url(BASE_URL + QUERY_EXECUTE_API)
+                .post(body)
+                .build();
+        response = networkClient.newCall(request).execute();
+        respStr = Objects.requireNonNull(response.body()).string();
+        jsonObject = new JSONObject(respStr);
+        Assert.assertEquals("FAILED", jsonObject.get("status").toString());
+        Assert.assertEquals("http query only support arrow format for SELECT statement",
+                jsonObject.get("msg").toString());
+    }
 }
@@ -0,0 +1,127 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.lake.compaction;
+
+import com.google.common.collect.ImmutableMap;
+import com.starrocks.common.Config;
+import com.starrocks.warehouse.DefaultWarehouse;
+import com.starrocks.warehouse.Warehouse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class CompactionBudgetTest {
+    private static final Warehouse WAREHOUSE = new DefaultWarehouse(0, "default_warehouse");
+    private static final Warehouse OTHER_WAREHOUSE = new DefaultWarehouse(1, "wh1");
+
+    private final int oldMaxTasksPerNode = Config.lake_compaction_max_tasks_per_node;
+    private final long oldMaxBytesPerNode = Config.lake_compaction_max_bytes_per_node;
+    private final long oldMaxBytesPerWarehouse = Config.lake_compaction_max_bytes_per_warehouse;
+    private final String oldMaxBytesOfWarehouses = Config.lake_compaction_max_bytes_of_warehouses;
+
+    @After
+    public void tearDown() {
+        Config.lake_compaction_max_tasks_per_node = oldMaxTasksPerNode;
+        Config.lake_compaction_max_bytes_per_node = oldMaxBytesPerNode;
+        Config.lake_compaction_max_bytes_per_warehouse = oldMaxBytesPerWarehouse;
+        Config.lake_compaction_max_bytes_of_warehouses = oldMaxBytesOfWarehouses;
+    }
+
+    @Test
+    public void testNoLimit() {
+        CompactionBudget budget = new CompactionBudget();
+        budget.add(0, 1, 100, 1L << 40);
+        Map<Long, List<Long>> tablets = ImmutableMap.of(1L, Arrays.asList(1L, 2L, 3L));
+        Assert.assertTrue(budget.canAccept(WAREHOUSE, tablets, ImmutableMap.of(1L, 1L << 40)));
+    }
+
+    @Test
+    public void testNodeLimit() {
+        Config.lake_compaction_max_tasks_per_node = 4;
+        Config.lake_compaction_max_bytes_per_node = 100;
+
+        CompactionBudget budget = new CompactionBudget();
+        Map<Long, List<Long>> tablets = ImmutableMap.of(1L, Arrays.asList(1L, 2L, 3L));
+        // an idle node always accepts one job
+        Assert.assertTrue(budget.canAccept(WAREHOUSE, tablets, ImmutableMap.of(1L, 1000L)));
+
+        budget.add(0, 1, 3, 50);
+        Assert.assertEquals(3, budget.getRunningTasks(1));
+        Assert.assertEquals(50, budget.getRunningBytes(1));
+        // exceeds task limit
+        Assert.assertFalse(budget.canAccept(WAREHOUSE, tablets, ImmutableMap.of(1L, 10L)));
+        // exceeds byte limit
+        Assert.assertFalse(budget.canAccept(WAREHOUSE, ImmutableMap.of(1L, Collections.singletonList(4L)),
+                ImmutableMap.of(1L, 60L)));
+        Assert.assertTrue(budget.canAccept(WAREHOUSE, ImmutableMap.of(1L, Collections.singletonList(4L)),
+                ImmutableMap.of(1L, 50L)));
+        // other nodes are not affected
+        Assert.assertTrue(budget.canAccept(WAREHOUSE, ImmutableMap.of(2L, Arrays.asList(5L, 6L, 7L)),
+                ImmutableMap.of(2L, 60L)));
+    }
+
+    @Test
+    public void testWarehouseLimit() {
+        Config.lake_compaction_max_bytes_per_warehouse = 100;
+
+        CompactionBudget budget = new CompactionBudget();
+        Assert.assertTrue(budget.canAccept(WAREHOUSE, ImmutableMap.of(1L, Collections.singletonList(1L)),
+                ImmutableMap.of(1L, 1000L)));
+
+        budget.add(0, 1, 1, 60);
+        budget.add(0, 2, 1, 30);
+        Assert.assertEquals(90, budget.getRunningBytesOfWarehouse(0));
+        Assert.assertTrue(budget.canAccept(WAREHOUSE, ImmutableMap.of(3L, Collections.singletonList(2L)),
+                ImmutableMap.of(3L, 10L)));
+        Assert.assertFalse(budget.canAccept(WAREHOUSE, ImmutableMap.of(3L, Collections.singletonList(2L), 4L,
+                Collections.singletonList(3L)), ImmutableMap.of(3L, 10L, 4L, 1L)));
+    }
+
+    @Test
+    public void testLimitOfEachWarehouse() {
+        Config.lake_compaction_max_bytes_per_warehouse = 100;
+        Config.lake_compaction_max_bytes_of_warehouses = "wh1:10";
+
+        CompactionBudget budget = new CompactionBudget();
+        Assert.assertEquals(100, budget.getMaxBytesOfWarehouse("default_warehouse"));
+        Assert.assertEquals(10, budget.getMaxBytesOfWarehouse("wh1"));
+
+        budget.add(0, 1, 1, 60);
+        budget.add(1, 2, 1, 5);
+        Assert.assertEquals(60, budget.getRunningBytesOfWarehouse(0));
+        Assert.assertEquals(5, budget.getRunningBytesOfWarehouse(1));
+        // the running compactions of one warehouse don't use the budget of the other
+        Assert.assertTrue(budget.canAccept(WAREHOUSE, ImmutableMap.of(3L, Collections.singletonList(1L)),
+                ImmutableMap.of(3L, 40L)));
+        Assert.assertFalse(budget.canAccept(OTHER_WAREHOUSE, ImmutableMap.of(4L, Collections.singletonList(2L)),
+                ImmutableMap.of(4L, 6L)));
+        Assert.assertTrue(budget.canAccept(OTHER_WAREHOUSE, ImmutableMap.of(4L, Collections.singletonList(2L)),
+                ImmutableMap.of(4L, 5L)));
+    }
+
+    @Test
+    public void testParseWarehouseMaxBytes() {
+        Assert.assertEquals(ImmutableMap.of("wh1", 10L, "wh2", -1L),
+                CompactionBudget.parseWarehouseMaxBytes("wh1:10; wh2 : -1"));
+        Assert.assertTrue(CompactionBudget.parseWarehouseMaxBytes("").isEmpty());
+        Assert.assertTrue(CompactionBudget.parseWarehouseMaxBytes("wh1:10;wh2").isEmpty());
+        Assert.assertTrue(CompactionBudget.parseWarehouseMaxBytes("wh1:abc").isEmpty());
+    }
+}
@@ -21,6 +21,7 @@ import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.PhysicalPartition;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.Config;
+import com.starrocks.common.jmockit.Deencapsulation;
 import com.starrocks.lake.LakeTable;
 import com.starrocks.lake.LakeTablet;
 import com.starrocks.server.GlobalStateMgr;
@@ -219,4 +220,51 @@ public class CompactionSchedulerTest {
 
         Assert.assertEquals(3 * 16, compactionScheduler.compactionTaskLimit());
     }
+
+    @Test
+    public void testRecordQueueAgeWhenChoosingPartitions() {
+        CompactionMgr compactionManager = new CompactionMgr();
+        CompactionScheduler compactionScheduler =
+                new CompactionScheduler(compactionManager, GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo(),
+                        GlobalStateMgr.getCurrentState().getGlobalTransactionMgr(), GlobalStateMgr.getCurrentState(), "");
+        compactionManager.setCompactionScheduler(compactionScheduler);
+        Assert.assertEquals(0, compactionManager.getMaxCompactionQueueAgeMs());
+
+        long now = System.currentTimeMillis();
+        PartitionIdentifier partition1 = new PartitionIdentifier(1, 2, 3);
+        PartitionIdentifier partition2 = new PartitionIdentifier(1, 2, 4);
+        compactionManager.handleLoadingFinished(partition1, 2, now - 60000, Quantiles.compute(Lists.newArrayList(100d)));
+        compactionManager.handleLoadingFinished(partition2, 2, now - 1000, Quantiles.compute(Lists.newArrayList(100d)));
+
+        int[] taskLimit = {10};
+        new MockUp<CompactionScheduler>() {
+            @Mock
+            protected int compactionTaskLimit() {
+                return taskLimit[0];
+            }
+
+            // the budget is exhausted, the partitions keep waiting
+            @Mock
+            private CompactionJob startCompaction(PartitionIdentifier partitionIdentifier, CompactionBudget budget) {
+                return null;
+            }
+        };
+
+        Deencapsulation.invoke(compactionScheduler, "schedule");
+        long queueAge = compactionManager.getMaxCompactionQueueAgeMs();
+        Assert.assertTrue(queueAge >= 60000);
+        Assert.assertTrue(queueAge < System.currentTimeMillis() - now + 60000 + 1);
+
+        // no partition is chosen when the task limit is reached, the queue age keeps growing
+        taskLimit[0] = 0;
+        Deencapsulation.invoke(compactionScheduler, "schedule");
+        Assert.assertTrue(compactionManager.getMaxCompactionQueueAgeMs() >= queueAge);
+
+        // no partition is waiting after they are removed
+        taskLimit[0] = 10;
+        compactionManager.removePartition(partition1);
+        compactionManager.removePartition(partition2);
+        Deencapsulation.invoke(compactionScheduler, "schedule");
+        Assert.assertEquals(0, compactionManager.getMaxCompactionQueueAgeMs());
+    }
 }
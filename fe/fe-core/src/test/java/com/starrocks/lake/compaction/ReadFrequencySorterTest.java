@@ -0,0 +1,89 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.lake.compaction;
+
+import com.starrocks.common.Config;
+import com.starrocks.metric.TableMetricsRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ReadFrequencySorterTest {
+
+    @Test
+    public void testSortByReadFrequency() {
+        List<PartitionStatistics> statisticsList = new ArrayList<>();
+        PartitionStatistics statistics = new PartitionStatistics(new PartitionIdentifier(1, 20001, 3));
+        statistics.setCompactionScore(Quantiles.compute(Arrays.asList(10.0, 10.0)));
+        statisticsList.add(statistics);
+
+        statistics = new PartitionStatistics(new PartitionIdentifier(1, 20002, 4));
+        statistics.setCompactionScore(Quantiles.compute(Arrays.asList(8.0, 8.0)));
+        statisticsList.add(statistics);
+
+        ReadFrequencySorter sorter = new ReadFrequencySorter();
+        List<PartitionStatistics> sortedList = sorter.sort(statisticsList);
+        Assert.assertEquals(3, sortedList.get(0).getPartition().getPartitionId());
+        Assert.assertEquals(4, sortedList.get(1).getPartition().getPartitionId());
+
+        // the table of partition 4 is read frequently
+        TableMetricsRegistry.getInstance().getMetricsEntity(20002).counterScanFinishedTotal.increase(100L);
+        sortedList = sorter.sort(statisticsList);
+        Assert.assertEquals(4, sortedList.get(0).getPartition().getPartitionId());
+        Assert.assertEquals(3, sortedList.get(1).getPartition().getPartitionId());
+
+        // manual compaction still goes first
+        statisticsList.get(0).setPriority(PartitionStatistics.CompactionPriority.MANUAL_COMPACT);
+        sortedList = sorter.sort(statisticsList);
+        Assert.assertEquals(3, sortedList.get(0).getPartition().getPartitionId());
+    }
+
+    @Test
+    public void testSameAsScoreSorterWithoutReads() {
+        List<PartitionStatistics> statisticsList = new ArrayList<>();
+        PartitionStatistics statistics = new PartitionStatistics(new PartitionIdentifier(1, 20003, 5));
+        statistics.setCompactionScore(Quantiles.compute(Arrays.asList(1.0, 10.0)));
+        statisticsList.add(statistics);
+
+        // the same max score with a higher average
+        statistics = new PartitionStatistics(new PartitionIdentifier(1, 20004, 6));
+        statistics.setCompactionScore(Quantiles.compute(Arrays.asList(9.0, 10.0)));
+        statisticsList.add(statistics);
+
+        List<PartitionStatistics> sortedList = new ReadFrequencySorter().sort(statisticsList);
+        Assert.assertEquals(new ScoreSorter().sort(statisticsList), sortedList);
+        Assert.assertEquals(6, sortedList.get(0).getPartition().getPartitionId());
+    }
+
+    @Test
+    public void testDecay() {
+        long oldHalfLife = Config.lake_compaction_read_frequency_half_life_second;
+        Config.lake_compaction_read_frequency_half_life_second = 10;
+        try {
+            ReadFrequencySorter sorter = new ReadFrequencySorter();
+            Assert.assertEquals(100, sorter.updateReadFrequency(1, 100, 0), 0.001);
+            // no new reads, halved after one half life
+            Assert.assertEquals(50, sorter.updateReadFrequency(1, 100, 10000), 0.001);
+            Assert.assertEquals(75, sorter.updateReadFrequency(1, 150, 10000), 0.001);
+            // the counter is reset
+            Assert.assertEquals(47.5, sorter.updateReadFrequency(1, 10, 20000), 0.001);
+        } finally {
+            Config.lake_compaction_read_frequency_half_life_second = oldHalfLife;
+        }
+    }
+}
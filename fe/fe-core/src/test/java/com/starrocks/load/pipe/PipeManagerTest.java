@@ -1092,6 +1092,27 @@ public class PipeManagerTest {
             Assert.assertTrue(pipe.isRecovered());
             Assert.assertTrue(pipe.isRunnable());
         }
+
+        // recover when loading the file index failed, the files are staged through the repo
+        {
+            new MockUp<FileListTableRepo>() {
+                @Mock
+                public void loadFileIndex() {
+                    throw new RuntimeException("load file index failed");
+                }
+            };
+
+            PipeManager pm1 = new PipeManager();
+            SRMetaBlockReader reader = new SRMetaBlockReaderV2(image1.getJsonReader());
+            pm1.getRepo().load(reader);
+            reader.close();
+            pipe = pm1.mayGetPipe(new PipeName(PIPE_TEST_DB, name)).get();
+            Assert.assertFalse(pipe.isRecovered());
+
+            pipe.recovery();
+            Assert.assertTrue(pipe.isRecovered());
+            Assert.assertTrue(pipe.isRunnable());
+        }
     }
 
     @Test
@@ -397,6 +397,80 @@ public class FileListRepoTest {
         repo.stageFiles(records);
     }
 
+    @Test
+    public void testStagedFileIndex() {
+        StagedFileIndex index = new StagedFileIndex();
+        List<PipeFileRecord> records = Lists.newArrayList();
+        for (int i = 0; i < 10000; ++i) {
+            records.add(new PipeFileRecord(1, String.format("s3://bucket/%d.parquet", i), "etag-" + i, i));
+        }
+        records.forEach(record -> Assert.assertTrue(index.add(record)));
+        Assert.assertEquals(10000, index.size());
+        records.forEach(record -> Assert.assertTrue(index.contains(record)));
+        Assert.assertFalse(index.add(records.get(0)));
+
+        // a file with a new version is a new file, the size is not a part of the key of the file-list
+        Assert.assertFalse(index.contains(new PipeFileRecord(1, "s3://bucket/0.parquet", "etag-1", 0)));
+        Assert.assertTrue(index.contains(new PipeFileRecord(1, "s3://bucket/0.parquet", "etag-0", 1)));
+        Assert.assertFalse(index.add(new PipeFileRecord(1, "s3://bucket/0.parquet", "etag-0", 1)));
+        Assert.assertEquals(10000, index.size());
+    }
+
+    @Test
+    public void testStageFilesByIndex() {
+        FileListTableRepo repo = new FileListTableRepo();
+        repo.setPipeId(new PipeId(1, 1));
+        PipeFileRecord staged = new PipeFileRecord(1, "a.parquet", "1", 10);
+        PipeFileRecord newFile = new PipeFileRecord(1, "b.parquet", "1", 10);
+
+        RepoAccessor accessor = RepoAccessor.getInstance();
+        new Expectations(accessor) {
+            {
+                accessor.listFilesByPipe(1);
+                times = 1;
+                result = Lists.newArrayList(staged);
+
+                accessor.selectStagedFiles((List<PipeFileRecord>) any);
+                times = 0;
+
+                accessor.addFiles(Lists.newArrayList(newFile));
+                times = 1;
+            }
+        };
+        repo.loadFileIndex();
+        repo.stageFiles(Lists.newArrayList(staged, newFile));
+        // the staged files are not written again
+        repo.stageFiles(Lists.newArrayList(staged, newFile));
+    }
+
+    @Test
+    public void testStageFilesByIndexFailed() {
+        FileListTableRepo repo = new FileListTableRepo();
+        repo.setPipeId(new PipeId(1, 1));
+        repo.initEmptyFileIndex();
+        PipeFileRecord file = new PipeFileRecord(1, "a.parquet", "1", 10);
+
+        RepoAccessor accessor = RepoAccessor.getInstance();
+        new Expectations(accessor) {
+            {
+                accessor.addFiles(Lists.newArrayList(file));
+                result = new RuntimeException("too many versions");
+                result = null;
+            }
+        };
+        Assert.assertThrows(RuntimeException.class, () -> repo.stageFiles(Lists.newArrayList(file)));
+
+        // the index is reloaded from the repo after a failed write
+        new Expectations(accessor) {
+            {
+                accessor.listFilesByPipe(1);
+                times = 1;
+                result = Lists.newArrayList();
+            }
+        };
+        repo.stageFiles(Lists.newArrayList(file));
+    }
+
     @Test
     public void testExecutor(@Mocked StmtExecutor stmtExecutor) throws IOException {
         new MockUp<StmtExecutor>() {
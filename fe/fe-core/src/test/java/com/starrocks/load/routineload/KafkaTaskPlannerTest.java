@@ -0,0 +1,77 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.load.routineload;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class KafkaTaskPlannerTest {
+
+    @Test
+    public void testAssignPartitions() {
+        List<Integer> partitions = Arrays.asList(0, 1, 2, 3, 4, 5);
+        Map<Integer, Long> lags = ImmutableMap.of(0, 100000L, 1, 60000L, 2, 50000L, 3, 10L, 4, 0L, 5, 5L);
+
+        List<List<Integer>> tasks = KafkaTaskPlanner.assignPartitions(partitions, lags, 5, 1000);
+        // 3 busy partitions each in its own task, and the idle partitions are merged into one task
+        Assert.assertEquals(4, tasks.size());
+        Assert.assertEquals(Lists.newArrayList(0), tasks.get(0));
+        Assert.assertEquals(Lists.newArrayList(1), tasks.get(1));
+        Assert.assertEquals(Lists.newArrayList(2), tasks.get(2));
+        Assert.assertEquals(Lists.newArrayList(3, 4, 5), tasks.get(3));
+
+        // less tasks than the busy partitions, balance the lag
+        tasks = KafkaTaskPlanner.assignPartitions(partitions, lags, 2, 1000);
+        Assert.assertEquals(2, tasks.size());
+        Assert.assertEquals(Lists.newArrayList(0, 3, 4, 5), tasks.get(0));
+        Assert.assertEquals(Lists.newArrayList(1, 2), tasks.get(1));
+    }
+
+    @Test
+    public void testAssignPartitionsUnknownLag() {
+        List<Integer> partitions = Arrays.asList(0, 1, 2);
+        List<List<Integer>> tasks = KafkaTaskPlanner.assignPartitions(partitions, ImmutableMap.of(), 5, 1000);
+        Assert.assertEquals(3, tasks.size());
+
+        // all idle
+        tasks = KafkaTaskPlanner.assignPartitions(partitions, ImmutableMap.of(0, 0L, 1, 0L, 2, 0L), 5, 1000);
+        Assert.assertEquals(1, tasks.size());
+        Assert.assertEquals(Lists.newArrayList(0, 1, 2), tasks.get(0));
+
+        Assert.assertTrue(KafkaTaskPlanner.assignPartitions(Lists.newArrayList(), ImmutableMap.of(), 5, 1000)
+                .isEmpty());
+    }
+
+    @Test
+    public void testTaskSize() {
+        // no lag or no consume rate observed
+        Assert.assertEquals(15, KafkaTaskPlanner.taskConsumeSecond(0, 100, 15, 30));
+        Assert.assertEquals(15, KafkaTaskPlanner.taskConsumeSecond(1000, 0, 15, 30));
+        // small lag
+        Assert.assertEquals(15, KafkaTaskPlanner.taskConsumeSecond(1000, 100, 15, 30));
+        Assert.assertEquals(20, KafkaTaskPlanner.taskConsumeSecond(2000, 100, 15, 30));
+        // large lag
+        Assert.assertEquals(30, KafkaTaskPlanner.taskConsumeSecond(1000000, 100, 15, 30));
+
+        Assert.assertEquals(200000, KafkaTaskPlanner.taskMaxBatchRows(200000, 15, 15));
+        Assert.assertEquals(400000, KafkaTaskPlanner.taskMaxBatchRows(200000, 30, 15));
+    }
+}
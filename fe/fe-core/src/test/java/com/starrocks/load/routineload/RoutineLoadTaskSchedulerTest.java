@@ -42,6 +42,7 @@ import com.starrocks.server.GlobalStateMgr;
 import mockit.Expectations;
 import mockit.Injectable;
 import mockit.Mocked;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Map;
@@ -114,4 +115,41 @@ public class RoutineLoadTaskSchedulerTest {
         Deencapsulation.setField(routineLoadTaskScheduler, "needScheduleTasksQueue", routineLoadTaskInfoQueue);
         routineLoadTaskScheduler.runAfterCatalogReady();
     }
+
+    private static KafkaTaskInfo newTaskWithLag(KafkaRoutineLoadJob job, long id, long lag) {
+        Map<Integer, Long> partitionIdToOffset = Maps.newHashMap();
+        partitionIdToOffset.put((int) id, 0L);
+        return new KafkaTaskInfo(new UUID(id, id), job, 20000, System.currentTimeMillis(), partitionIdToOffset,
+                Config.routine_load_task_timeout_second * 1000) {
+            @Override
+            public long getLag() {
+                return lag;
+            }
+        };
+    }
+
+    @Test
+    public void testLagAwarePollNotStarveTasksWithoutLag(@Injectable KafkaRoutineLoadJob job) throws Exception {
+        boolean oldLagAware = Config.enable_routine_load_lag_aware_scheduling;
+        Config.enable_routine_load_lag_aware_scheduling = true;
+        try {
+            RoutineLoadTaskScheduler routineLoadTaskScheduler = new RoutineLoadTaskScheduler(routineLoadManager);
+            KafkaTaskInfo idleTask = newTaskWithLag(job, 1, 0);
+            routineLoadTaskScheduler.addTaskInQueue(idleTask);
+            routineLoadTaskScheduler.addTaskInQueue(newTaskWithLag(job, 2, 100));
+            routineLoadTaskScheduler.addTaskInQueue(newTaskWithLag(job, 3, 200));
+
+            // the lagging tasks go first and keep coming back to the queue
+            for (int i = 0; i < 3; i++) {
+                RoutineLoadTaskInfo task = routineLoadTaskScheduler.pollTask();
+                Assert.assertNotSame(idleTask, task);
+                routineLoadTaskScheduler.addTaskInQueue(task);
+            }
+            // but the task waiting longest is taken every few polls
+            Assert.assertSame(idleTask, routineLoadTaskScheduler.pollTask());
+            Assert.assertEquals(200, routineLoadTaskScheduler.pollTask().getScheduleLag());
+        } finally {
+            Config.enable_routine_load_lag_aware_scheduling = oldLagAware;
+        }
+    }
 }
@@ -0,0 +1,102 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.metric;
+
+import com.google.common.collect.Sets;
+import com.starrocks.monitor.jvm.JvmStatCollector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PrometheusMetricVisitorTest {
+    private static String visit(Metric<?>... metrics) {
+        PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("test");
+        for (Metric<?> metric : metrics) {
+            visitor.visit(metric);
+        }
+        return visitor.build();
+    }
+
+    @Test
+    public void testReuseEncodedSeries() {
+        LongCounterMetric counter = new LongCounterMetric("counter", Metric.MetricUnit.REQUESTS, "desc");
+        counter.addLabel(new MetricLabel("type", "a"));
+        counter.increase(1L);
+        Assert.assertEquals("# HELP test_counter desc\n# TYPE test_counter counter\ntest_counter{type=\"a\"} 1\n",
+                visit(counter));
+
+        // nothing changed, the series is reused
+        PrometheusMetricVisitor.EncodedSeries series = counter.getEncodedSeries();
+        Assert.assertTrue(visit(counter).endsWith("test_counter{type=\"a\"} 1\n"));
+        Assert.assertSame(series, counter.getEncodedSeries());
+
+        // the value is changed
+        counter.increase(1L);
+        Assert.assertTrue(visit(counter).endsWith("test_counter{type=\"a\"} 2\n"));
+        Assert.assertNotSame(series, counter.getEncodedSeries());
+
+        // the label is changed
+        counter.addLabel(new MetricLabel("type", "b"));
+        counter.addLabel(new MetricLabel("db", "d"));
+        Assert.assertTrue(visit(counter).endsWith("test_counter{type=\"b\", db=\"d\"} 2\n"));
+
+        // another prefix
+        PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("other");
+        visitor.visit(counter);
+        Assert.assertTrue(visitor.build().endsWith("other_counter{type=\"b\", db=\"d\"} 2\n"));
+    }
+
+    @Test
+    public void testMetricFamilies() {
+        LongCounterMetric counter1 = new LongCounterMetric("counter1", Metric.MetricUnit.REQUESTS, "desc");
+        LongCounterMetric counter2 = new LongCounterMetric("counter2", Metric.MetricUnit.REQUESTS, "desc");
+        LongCounterMetric counter3 = new LongCounterMetric("counter3", Metric.MetricUnit.REQUESTS, "desc");
+        PrometheusMetricVisitor visitor =
+                new PrometheusMetricVisitor("test", Sets.newHashSet("counter1", "test_counter3", "jvm_thread"), null);
+        visitor.visit(counter1);
+        visitor.visit(counter2);
+        visitor.visit(counter3);
+        visitor.visitJvm(new JvmStatCollector().stats());
+        String output = visitor.build();
+        Assert.assertTrue(output.contains("test_counter1 0\n"));
+        Assert.assertFalse(output.contains("test_counter2"));
+        Assert.assertTrue(output.contains("test_counter3 0\n"));
+        Assert.assertTrue(output.contains("jvm_thread{type=\"count\"}"));
+        Assert.assertFalse(output.contains("jvm_heap_size_bytes"));
+    }
+
+    @Test
+    public void testChunkSink() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            LongCounterMetric counter = new LongCounterMetric("counter", Metric.MetricUnit.REQUESTS, "desc");
+            counter.addLabel(new MetricLabel("id", String.valueOf(i)));
+            metrics.add(counter);
+        }
+
+        List<String> chunks = new ArrayList<>();
+        PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("test", Sets.newHashSet(), chunks::add);
+        metrics.forEach(visitor::visit);
+        Assert.assertEquals("", visitor.build());
+
+        Assert.assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            Assert.assertTrue(chunk.length() < PrometheusMetricVisitor.CHUNK_SIZE + 64);
+        }
+        Assert.assertEquals(visit(metrics.toArray(new Metric<?>[0])), String.join("", chunks));
+    }
+}
@@ -17,6 +17,7 @@
 
 package com.starrocks.mysql;
 
+import com.starrocks.common.Config;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -61,4 +62,44 @@ public class MysqlAuthPacketTest {
         Assert.assertEquals("testDb", packet.getDb());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testReadZstdCompression() {
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeInt4(MysqlCapability.DEFAULT_CAPABILITY.getFlags()
+                | MysqlCapability.Flag.CLIENT_ZSTD_COMPRESSION_ALGORITHM.getFlagBit());
+        serializer.writeInt4(1024000);
+        serializer.writeInt1(33);
+        serializer.writeBytes(new byte[23]);
+        serializer.writeNulTerminateString("starrocks-user");
+        serializer.writeInt1(0);
+        serializer.writeNulTerminateString("testDb");
+        serializer.writeNulTerminateString("mysql_native_password");
+        // connect attrs, the length includes the length-encoded prefixes
+        MysqlSerializer attrs = MysqlSerializer.newInstance();
+        attrs.writeLenEncodedString("_client_name");
+        attrs.writeLenEncodedString("libmysql");
+        attrs.writeLenEncodedString("_os");
+        attrs.writeLenEncodedString("Linux");
+        byte[] attrBytes = attrs.toArray();
+        serializer.writeVInt(attrBytes.length);
+        serializer.writeBytes(attrBytes);
+        // zstd compression level
+        serializer.writeInt1(7);
+
+        MysqlAuthPacket packet = new MysqlAuthPacket();
+        Assert.assertTrue(packet.readFrom(serializer.toByteBuffer()));
+        Assert.assertEquals(2, packet.getConnectAttributes().size());
+        Assert.assertEquals("Linux", packet.getConnectAttributes().get("_os"));
+        Assert.assertEquals(7, packet.getZstdCompressionLevel());
+
+        boolean enableCompression = Config.mysql_server_enable_compression;
+        try {
+            Config.mysql_server_enable_compression = false;
+            Assert.assertNull(MysqlCompressionCodec.negotiate(packet));
+            Config.mysql_server_enable_compression = true;
+            Assert.assertEquals("zstd", MysqlCompressionCodec.negotiate(packet).getName());
+        } finally {
+            Config.mysql_server_enable_compression = enableCompression;
+        }
+    }
+}
@@ -24,10 +24,13 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.zip.Deflater;
 
 public class MysqlChannelTest {
     int packetId = 0;
@@ -333,4 +336,54 @@ public class MysqlChannelTest {
         channel1.sendOnePacket(buf);
     }
 
+    @Test
+    public void testCompressedPacket() throws IOException {
+        // larger than the send buffer, so it is sent in its own compressed packet
+        byte[] large = new byte[300 * 1024];
+        for (int i = 0; i < large.length; ++i) {
+            large[i] = (byte) ('a' + (i / 100) % 26);
+        }
+        byte[] small = "small packet".getBytes();
+
+        for (MysqlCompressionCodec codec : Arrays.asList(new MysqlCompressionCodec.ZlibCodec(Deflater.DEFAULT_COMPRESSION),
+                new MysqlCompressionCodec.ZstdCodec(MysqlCompressionCodec.DEFAULT_ZSTD_LEVEL))) {
+            ByteArrayOutputStream wire = new ByteArrayOutputStream();
+            MysqlChannel sender = new MysqlChannel(null) {
+                @Override
+                public void realNetSend(ByteBuffer buffer) {
+                    wire.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                    buffer.position(buffer.limit());
+                }
+            };
+            sender.setCompressionCodec(codec);
+            sender.setSequenceId(1);
+            sender.sendOnePacket(ByteBuffer.wrap(small));
+            sender.sendOnePacket(ByteBuffer.wrap(large));
+            sender.sendOnePacket(ByteBuffer.wrap(small));
+            sender.flush();
+            Assert.assertTrue(wire.size() < large.length / 10);
+
+            ByteBuffer in = ByteBuffer.wrap(wire.toByteArray());
+            MysqlChannel receiver = new MysqlChannel(null) {
+                @Override
+                public int realNetRead(ByteBuffer dstBuf) {
+                    if (!in.hasRemaining()) {
+                        return -1;
+                    }
+                    // return a part of the data each time
+                    int len = Math.min(Math.min(dstBuf.remaining(), in.remaining()), 1000);
+                    dstBuf.put(in.array(), in.position(), len);
+                    in.position(in.position() + len);
+                    return len;
+                }
+            };
+            receiver.setCompressionCodec(codec);
+            receiver.setSequenceId(1);
+            Assert.assertEquals(ByteBuffer.wrap(small), receiver.fetchOnePacket());
+            Assert.assertEquals(ByteBuffer.wrap(large), receiver.fetchOnePacket());
+            Assert.assertEquals(ByteBuffer.wrap(small), receiver.fetchOnePacket());
+            Assert.assertNull(receiver.fetchOnePacket());
+            codec.close();
+        }
+    }
 }
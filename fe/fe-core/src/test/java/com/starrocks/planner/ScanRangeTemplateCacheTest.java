@@ -0,0 +1,103 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.planner;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.LocalTablet;
+import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.Replica.ReplicaState;
+import com.starrocks.catalog.Tablet;
+import com.starrocks.lake.LakeTablet;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ScanRangeTemplateCacheTest {
+    private static final int SCHEMA_HASH = 1234;
+
+    private MaterializedIndex index;
+    private LocalTablet tablet;
+
+    @Before
+    public void setUp() {
+        ScanRangeTemplateCache.getInstance().invalidateAll();
+        index = new MaterializedIndex(2, MaterializedIndex.IndexState.NORMAL);
+        tablet = new LocalTablet(3);
+        tablet.addReplica(new Replica(10, 100, 5, SCHEMA_HASH, 0, 10, ReplicaState.NORMAL, -1, 5), false);
+        tablet.addReplica(new Replica(11, 101, 5, SCHEMA_HASH, 0, 20, ReplicaState.NORMAL, -1, 5), false);
+        index.addTablet(tablet, null, false);
+    }
+
+    private static List<Replica> queryableReplicas(ScanRangeTemplateCache.PartitionTemplate template, Tablet tablet,
+                                                   List<Replica> localReplicas, long localBeId) {
+        List<Replica> replicas = Lists.newArrayList();
+        Assert.assertTrue(template.getQueryableReplicas(tablet, replicas, localReplicas, localBeId, SCHEMA_HASH));
+        return replicas;
+    }
+
+    @Test
+    public void testTemplate() {
+        ScanRangeTemplateCache cache = ScanRangeTemplateCache.getInstance();
+        ScanRangeTemplateCache.PartitionTemplate template = cache.getTemplate(1, index, 5, 0);
+        Assert.assertSame(template, cache.getTemplate(1, index, 5, 0));
+        Assert.assertEquals(20, template.getRowCount(tablet));
+        Assert.assertEquals(-1, template.getRowCount(new LakeTablet(4)));
+        Assert.assertFalse(template.getQueryableReplicas(new LakeTablet(4), Lists.newArrayList(),
+                Lists.newArrayList(), -1, SCHEMA_HASH));
+
+        List<Replica> localReplicas = Lists.newArrayList();
+        Assert.assertEquals(2, queryableReplicas(template, tablet, localReplicas, 101).size());
+        Assert.assertEquals(1, localReplicas.size());
+        Assert.assertEquals(101, localReplicas.get(0).getBackendId());
+
+        // the state of a replica is checked by each query
+        tablet.getImmutableReplicas().get(0).setBad(true);
+        Assert.assertSame(template, cache.getTemplate(1, index, 5, 0));
+        List<Replica> replicas = queryableReplicas(template, tablet, Lists.newArrayList(), -1);
+        Assert.assertEquals(1, replicas.size());
+        Assert.assertEquals(11, replicas.get(0).getId());
+        tablet.getImmutableReplicas().get(0).setBad(false);
+
+        // a new version is a new template, and the replicas which do not catch up are not queryable
+        ScanRangeTemplateCache.PartitionTemplate newTemplate = cache.getTemplate(1, index, 6, 0);
+        Assert.assertNotSame(template, newTemplate);
+        Assert.assertTrue(queryableReplicas(newTemplate, tablet, Lists.newArrayList(), -1).isEmpty());
+    }
+
+    @Test
+    public void testReplicaChanged() {
+        ScanRangeTemplateCache cache = ScanRangeTemplateCache.getInstance();
+        LocalTablet otherTablet = new LocalTablet(4);
+        otherTablet.addReplica(new Replica(13, 100, 5, SCHEMA_HASH, 0, 10, ReplicaState.NORMAL, -1, 5), false);
+        index.addTablet(otherTablet, null, false);
+        ScanRangeTemplateCache.PartitionTemplate template = cache.getTemplate(1, index, 5, 0);
+        Assert.assertEquals(2, queryableReplicas(template, tablet, Lists.newArrayList(), -1).size());
+        long otherEpoch = otherTablet.getReplicaEpoch();
+
+        // a new replica is seen by the template of the same version, and the other tablets are not affected
+        tablet.addReplica(new Replica(12, 102, 5, SCHEMA_HASH, 0, 30, ReplicaState.NORMAL, -1, 5), false);
+        Assert.assertSame(template, cache.getTemplate(1, index, 5, 0));
+        Assert.assertEquals(3, queryableReplicas(template, tablet, Lists.newArrayList(), -1).size());
+        Assert.assertEquals(30, template.getRowCount(tablet));
+        Assert.assertEquals(otherEpoch, otherTablet.getReplicaEpoch());
+
+        // so is a dropped replica
+        tablet.deleteReplicaByBackendId(100);
+        Assert.assertEquals(2, queryableReplicas(template, tablet, Lists.newArrayList(), -1).size());
+    }
+}
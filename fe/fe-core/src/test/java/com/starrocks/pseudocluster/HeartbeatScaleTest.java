@@ -0,0 +1,120 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.pseudocluster;
+
+import com.starrocks.common.Config;
+import com.starrocks.pseudocluster.PseudoCluster.HeartbeatOnlyNode;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+public class HeartbeatScaleTest {
+    private static final int NUM_NODES = 2000;
+    // less than heartbeat_mgr_threads_num, so that the stragglers do not take all the heartbeat threads
+    private static final int NUM_STRAGGLERS = 4;
+
+    private static int heartbeatTimeoutSecond;
+    private static List<HeartbeatOnlyNode> nodes;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        heartbeatTimeoutSecond = Config.heartbeat_timeout_second;
+        Config.heartbeat_timeout_second = 1;
+        PseudoCluster.getOrCreateWithRandomPort(true, 1);
+        nodes = PseudoCluster.getInstance().addHeartbeatOnlyComputeNodes(NUM_NODES);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        try {
+            PseudoCluster.getInstance().dropHeartbeatOnlyComputeNodes();
+            PseudoCluster.getInstance().shutdown(true);
+        } finally {
+            Config.heartbeat_timeout_second = heartbeatTimeoutSecond;
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("timeout", System.currentTimeMillis() < deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    public void testStragglers() throws Exception {
+        waitUntil(() -> nodes.stream().allMatch(node -> node.getComputeNode().isAlive()), 60000);
+
+        // the stragglers hang far longer than a heartbeat round
+        List<HeartbeatOnlyNode> stragglers = nodes.subList(0, NUM_STRAGGLERS);
+        List<HeartbeatOnlyNode> others = nodes.subList(NUM_STRAGGLERS, NUM_NODES);
+        stragglers.forEach(node -> node.setHeartbeatDelayMs(600000));
+
+        // the other nodes are still heartbeated every round
+        long start = System.currentTimeMillis();
+        waitUntil(() -> others.stream().allMatch(node -> node.getComputeNode().getLastUpdateMs() > start + 2000),
+                20000);
+        Assert.assertTrue(others.stream().allMatch(node -> node.getComputeNode().isAlive()));
+
+        // the stragglers are regarded as dead by their phi, without waiting for the hanging heartbeats
+        waitUntil(() -> stragglers.stream().noneMatch(node -> node.getComputeNode().isAlive()), 30000);
+        Assert.assertTrue(others.stream().allMatch(node -> node.getComputeNode().isAlive()));
+
+        // the stragglers are back
+        stragglers.forEach(node -> node.setHeartbeatDelayMs(0));
+        waitUntil(() -> stragglers.stream().allMatch(node -> node.getComputeNode().isAlive()), 30000);
+    }
+
+    @Test
+    public void testStragglersTakeAllThreads() throws Exception {
+        waitUntil(() -> nodes.stream().allMatch(node -> node.getComputeNode().isAlive()), 60000);
+
+        // more stragglers than heartbeat_mgr_threads_num, whose heartbeats hang until the socket timeout and hold
+        // their threads even after they are cancelled
+        int numStragglers = Config.heartbeat_mgr_threads_num * 2;
+        List<HeartbeatOnlyNode> stragglers = nodes.subList(0, numStragglers);
+        List<HeartbeatOnlyNode> others = nodes.subList(numStragglers, NUM_NODES);
+        stragglers.forEach(node -> {
+            node.setSocketTimeoutMs(3000);
+            node.setHeartbeatDelayMs(600000);
+        });
+
+        // the heartbeats of the other nodes queued behind the stragglers are not regarded as failed, and the other
+        // nodes are still heartbeated
+        long start = System.currentTimeMillis();
+        waitUntil(() -> {
+            Assert.assertTrue(others.stream().allMatch(node -> node.getComputeNode().isAlive()));
+            return others.stream().allMatch(node -> node.getComputeNode().getLastUpdateMs() > start + 2000) &&
+                    stragglers.stream().noneMatch(node -> node.getComputeNode().isAlive());
+        }, 60000);
+        long end = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < end) {
+            Assert.assertTrue(others.stream().allMatch(node -> node.getComputeNode().isAlive()));
+            Thread.sleep(100);
+        }
+
+        // the stragglers are back
+        stragglers.forEach(node -> {
+            node.setHeartbeatDelayMs(0);
+            node.setSocketTimeoutMs(0);
+        });
+        waitUntil(() -> stragglers.stream().allMatch(node -> node.getComputeNode().isAlive()), 30000);
+    }
+}
@@ -16,6 +16,7 @@ package com.starrocks.pseudocluster;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.staros.proto.FileCacheInfo;
 import com.staros.proto.FilePathInfo;
 import com.staros.proto.FileStoreInfo;
@@ -42,9 +43,15 @@ import com.starrocks.rpc.LakeService;
 import com.starrocks.rpc.PBackendService;
 import com.starrocks.rpc.ThriftConnectionPool;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.ComputeNode;
 import com.starrocks.thrift.BackendService;
 import com.starrocks.thrift.HeartbeatService;
+import com.starrocks.thrift.TBackendInfo;
+import com.starrocks.thrift.THeartbeatResult;
+import com.starrocks.thrift.TMasterInfo;
 import com.starrocks.thrift.TNetworkAddress;
+import com.starrocks.thrift.TStatus;
+import com.starrocks.thrift.TStatusCode;
 import com.starrocks.utframe.UtFrameUtils;
 import junit.framework.Assert;
 import org.apache.commons.dbcp2.BasicDataSource;
@@ -53,6 +60,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.appender.ConsoleAppender;
 import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.thrift.TException;
+import org.apache.thrift.transport.TTransportException;
 
 import java.io.File;
 import java.io.IOException;
@@ -67,6 +76,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class PseudoCluster {
@@ -84,6 +94,8 @@ public class PseudoCluster {
     PseudoFrontend frontend;
     Map<String, PseudoBackend> backends;
     Map<Long, String> backendIdToHost = new HashMap<>();
+    // compute nodes that only answer heartbeats, by host
+    Map<String, HeartbeatOnlyNode> heartbeatOnlyNodes = Maps.newConcurrentMap();
     HeatBeatPool heartBeatPool = new HeatBeatPool("heartbeat");
     BackendThriftPool backendThriftPool = new BackendThriftPool("backend");
     PseudoBrpcRroxy brpcProxy = new PseudoBrpcRroxy();
@@ -117,10 +129,76 @@ public class PseudoCluster {
 
         @Override
         public HeartbeatService.Client borrowObject(TNetworkAddress address) throws Exception {
+            HeartbeatOnlyNode node = heartbeatOnlyNodes.get(address.getHostname());
+            if (node != null) {
+                return node;
+            }
             return getBackendByHost(address.getHostname()).heatBeatClient;
         }
     }
 
+    /**
+     * A compute node that only answers heartbeats, much cheaper than a PseudoBackend, to test the heartbeat of
+     * large clusters.
+     */
+    public static class HeartbeatOnlyNode extends HeartbeatService.Client {
+        private final ComputeNode computeNode;
+        private volatile long heartbeatDelayMs = 0;
+        // if positive, a delayed heartbeat is like a thrift rpc blocked in socket io, which is not woken up by the
+        // interruption but fails once it is blocked this long
+        private volatile long socketTimeoutMs = 0;
+        private volatile boolean shutdown = false;
+
+        HeartbeatOnlyNode(ComputeNode computeNode) {
+            super(null);
+            this.computeNode = computeNode;
+        }
+
+        public ComputeNode getComputeNode() {
+            return computeNode;
+        }
+
+        public void setHeartbeatDelayMs(long heartbeatDelayMs) {
+            this.heartbeatDelayMs = heartbeatDelayMs;
+        }
+
+        public void setSocketTimeoutMs(long socketTimeoutMs) {
+            this.socketTimeoutMs = socketTimeoutMs;
+        }
+
+        public void setShutdown(boolean shutdown) {
+            this.shutdown = shutdown;
+        }
+
+        @Override
+        public THeartbeatResult heartbeat(TMasterInfo masterInfo) throws TException {
+            long timeoutMs = socketTimeoutMs;
+            if (heartbeatDelayMs > 0 && timeoutMs > 0) {
+                Uninterruptibles.sleepUninterruptibly(Math.min(heartbeatDelayMs, timeoutMs), TimeUnit.MILLISECONDS);
+                if (heartbeatDelayMs > timeoutMs) {
+                    throw new TTransportException(TTransportException.TIMED_OUT, "read timed out");
+                }
+            } else if (heartbeatDelayMs > 0) {
+                try {
+                    Thread.sleep(heartbeatDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TTransportException(TTransportException.TIMED_OUT, "heartbeat is interrupted");
+                }
+            }
+            if (shutdown) {
+                throw new TTransportException(TTransportException.NOT_OPEN,
+                        "compute node " + computeNode.getId() + " shutdown");
+            }
+            TBackendInfo backendInfo = new TBackendInfo(computeNode.getHeartbeatPort() + 1,
+                    computeNode.getHeartbeatPort() + 2);
+            backendInfo.setBrpc_port(computeNode.getHeartbeatPort() + 3);
+            backendInfo.setNum_running_queries(0);
+            backendInfo.setMem_used_bytes(0);
+            return new THeartbeatResult(new TStatus(TStatusCode.OK), backendInfo);
+        }
+    }
+
     private class BackendThriftPool extends PseudoGenericPool<BackendService.Client> {
         public BackendThriftPool(String name) {
             super(name);
@@ -492,6 +570,26 @@ public class PseudoCluster {
         return beIds;
     }
 
+    public List<HeartbeatOnlyNode> addHeartbeatOnlyComputeNodes(int numNodes) {
+        List<HeartbeatOnlyNode> nodes = new ArrayList<>();
+        for (int i = 0; i < numNodes; i++) {
+            ComputeNode computeNode = new ComputeNode(backendIdStart++, genBackendHost(), backendPortStart);
+            backendPortStart += 4;
+            HeartbeatOnlyNode node = new HeartbeatOnlyNode(computeNode);
+            heartbeatOnlyNodes.put(computeNode.getHost(), node);
+            GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().addComputeNode(computeNode);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    public void dropHeartbeatOnlyComputeNodes() {
+        for (HeartbeatOnlyNode node : heartbeatOnlyNodes.values()) {
+            GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().dropComputeNode(node.getComputeNode());
+        }
+        heartbeatOnlyNodes.clear();
+    }
+
     private static String genBackendHost() {
         int i = backendHostStart % 128;
         int j = (backendHostStart >> 7) % 128;
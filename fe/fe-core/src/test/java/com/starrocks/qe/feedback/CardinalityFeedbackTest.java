@@ -0,0 +1,243 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.feedback;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import com.starrocks.persist.CardinalityFeedbackLog;
+import com.starrocks.persist.gson.GsonUtils;
+import com.starrocks.persist.metablock.SRMetaBlockReader;
+import com.starrocks.persist.metablock.SRMetaBlockReaderV2;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalHashJoinOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.sql.plan.TPCDSPlanTestBase;
+import com.starrocks.utframe.UtFrameUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Replays the executions of queries on skewed TPC-DS data, whose observed cardinality is far from the estimation
+ * of the column statistics, and checks that the estimation converges to the observation with the feedback.
+ */
+public class CardinalityFeedbackTest extends TPCDSPlanTestBase {
+    private static final long ITEM_ROWS = 18000L;
+    private static final long STORE_SALES_ROWS = 2880404L;
+
+    private Map<String, Long> tpcdsStats;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        TPCDSPlanTestBase.beforeClass();
+    }
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        tpcdsStats = getTPCDSTableStats();
+        setTPCDSFactor(1);
+        Config.enable_cardinality_feedback = true;
+        GlobalStateMgr.getCurrentState().getCardinalityFeedbackMgr().clear();
+    }
+
+    @After
+    public void tearDown() {
+        Config.enable_cardinality_feedback = false;
+        GlobalStateMgr.getCurrentState().getCardinalityFeedbackMgr().clear();
+        setTPCDSTableStats(tpcdsStats);
+    }
+
+    @Test
+    public void testSkewedScanConverges() throws Exception {
+        String sql = "select i_item_id, i_current_price from item where i_category = 'Music' and i_size = 'petite'";
+        // most of the items are in the same category and size
+        double actualSelectivity = 0.85;
+        Random random = new Random(7);
+        List<Double> qErrors = Lists.newArrayList();
+        for (int round = 0; round < 5; round++) {
+            ExecPlan execPlan = getExecPlan(sql);
+            OptExpression scan = findOptExpressions(execPlan.getPhysicalPlan(), PhysicalOlapScanOperator.class).get(0);
+            // the observed selectivity varies between the executions
+            long outputRows = (long) (ITEM_ROWS * actualSelectivity * (0.95 + 0.1 * random.nextDouble()));
+            qErrors.add(computeQError(scan.getStatistics().getOutputRowCount(), outputRows));
+
+            Map<Integer, NodeExecStats> nodeExecStatsMap = Maps.newHashMap();
+            putExecStats(nodeExecStatsMap, scan, ITEM_ROWS, outputRows, ITEM_ROWS - outputRows);
+            recordFeedback(execPlan, nodeExecStatsMap);
+        }
+        Assert.assertTrue(qErrors.toString(), qErrors.get(0) > 2);
+        for (int round = 1; round < qErrors.size(); round++) {
+            Assert.assertTrue(qErrors.toString(), qErrors.get(round) < 1.3);
+        }
+    }
+
+    @Test
+    public void testSkewedJoinConverges() throws Exception {
+        String sql = "select ss_ticket_number, i_item_id from store_sales join item on ss_item_sk = i_item_sk " +
+                "where i_category = 'Music'";
+        // the music items rarely sell
+        long itemRows = 900;
+        long joinRows = 20000;
+        List<Double> qErrors = Lists.newArrayList();
+        for (int round = 0; round < 3; round++) {
+            ExecPlan execPlan = getExecPlan(sql);
+            OptExpression join = findOptExpressions(execPlan.getPhysicalPlan(), PhysicalHashJoinOperator.class).get(0);
+            qErrors.add(computeQError(join.getStatistics().getOutputRowCount(), joinRows));
+
+            Map<Integer, NodeExecStats> nodeExecStatsMap = Maps.newHashMap();
+            for (OptExpression scan : findOptExpressions(execPlan.getPhysicalPlan(), PhysicalOlapScanOperator.class)) {
+                PhysicalOlapScanOperator scanOperator = (PhysicalOlapScanOperator) scan.getOp();
+                if (scanOperator.getTable().getName().equals("item")) {
+                    putExecStats(nodeExecStatsMap, scan, ITEM_ROWS, itemRows, ITEM_ROWS - itemRows);
+                } else {
+                    putExecStats(nodeExecStatsMap, scan, STORE_SALES_ROWS, STORE_SALES_ROWS, 0);
+                }
+            }
+            putExecStats(nodeExecStatsMap, join, 0, joinRows, 0);
+            recordFeedback(execPlan, nodeExecStatsMap);
+        }
+        Assert.assertTrue(qErrors.toString(), qErrors.get(0) > 2);
+        Assert.assertTrue(qErrors.toString(), qErrors.get(1) < 1.01);
+        Assert.assertTrue(qErrors.toString(), qErrors.get(2) < 1.01);
+    }
+
+    @Test
+    public void testSignatureIndependentOfSqlText() throws Exception {
+        String signature = getScanSignature("select * from item where i_category = 'Music' and i_size = 'petite'");
+        Assert.assertNotNull(signature);
+        Assert.assertEquals(signature, getScanSignature(
+                "SELECT i_item_id FROM item t WHERE t.i_size = 'petite' AND   t.i_category = 'Music'"));
+        Assert.assertNotEquals(signature, getScanSignature(
+                "select * from item where i_category = 'Books' and i_size = 'petite'"));
+        Assert.assertNull(getScanSignature("select * from item"));
+
+        String joinSignature = getJoinSignature("select * from store_sales join item on ss_item_sk = i_item_sk");
+        Assert.assertNotNull(joinSignature);
+        Assert.assertEquals(joinSignature,
+                getJoinSignature("select * from item i join store_sales s on i.i_item_sk = s.ss_item_sk"));
+    }
+
+    @Test
+    public void testFeedbackDisabled() throws Exception {
+        String sql = "select i_item_id from item where i_category = 'Music'";
+        ExecPlan execPlan = getExecPlan(sql);
+        OptExpression scan = findOptExpressions(execPlan.getPhysicalPlan(), PhysicalOlapScanOperator.class).get(0);
+        double estimatedRows = scan.getStatistics().getOutputRowCount();
+        Map<Integer, NodeExecStats> nodeExecStatsMap = Maps.newHashMap();
+        putExecStats(nodeExecStatsMap, scan, ITEM_ROWS, ITEM_ROWS / 2, ITEM_ROWS / 2);
+        recordFeedback(execPlan, nodeExecStatsMap);
+
+        Config.enable_cardinality_feedback = false;
+        execPlan = getExecPlan(sql);
+        scan = findOptExpressions(execPlan.getPhysicalPlan(), PhysicalOlapScanOperator.class).get(0);
+        Assert.assertEquals(estimatedRows, scan.getStatistics().getOutputRowCount(), 1e-6);
+    }
+
+    @Test
+    public void testMergeInLogSpace() {
+        CardinalityFeedbackMgr.Feedback feedback = new CardinalityFeedbackMgr.Feedback(0.01, 1);
+        feedback = feedback.merge(new CardinalityFeedbackMgr.Feedback(1, 1));
+        Assert.assertEquals(0.1, feedback.getSelectivity(), 1e-9);
+        Assert.assertEquals(2, feedback.getSamples());
+
+        // the observations are clamped into (0, 1]
+        Assert.assertEquals(1, new CardinalityFeedbackMgr.Feedback(2, 1).getSelectivity(), 1e-9);
+        Assert.assertTrue(new CardinalityFeedbackMgr.Feedback(0, 1).getSelectivity() > 0);
+    }
+
+    @Test
+    public void testPersist() throws Exception {
+        UtFrameUtils.setUpForPersistTest();
+        Map<String, CardinalityFeedbackMgr.Feedback> feedbacks = Maps.newHashMap();
+        feedbacks.put("a", new CardinalityFeedbackMgr.Feedback(0.5, 3));
+        feedbacks.put("b", new CardinalityFeedbackMgr.Feedback(1e-9, 1));
+
+        // journal
+        CardinalityFeedbackLog log = GsonUtils.GSON.fromJson(GsonUtils.GSON.toJson(new CardinalityFeedbackLog(feedbacks)),
+                CardinalityFeedbackLog.class);
+        CardinalityFeedbackMgr leader = new CardinalityFeedbackMgr();
+        leader.replayCardinalityFeedback(log);
+        Assert.assertEquals(0.5, leader.getSelectivity("a"), 1e-9);
+        Assert.assertEquals(1e-9, leader.getSelectivity("b"), 1e-18);
+        Assert.assertEquals(-1, leader.getSelectivity("c"), 1e-9);
+
+        // image
+        UtFrameUtils.PseudoImage image = new UtFrameUtils.PseudoImage();
+        leader.save(image.getImageWriter());
+        CardinalityFeedbackMgr follower = new CardinalityFeedbackMgr();
+        SRMetaBlockReader reader = new SRMetaBlockReaderV2(image.getJsonReader());
+        follower.load(reader);
+        reader.close();
+        Assert.assertEquals(2, follower.getFeedbackCount());
+        Assert.assertEquals(0.5, follower.getSelectivity("a"), 1e-9);
+        Assert.assertEquals(1e-9, follower.getSelectivity("b"), 1e-18);
+        UtFrameUtils.tearDownForPersisTest();
+    }
+
+    private String getScanSignature(String sql) throws Exception {
+        ExecPlan execPlan = getExecPlan(sql);
+        PhysicalOlapScanOperator scan = (PhysicalOlapScanOperator) findOptExpressions(execPlan.getPhysicalPlan(),
+                PhysicalOlapScanOperator.class).get(0).getOp();
+        return CardinalityFeedbackSignature.ofScan(scan.getTable(), scan.getPredicate(),
+                scan.getColRefToColumnMetaMap());
+    }
+
+    private String getJoinSignature(String sql) throws Exception {
+        ExecPlan execPlan = getExecPlan(sql);
+        PhysicalHashJoinOperator join = (PhysicalHashJoinOperator) findOptExpressions(execPlan.getPhysicalPlan(),
+                PhysicalHashJoinOperator.class).get(0).getOp();
+        return CardinalityFeedbackSignature.ofJoin(join.getJoinType(), join.getOnPredicate(),
+                execPlan.getColumnRefFactory());
+    }
+
+    private static void recordFeedback(ExecPlan execPlan, Map<Integer, NodeExecStats> nodeExecStatsMap) {
+        Map<String, Double> selectivities = CardinalityFeedbackCollector.collect(execPlan.getPhysicalPlan(),
+                execPlan.getColumnRefFactory(), nodeExecStatsMap);
+        Assert.assertFalse(selectivities.isEmpty());
+        GlobalStateMgr.getCurrentState().getCardinalityFeedbackMgr().recordFeedback(selectivities);
+    }
+
+    private static void putExecStats(Map<Integer, NodeExecStats> nodeExecStatsMap, OptExpression optExpression,
+                                     long pushRows, long pullRows, long predFilterRows) {
+        int nodeId = optExpression.getOp().getPlanNodeId();
+        nodeExecStatsMap.put(nodeId, new NodeExecStats(nodeId, pushRows, pullRows, predFilterRows, 0, 0));
+    }
+
+    private static double computeQError(double estimated, double actual) {
+        return Math.max(estimated / actual, actual / estimated);
+    }
+
+    private static List<OptExpression> findOptExpressions(OptExpression root, Class<? extends Operator> clazz) {
+        List<OptExpression> result = Lists.newArrayList();
+        if (clazz.isInstance(root.getOp())) {
+            result.add(root);
+        }
+        for (OptExpression input : root.getInputs()) {
+            result.addAll(findOptExpressions(input, clazz));
+        }
+        return result;
+    }
+}
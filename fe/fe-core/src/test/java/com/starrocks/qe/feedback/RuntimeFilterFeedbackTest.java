@@ -0,0 +1,246 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.feedback;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.planner.ExchangeNode;
+import com.starrocks.planner.JoinNode;
+import com.starrocks.planner.OlapScanNode;
+import com.starrocks.planner.PlanFragment;
+import com.starrocks.planner.PlanNode;
+import com.starrocks.qe.SessionVariable;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.sql.plan.TPCDSPlanTestBase;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class RuntimeFilterFeedbackTest extends TPCDSPlanTestBase {
+    private static final String SHUFFLE_JOIN_SQL = "select ss_ticket_number, i_item_id from store_sales " +
+            "join [shuffle] item on ss_item_sk = i_item_sk where i_category = 'Music'";
+    private static final long STORE_SALES_ROWS = 2880404L;
+
+    private SessionVariable sessionVariable;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        TPCDSPlanTestBase.beforeClass();
+    }
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        sessionVariable = (SessionVariable) connectContext.getSessionVariable().clone();
+        connectContext.getSessionVariable().setEnableAdaptiveRuntimeFilter(true);
+        // the small filters are always used, whatever the feedback is
+        connectContext.getSessionVariable().setGlobalRuntimeFilterBuildMinSize(0);
+        RuntimeFilterFeedbackMgr.getInstance().clear();
+    }
+
+    @After
+    public void tearDown() {
+        connectContext.setSessionVariable(sessionVariable);
+        RuntimeFilterFeedbackMgr.getInstance().clear();
+    }
+
+    @Test
+    public void testDropFilterEliminatingNothing() throws Exception {
+        ExecPlan execPlan = getExecPlan(SHUFFLE_JOIN_SQL);
+        OlapScanNode probeScan = getScanNode(execPlan, "store_sales");
+        Assert.assertFalse(probeScan.getProbeRuntimeFilters().isEmpty());
+
+        // the filter built from the music items eliminates 2% of the sales
+        long filteredRows = STORE_SALES_ROWS / 50;
+        Map<Integer, NodeExecStats> nodeExecStatsMap = Maps.newHashMap();
+        putExecStats(nodeExecStatsMap, getScanNode(execPlan, "item"), 1800, 0);
+        putExecStats(nodeExecStatsMap, probeScan, STORE_SALES_ROWS - filteredRows, filteredRows);
+        putExecStats(nodeExecStatsMap, getJoinNode(execPlan), STORE_SALES_ROWS - filteredRows, 0);
+        RuntimeFilterFeedbackCollector collector = recordFeedback(execPlan, nodeExecStatsMap);
+        Assert.assertEquals(STORE_SALES_ROWS, collector.getProbeRows());
+        Assert.assertEquals(filteredRows, collector.getProbeRowsEliminated());
+        Assert.assertEquals(1800, collector.getBuildRows());
+
+        execPlan = getExecPlan(SHUFFLE_JOIN_SQL);
+        Assert.assertTrue(getScanNode(execPlan, "store_sales").getProbeRuntimeFilters().isEmpty());
+    }
+
+    @Test
+    public void testKeepFilterEliminatingMost() throws Exception {
+        ExecPlan execPlan = getExecPlan(SHUFFLE_JOIN_SQL);
+        OlapScanNode probeScan = getScanNode(execPlan, "store_sales");
+        long filteredRows = STORE_SALES_ROWS / 100 * 99;
+        Map<Integer, NodeExecStats> nodeExecStatsMap = Maps.newHashMap();
+        putExecStats(nodeExecStatsMap, getScanNode(execPlan, "item"), 1800, 0);
+        putExecStats(nodeExecStatsMap, probeScan, STORE_SALES_ROWS - filteredRows, filteredRows);
+        recordFeedback(execPlan, nodeExecStatsMap);
+
+        execPlan = getExecPlan(SHUFFLE_JOIN_SQL);
+        Assert.assertFalse(getScanNode(execPlan, "store_sales").getProbeRuntimeFilters().isEmpty());
+    }
+
+    @Test
+    public void testNoRatioOfFiltersSharingProbeNode() throws Exception {
+        String sql = "select ss_ticket_number from store_sales " +
+                "join [shuffle] item on ss_item_sk = i_item_sk " +
+                "join [broadcast] date_dim on ss_sold_date_sk = d_date_sk " +
+                "where i_category = 'Music' and d_year = 2000";
+        ExecPlan execPlan = getExecPlan(sql);
+        OlapScanNode probeScan = getScanNode(execPlan, "store_sales");
+        Assert.assertTrue(probeScan.getProbeRuntimeFilters().size() > 1);
+
+        // the rows eliminated by the filters of the scan can't be attributed to any one of them
+        long filteredRows = STORE_SALES_ROWS / 100 * 99;
+        Map<Integer, NodeExecStats> nodeExecStatsMap = Maps.newHashMap();
+        putExecStats(nodeExecStatsMap, getScanNode(execPlan, "item"), 1800, 0);
+        putExecStats(nodeExecStatsMap, getScanNode(execPlan, "date_dim"), 366, 0);
+        putExecStats(nodeExecStatsMap, probeScan, STORE_SALES_ROWS - filteredRows, filteredRows);
+        RuntimeFilterFeedbackCollector collector = new RuntimeFilterFeedbackCollector(nodeExecStatsMap);
+        Map<String, RuntimeFilterFeedbackMgr.Feedback> observations = collector.collect(execPlan);
+        Assert.assertEquals(2, observations.size());
+        for (RuntimeFilterFeedbackMgr.Feedback feedback : observations.values()) {
+            Assert.assertEquals(-1, feedback.getFilterRatio(), 1e-9);
+        }
+        Assert.assertEquals(STORE_SALES_ROWS, collector.getProbeRows());
+        Assert.assertEquals(filteredRows, collector.getProbeRowsEliminated());
+        Assert.assertEquals(1800 + 366, collector.getBuildRows());
+    }
+
+    @Test
+    public void testBuildFilterOfSmallObservedBuildSide() throws Exception {
+        // the estimated build side of the partitioned join is too large to build a global filter
+        connectContext.getSessionVariable().setGlobalRuntimeFilterBuildMaxSize(100);
+        ExecPlan execPlan = getExecPlan(SHUFFLE_JOIN_SQL);
+        Assert.assertTrue(getJoinNode(execPlan).getBuildRuntimeFilters().isEmpty());
+
+        // but only a few items are music
+        Map<Integer, NodeExecStats> nodeExecStatsMap = Maps.newHashMap();
+        putExecStats(nodeExecStatsMap, getScanNode(execPlan, "item"), 50, 0);
+        recordFeedback(execPlan, nodeExecStatsMap);
+
+        execPlan = getExecPlan(SHUFFLE_JOIN_SQL);
+        Assert.assertFalse(getJoinNode(execPlan).getBuildRuntimeFilters().isEmpty());
+        Assert.assertFalse(getScanNode(execPlan, "store_sales").getProbeRuntimeFilters().isEmpty());
+    }
+
+    @Test
+    public void testFeedbackOfOtherBuildPredicates() throws Exception {
+        connectContext.getSessionVariable().setGlobalRuntimeFilterBuildMaxSize(100);
+        String allItemsSql = "select ss_ticket_number, i_item_id from store_sales " +
+                "join [shuffle] item on ss_item_sk = i_item_sk";
+        String bookItemsSql = "select ss_ticket_number, i_item_id from store_sales " +
+                "join [shuffle] item on ss_item_sk = i_item_sk where i_category = 'Books'";
+
+        // only a few items are music
+        ExecPlan execPlan = getExecPlan(SHUFFLE_JOIN_SQL);
+        Map<Integer, NodeExecStats> nodeExecStatsMap = Maps.newHashMap();
+        putExecStats(nodeExecStatsMap, getScanNode(execPlan, "item"), 50, 0);
+        recordFeedback(execPlan, nodeExecStatsMap);
+        Assert.assertFalse(getJoinNode(getExecPlan(SHUFFLE_JOIN_SQL)).getBuildRuntimeFilters().isEmpty());
+
+        // which says nothing about the joins on the same columns with other predicates on the items
+        Assert.assertTrue(getJoinNode(getExecPlan(allItemsSql)).getBuildRuntimeFilters().isEmpty());
+        Assert.assertTrue(getJoinNode(getExecPlan(bookItemsSql)).getBuildRuntimeFilters().isEmpty());
+
+        // and the large build side of all the items does not drop the filter of the music items
+        execPlan = getExecPlan(allItemsSql);
+        nodeExecStatsMap = Maps.newHashMap();
+        putExecStats(nodeExecStatsMap, getScanNode(execPlan, "item"), 204000, 0);
+        recordFeedback(execPlan, nodeExecStatsMap);
+        Assert.assertEquals(2, RuntimeFilterFeedbackMgr.getInstance().getFeedbackCount());
+        Assert.assertFalse(getJoinNode(getExecPlan(SHUFFLE_JOIN_SQL)).getBuildRuntimeFilters().isEmpty());
+    }
+
+    @Test
+    public void testFeedbackDisabled() throws Exception {
+        ExecPlan execPlan = getExecPlan(SHUFFLE_JOIN_SQL);
+        OlapScanNode probeScan = getScanNode(execPlan, "store_sales");
+        Map<Integer, NodeExecStats> nodeExecStatsMap = Maps.newHashMap();
+        putExecStats(nodeExecStatsMap, getScanNode(execPlan, "item"), 1800, 0);
+        putExecStats(nodeExecStatsMap, probeScan, STORE_SALES_ROWS, 0);
+        recordFeedback(execPlan, nodeExecStatsMap);
+
+        connectContext.getSessionVariable().setEnableAdaptiveRuntimeFilter(false);
+        execPlan = getExecPlan(SHUFFLE_JOIN_SQL);
+        Assert.assertFalse(getScanNode(execPlan, "store_sales").getProbeRuntimeFilters().isEmpty());
+    }
+
+    @Test
+    public void testMerge() {
+        RuntimeFilterFeedbackMgr.Feedback feedback = new RuntimeFilterFeedbackMgr.Feedback(100, -1, 1);
+        feedback = feedback.merge(new RuntimeFilterFeedbackMgr.Feedback(300, 0.8, 1));
+        Assert.assertEquals(200, feedback.getBuildRows(), 1e-9);
+        Assert.assertEquals(0.8, feedback.getFilterRatio(), 1e-9);
+        Assert.assertEquals(2, feedback.getSamples());
+
+        feedback = feedback.merge(new RuntimeFilterFeedbackMgr.Feedback(200, 0.2, 1));
+        Assert.assertEquals(0.6, feedback.getFilterRatio(), 1e-9);
+    }
+
+    private static RuntimeFilterFeedbackCollector recordFeedback(ExecPlan execPlan,
+                                                                 Map<Integer, NodeExecStats> nodeExecStatsMap) {
+        RuntimeFilterFeedbackCollector collector = new RuntimeFilterFeedbackCollector(nodeExecStatsMap);
+        Map<String, RuntimeFilterFeedbackMgr.Feedback> observations = collector.collect(execPlan);
+        Assert.assertEquals(1, observations.size());
+        RuntimeFilterFeedbackMgr.getInstance().recordFeedback(observations);
+        return collector;
+    }
+
+    private static void putExecStats(Map<Integer, NodeExecStats> nodeExecStatsMap, PlanNode node, long pullRows,
+                                     long rfFilterRows) {
+        int nodeId = node.getId().asInt();
+        nodeExecStatsMap.put(nodeId, new NodeExecStats(nodeId, pullRows + rfFilterRows, pullRows, 0, 0, rfFilterRows));
+    }
+
+    private static OlapScanNode getScanNode(ExecPlan execPlan, String tableName) {
+        for (PlanNode node : getPlanNodes(execPlan)) {
+            if (node instanceof OlapScanNode && ((OlapScanNode) node).getOlapTable().getName().equals(tableName)) {
+                return (OlapScanNode) node;
+            }
+        }
+        throw new AssertionError("no scan of " + tableName);
+    }
+
+    private static JoinNode getJoinNode(ExecPlan execPlan) {
+        for (PlanNode node : getPlanNodes(execPlan)) {
+            if (node instanceof JoinNode) {
+                return (JoinNode) node;
+            }
+        }
+        throw new AssertionError("no join");
+    }
+
+    private static List<PlanNode> getPlanNodes(ExecPlan execPlan) {
+        List<PlanNode> nodes = Lists.newArrayList();
+        for (PlanFragment fragment : execPlan.getFragments()) {
+            collectPlanNodes(fragment.getPlanRoot(), nodes);
+        }
+        return nodes;
+    }
+
+    private static void collectPlanNodes(PlanNode node, List<PlanNode> nodes) {
+        nodes.add(node);
+        if (!(node instanceof ExchangeNode)) {
+            for (PlanNode child : node.getChildren()) {
+                collectPlanNodes(child, nodes);
+            }
+        }
+    }
+}
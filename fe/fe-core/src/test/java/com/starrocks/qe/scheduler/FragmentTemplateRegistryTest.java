@@ -0,0 +1,58 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler;
+
+import com.starrocks.thrift.TDataPartition;
+import com.starrocks.thrift.TDescriptorTable;
+import com.starrocks.thrift.TPartitionType;
+import com.starrocks.thrift.TPlanFragment;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class FragmentTemplateRegistryTest {
+    private static TPlanFragment createFragment(TPartitionType partitionType) {
+        TPlanFragment fragment = new TPlanFragment();
+        fragment.setPartition(new TDataPartition(partitionType));
+        return fragment;
+    }
+
+    @Test
+    public void testComputeKey() throws Exception {
+        TDescriptorTable descTable = new TDescriptorTable().setTupleDescriptors(Collections.emptyList());
+        String key = FragmentTemplateRegistry.computeKey(createFragment(TPartitionType.UNPARTITIONED), descTable);
+        Assert.assertEquals(key, FragmentTemplateRegistry.computeKey(createFragment(TPartitionType.UNPARTITIONED),
+                descTable.deepCopy()));
+        Assert.assertNotEquals(key, FragmentTemplateRegistry.computeKey(createFragment(TPartitionType.RANDOM),
+                descTable));
+        Assert.assertNotEquals(key, FragmentTemplateRegistry.computeKey(createFragment(TPartitionType.UNPARTITIONED),
+                descTable.deepCopy().setIs_cached(true)));
+    }
+
+    @Test
+    public void testWorkerTemplates() {
+        FragmentTemplateRegistry registry = new FragmentTemplateRegistry();
+        Assert.assertFalse(registry.contains(1, "key"));
+        registry.add(1, "key");
+        Assert.assertTrue(registry.contains(1, "key"));
+        Assert.assertFalse(registry.contains(2, "key"));
+
+        // the worker misses the template
+        registry.remove(1, "key");
+        Assert.assertFalse(registry.contains(1, "key"));
+        registry.remove(2, "key");
+    }
+}
@@ -14,6 +14,7 @@
 
 package com.starrocks.qe.scheduler;
 
+import com.starrocks.common.Config;
 import com.starrocks.common.Reference;
 import com.starrocks.common.UserException;
 import com.starrocks.proto.PCancelPlanFragmentRequest;
@@ -44,7 +45,9 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -57,15 +60,21 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 public class GetNextTest extends SchedulerTestBase {
     private boolean originalEnableProfile;
+    private boolean originalEnablePrefetch;
 
     @Before
     public void before() {
         originalEnableProfile = connectContext.getSessionVariable().isEnableProfile();
+        originalEnablePrefetch = Config.enable_result_prefetch;
     }
 
     @After
     public void after() {
         connectContext.getSessionVariable().setEnableProfile(originalEnableProfile);
+        Config.enable_result_prefetch = originalEnablePrefetch;
+        SimpleScheduler.removeFromBlocklist(BACKEND1_ID);
+        SimpleScheduler.removeFromBlocklist(backend2.getId());
+        SimpleScheduler.removeFromBlocklist(backend3.getId());
     }
 
     @Test
@@ -103,6 +112,122 @@ public class GetNextTest extends SchedulerTestBase {
         }
     }
 
+    @Test
+    public void testGetNextPrefetch() throws Exception {
+        final int NUM_PACKAGES = 3;
+        AtomicLong nexPacketIdx = new AtomicLong(0L);
+        setBackendService(new MockPBackendService() {
+            @Override
+            public Future<PFetchDataResult> fetchDataAsync(PFetchDataRequest request) {
+                long packetIdx = nexPacketIdx.getAndIncrement();
+                return submit(() -> {
+                    if (packetIdx + 1 < NUM_PACKAGES) {
+                        request.setSerializedResult(genResultBatch(2));
+                        return genDataResult(false, packetIdx);
+                    } else {
+                        return genDataResult(true, packetIdx);
+                    }
+                });
+            }
+        });
+
+        String sql = "select count(1) from lineitem";
+
+        // the next batch is not requested until getNext is called again by default
+        Assert.assertFalse(Config.enable_result_prefetch);
+        DefaultCoordinator scheduler = startScheduling(sql);
+        RowBatch batch = scheduler.getNext();
+        Assert.assertNotNull(batch.getBatch());
+        Assert.assertEquals(1, nexPacketIdx.get());
+
+        Config.enable_result_prefetch = true;
+        nexPacketIdx.set(0L);
+        scheduler = startScheduling(sql);
+
+        // the request of the second batch is sent before the first batch is returned
+        batch = scheduler.getNext();
+        Assert.assertNotNull(batch.getBatch());
+        Assert.assertEquals(2, nexPacketIdx.get());
+
+        batch = scheduler.getNext();
+        Assert.assertNotNull(batch.getBatch());
+        Assert.assertEquals(3, nexPacketIdx.get());
+
+        // no more request after eos
+        batch = scheduler.getNext();
+        Assert.assertTrue(batch.isEos());
+        Assert.assertEquals(3, nexPacketIdx.get());
+    }
+
+    /**
+     * Mock BE answering the first fetch with a batch, the later fetches are completed by the test.
+     */
+    private static class PrefetchBackendService extends MockPBackendService {
+        private final List<CompletableFuture<PFetchDataResult>> futures = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Future<PFetchDataResult> fetchDataAsync(PFetchDataRequest request) {
+            CompletableFuture<PFetchDataResult> future = new CompletableFuture<>();
+            futures.add(future);
+            if (futures.size() == 1) {
+                try {
+                    request.setSerializedResult(genResultBatch(2));
+                } catch (TException e) {
+                    future.completeExceptionally(e);
+                    return future;
+                }
+                future.complete(genDataResult(false, 0));
+            }
+            return future;
+        }
+    }
+
+    private DefaultCoordinator startPrefetch(PrefetchBackendService service) throws Exception {
+        setBackendService(service);
+        Config.enable_result_prefetch = true;
+        DefaultCoordinator scheduler = startScheduling("select count(1) from lineitem");
+        RowBatch batch = scheduler.getNext();
+        Assert.assertNotNull(batch.getBatch());
+        Assert.assertEquals(2, service.futures.size());
+        Assert.assertFalse(service.futures.get(1).isDone());
+        return scheduler;
+    }
+
+    @Test
+    public void testCancelWithPrefetchedBatch() throws Exception {
+        PrefetchBackendService service = new PrefetchBackendService();
+        DefaultCoordinator scheduler = startPrefetch(service);
+
+        // the outstanding prefetch is dropped and nothing else is fetched
+        scheduler.cancel("Cancelled");
+        Assert.assertTrue(service.futures.get(1).isCancelled());
+        Assert.assertThrows("Cancelled", UserException.class, scheduler::getNext);
+        Assert.assertEquals(2, service.futures.size());
+    }
+
+    @Test
+    public void testGetNextPrefetchedErrorStatus() throws Exception {
+        PrefetchBackendService service = new PrefetchBackendService();
+        DefaultCoordinator scheduler = startPrefetch(service);
+
+        // the error of the prefetched batch is reported by the next getNext
+        PFetchDataResult dataResult = genDataResult(false, 1);
+        dataResult.status.statusCode = TStatusCode.INTERNAL_ERROR.getValue();
+        service.futures.get(1).complete(dataResult);
+        Assert.assertThrows("Internal_error", UserException.class, scheduler::getNext);
+        Assert.assertEquals(2, service.futures.size());
+    }
+
+    @Test
+    public void testGetNextPrefetchedThrowException() throws Exception {
+        PrefetchBackendService service = new PrefetchBackendService();
+        DefaultCoordinator scheduler = startPrefetch(service);
+
+        service.futures.get(1).completeExceptionally(new RuntimeException("connection reset"));
+        Assert.assertThrows("rpc failed: connection reset", RpcException.class, scheduler::getNext);
+        Assert.assertEquals(2, service.futures.size());
+    }
+
     @Test
     public void testGetNextReceiveErrorPacketSeq() throws Exception {
         setBackendService(new MockPBackendService() {
@@ -16,6 +16,8 @@ package com.starrocks.qe.scheduler;
 
 import com.google.api.client.util.Lists;
 import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
 import com.starrocks.common.Reference;
 import com.starrocks.common.UserException;
 import com.starrocks.proto.PCancelPlanFragmentRequest;
@@ -25,15 +27,20 @@ import com.starrocks.proto.StatusPB;
 import com.starrocks.qe.DefaultCoordinator;
 import com.starrocks.qe.SimpleScheduler;
 import com.starrocks.qe.scheduler.dag.ExecutionDAG;
+import com.starrocks.qe.scheduler.dag.FragmentInstanceExecState;
 import com.starrocks.rpc.PExecPlanFragmentRequest;
 import com.starrocks.rpc.RpcException;
 import com.starrocks.thrift.FrontendServiceVersion;
+import com.starrocks.thrift.TDescriptorTable;
 import com.starrocks.thrift.TExecPlanFragmentParams;
 import com.starrocks.thrift.TNetworkAddress;
+import com.starrocks.thrift.TPlanFragment;
 import com.starrocks.thrift.TReportExecStatusParams;
 import com.starrocks.thrift.TStatus;
 import com.starrocks.thrift.TStatusCode;
 import com.starrocks.thrift.TUniqueId;
+import mockit.Mock;
+import mockit.MockUp;
 import org.apache.thrift.TException;
 import org.assertj.core.util.Sets;
 import org.awaitility.Awaitility;
@@ -49,11 +56,15 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import static com.starrocks.utframe.MockedBackend.MockPBackendService;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -294,6 +305,110 @@ public class StartSchedulingTest extends SchedulerTestBase {
         }
     }
 
+    @Test
+    public void testDeployMissFragmentTemplate() throws Exception {
+        // the key of each fragment is the same between the queries of the same plan
+        new MockUp<FragmentTemplateRegistry>() {
+            @Mock
+            public String computeKey(TPlanFragment fragment, TDescriptorTable descTable) {
+                return "template-" + fragment.getPlan().getNodes().get(0).getNode_id();
+            }
+        };
+
+        List<TExecPlanFragmentParams> requests = new CopyOnWriteArrayList<>();
+        Map<TNetworkAddress, Long> addressToWorkerId = new ConcurrentHashMap<>();
+        AtomicBoolean missTemplateOnce = new AtomicBoolean(false);
+        Reference<TUniqueId> missedInstanceId = new Reference<>();
+        // whether the template is still in the registry when the whole request is sent again
+        List<Boolean> registeredWhenResent = new CopyOnWriteArrayList<>();
+        setBackendService(address -> new MockPBackendService() {
+            @Override
+            public Future<PExecPlanFragmentResult> execPlanFragmentAsync(PExecPlanFragmentRequest request) {
+                TExecPlanFragmentParams tRequest = new TExecPlanFragmentParams();
+                try {
+                    request.getRequest(tRequest);
+                } catch (TException e) {
+                    throw new RuntimeException(e);
+                }
+                requests.add(tRequest);
+                TUniqueId instanceId = tRequest.getParams().getFragment_instance_id();
+
+                PExecPlanFragmentResult result = new PExecPlanFragmentResult();
+                result.status = new StatusPB();
+                if (!tRequest.isSetFragment() && missTemplateOnce.compareAndSet(true, false)) {
+                    missedInstanceId.setRef(instanceId);
+                    result.status.statusCode = TStatusCode.FRAGMENT_TEMPLATE_NOT_FOUND.getValue();
+                    return CompletableFuture.completedFuture(result);
+                }
+                if (instanceId.equals(missedInstanceId.getRef())) {
+                    registeredWhenResent.add(FragmentTemplateRegistry.getInstance()
+                            .contains(addressToWorkerId.get(address), tRequest.getFragment_template_key()));
+                }
+                result.status.statusCode = TStatusCode.OK.getValue();
+                result.fragmentTemplateCached = tRequest.isSetFragment();
+                return CompletableFuture.completedFuture(result);
+            }
+        });
+
+        boolean originalEnableFragmentTemplate = Config.enable_fragment_template;
+        List<Pair<Long, String>> registeredTemplates = Lists.newArrayList();
+        try {
+            Config.enable_fragment_template = true;
+            String sql = "select count(1) from lineitem";
+
+            // the first query sends the whole templates, which are cached by the workers
+            DefaultCoordinator scheduler = startScheduling(sql);
+            Assert.assertTrue(scheduler.getExecStatus().ok());
+            Assert.assertFalse(requests.isEmpty());
+            for (TExecPlanFragmentParams request : requests) {
+                Assert.assertTrue(request.isSetFragment());
+                Assert.assertTrue(request.isSetFragment_template_key());
+            }
+            for (FragmentInstanceExecState execution : scheduler.getExecutionDAG().getExecutions()) {
+                long workerId = execution.getWorker().getId();
+                addressToWorkerId.put(execution.getWorker().getBrpcAddress(), workerId);
+                TExecPlanFragmentParams request = requests.stream()
+                        .filter(req -> req.getParams().getFragment_instance_id().equals(execution.getInstanceId()))
+                        .findFirst().orElseThrow();
+                registeredTemplates.add(Pair.create(workerId, request.getFragment_template_key()));
+                Assert.assertTrue(FragmentTemplateRegistry.getInstance()
+                        .contains(workerId, request.getFragment_template_key()));
+            }
+
+            // the second query leaves the templates out, and one worker misses its template
+            requests.clear();
+            missTemplateOnce.set(true);
+            scheduler = startScheduling(sql);
+            Assert.assertTrue(scheduler.getExecStatus().ok());
+            Assert.assertNotNull(missedInstanceId.getRef());
+
+            List<TExecPlanFragmentParams> missedRequests = requests.stream()
+                    .filter(req -> req.getParams().getFragment_instance_id().equals(missedInstanceId.getRef()))
+                    .collect(Collectors.toList());
+            Assert.assertEquals(2, missedRequests.size());
+            Assert.assertFalse(missedRequests.get(0).isSetFragment());
+            Assert.assertFalse(missedRequests.get(0).isSetDesc_tbl());
+            // the whole request is sent again with the same key
+            TExecPlanFragmentParams resentRequest = missedRequests.get(1);
+            Assert.assertTrue(resentRequest.isSetFragment());
+            Assert.assertTrue(resentRequest.isSetDesc_tbl());
+            Assert.assertEquals(missedRequests.get(0).getFragment_template_key(),
+                    resentRequest.getFragment_template_key());
+
+            // the template is dropped from the registry before the resending, and added back by its ack
+            Assert.assertEquals(Collections.singletonList(false), registeredWhenResent);
+            FragmentInstanceExecState missedExecution = scheduler.getExecutionDAG().getExecutions().stream()
+                    .filter(execution -> execution.getInstanceId().equals(missedInstanceId.getRef()))
+                    .findFirst().orElseThrow();
+            Assert.assertTrue(FragmentTemplateRegistry.getInstance()
+                    .contains(missedExecution.getWorker().getId(), resentRequest.getFragment_template_key()));
+        } finally {
+            Config.enable_fragment_template = originalEnableFragmentTemplate;
+            registeredTemplates.forEach(template ->
+                    FragmentTemplateRegistry.getInstance().remove(template.first, template.second));
+        }
+    }
+
     @Test
     public void testCancelThrowErrors() throws Exception {
         Set<TUniqueId> successCancelledInstanceIds = Sets.newHashSet();
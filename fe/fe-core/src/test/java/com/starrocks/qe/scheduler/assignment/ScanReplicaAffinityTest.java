@@ -0,0 +1,233 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler.assignment;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import com.starrocks.common.Config;
+import com.starrocks.planner.OlapScanNode;
+import com.starrocks.qe.FragmentScanRangeAssignment;
+import com.starrocks.qe.NormalBackendSelector;
+import com.starrocks.qe.scheduler.DefaultWorkerProvider;
+import com.starrocks.system.ComputeNode;
+import com.starrocks.thrift.TInternalScanRange;
+import com.starrocks.thrift.TNetworkAddress;
+import com.starrocks.thrift.TScanRange;
+import com.starrocks.thrift.TScanRangeLocation;
+import com.starrocks.thrift.TScanRangeLocations;
+import com.starrocks.thrift.TScanRangeParams;
+import mockit.Mocked;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ScanReplicaAffinityTest {
+    private static final int NUM_BACKENDS = 3;
+    private static final int NUM_TABLETS = 30;
+    private static final int NUM_QUERIES = 200;
+
+    @Mocked
+    private OlapScanNode scanNode;
+
+    private final ImmutableMap<Long, ComputeNode> backends = createBackends();
+
+    @Before
+    public void setUp() {
+        ScanReplicaAffinity.getInstance().invalidateAll();
+    }
+
+    @After
+    public void tearDown() {
+        ScanReplicaAffinity.getInstance().invalidateAll();
+    }
+
+    private static ImmutableMap<Long, ComputeNode> createBackends() {
+        Map<Long, ComputeNode> backends = new HashMap<>();
+        for (long i = 0; i < NUM_BACKENDS; i++) {
+            ComputeNode node = new ComputeNode(i, "192.168.1." + i, 9050);
+            node.setAlive(true);
+            backends.put(i, node);
+        }
+        return ImmutableMap.copyOf(backends);
+    }
+
+    // every tablet has a replica on every backend, the replicas are in a different order for every query
+    private static List<TScanRangeLocations> createScanRanges(Random random) {
+        List<TScanRangeLocations> scanRanges = new ArrayList<>();
+        for (long tabletId = 0; tabletId < NUM_TABLETS; tabletId++) {
+            TInternalScanRange internalScanRange = new TInternalScanRange();
+            internalScanRange.setTablet_id(tabletId);
+            internalScanRange.setVersion("2");
+            TScanRange scanRange = new TScanRange();
+            scanRange.setInternal_scan_range(internalScanRange);
+
+            List<TScanRangeLocation> locations = new ArrayList<>();
+            for (long backendId = 0; backendId < NUM_BACKENDS; backendId++) {
+                TScanRangeLocation location = new TScanRangeLocation(new TNetworkAddress("192.168.1." + backendId, 9060));
+                location.setBackend_id(backendId);
+                locations.add(location);
+            }
+            Collections.shuffle(locations, random);
+            scanRanges.add(new TScanRangeLocations(scanRange, locations));
+        }
+        return scanRanges;
+    }
+
+    private FragmentScanRangeAssignment assign(List<TScanRangeLocations> scanRanges, ScanReplicaAffinity affinity,
+                                               ImmutableMap<Long, ComputeNode> availableBackends) throws Exception {
+        FragmentScanRangeAssignment assignment = new FragmentScanRangeAssignment();
+        DefaultWorkerProvider workerProvider =
+                new DefaultWorkerProvider(backends, ImmutableMap.of(), availableBackends, ImmutableMap.of(), false);
+        new NormalBackendSelector(scanNode, scanRanges, assignment, workerProvider, false, affinity)
+                .computeScanRangeAssignment();
+        return assignment;
+    }
+
+    // the (tablet, backend) pairs read by all the queries, every pair reads the tablet from disk once
+    private Set<String> runConcurrentQueries(ScanReplicaAffinity affinity) throws Exception {
+        Random random = new Random(0);
+        Set<String> tabletReads = Sets.newHashSet();
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            FragmentScanRangeAssignment assignment = assign(createScanRanges(random), affinity, backends);
+            Map<Long, Integer> tabletsPerBackend = new HashMap<>();
+            assignment.forEach((backendId, scanRanges) -> {
+                for (List<TScanRangeParams> params : scanRanges.values()) {
+                    for (TScanRangeParams param : params) {
+                        tabletReads.add(param.getScan_range().getInternal_scan_range().getTablet_id() + "@" + backendId);
+                    }
+                    tabletsPerBackend.merge(backendId, params.size(), Integer::sum);
+                }
+            });
+            // the tablets of a query are still spread over all the backends
+            Assert.assertEquals(NUM_BACKENDS, tabletsPerBackend.size());
+            for (int tablets : tabletsPerBackend.values()) {
+                Assert.assertEquals(NUM_TABLETS / NUM_BACKENDS, tablets);
+            }
+        }
+        return tabletReads;
+    }
+
+    @Test
+    public void testConcurrentQueriesReadTabletOnSameBackend() throws Exception {
+        Set<String> withoutAffinity = runConcurrentQueries(null);
+        Set<String> withAffinity = runConcurrentQueries(ScanReplicaAffinity.getInstance());
+
+        Assert.assertEquals(NUM_TABLETS, withAffinity.size());
+        Assert.assertEquals(NUM_TABLETS * NUM_BACKENDS, withoutAffinity.size());
+        Assert.assertEquals(NUM_TABLETS, ScanReplicaAffinity.getInstance().size());
+    }
+
+    @Test
+    public void testQueriesScanningDifferentTablets() throws Exception {
+        ScanReplicaAffinity affinity = ScanReplicaAffinity.getInstance();
+        Random random = new Random(0);
+        Map<Long, Integer> tabletsPerBackend = countTabletsPerBackend(assign(createScanRanges(random), affinity, backends));
+        Assert.assertEquals(NUM_TABLETS, affinity.size());
+
+        // a query only scanning the tablets the first query scanned on backend 0 doesn't pile them on backend 0
+        List<TScanRangeLocations> scanRanges = new ArrayList<>();
+        for (TScanRangeLocations scanRange : createScanRanges(random)) {
+            if (affinity.getBackend(scanRange.getScan_range().getInternal_scan_range().getTablet_id(), "2") == 0) {
+                scanRanges.add(scanRange);
+            }
+        }
+        Assert.assertEquals((int) tabletsPerBackend.get(0L), scanRanges.size());
+        assertBalanced(countTabletsPerBackend(assign(scanRanges, affinity, backends)), scanRanges.size());
+
+        // nor do the queries scanning random subsets of the tablets
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            scanRanges = createScanRanges(random);
+            Collections.shuffle(scanRanges, random);
+            scanRanges = new ArrayList<>(scanRanges.subList(0, 1 + random.nextInt(NUM_TABLETS)));
+            assertBalanced(countTabletsPerBackend(assign(scanRanges, affinity, backends)), scanRanges.size());
+        }
+    }
+
+    private static Map<Long, Integer> countTabletsPerBackend(FragmentScanRangeAssignment assignment) {
+        Map<Long, Integer> tabletsPerBackend = new HashMap<>();
+        assignment.forEach((backendId, scanRanges) -> {
+            for (List<TScanRangeParams> params : scanRanges.values()) {
+                tabletsPerBackend.merge(backendId, params.size(), Integer::sum);
+            }
+        });
+        return tabletsPerBackend;
+    }
+
+    private static void assertBalanced(Map<Long, Integer> tabletsPerBackend, int numTablets) {
+        int max = 0;
+        int min = Integer.MAX_VALUE;
+        for (long backendId = 0; backendId < NUM_BACKENDS; backendId++) {
+            int tablets = tabletsPerBackend.getOrDefault(backendId, 0);
+            max = Math.max(max, tablets);
+            min = Math.min(min, tablets);
+        }
+        Assert.assertEquals(numTablets, tabletsPerBackend.values().stream().mapToInt(Integer::intValue).sum());
+        Assert.assertTrue(tabletsPerBackend.toString(), max - min <= Config.scan_replica_affinity_max_skew + 1);
+    }
+
+    @Test
+    public void testAffinityBackendNotAvailable() throws Exception {
+        ScanReplicaAffinity affinity = ScanReplicaAffinity.getInstance();
+        affinity.recordBackend(0, "2", 1);
+        affinity.recordBackend(1, "1", 1);
+
+        ImmutableMap<Long, ComputeNode> availableBackends = ImmutableMap.of(0L, backends.get(0L), 2L, backends.get(2L));
+        List<TScanRangeLocations> scanRanges = createScanRanges(new Random(0)).subList(0, 2);
+        FragmentScanRangeAssignment assignment = assign(scanRanges, affinity, availableBackends);
+        Assert.assertFalse(assignment.containsKey(1L));
+
+        // the tablet is scanned on another backend, and the following queries follow it
+        long backendOfTablet0 = affinity.getBackend(0, "2");
+        Assert.assertNotEquals(1, backendOfTablet0);
+        Assert.assertTrue(assignment.containsKey(backendOfTablet0));
+        // the affinity of another version is not used
+        Assert.assertEquals(1, affinity.getBackend(1, "1"));
+        Assert.assertNotEquals(-1, affinity.getBackend(1, "2"));
+    }
+
+    @Test
+    public void testAffinityExpiresWhileTabletIsScanned() throws Exception {
+        AtomicLong nanos = new AtomicLong();
+        ScanReplicaAffinity affinity = new ScanReplicaAffinity(nanos::get);
+        long halfExpireNanos = TimeUnit.MILLISECONDS.toNanos(Config.scan_replica_affinity_expire_ms) / 2 + 1;
+
+        List<TScanRangeLocations> scanRanges = createScanRanges(new Random(0)).subList(0, 1);
+        assign(scanRanges, affinity, backends);
+        long backendId = affinity.getBackend(0, "2");
+        Assert.assertNotEquals(-1, backendId);
+
+        // the following query scans the tablet on the recorded backend, but doesn't extend the affinity
+        nanos.addAndGet(halfExpireNanos);
+        FragmentScanRangeAssignment assignment = assign(scanRanges, affinity, backends);
+        Assert.assertEquals(Collections.singleton(backendId), assignment.keySet());
+        nanos.addAndGet(halfExpireNanos);
+        Assert.assertEquals(-1, affinity.getBackend(0, "2"));
+
+        // the next query chooses the backend by load and records it again
+        assign(scanRanges, affinity, backends);
+        Assert.assertNotEquals(-1, affinity.getBackend(0, "2"));
+    }
+}
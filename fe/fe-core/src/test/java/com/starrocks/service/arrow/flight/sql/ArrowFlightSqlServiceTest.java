@@ -0,0 +1,217 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.util.ArrowUtil;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.DefaultCoordinator;
+import com.starrocks.qe.RowBatch;
+import com.starrocks.service.ExecuteEnv;
+import com.starrocks.thrift.TResultBatch;
+import com.starrocks.utframe.UtFrameUtils;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.VectorUnloader;
+import org.apache.arrow.vector.ipc.WriteChannel;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ArrowFlightSqlServiceTest {
+    private static final Schema SCHEMA = new Schema(Lists.newArrayList(
+            Field.nullable("v", new ArrowType.Int(32, true))));
+
+    private static BufferAllocator allocator;
+    private static ArrowFlightSqlService service;
+    private static int port;
+
+    // the results of the fetches from BE, every result is [schema message, record batch message] like BE sends
+    private List<TResultBatch> fetchResults;
+    private final AtomicLong returnRows = new AtomicLong();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster();
+        ExecuteEnv.setup();
+        allocator = new RootAllocator();
+        port = UtFrameUtils.findValidPort();
+        service = new ArrowFlightSqlService(port);
+        service.start();
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        service.stop();
+        allocator.close();
+    }
+
+    @Before
+    public void setUp() {
+        fetchResults = Lists.newArrayList();
+        returnRows.set(0);
+        new MockUp<DefaultCoordinator>() {
+            private int next = 0;
+
+            @Mock
+            public void exec() {
+            }
+
+            @Mock
+            public RowBatch getNext() {
+                RowBatch batch = new RowBatch();
+                if (next < fetchResults.size()) {
+                    batch.setBatch(fetchResults.get(next++));
+                }
+                batch.setEos(next >= fetchResults.size());
+                return batch;
+            }
+        };
+        new MockUp<ConnectContext>() {
+            @Mock
+            public void updateReturnRows(Invocation invocation, int rows) {
+                if (invocation.getInvokedInstance() instanceof ArrowFlightSqlConnectContext) {
+                    returnRows.addAndGet(rows);
+                }
+                invocation.proceed(rows);
+            }
+        };
+    }
+
+    private static ByteBuffer serializeSchema() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessageSerializer.serialize(new WriteChannel(Channels.newChannel(out)), SCHEMA);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static ByteBuffer serializeBatch(int from, int to) throws IOException {
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+            IntVector vector = (IntVector) root.getVector(0);
+            vector.allocateNew(to - from);
+            for (int i = from; i < to; i++) {
+                vector.set(i - from, i);
+            }
+            root.setRowCount(to - from);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ArrowRecordBatch batch = new VectorUnloader(root).getRecordBatch()) {
+                MessageSerializer.serialize(new WriteChannel(Channels.newChannel(out)), batch);
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        }
+    }
+
+    private void addFetchResult(int from, int to) throws IOException {
+        TResultBatch resultBatch = new TResultBatch();
+        resultBatch.addToRows(serializeSchema());
+        if (to > from) {
+            resultBatch.addToRows(serializeBatch(from, to));
+        }
+        fetchResults.add(resultBatch);
+    }
+
+    private static Connection connect(String password) throws SQLException {
+        Properties properties = new Properties();
+        properties.put("user", "root");
+        properties.put("password", password);
+        properties.put("useEncryption", "false");
+        return DriverManager.getConnection("jdbc:arrow-flight-sql://127.0.0.1:" + port, properties);
+    }
+
+    @Test
+    public void testGetRowCount() throws IOException {
+        Assert.assertEquals(0, ArrowUtil.getRowCount(serializeSchema()));
+        Assert.assertEquals(100, ArrowUtil.getRowCount(serializeBatch(0, 100)));
+        Assert.assertEquals(SCHEMA, ArrowUtil.readSchema(serializeSchema()));
+    }
+
+    @Test
+    public void testQuery() throws Exception {
+        addFetchResult(0, 100);
+        addFetchResult(100, 100);
+        addFetchResult(100, 300);
+
+        long sum = 0;
+        int rows = 0;
+        try (Connection connection = connect("");
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("select 1")) {
+            while (resultSet.next()) {
+                sum += resultSet.getInt(1);
+                rows++;
+            }
+        }
+        Assert.assertEquals(300, rows);
+        Assert.assertEquals(299 * 300 / 2, sum);
+        Assert.assertEquals(300, returnRows.get());
+    }
+
+    @Test
+    public void testEmptyResult() throws Exception {
+        addFetchResult(0, 0);
+
+        try (Connection connection = connect("");
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("select 1")) {
+            Assert.assertFalse(resultSet.next());
+            Assert.assertEquals("v", resultSet.getMetaData().getColumnName(1));
+        }
+        Assert.assertEquals(0, returnRows.get());
+    }
+
+    @Test
+    public void testAccessDenied() {
+        Assert.assertThrows(SQLException.class, () -> {
+            try (Connection connection = connect("wrong_password");
+                    Statement statement = connection.createStatement()) {
+                statement.executeQuery("select 1");
+            }
+        });
+    }
+
+    @Test
+    public void testOnlySelect() throws Exception {
+        try (Connection connection = connect("");
+                Statement statement = connection.createStatement()) {
+            SQLException e = Assert.assertThrows(SQLException.class,
+                    () -> statement.executeQuery("create database arrow_flight_sql_db"));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("only supports SELECT statement"));
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.starrocks.catalog.FunctionSet;
 import com.starrocks.catalog.Type;
 import com.starrocks.sql.optimizer.operator.OperatorType;
 import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CastOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
@@ -30,6 +31,8 @@ import org.junit.Test;
 
 import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -143,4 +146,42 @@ public class ScalarOperatorEvaluatorTest {
         Assert.assertTrue(largeInt.getLargeInt().equals(new BigInteger("1")));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testCompileBatch() {
+        ColumnRefOperator column = new ColumnRefOperator(1, Type.VARCHAR, "dt", true);
+        Function fn = new Function(new FunctionName(FunctionSet.DATE_TRUNC),
+                new Type[] {Type.VARCHAR, Type.DATETIME}, Type.DATETIME, false);
+        // date_trunc('month', cast(dt as datetime))
+        CallOperator call = new CallOperator(FunctionSet.DATE_TRUNC, Type.DATETIME,
+                Lists.newArrayList(ConstantOperator.createVarchar("month"), new CastOperator(Type.DATETIME, column)), fn);
+
+        Optional<ScalarOperatorEvaluator.BatchEvaluator> evaluator = ScalarOperatorEvaluator.INSTANCE.compile(call, true);
+        assertTrue(evaluator.isPresent());
+
+        List<ConstantOperator> results = evaluator.get().evaluate(Lists.newArrayList(
+                ConstantOperator.createVarchar("2024-02-29 10:00:00"),
+                ConstantOperator.createNull(Type.VARCHAR),
+                ConstantOperator.createVarchar("not a date")));
+        assertEquals(ConstantOperator.createDatetime(LocalDateTime.of(2024, 2, 1, 0, 0, 0)), results.get(0));
+        assertTrue(results.get(1).isNull());
+        Assert.assertNull(results.get(2));
+    }
+
+    @Test
+    public void testCompileBatchNotSupported() {
+        ColumnRefOperator column = new ColumnRefOperator(1, Type.INT, "test", true);
+        // no function bound to the call
+        CallOperator call = new CallOperator(FunctionSet.IFNULL, Type.INT,
+                Lists.newArrayList(column, ConstantOperator.createInt(2)));
+        Assert.assertFalse(ScalarOperatorEvaluator.INSTANCE.compile(call, false).isPresent());
+
+        // date_format is not monotonic with this pattern
+        Function fn = new Function(new FunctionName(FunctionSet.DATE_FORMAT),
+                new Type[] {Type.DATETIME, Type.VARCHAR}, Type.VARCHAR, false);
+        ColumnRefOperator dt = new ColumnRefOperator(2, Type.DATETIME, "dt", true);
+        CallOperator dateFormat = new CallOperator(FunctionSet.DATE_FORMAT, Type.VARCHAR,
+                Lists.newArrayList(dt, ConstantOperator.createVarchar("%m-%Y")), fn);
+        Assert.assertFalse(ScalarOperatorEvaluator.INSTANCE.compile(dateFormat, true).isPresent());
+        Assert.assertTrue(ScalarOperatorEvaluator.INSTANCE.compile(dateFormat, false).isPresent());
+    }
+}
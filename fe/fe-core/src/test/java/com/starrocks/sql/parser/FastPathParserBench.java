@@ -0,0 +1,88 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.parser;
+
+import com.starrocks.common.Config;
+import com.starrocks.qe.SessionVariable;
+import com.starrocks.sql.ast.StatementBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse throughput of the statements recognized by {@link FastPathParser}, with and without the fast path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class FastPathParserBench {
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(FastPathParserBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Param({"true", "false"})
+    public boolean enableFastPath;
+
+    @Param({"1", "100", "10000"})
+    public int rows;
+
+    private final SessionVariable sessionVariable = new SessionVariable();
+    private String insertSql;
+    private String pointQuerySql;
+
+    @Setup
+    public void setup() {
+        Config.enable_fast_path_parser = enableFastPath;
+        StringJoiner values = new StringJoiner(",");
+        for (int i = 0; i < rows; i++) {
+            values.add("(" + i + ", -1869445626, 0.17698452552099786, 'abc" + i + "', NULL, '2024-01-01 00:00:00')");
+        }
+        insertSql = "INSERT INTO db.test_load (k1, k2, v1, v2, v3, v4) VALUES " + values + ";";
+        pointQuerySql = "SELECT v1, v2, v3 FROM db.test_load WHERE k1 = 1 AND k2 = 'abc' LIMIT 1";
+    }
+
+    @Benchmark
+    public List<StatementBase> parseInsertIntoValues() {
+        return SqlParser.parse(insertSql, sessionVariable);
+    }
+
+    @Benchmark
+    public List<StatementBase> parsePointQuery() {
+        return SqlParser.parse(pointQuerySql, sessionVariable);
+    }
+}
@@ -0,0 +1,240 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.parser;
+
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.FloatLiteral;
+import com.starrocks.analysis.LimitElement;
+import com.starrocks.analysis.TableName;
+import com.starrocks.common.Config;
+import com.starrocks.qe.SessionVariable;
+import com.starrocks.qe.SqlModeHelper;
+import com.starrocks.sql.ast.InsertStmt;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.SelectListItem;
+import com.starrocks.sql.ast.SelectRelation;
+import com.starrocks.sql.ast.StatementBase;
+import com.starrocks.sql.ast.TableRelation;
+import com.starrocks.sql.ast.ValuesRelation;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+class FastPathParserTest {
+
+    private static StatementBase parseByFastPath(String sql, SessionVariable sessionVariable) {
+        return FastPathParser.parse(sql, sessionVariable.getSqlMode(), 10000, Config.expr_children_limit);
+    }
+
+    private static StatementBase parseByAntlr(String sql, SessionVariable sessionVariable) {
+        boolean enable = Config.enable_fast_path_parser;
+        Config.enable_fast_path_parser = false;
+        try {
+            return SqlParser.parse(sql, sessionVariable).get(0);
+        } finally {
+            Config.enable_fast_path_parser = enable;
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "INSERT INTO t VALUES (1)",
+            "insert into db.t values (1, -2, +3, 4.5, -4.5, 1e5, -1.5E-3, 1.e5, 9223372036854775808, -9223372036854775808)",
+            "INSERT INTO cat.db.`t` (a, `B`, comment, date) VALUES ('a', \"b\", 'it''s', 'a\\tb\\'c'), (NULL, TRUE, " +
+                    "false, DEFAULT);",
+            "  INSERT OVERWRITE t(a,b) VALUES(1,'x'),\n(2, 'multi\nline')\r\n,\t(3, 'é') ; ",
+    })
+    void testInsertValues(String sql) {
+        SessionVariable sessionVariable = new SessionVariable();
+        InsertStmt expected = (InsertStmt) parseByAntlr(sql, sessionVariable);
+        InsertStmt actual = (InsertStmt) parseByFastPath(sql, sessionVariable);
+        Assert.assertNotNull(actual);
+
+        assertSamePos(expected.getPos(), actual.getPos());
+        assertSameTableName(expected.getTableName(), actual.getTableName());
+        Assert.assertEquals(expected.getTargetColumnNames(), actual.getTargetColumnNames());
+        Assert.assertEquals(expected.isOverwrite(), actual.isOverwrite());
+
+        assertSamePos(expected.getQueryStatement().getPos(), actual.getQueryStatement().getPos());
+        ValuesRelation expectedValues = (ValuesRelation) expected.getQueryStatement().getQueryRelation();
+        ValuesRelation actualValues = (ValuesRelation) actual.getQueryStatement().getQueryRelation();
+        assertSamePos(expectedValues.getPos(), actualValues.getPos());
+        Assert.assertEquals(expectedValues.getColumnOutputNames(), actualValues.getColumnOutputNames());
+        Assert.assertEquals(expectedValues.getRows().size(), actualValues.getRows().size());
+        for (int i = 0; i < expectedValues.getRows().size(); i++) {
+            assertSameExprs(expectedValues.getRows().get(i), actualValues.getRows().get(i));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT * FROM t",
+            "select a, b, * from db.t where a = 1",
+            "SELECT `a` FROM t WHERE a <> 'x' AND b != -2 AND c < 3.5 AND d <= 4 AND e > NULL AND f >= TRUE LIMIT 10",
+            "\n SELECT a\nFROM t\nWHERE k=-1\nLIMIT 5;",
+    })
+    void testPointQuery(String sql) {
+        SessionVariable sessionVariable = new SessionVariable();
+        QueryStatement expected = (QueryStatement) parseByAntlr(sql, sessionVariable);
+        QueryStatement actual = (QueryStatement) parseByFastPath(sql, sessionVariable);
+        Assert.assertNotNull(actual);
+
+        assertSamePos(expected.getPos(), actual.getPos());
+        Assert.assertEquals(expected.getQueryStartIndex(), actual.getQueryStartIndex());
+        SelectRelation expectedSelect = (SelectRelation) expected.getQueryRelation();
+        SelectRelation actualSelect = (SelectRelation) actual.getQueryRelation();
+        assertSamePos(expectedSelect.getPos(), actualSelect.getPos());
+
+        List<SelectListItem> expectedItems = expectedSelect.getSelectList().getItems();
+        List<SelectListItem> actualItems = actualSelect.getSelectList().getItems();
+        Assert.assertEquals(expectedItems.size(), actualItems.size());
+        for (int i = 0; i < expectedItems.size(); i++) {
+            assertSamePos(expectedItems.get(i).getPos(), actualItems.get(i).getPos());
+            Assert.assertEquals(expectedItems.get(i).isStar(), actualItems.get(i).isStar());
+            if (!expectedItems.get(i).isStar()) {
+                assertSameExpr(expectedItems.get(i).getExpr(), actualItems.get(i).getExpr());
+            }
+        }
+
+        TableRelation expectedTable = (TableRelation) expectedSelect.getRelation();
+        TableRelation actualTable = (TableRelation) actualSelect.getRelation();
+        assertSamePos(expectedTable.getPos(), actualTable.getPos());
+        assertSameTableName(expectedTable.getName(), actualTable.getName());
+
+        if (expectedSelect.getPredicate() == null) {
+            Assert.assertNull(actualSelect.getPredicate());
+        } else {
+            assertSameExpr(expectedSelect.getPredicate(), actualSelect.getPredicate());
+        }
+        Assert.assertEquals(expectedSelect.getOrderBy(), actualSelect.getOrderBy());
+        LimitElement expectedLimit = expectedSelect.getLimit();
+        LimitElement actualLimit = actualSelect.getLimit();
+        if (expectedLimit == null) {
+            Assert.assertNull(actualLimit);
+        } else {
+            assertSamePos(expectedLimit.getPos(), actualLimit.getPos());
+            Assert.assertEquals(expectedLimit.getLimit(), actualLimit.getLimit());
+            Assert.assertEquals(expectedLimit.getOffset(), actualLimit.getOffset());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SHOW DATABASES",
+            "INSERT INTO t VALUES (1) -- comment",
+            "INSERT /*+ SET_VAR(query_timeout = 1) */ INTO t VALUES (1)",
+            "INSERT INTO t WITH LABEL l VALUES (1)",
+            "INSERT INTO t PARTITION (p1) VALUES (1)",
+            "INSERT INTO t VALUES (1 + 1)",
+            "INSERT INTO t VALUES (now())",
+            "INSERT INTO t VALUES (DATE '2024-01-01')",
+            "INSERT INTO t VALUES (X'AB')",
+            "INSERT INTO t VALUES (?)",
+            "INSERT INTO t VALUES (1abc)",
+            "INSERT INTO t VALUES (.5)",
+            "INSERT INTO t VALUES ('a' 'b')",
+            "INSERT INTO t VALUES (1); INSERT INTO t VALUES (2)",
+            "INSERT INTO t VALUES (340282366920938463463374607431768211456)",
+            "INSERT INTO t VALUES ('😀')",
+            "INSERT INTO t SELECT * FROM s",
+            "SELECT 1",
+            "SELECT DISTINCT a FROM t",
+            "SELECT a AS b FROM t",
+            "SELECT t.a FROM t",
+            "SELECT count(*) FROM t",
+            "SELECT date FROM t",
+            "SELECT a FROM t1 JOIN t2",
+            "SELECT a FROM t WHERE a = 1 OR b = 2",
+            "SELECT a FROM t WHERE a <=> 1",
+            "SELECT a FROM t WHERE a = b",
+            "SELECT a FROM t WHERE a IN (1, 2)",
+            "SELECT a FROM t ORDER BY a",
+            "SELECT a FROM t LIMIT 1, 2",
+            "SELECT a FROM t LIMIT 99999999999999999999",
+    })
+    void testFallback(String sql) {
+        Assert.assertNull(parseByFastPath(sql, new SessionVariable()));
+    }
+
+    @Test
+    void testLimits() {
+        StringJoiner rows = new StringJoiner(",");
+        for (int i = 0; i < 10; i++) {
+            rows.add("(" + i + ", 'a')");
+        }
+        String sql = "INSERT INTO t VALUES " + rows;
+        Assert.assertNotNull(FastPathParser.parse(sql, SqlModeHelper.MODE_DEFAULT, 1000, 10));
+        // too many rows
+        Assert.assertNull(FastPathParser.parse(sql, SqlModeHelper.MODE_DEFAULT, 1000, 9));
+        // too many values of a row
+        Assert.assertNull(FastPathParser.parse("INSERT INTO t VALUES (1, 2, 3)", SqlModeHelper.MODE_DEFAULT, 1000, 2));
+        // too many tokens, the whitespaces are counted too
+        Assert.assertNull(FastPathParser.parse(sql, SqlModeHelper.MODE_DEFAULT, 60, 10));
+    }
+
+    @Test
+    void testDoubleLiteral() {
+        SessionVariable sessionVariable = new SessionVariable();
+        sessionVariable.setSqlMode(SqlModeHelper.MODE_DEFAULT | SqlModeHelper.MODE_DOUBLE_LITERAL);
+        String sql = "INSERT INTO t VALUES (1.5, -2.5e3)";
+        InsertStmt expected = (InsertStmt) parseByAntlr(sql, sessionVariable);
+        InsertStmt actual = (InsertStmt) parseByFastPath(sql, sessionVariable);
+        List<Expr> row = ((ValuesRelation) actual.getQueryStatement().getQueryRelation()).getRows().get(0);
+        Assert.assertTrue(row.get(0) instanceof FloatLiteral);
+        assertSameExprs(((ValuesRelation) expected.getQueryStatement().getQueryRelation()).getRows().get(0), row);
+    }
+
+    @Test
+    void testParse() {
+        String sql = "INSERT INTO t VALUES (1, 'a')";
+        StatementBase statement = SqlParser.parse(sql, new SessionVariable()).get(0);
+        Assert.assertTrue(statement instanceof InsertStmt);
+        Assert.assertEquals(sql, statement.getOrigStmt().getOrigStmt());
+        Assert.assertEquals(0, statement.getOrigStmt().idx);
+    }
+
+    private static void assertSameExprs(List<Expr> expected, List<Expr> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameExpr(expected.get(i), actual.get(i));
+        }
+    }
+
+    private static void assertSameExpr(Expr expected, Expr actual) {
+        Assert.assertEquals(expected.getClass(), actual.getClass());
+        Assert.assertEquals(expected.toSql(), actual.toSql());
+        Assert.assertEquals(expected.getType(), actual.getType());
+        assertSamePos(expected.getPos(), actual.getPos());
+        assertSameExprs(expected.getChildren(), actual.getChildren());
+    }
+
+    private static void assertSameTableName(TableName expected, TableName actual) {
+        Assert.assertEquals(expected.getCatalog(), actual.getCatalog());
+        Assert.assertEquals(expected.getDb(), actual.getDb());
+        Assert.assertEquals(expected.getTbl(), actual.getTbl());
+        assertSamePos(expected.getPos(), actual.getPos());
+    }
+
+    private static void assertSamePos(NodePosition expected, NodePosition actual) {
+        Assert.assertEquals(expected.getLine(), actual.getLine());
+        Assert.assertEquals(expected.getCol(), actual.getCol());
+        Assert.assertEquals(expected.getEndLine(), actual.getEndLine());
+        Assert.assertEquals(expected.getEndCol(), actual.getEndCol());
+    }
+}
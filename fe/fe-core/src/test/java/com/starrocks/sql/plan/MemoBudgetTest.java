@@ -0,0 +1,103 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.plan;
+
+import com.starrocks.common.profile.Tracers;
+import com.starrocks.common.profile.Var;
+import com.starrocks.common.util.RuntimeProfile;
+import com.starrocks.qe.SessionVariable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class MemoBudgetTest extends PlanTestBase {
+    private static final String STAR_JOIN_SQL = "select count(*) from t0 a " +
+            "join t0 b on a.v1 = b.v1 join t0 c on a.v1 = c.v1 join t0 d on a.v1 = d.v1 " +
+            "join t0 e on a.v1 = e.v1 join t0 f on a.v1 = f.v1 join t0 g on a.v1 = g.v1 " +
+            "join t0 h on a.v1 = h.v1 join t0 i on a.v1 = i.v1 join t0 j on a.v1 = j.v1";
+
+    private SessionVariable sessionVariable;
+
+    @Before
+    public void before() {
+        sessionVariable = (SessionVariable) connectContext.getSessionVariable().clone();
+        Tracers.register(connectContext);
+        Tracers.init(connectContext, Tracers.Mode.VARS, "Base");
+    }
+
+    @After
+    public void after() {
+        Tracers.close();
+        connectContext.setSessionVariable(sessionVariable);
+    }
+
+    private static Map<String, Object> getVars() {
+        return Tracers.getAllVars().stream().collect(Collectors.toMap(Var::getName, Var::getValue, (a, b) -> b));
+    }
+
+    @Test
+    public void testMemoStats() throws Exception {
+        String plan = getFragmentPlan("select * from t0 join t1 on t0.v1 = t1.v4 join t2 on t1.v4 = t2.v7");
+        assertContains(plan, "HASH JOIN");
+
+        Map<String, Object> vars = getVars();
+        Assert.assertTrue(vars.toString(), ((Number) vars.get("MemoGroups")).longValue() > 0);
+        Assert.assertTrue(vars.toString(), ((Number) vars.get("MemoGroupExpressions")).longValue() > 0);
+        Assert.assertTrue(vars.toString(), ((Number) vars.get("MemoEstimatedBytes")).longValue() > 0);
+        Assert.assertFalse(vars.toString(), vars.containsKey("MemoOverBudget"));
+    }
+
+    @Test
+    public void testExhaustiveJoinReorderOverBudget() throws Exception {
+        // enumerate all the join orders of the 10 tables with the associativity rules
+        connectContext.getSessionVariable().setMaxTransformReorderJoins(10);
+        connectContext.getSessionVariable().setCboMaxMemoSizeMB(1);
+
+        String plan = getFragmentPlan(STAR_JOIN_SQL);
+        assertContains(plan, "HASH JOIN");
+
+        Map<String, Object> vars = getVars();
+        Assert.assertTrue(vars.toString(), vars.containsKey("MemoOverBudget"));
+        // the memo only grows by the commutativity and the implementation of the groups already in it
+        long memoBytes = ((Number) vars.get("MemoEstimatedBytes")).longValue();
+        Assert.assertTrue(vars.toString(), memoBytes < 16L * 1024 * 1024);
+    }
+
+    @Test
+    public void testJoinReorderUnderBudget() throws Exception {
+        // the memo of the join reorder algorithms is far smaller than 1MB, the budget does not change the plan
+        connectContext.getSessionVariable().setCboMaxMemoSizeMB(1);
+        String limited = getFragmentPlan(STAR_JOIN_SQL);
+        Assert.assertFalse(getVars().containsKey("MemoOverBudget"));
+
+        connectContext.getSessionVariable().setCboMaxMemoSizeMB(0);
+        String unlimited = getFragmentPlan(STAR_JOIN_SQL);
+        Assert.assertEquals(unlimited, limited);
+    }
+
+    @Test
+    public void testMemoStatsInProfile() throws Exception {
+        getFragmentPlan(STAR_JOIN_SQL);
+        RuntimeProfile profile = new RuntimeProfile("Planner");
+        Tracers.toRuntimeProfile(profile);
+        Assert.assertNotNull(profile.getInfoString("MemoGroups"));
+        Assert.assertNotNull(profile.getInfoString("MemoGroupExpressions"));
+        Assert.assertNotNull(profile.getInfoString("MemoEstimatedBytes"));
+    }
+}
@@ -15,8 +15,10 @@
 
 package com.starrocks.sql.plan;
 
+import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
 import com.starrocks.common.Pair;
+import com.starrocks.planner.OlapScanNode;
 import com.starrocks.sql.optimizer.Memo;
 import com.starrocks.sql.optimizer.OptimizerContext;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
@@ -474,4 +476,64 @@ public class PartitionPruneTest extends PlanTestBase {
         starRocksAssert.query("select max(c1-1)+1 from t3_pri").explainContains("OlapScanNode");
         starRocksAssert.query("select max(c1), min(c1) from t3_pri").explainContains("OlapScanNode");
     }
+
+    private OlapScanNode getOlapScanNode(String sql) throws Exception {
+        return (OlapScanNode) getExecPlan(sql).getScanNodes().get(0);
+    }
+
+    @Test
+    public void testParallelPruneSameAsSerial() throws Exception {
+        StringBuilder partitions = new StringBuilder();
+        for (int month = 1; month <= 12; month++) {
+            partitions.append(String.format("PARTITION p2020%02d VALUES [('2020-%02d-01'), ('%s')),\n", month, month,
+                    month == 12 ? "2021-01-01" : String.format("2020-%02d-01", month + 1)));
+        }
+        starRocksAssert.withTable("CREATE TABLE `ptest_parallel` (\n"
+                + "  `k1` int(11) NOT NULL,\n"
+                + "  `d2` date NULL,\n"
+                + "  `v1` int(11) NULL\n"
+                + ") ENGINE=OLAP\n"
+                + "DUPLICATE KEY(`k1`, `d2`)\n"
+                + "PARTITION BY RANGE(`d2`)\n"
+                + "(" + partitions.substring(0, partitions.length() - 2) + ")\n"
+                + "DISTRIBUTED BY HASH(`k1`) BUCKETS 8\n"
+                + "PROPERTIES (\n"
+                + "\"replication_num\" = \"1\"\n"
+                + ");");
+
+        // {query, selected partitions, selected tablets}
+        Object[][] cases = {
+                {"select * from ptest_parallel", 12, 12 * 8},
+                {"select * from ptest_parallel where k1 = 3", 12, 12},
+                {"select * from ptest_parallel where k1 in (1, 3, 5, 7)", 12, -1},
+                {"select * from ptest_parallel where d2 = '2020-05-05'", 1, 8},
+                {"select * from ptest_parallel where d2 in ('2020-02-02', '2020-06-06', '2020-10-10')", 3, 3 * 8},
+                {"select * from ptest_parallel where d2 >= '2020-03-01' and k1 in (2, 4)", 10, -1},
+        };
+
+        int oldParallelism = Config.partition_prune_parallelism;
+        int oldMinPartitions = Config.partition_prune_parallel_min_partitions;
+        try {
+            for (Object[] testCase : cases) {
+                String sql = (String) testCase[0];
+                Config.partition_prune_parallel_min_partitions = 0;
+                OlapScanNode serial = getOlapScanNode(sql);
+
+                // the 12 partitions are pruned in 4 chunks, by the planner thread and the pool
+                Config.partition_prune_parallel_min_partitions = 1;
+                Config.partition_prune_parallelism = 4;
+                OlapScanNode parallel = getOlapScanNode(sql);
+
+                Assert.assertEquals(sql, testCase[1], serial.getSelectedPartitionIds().size());
+                if ((int) testCase[2] >= 0) {
+                    Assert.assertEquals(sql, testCase[2], serial.getScanTabletIds().size());
+                }
+                Assert.assertEquals(sql, serial.getSelectedPartitionIds(), parallel.getSelectedPartitionIds());
+                Assert.assertEquals(sql, serial.getScanTabletIds(), parallel.getScanTabletIds());
+            }
+        } finally {
+            Config.partition_prune_parallelism = oldParallelism;
+            Config.partition_prune_parallel_min_partitions = oldMinPartitions;
+        }
+    }
 }
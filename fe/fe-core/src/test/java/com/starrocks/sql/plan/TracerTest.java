@@ -14,9 +14,20 @@
 
 package com.starrocks.sql.plan;
 
+import com.starrocks.common.Config;
+import com.starrocks.common.profile.TimeWatcher;
+import com.starrocks.common.profile.Timer;
 import com.starrocks.common.profile.Tracers;
+import com.starrocks.http.rest.MetricsAction;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.metric.PrometheusMetricVisitor;
+import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class TracerTest extends PlanTestBase {
     @Test
     public void testTracerDefault() throws Exception {
@@ -125,4 +136,57 @@ public class TracerTest extends PlanTestBase {
         Tracers.close();
         assertContains(pr, "QueryStatement");
     }
+
+    @Test
+    public void testTracerScopeResourceUsage() throws Exception {
+        Config.enable_trace_scope_resource_usage = true;
+        try {
+            Tracers.register(connectContext);
+            Tracers.init(connectContext, Tracers.Mode.NONE, "None");
+            String sql = "SELECT * from t0 join test_all_type on t0.v1 = test_all_type.t1d where t0.v1 = 1;";
+            getFragmentPlan(sql);
+            String pr = Tracers.printScopeTimer();
+            Tracers.close();
+            assertContains(pr, "-- Planner");
+            assertContains(pr, "cpu: ");
+            assertContains(pr, "alloc: ");
+
+            MetricRepo.init();
+            PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("starrocks_fe");
+            MetricRepo.getMetric(visitor, new MetricsAction.RequestParams(false, false, false, false));
+            String metrics = visitor.build();
+            assertContains(metrics, "starrocks_fe_tracer_Planner_cpu_us_count");
+            assertContains(metrics, "starrocks_fe_tracer_Planner_alloc_bytes_count");
+        } finally {
+            Config.enable_trace_scope_resource_usage = false;
+        }
+    }
+
+    @Test
+    public void testForkedScopeResourceUsage() throws Exception {
+        TimeWatcher watcher = new TimeWatcher(true);
+        Assume.assumeTrue(watcher.isTraceResourceUsage());
+        // forked on this thread, used on the thread of the task
+        TimeWatcher forked = watcher.fork();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                try (Timer ignored = forked.scope(System.currentTimeMillis(), "Task")) {
+                    byte[][] bytes = new byte[16][];
+                    for (int i = 0; i < bytes.length; i++) {
+                        bytes[i] = new byte[1 << 16];
+                    }
+                    return bytes.length;
+                }
+            }).get();
+        } finally {
+            executor.shutdown();
+        }
+        try (Timer ignored = watcher.scope(System.currentTimeMillis(), "Query")) {
+            watcher.merge(forked);
+        }
+        Timer task = watcher.getAllTimerWithOrder().stream().filter(t -> t.name().equals("Task")).findFirst().get();
+        Assert.assertTrue(String.valueOf(task.getAllocatedBytes()), task.getAllocatedBytes() >= 16 << 16);
+        Assert.assertTrue(task.toString(), task.toString().contains("cpu: "));
+    }
 }
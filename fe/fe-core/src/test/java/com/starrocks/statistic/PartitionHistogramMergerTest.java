@@ -0,0 +1,90 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.statistic;
+
+import com.starrocks.catalog.Type;
+import com.starrocks.sql.optimizer.statistics.Bucket;
+import com.starrocks.sql.optimizer.statistics.HistogramUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class PartitionHistogramMergerTest {
+
+    @Test
+    public void testMergeDisjointPartitions() throws Exception {
+        PartitionHistogramMerger merger = new PartitionHistogramMerger(Type.BIGINT, 2, 1);
+        merger.addPartitionHistogram("{\"buckets\": [[\"1\",\"10\",\"10\",\"1\"],[\"11\",\"20\",\"20\",\"1\"]], " +
+                "\"mcv\": null}");
+        merger.addPartitionHistogram("{\"buckets\": [[\"21\",\"30\",\"10\",\"1\"],[\"31\",\"40\",\"20\",\"1\"]], " +
+                "\"mcv\": [[\"5\",\"100\"]]}");
+
+        Assert.assertEquals("[[\"5\",\"100\"]]", merger.mergeMCV());
+        String buckets = merger.mergeBuckets();
+        Assert.assertEquals("[[\"1\",\"20\",\"20\",\"1\"],[\"21\",\"40\",\"40\",\"1\"]]", buckets);
+
+        List<Bucket> parsed = HistogramUtils.convertBuckets("{\"buckets\": " + buckets + "}", Type.BIGINT);
+        Assert.assertEquals(2, parsed.size());
+        Assert.assertEquals(40L, (long) parsed.get(1).getCount());
+    }
+
+    @Test
+    public void testMergeOverlappedPartitions() throws Exception {
+        PartitionHistogramMerger merger = new PartitionHistogramMerger(Type.INT, 4, 0);
+        for (int i = 0; i < 10; i++) {
+            merger.addPartitionHistogram("{\"buckets\": [[\"0\",\"50\",\"100\",\"2\"],[\"51\",\"100\",\"200\",\"2\"]]," +
+                    " \"mcv\": null}");
+        }
+        Assert.assertNull(merger.mergeMCV());
+
+        List<Bucket> parsed = HistogramUtils.convertBuckets("{\"buckets\": " + merger.mergeBuckets() + "}", Type.INT);
+        Assert.assertFalse(parsed.isEmpty());
+        Assert.assertTrue(parsed.size() <= 4);
+        Assert.assertEquals(0, parsed.get(0).getLower(), 0.1);
+        Assert.assertEquals(100, parsed.get(parsed.size() - 1).getUpper(), 0.1);
+        Assert.assertEquals(2000L, (long) parsed.get(parsed.size() - 1).getCount());
+        for (int i = 1; i < parsed.size(); i++) {
+            Assert.assertTrue(parsed.get(i).getCount() >= parsed.get(i - 1).getCount());
+        }
+    }
+
+    @Test
+    public void testMCVOverflowFoldIntoBuckets() throws Exception {
+        PartitionHistogramMerger merger = new PartitionHistogramMerger(Type.BIGINT, 10, 1);
+        merger.addPartitionHistogram("{\"buckets\": null, \"mcv\": [[\"5\",\"100\"]]}");
+        merger.addPartitionHistogram("{\"buckets\": null, \"mcv\": [[\"5\",\"50\"],[\"7\",\"60\"]]}");
+
+        Assert.assertEquals("[[\"5\",\"150\"]]", merger.mergeMCV());
+        Assert.assertEquals("[[\"7\",\"7\",\"60\",\"60\"]]", merger.mergeBuckets());
+    }
+
+    @Test
+    public void testMergeDate() throws Exception {
+        PartitionHistogramMerger merger = new PartitionHistogramMerger(Type.DATE, 1, 10);
+        merger.addPartitionHistogram("{\"buckets\": [[\"2024-01-01\",\"2024-01-31\",\"10\",\"1\"]], \"mcv\": null}");
+        merger.addPartitionHistogram("{\"buckets\": [[\"2024-02-01\",\"2024-02-29\",\"10\",\"1\"]], \"mcv\": null}");
+
+        Assert.assertNull(merger.mergeMCV());
+        Assert.assertEquals("[[\"2024-01-01\",\"2024-02-29\",\"20\",\"1\"]]", merger.mergeBuckets());
+    }
+
+    @Test
+    public void testSupportMerge() {
+        Assert.assertTrue(PartitionHistogramMerger.supportMerge(Type.BIGINT));
+        Assert.assertTrue(PartitionHistogramMerger.supportMerge(Type.DATETIME));
+        Assert.assertFalse(PartitionHistogramMerger.supportMerge(Type.VARCHAR));
+    }
+}
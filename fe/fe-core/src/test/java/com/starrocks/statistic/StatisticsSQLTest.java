@@ -336,6 +336,22 @@ public class StatisticsSQLTest extends PlanTestBase {
         assertCContains(plan, "partition_id NOT IN (1, 2, 3)");
     }
 
+    @Test
+    public void testPartitionHistogramSQL() {
+        String sql = StatisticSQLBuilder.buildQueryPartitionHistogramStatisticsSQL(1L, "col1",
+                Lists.newArrayList(2L, 3L));
+        assertContains(sql, "cast(" + StatsConstants.STATISTIC_PARTITION_HISTOGRAM_VERSION + " as INT), partition_id");
+        assertContains(sql, "table_id = 1 and column_name = 'col1' and partition_id in (2, 3)");
+
+        sql = StatisticSQLBuilder.buildDropPartitionHistogramSQL(Lists.newArrayList(1L, 2L, 3L));
+        assertContains(sql, "DELETE FROM partition_histogram_statistics WHERE PARTITION_ID IN (1, 2, 3)");
+
+        sql = StatisticSQLBuilder.buildDropTableInvalidPartitionHistogramSQL(Lists.newArrayList(4L, 5L),
+                Lists.newArrayList(1L, 2L));
+        assertContains(sql, "DELETE FROM partition_histogram_statistics WHERE TABLE_ID IN (4, 5)"
+                + " AND PARTITION_ID NOT IN (1, 2)");
+    }
+
     @Test
     public void testCacheQueryColumnStatics() {
         String sql = StatisticSQLBuilder.buildQueryFullStatisticsSQL(1L, 2L, Lists.newArrayList("col1", "col2"),
@@ -0,0 +1,55 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.system;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PhiAccrualFailureDetectorTest {
+    @Test
+    public void testPhi() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector();
+        Assert.assertEquals(0, detector.phi(1000), 0);
+        detector.heartbeat(1000);
+        Assert.assertEquals(0, detector.phi(100000), 0);
+
+        // a heartbeat every 5 seconds
+        long now = 1000;
+        for (int i = 0; i < 10; i++) {
+            now += 5000;
+            detector.heartbeat(now);
+        }
+        Assert.assertTrue(detector.phi(now + 1000) < 1);
+        Assert.assertTrue(detector.phi(now + 5000) < 1);
+        // phi grows with the elapsed time
+        Assert.assertTrue(detector.phi(now + 6000) < detector.phi(now + 7000));
+        Assert.assertTrue(detector.phi(now + 10000) > 8);
+
+        // a node with irregular heartbeats is suspected later
+        PhiAccrualFailureDetector irregular = new PhiAccrualFailureDetector();
+        long irregularNow = 1000;
+        irregular.heartbeat(irregularNow);
+        for (int i = 0; i < 10; i++) {
+            irregularNow += i % 2 == 0 ? 2000 : 8000;
+            irregular.heartbeat(irregularNow);
+        }
+        Assert.assertTrue(irregular.phi(irregularNow + 10000) < detector.phi(now + 10000));
+        Assert.assertTrue(irregular.phi(irregularNow + 10000) < 8);
+
+        // an acceptable pause of one interval delays the suspicion by one interval
+        Assert.assertTrue(detector.phi(now + 10000, 5000) < 1);
+        Assert.assertEquals(detector.phi(now + 10000), detector.phi(now + 15000, 5000), 1e-9);
+    }
+}
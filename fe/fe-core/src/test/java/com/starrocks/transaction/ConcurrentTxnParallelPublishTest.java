@@ -0,0 +1,34 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.transaction;
+
+import com.starrocks.common.Config;
+import org.junit.AfterClass;
+
+import java.sql.SQLException;
+
+public class ConcurrentTxnParallelPublishTest extends ConcurrentTxnTest {
+    @Override
+    void setup() throws SQLException {
+        Config.enable_new_publish_mechanism = true;
+        Config.enable_parallel_publish_finish = true;
+    }
+
+    @AfterClass
+    public static void resetPublishConfig() {
+        Config.enable_new_publish_mechanism = false;
+        Config.enable_parallel_publish_finish = false;
+    }
+}
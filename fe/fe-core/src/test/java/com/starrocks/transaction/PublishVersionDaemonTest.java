@@ -14,8 +14,11 @@
 
 package com.starrocks.transaction;
 
+import com.google.common.collect.Lists;
 import com.starrocks.common.Config;
 import com.starrocks.common.ConfigRefreshDaemon;
+import com.starrocks.metric.TableMetricsEntity;
+import com.starrocks.metric.TableMetricsRegistry;
 import com.starrocks.server.GlobalStateMgr;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.commons.lang3.reflect.MethodUtils;
@@ -151,4 +154,49 @@ public class PublishVersionDaemonTest {
         MethodUtils.invokeMethod(configDaemon, true, "runAfterCatalogReady");
         Assert.assertEquals(Config.lake_publish_delete_txnlog_max_threads, executor.getMaximumPoolSize());
     }
+
+    @Test
+    public void testUpdatePublishFinishExecutorThreads()
+            throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
+        int oldThreads = Config.publish_finish_max_threads;
+        try {
+            PublishVersionDaemon daemon = new PublishVersionDaemon();
+            ThreadPoolExecutor executor =
+                    (ThreadPoolExecutor) MethodUtils.invokeMethod(daemon, true, "getPublishFinishExecutor");
+            Assert.assertNotNull(executor);
+            Assert.assertEquals(Config.publish_finish_max_threads, executor.getCorePoolSize());
+
+            ConfigRefreshDaemon configDaemon = GlobalStateMgr.getCurrentState().getConfigRefreshDaemon();
+            Config.publish_finish_max_threads += 4;
+            MethodUtils.invokeMethod(configDaemon, true, "runAfterCatalogReady");
+            Assert.assertEquals(Config.publish_finish_max_threads, executor.getMaximumPoolSize());
+            Assert.assertEquals(Config.publish_finish_max_threads, executor.getCorePoolSize());
+
+            // invalid value is ignored
+            int oldNumber = executor.getMaximumPoolSize();
+            Config.publish_finish_max_threads = 0;
+            MethodUtils.invokeMethod(configDaemon, true, "runAfterCatalogReady");
+            Assert.assertEquals(oldNumber, executor.getMaximumPoolSize());
+        } finally {
+            Config.publish_finish_max_threads = oldThreads;
+        }
+    }
+
+    @Test
+    public void testUpdatePublishMetrics() {
+        TransactionState transactionState = new TransactionState(1L, Lists.newArrayList(20001L, 20002L), 3001L,
+                "label", null, TransactionState.LoadJobSourceType.BACKEND_STREAMING, null, -1, 1000);
+        transactionState.setCommitTime(1000L);
+        transactionState.setFinishTime(1250L);
+        PublishVersionDaemon.updatePublishMetrics(transactionState);
+        transactionState.setCommitTime(2000L);
+        transactionState.setFinishTime(2100L);
+        PublishVersionDaemon.updatePublishMetrics(transactionState);
+
+        for (long tableId : transactionState.getTableIdList()) {
+            TableMetricsEntity entity = TableMetricsRegistry.getInstance().getMetricsEntity(tableId);
+            Assert.assertEquals(2L, (long) entity.counterPublishFinishedTotal.getValue());
+            Assert.assertEquals(350L, (long) entity.counterPublishLatencyMsTotal.getValue());
+        }
+    }
 }
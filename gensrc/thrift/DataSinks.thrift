@@ -72,7 +72,9 @@ enum TResultSinkType {
 
 enum TResultSinkFormatType {
     JSON,
-    OTHERS
+    OTHERS,
+    // arrow ipc stream, one message per batch
+    ARROW
 }
 
 struct TParquetOptions {
@@ -159,6 +161,8 @@ struct TResultSink {
     2: optional TResultFileSinkOptions file_options;
     3: optional TResultSinkFormatType format;
     4: optional bool is_binary_row;
+    // column names of the result, used as the field names of the arrow schema
+    5: optional list<string> output_column_names;
 }
 
 struct TMysqlTableSink {
@@ -198,6 +202,8 @@ struct TDictionaryCacheSink {
     4: optional Descriptors.TOlapTableSchemaParam schema
     5: optional i64 memory_limit
     6: optional i32 key_size
+    // the source partition of the rows, set when the dictionary is refreshed by partition
+    7: optional i64 partition_id
 }
 
 struct TOlapTableSink {
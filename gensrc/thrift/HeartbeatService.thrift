@@ -48,6 +48,9 @@ struct TBackendInfo {
     9: optional bool is_set_storage_path
 
     10: optional i64 mem_limit_bytes
+    // load of the node, piggybacked so that the FE gets it at the heartbeat frequency
+    11: optional i32 num_running_queries
+    12: optional i64 mem_used_bytes
 }
 
 struct THeartbeatResult {
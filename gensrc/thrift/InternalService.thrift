@@ -488,6 +488,10 @@ struct TExecPlanFragmentParams {
   60: optional TPredicateTreeParams pred_tree_params
 
   61: optional list<i32> exec_stats_node_ids;
+
+  // Content hash of fragment and desc_tbl. If set, BE caches them as a fragment template, and the following
+  // requests with the same key may leave them out, BE returns FRAGMENT_TEMPLATE_NOT_FOUND if it has no such template.
+  62: optional string fragment_template_key;
 }
 
 struct TExecPlanFragmentResult {
@@ -115,5 +115,7 @@ enum TStatusCode {
 
     BIG_QUERY_CPU_SECOND_LIMIT_EXCEEDED = 60,
     BIG_QUERY_SCAN_ROWS_LIMIT_EXCEEDED = 61,
+
+    FRAGMENT_TEMPLATE_NOT_FOUND = 62,
 }
 